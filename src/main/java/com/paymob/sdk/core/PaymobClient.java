@@ -3,24 +3,66 @@ package com.paymob.sdk.core;
 import com.paymob.sdk.core.auth.AuthStrategy;
 import com.paymob.sdk.core.auth.SecretKeyAuthStrategy;
 import com.paymob.sdk.core.auth.BearerTokenAuthStrategy;
+import com.paymob.sdk.http.ExecutorHttpClient;
 import com.paymob.sdk.http.HttpClient;
+import com.paymob.sdk.http.JsonCodec;
 import com.paymob.sdk.http.OkHttpClientAdapter;
+import com.paymob.sdk.services.intention.IntentionRequest;
+import com.paymob.sdk.services.intention.IntentionResponse;
 import com.paymob.sdk.services.intention.IntentionService;
+import com.paymob.sdk.services.transaction.CaptureRequest;
+import com.paymob.sdk.services.transaction.CaptureResponse;
+import com.paymob.sdk.services.transaction.RefundRequest;
+import com.paymob.sdk.services.transaction.RefundResponse;
+import com.paymob.sdk.services.transaction.TransactionResponse;
 import com.paymob.sdk.services.transaction.TransactionService;
+import com.paymob.sdk.services.transaction.VoidRequest;
+import com.paymob.sdk.services.transaction.VoidResponse;
+import com.paymob.sdk.services.inquiry.InquiryRequest;
+import com.paymob.sdk.services.inquiry.InquiryResponse;
 import com.paymob.sdk.services.inquiry.TransactionInquiryService;
+import com.paymob.sdk.services.savedcard.CitPaymentRequest;
+import com.paymob.sdk.services.savedcard.CitPaymentResponse;
+import com.paymob.sdk.services.savedcard.MitPaymentRequest;
+import com.paymob.sdk.services.savedcard.MitPaymentResponse;
 import com.paymob.sdk.services.savedcard.SavedCardService;
+import com.paymob.sdk.services.subscription.SubscriptionRequest;
+import com.paymob.sdk.services.subscription.SubscriptionResponse;
 import com.paymob.sdk.services.subscription.SubscriptionService;
+import com.paymob.sdk.services.subscription.SubscriptionsPage;
 import com.paymob.sdk.services.subscription.plan.SubscriptionPlanService;
+import com.paymob.sdk.services.quicklink.QuickLinkResponse;
 import com.paymob.sdk.services.quicklink.QuickLinkService;
+import okhttp3.OkHttpClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Main entry point for the Paymob Java SDK.
  * Builder pattern for configuration and access to all services.
  */
-public class PaymobClient {
+public class PaymobClient implements AutoCloseable {
+    private static final List<Class<?>> WARM_UP_REQUEST_TYPES = List.of(
+            IntentionRequest.class, RefundRequest.class, VoidRequest.class, CaptureRequest.class,
+            InquiryRequest.class, CitPaymentRequest.class, MitPaymentRequest.class,
+            SubscriptionRequest.class);
+    private static final List<Class<?>> WARM_UP_RESPONSE_TYPES = List.of(
+            IntentionResponse.class, TransactionResponse.class, RefundResponse.class, VoidResponse.class,
+            CaptureResponse.class, InquiryResponse.class, CitPaymentResponse.class, MitPaymentResponse.class,
+            QuickLinkResponse.class, SubscriptionResponse.class, SubscriptionsPage.class);
+
     private final PaymobConfig config;
+    private final HttpClient httpClient;
     private final AuthStrategy secretKeyAuth;
     private final AuthStrategy bearerTokenAuth;
+    private final ExecutorService ownedExecutor;
+    private final boolean view;
 
     private final IntentionService intentionService;
     private final TransactionService transactionService;
@@ -41,24 +83,68 @@ public class PaymobClient {
     }
 
     private PaymobClient(PaymobConfig config, HttpClient httpClient) {
+        this(config, httpClient, null);
+    }
+
+    private PaymobClient(PaymobConfig config, HttpClient httpClient, ExecutorService ownedExecutor) {
+        this(config, httpClient, new SecretKeyAuthStrategy(config.getSecretKey()),
+                createBearerTokenAuth(config, httpClient), ownedExecutor, false);
+
+        if (config.isEagerWarmUp()) {
+            warmUp();
+        }
+    }
+
+    private PaymobClient(PaymobConfig config, HttpClient httpClient, AuthStrategy secretKeyAuth,
+            AuthStrategy bearerTokenAuth, ExecutorService ownedExecutor, boolean view) {
         this.config = config;
-        this.secretKeyAuth = new SecretKeyAuthStrategy(config.getSecretKey());
-        this.bearerTokenAuth = new BearerTokenAuthStrategy(config.getApiKey(), config.getRegion().getBaseUrl(),
-                httpClient);
+        this.httpClient = httpClient;
+        this.secretKeyAuth = secretKeyAuth;
+        this.bearerTokenAuth = bearerTokenAuth;
+        this.ownedExecutor = ownedExecutor;
+        this.view = view;
 
         // Initialize services
         this.intentionService = new IntentionService(httpClient, secretKeyAuth, config);
         this.transactionService = new TransactionService(httpClient, secretKeyAuth, config);
         this.inquiryService = new TransactionInquiryService(httpClient, bearerTokenAuth, config);
-        this.savedCardService = new SavedCardService(httpClient, secretKeyAuth, config);
+        this.savedCardService = new SavedCardService(httpClient, secretKeyAuth, config, inquiryService);
         this.subscriptionPlanService = new SubscriptionPlanService(httpClient, bearerTokenAuth, config);
         this.subscriptionService = new SubscriptionService(httpClient, secretKeyAuth, bearerTokenAuth, config);
         this.quickLinkService = new QuickLinkService(httpClient, bearerTokenAuth, config);
     }
 
+    private static BearerTokenAuthStrategy createBearerTokenAuth(PaymobConfig config, HttpClient httpClient) {
+        BearerTokenAuthStrategy auth = new BearerTokenAuthStrategy(config.getApiKey(),
+                config.getRegion().getBaseUrl(), httpClient);
+        auth.setMetrics(config.getMetrics());
+        return auth;
+    }
+
     private static HttpClient createDefaultHttpClient(PaymobConfig config) {
-        HttpClient client = new OkHttpClientAdapter();
-        client.setTimeout((int) config.getTimeout().getSeconds());
+        OkHttpClient core = OkHttpClientAdapter.newCore(config.getConnectionSettings());
+        OkHttpClientAdapter.registerGauges(core, config.getMetrics());
+        return createHttpClient(config, core);
+    }
+
+    /**
+     * Creates an adapter for {@code config} that shares {@code core}'s connection
+     * pool and dispatcher. Only the per-call settings (timeouts, retries,
+     * circuit breakers, bulkheads, rate and concurrency limits, metrics,
+     * tracing, logging) are taken from {@code config}. Gauges for the core are
+     * registered by its owner, not here.
+     */
+    static HttpClient createHttpClient(PaymobConfig config, OkHttpClient core) {
+        HttpClient client = new OkHttpClientAdapter(core, config.getJsonCodec());
+        client.setTimeouts(config.getConnectTimeout(), config.getReadTimeout(), config.getWriteTimeout(),
+                config.getCallTimeout());
+        client.setRetryPolicy(config.getRetryPolicy());
+        client.setCircuitBreakerConfig(config.getCircuitBreakerConfig());
+        client.setBulkheadLimits(config.getBulkheadLimits());
+        client.setRateLimits(config.getRateLimits());
+        client.setConcurrencyLimit(config.getConcurrencyLimit());
+        client.setMetrics(config.getMetrics());
+        client.setTracer(config.getTracer());
         client.setLogLevel(config.getLogLevel());
         return client;
     }
@@ -100,9 +186,103 @@ public class PaymobClient {
         return config;
     }
 
+    /**
+     * Pays the one-off costs of the first request up front:
+     * <ul>
+     * <li>opens {@link PaymobConfig#getWarmUpConnections()} connections to the
+     * region host (DNS, TCP, TLS)</li>
+     * <li>fetches the bearer token</li>
+     * <li>initializes Jackson serializers for the main request and response
+     * types</li>
+     * </ul>
+     * The token is fetched in the background while the other two steps run.
+     * Failures don't propagate; they are listed in the returned report.
+     *
+     * @return What was warmed and how long it took
+     */
+    public WarmUpReport warmUp() {
+        long start = System.nanoTime();
+        List<Exception> errors = new ArrayList<>();
+
+        CompletableFuture<String> token = CompletableFuture.completedFuture(null);
+        if (bearerTokenAuth instanceof BearerTokenAuthStrategy) {
+            BearerTokenAuthStrategy bearer = (BearerTokenAuthStrategy) bearerTokenAuth;
+            token = bearer.isTokenExpired()
+                    ? bearer.fetchToken()
+                    : CompletableFuture.completedFuture(bearer.getBearerToken());
+        }
+
+        int connections = 0;
+        try {
+            connections = httpClient.warmUp(config.getRegion().getHttpUrl(), config.getWarmUpConnections());
+        } catch (RuntimeException e) {
+            errors.add(e);
+        }
+
+        JsonCodec codec = config.getJsonCodec();
+        for (Class<?> type : WARM_UP_REQUEST_TYPES) {
+            codec.writerFor(type);
+        }
+        for (Class<?> type : WARM_UP_RESPONSE_TYPES) {
+            codec.readerFor(type);
+        }
+
+        boolean tokenPrefetched = false;
+        try {
+            tokenPrefetched = token.join() != null;
+        } catch (CompletionException e) {
+            errors.add(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+        }
+
+        return new WarmUpReport(Duration.ofNanos(System.nanoTime() - start), connections, tokenPrefetched,
+                WARM_UP_REQUEST_TYPES.size() + WARM_UP_RESPONSE_TYPES.size(), errors);
+    }
+
+    /**
+     * Returns a view of this client whose {@code *Async} service methods run as
+     * blocking calls on {@code executor}, for example a virtual-thread-per-task
+     * executor. The view shares this client's connections, credentials and
+     * bearer token; closing it does nothing.
+     *
+     * @param executor Executor that runs each asynchronous call
+     * @return A client view bound to {@code executor}
+     */
+    public PaymobClient withExecutor(Executor executor) {
+        HttpClient base = httpClient instanceof ExecutorHttpClient
+                ? ((ExecutorHttpClient) httpClient).getDelegate()
+                : httpClient;
+        return new PaymobClient(config, new ExecutorHttpClient(base, executor), secretKeyAuth, bearerTokenAuth,
+                null, true);
+    }
+
+    HttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Stops the background bearer token refresh and shuts down the executor the
+     * client created for {@link Builder#virtualThreads(boolean)}. HTTP resources
+     * are left alone because other clients may share them. The client stays
+     * usable for blocking calls and renews its token on demand.
+     */
+    @Override
+    public void close() {
+        if (view) {
+            return;
+        }
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+        if (bearerTokenAuth instanceof BearerTokenAuthStrategy) {
+            ((BearerTokenAuthStrategy) bearerTokenAuth).close();
+        }
+    }
+
     public static class Builder {
         private PaymobConfig config;
         private HttpClient httpClient;
+        private Executor executor;
+        private boolean virtualThreads;
 
         public Builder config(PaymobConfig config) {
             this.config = config;
@@ -114,6 +294,28 @@ public class PaymobClient {
             return this;
         }
 
+        /**
+         * Runs the {@code *Async} service methods as blocking calls on
+         * {@code executor} instead of OkHttp's dispatcher.
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Runs the {@code *Async} service methods on a virtual thread per call.
+         * Tens of thousands of concurrent calls then need no platform thread
+         * each and are not capped by the dispatcher's request limits. On JVMs
+         * without virtual threads (before Java 21) this setting is ignored and
+         * the non-blocking OkHttp path is used. An explicit
+         * {@link #executor(Executor)} takes precedence.
+         */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
         public PaymobClient build() {
             if (config == null) {
                 throw new IllegalArgumentException("Config is required");
@@ -121,7 +323,14 @@ public class PaymobClient {
             if (httpClient == null) {
                 httpClient = createDefaultHttpClient(config);
             }
-            return new PaymobClient(config, httpClient);
+            ExecutorService ownedExecutor = null;
+            Executor asyncExecutor = executor;
+            if (asyncExecutor == null && virtualThreads) {
+                ownedExecutor = VirtualThreads.newPerTaskExecutor().orElse(null);
+                asyncExecutor = ownedExecutor;
+            }
+            HttpClient client = asyncExecutor != null ? new ExecutorHttpClient(httpClient, asyncExecutor) : httpClient;
+            return new PaymobClient(config, client, ownedExecutor);
         }
     }
 }
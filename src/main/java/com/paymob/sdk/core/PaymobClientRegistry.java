@@ -0,0 +1,202 @@
+package com.paymob.sdk.core;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymob.sdk.http.ConnectionSettings;
+import com.paymob.sdk.http.OkHttpClientAdapter;
+import com.paymob.sdk.metrics.PaymobMetrics;
+import okhttp3.OkHttpClient;
+
+import java.time.Duration;
+
+/**
+ * Per-tenant {@link PaymobClient} cache for platforms serving many merchants.
+ * <p>
+ * Every tenant client is derived from one shared OkHttp core with
+ * {@link OkHttpClient#newBuilder()}, so all tenants share a single connection
+ * pool, dispatcher and thread pool. Adding merchants adds only lightweight
+ * per-tenant objects: the client, its services, and its bearer token.
+ * <p>
+ * Clients, and with them their bearer tokens, are kept in a bounded Caffeine
+ * cache. When a tenant is evicted or invalidated, its client is closed, which
+ * stops its background token refresh.
+ * <p>
+ * Pool, dispatcher and protocol settings come from
+ * {@link Builder#connectionSettings}, because tenants share the core. Timeouts
+ * and log level still come from each tenant's {@link PaymobConfig}. Likewise,
+ * connection pool and dispatcher gauges go to {@link Builder#metrics}, while
+ * each tenant's per-call metrics go to its own config's metrics.
+ *
+ * <pre>{@code
+ * PaymobClientRegistry registry = PaymobClientRegistry.builder()
+ *         .maximumTenants(1_000)
+ *         .expireAfterAccess(Duration.ofHours(1))
+ *         .build();
+ *
+ * PaymobClient client = registry.client(merchantId, configFor(merchantId));
+ * }</pre>
+ */
+public class PaymobClientRegistry implements AutoCloseable {
+    private final OkHttpClient core;
+    private final boolean ownsCore;
+    private final Cache<String, PaymobClient> clients;
+
+    private PaymobClientRegistry(Builder builder) {
+        this.ownsCore = builder.okHttpClient == null;
+        this.core = ownsCore ? OkHttpClientAdapter.newCore(builder.connectionSettings) : builder.okHttpClient;
+        // Tenants share the core, so its gauges are registered here, once
+        OkHttpClientAdapter.registerGauges(core, builder.metrics);
+
+        // Closing a client only cancels a scheduled task, so run removals inline
+        Caffeine<Object, Object> caffeine = Caffeine.newBuilder()
+                .maximumSize(builder.maximumTenants)
+                .executor(Runnable::run);
+        if (builder.expireAfterAccess != null) {
+            caffeine.expireAfterAccess(builder.expireAfterAccess);
+        }
+        this.clients = caffeine
+                .<String, PaymobClient>removalListener((tenantId, client, cause) -> {
+                    if (client != null) {
+                        client.close();
+                    }
+                })
+                .build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the tenant's client, creating it from {@code config} on first use.
+     * <p>
+     * {@code config} is only read when the tenant is not cached; call
+     * {@link #invalidate(String)} after a merchant's credentials change.
+     *
+     * @param tenantId Stable identifier of the merchant
+     * @param config   The merchant's configuration
+     * @return The cached or newly created client
+     */
+    public PaymobClient client(String tenantId, PaymobConfig config) {
+        if (tenantId == null) {
+            throw new IllegalArgumentException("Tenant ID is required");
+        }
+        if (config == null) {
+            throw new IllegalArgumentException("Config is required");
+        }
+        return clients.get(tenantId, id -> PaymobClient.builder()
+                .config(config)
+                .httpClient(PaymobClient.createHttpClient(config, core))
+                .build());
+    }
+
+    /**
+     * Returns the tenant's client if it is cached, otherwise null.
+     */
+    public PaymobClient getIfPresent(String tenantId) {
+        return clients.getIfPresent(tenantId);
+    }
+
+    /**
+     * Drops the tenant's client and token. The next {@link #client} call
+     * rebuilds it from the config it is given.
+     */
+    public void invalidate(String tenantId) {
+        clients.invalidate(tenantId);
+    }
+
+    /**
+     * Returns the approximate number of cached tenants.
+     */
+    public long size() {
+        return clients.estimatedSize();
+    }
+
+    /**
+     * Returns the shared OkHttp core that every tenant client is derived from.
+     */
+    public OkHttpClient getOkHttpClient() {
+        return core;
+    }
+
+    /**
+     * Closes every tenant client. If the registry created the shared core, its
+     * dispatcher is shut down and its idle connections are evicted. A core
+     * supplied through {@link Builder#okHttpClient} is left to its owner.
+     */
+    @Override
+    public void close() {
+        clients.invalidateAll();
+        clients.cleanUp();
+        if (ownsCore) {
+            core.dispatcher().executorService().shutdown();
+            core.connectionPool().evictAll();
+        }
+    }
+
+    public static class Builder {
+        private OkHttpClient okHttpClient;
+        private ConnectionSettings connectionSettings = ConnectionSettings.defaults();
+        private long maximumTenants = 1_000;
+        private Duration expireAfterAccess;
+        private PaymobMetrics metrics = PaymobMetrics.NOOP;
+
+        /**
+         * Shares an existing OkHttp client as the core. Defaults to a new client
+         * with the SDK's default timeouts.
+         */
+        public Builder okHttpClient(OkHttpClient okHttpClient) {
+            this.okHttpClient = okHttpClient;
+            return this;
+        }
+
+        /**
+         * Pool, dispatcher and protocol settings for the core the registry
+         * creates. Ignored when {@link #okHttpClient} is supplied.
+         */
+        public Builder connectionSettings(ConnectionSettings connectionSettings) {
+            this.connectionSettings = connectionSettings;
+            return this;
+        }
+
+        /**
+         * Upper bound on cached tenant clients. Beyond it, Caffeine evicts the
+         * tenants least likely to be used again. Defaults to 1000.
+         */
+        public Builder maximumTenants(long maximumTenants) {
+            this.maximumTenants = maximumTenants;
+            return this;
+        }
+
+        /**
+         * Evicts tenants that have not been used for this long. Disabled by
+         * default.
+         */
+        public Builder expireAfterAccess(Duration expireAfterAccess) {
+            this.expireAfterAccess = expireAfterAccess;
+            return this;
+        }
+
+        /**
+         * Receives the shared core's connection pool and dispatcher gauges,
+         * registered once for all tenants. Defaults to {@link PaymobMetrics#NOOP}.
+         */
+        public Builder metrics(PaymobMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public PaymobClientRegistry build() {
+            if (maximumTenants <= 0) {
+                throw new IllegalArgumentException("Maximum tenants must be positive");
+            }
+            if (okHttpClient == null && connectionSettings == null) {
+                throw new IllegalArgumentException("Connection settings are required");
+            }
+            if (metrics == null) {
+                throw new IllegalArgumentException("Metrics are required");
+            }
+            return new PaymobClientRegistry(this);
+        }
+    }
+}
@@ -1,7 +1,21 @@
 package com.paymob.sdk.core;
 
+import com.paymob.sdk.http.CircuitBreakerConfig;
+import com.paymob.sdk.http.ConcurrencyLimit;
+import com.paymob.sdk.http.ConnectionSettings;
+import com.paymob.sdk.http.EndpointGroup;
+import com.paymob.sdk.http.JsonCodec;
+import com.paymob.sdk.http.RateLimit;
+import com.paymob.sdk.http.RetryPolicy;
+import com.paymob.sdk.metrics.PaymobMetrics;
+import com.paymob.sdk.tracing.PaymobTracer;
 import com.paymob.sdk.models.enums.LogLevel;
+import okhttp3.Protocol;
 import java.time.Duration;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * Configuration class for Paymob SDK.
@@ -13,8 +27,24 @@ public class PaymobConfig {
     private final String publicKey;
     private final String hmacSecret;
     private final PaymobRegion region;
+    private final ZoneId serverTimeZone;
     private final Duration timeout;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final Duration writeTimeout;
+    private final Duration callTimeout;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreakerConfig circuitBreakerConfig;
+    private final Map<EndpointGroup, Integer> bulkheadLimits;
+    private final Map<EndpointGroup, RateLimit> rateLimits;
+    private final ConcurrencyLimit concurrencyLimit;
+    private final PaymobMetrics metrics;
+    private final PaymobTracer tracer;
     private final LogLevel logLevel;
+    private final JsonCodec jsonCodec;
+    private final ConnectionSettings connectionSettings;
+    private final boolean eagerWarmUp;
+    private final int warmUpConnections;
 
     private PaymobConfig(Builder builder) {
         this.secretKey = builder.secretKey;
@@ -22,8 +52,28 @@ public class PaymobConfig {
         this.publicKey = builder.publicKey;
         this.hmacSecret = builder.hmacSecret;
         this.region = builder.region;
+        this.serverTimeZone = builder.serverTimeZone != null || builder.region == null
+                ? builder.serverTimeZone
+                : builder.region.getTimeZone();
         this.timeout = builder.timeout;
+        this.connectTimeout = builder.connectTimeout != null ? builder.connectTimeout : builder.timeout;
+        this.readTimeout = builder.readTimeout != null ? builder.readTimeout : builder.timeout;
+        this.writeTimeout = builder.writeTimeout != null ? builder.writeTimeout : builder.timeout;
+        this.callTimeout = builder.callTimeout;
+        this.retryPolicy = builder.retryPolicy;
+        this.circuitBreakerConfig = builder.circuitBreakerConfig;
+        this.bulkheadLimits = Collections.unmodifiableMap(new EnumMap<>(builder.bulkheadLimits));
+        this.rateLimits = builder.rateLimits.isEmpty()
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new EnumMap<>(builder.rateLimits));
+        this.concurrencyLimit = builder.concurrencyLimit;
+        this.metrics = builder.metrics;
+        this.tracer = builder.tracer;
         this.logLevel = builder.logLevel;
+        this.jsonCodec = builder.jsonCodec;
+        this.connectionSettings = builder.connection.build();
+        this.eagerWarmUp = builder.eagerWarmUp;
+        this.warmUpConnections = builder.warmUpConnections;
     }
 
     public String getSecretKey() {
@@ -46,14 +96,93 @@ public class PaymobConfig {
         return region;
     }
 
+    /**
+     * Returns the zone Paymob's offset-less timestamps are read in. Defaults
+     * to the region's {@link PaymobRegion#getTimeZone() time zone}.
+     */
+    public ZoneId getServerTimeZone() {
+        return serverTimeZone;
+    }
+
     public Duration getTimeout() {
         return timeout;
     }
 
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public Duration getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    /**
+     * Returns the timeout for a whole call, or zero for none.
+     */
+    public Duration getCallTimeout() {
+        return callTimeout;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    public CircuitBreakerConfig getCircuitBreakerConfig() {
+        return circuitBreakerConfig;
+    }
+
+    /**
+     * Returns the maximum concurrent calls per endpoint group. Groups not
+     * listed are unbounded.
+     */
+    public Map<EndpointGroup, Integer> getBulkheadLimits() {
+        return bulkheadLimits;
+    }
+
+    /**
+     * Returns the token-bucket rate limit per endpoint group. Groups not
+     * listed are not rate limited.
+     */
+    public Map<EndpointGroup, RateLimit> getRateLimits() {
+        return rateLimits;
+    }
+
+    public ConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public PaymobMetrics getMetrics() {
+        return metrics;
+    }
+
+    public PaymobTracer getTracer() {
+        return tracer;
+    }
+
     public LogLevel getLogLevel() {
         return logLevel;
     }
 
+    public JsonCodec getJsonCodec() {
+        return jsonCodec;
+    }
+
+    public ConnectionSettings getConnectionSettings() {
+        return connectionSettings;
+    }
+
+    public boolean isEagerWarmUp() {
+        return eagerWarmUp;
+    }
+
+    public int getWarmUpConnections() {
+        return warmUpConnections;
+    }
+
     public static Builder builder() {
         return new Builder();
     }
@@ -64,8 +193,24 @@ public class PaymobConfig {
         private String publicKey;
         private String hmacSecret;
         private PaymobRegion region = PaymobRegion.EGYPT;
+        private ZoneId serverTimeZone;
         private Duration timeout = Duration.ofSeconds(60);
+        private Duration connectTimeout;
+        private Duration readTimeout;
+        private Duration writeTimeout;
+        private Duration callTimeout = Duration.ZERO;
+        private RetryPolicy retryPolicy = RetryPolicy.defaults();
+        private CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.disabled();
+        private final Map<EndpointGroup, Integer> bulkheadLimits = new EnumMap<>(EndpointGroup.class);
+        private final Map<EndpointGroup, RateLimit> rateLimits = new EnumMap<>(EndpointGroup.class);
+        private ConcurrencyLimit concurrencyLimit = ConcurrencyLimit.disabled();
+        private PaymobMetrics metrics = PaymobMetrics.NOOP;
+        private PaymobTracer tracer = PaymobTracer.NOOP;
         private LogLevel logLevel = LogLevel.NONE;
+        private JsonCodec jsonCodec = JsonCodec.shared();
+        private final ConnectionSettings.Builder connection = ConnectionSettings.builder();
+        private boolean eagerWarmUp;
+        private int warmUpConnections = 1;
 
         public Builder secretKey(String secretKey) {
             this.secretKey = secretKey;
@@ -92,6 +237,16 @@ public class PaymobConfig {
             return this;
         }
 
+        /**
+         * Zone Paymob's timestamps without an offset are written in. Defaults
+         * to the region's time zone; override it if your account reports
+         * another.
+         */
+        public Builder serverTimeZone(ZoneId serverTimeZone) {
+            this.serverTimeZone = serverTimeZone;
+            return this;
+        }
+
         public Builder timeout(Duration timeout) {
             this.timeout = timeout;
             return this;
@@ -102,16 +257,241 @@ public class PaymobConfig {
             return this;
         }
 
+        /**
+         * Connect timeout. Defaults to {@link #timeout(Duration)}.
+         */
+        public Builder connectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Read timeout. Defaults to {@link #timeout(Duration)}.
+         */
+        public Builder readTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        /**
+         * Write timeout. Defaults to {@link #timeout(Duration)}.
+         */
+        public Builder writeTimeout(Duration writeTimeout) {
+            this.writeTimeout = writeTimeout;
+            return this;
+        }
+
+        /**
+         * Upper bound on a whole call, including retries. Defaults to none.
+         */
+        public Builder callTimeout(Duration callTimeout) {
+            this.callTimeout = callTimeout;
+            return this;
+        }
+
+        /**
+         * How transient failures are retried. Defaults to
+         * {@link RetryPolicy#defaults()}; use {@link RetryPolicy#none()} to
+         * disable retries. Retries never run past {@link #callTimeout}.
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Per-endpoint circuit breaker settings. Off by default
+         * ({@link CircuitBreakerConfig#disabled()});
+         * {@link CircuitBreakerConfig#defaults()} is a reasonable start.
+         */
+        public Builder circuitBreaker(CircuitBreakerConfig circuitBreakerConfig) {
+            this.circuitBreakerConfig = circuitBreakerConfig;
+            return this;
+        }
+
+        /**
+         * Caps concurrent calls to {@code group}; calls over the cap fail fast.
+         * Every group is unbounded by default. Capping the admin groups
+         * ({@link EndpointGroup#SUBSCRIPTIONS}, {@link EndpointGroup#QUICK_LINKS}),
+         * e.g. at 16, keeps them from starving checkout traffic. Pass 0 to
+         * remove a cap.
+         */
+        public Builder bulkhead(EndpointGroup group, int maxConcurrentCalls) {
+            if (group == null) {
+                throw new IllegalArgumentException("Endpoint group is required");
+            }
+            if (maxConcurrentCalls < 0) {
+                throw new IllegalArgumentException("Max concurrent calls cannot be negative");
+            }
+            if (maxConcurrentCalls == 0) {
+                bulkheadLimits.remove(group);
+            } else {
+                bulkheadLimits.put(group, maxConcurrentCalls);
+            }
+            return this;
+        }
+
+        /**
+         * Rate limits calls to {@code group} on the client, so bursts queue
+         * briefly instead of drawing 429s from Paymob. Each client, and so each
+         * tenant, has its own buckets. Pass null to remove a limit; no group is
+         * limited by default.
+         */
+        public Builder rateLimit(EndpointGroup group, RateLimit rateLimit) {
+            if (group == null) {
+                throw new IllegalArgumentException("Endpoint group is required");
+            }
+            if (rateLimit == null) {
+                rateLimits.remove(group);
+            } else {
+                rateLimits.put(group, rateLimit);
+            }
+            return this;
+        }
+
+        /**
+         * Adaptive concurrency limit applied to each endpoint group. Disabled
+         * by default; {@link ConcurrencyLimit#defaults()} is a reasonable start.
+         */
+        public Builder concurrencyLimit(ConcurrencyLimit concurrencyLimit) {
+            this.concurrencyLimit = concurrencyLimit;
+            return this;
+        }
+
+        /**
+         * Where call latency, status codes, retries, bytes, pool gauges and
+         * token refreshes are reported. Defaults to {@link PaymobMetrics#NOOP},
+         * which measures nothing.
+         */
+        public Builder metrics(PaymobMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Receives a span per service operation, with child spans for each HTTP
+         * attempt and for JSON binding. Defaults to {@link PaymobTracer#NOOP},
+         * which creates no spans.
+         */
+        public Builder tracer(PaymobTracer tracer) {
+            this.tracer = tracer;
+            return this;
+        }
+
+        /**
+         * Idle connections kept in the pool. Defaults to 5.
+         */
+        public Builder maxIdleConnections(int maxIdleConnections) {
+            connection.maxIdleConnections(maxIdleConnections);
+            return this;
+        }
+
+        /**
+         * How long idle connections are kept alive. Defaults to 5 minutes.
+         */
+        public Builder keepAlive(Duration keepAlive) {
+            connection.keepAlive(keepAlive);
+            return this;
+        }
+
+        /**
+         * Maximum concurrent asynchronous requests. Defaults to 64.
+         */
+        public Builder maxRequests(int maxRequests) {
+            connection.maxRequests(maxRequests);
+            return this;
+        }
+
+        /**
+         * Maximum concurrent asynchronous requests to the region host. Defaults
+         * to 64.
+         */
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            connection.maxRequestsPerHost(maxRequestsPerHost);
+            return this;
+        }
+
+        /**
+         * Protocols in order of preference. Defaults to HTTP/2 with HTTP/1.1
+         * fallback.
+         */
+        public Builder protocols(Protocol... protocols) {
+            connection.protocols(protocols);
+            return this;
+        }
+
+        /**
+         * Runs {@link PaymobClient#warmUp()} while the client is being built, so
+         * the first real request sees steady-state latency. Off by default.
+         */
+        public Builder eagerWarmUp(boolean eagerWarmUp) {
+            this.eagerWarmUp = eagerWarmUp;
+            return this;
+        }
+
+        /**
+         * Connections to open during warm-up. Defaults to 1, which is enough over
+         * HTTP/2; raise it when using HTTP/1.1.
+         */
+        public Builder warmUpConnections(int warmUpConnections) {
+            this.warmUpConnections = warmUpConnections;
+            return this;
+        }
+
         public Builder logLevel(LogLevel logLevel) {
             this.logLevel = logLevel;
             return this;
         }
 
+        /**
+         * Overrides the JSON codec used for request and response bodies.
+         * Defaults to {@link JsonCodec#shared()}.
+         */
+        public Builder jsonCodec(JsonCodec jsonCodec) {
+            this.jsonCodec = jsonCodec;
+            return this;
+        }
+
         public PaymobConfig build() {
             if (secretKey == null) {
                 throw new IllegalArgumentException("Secret key is required");
             }
+            if (jsonCodec == null) {
+                throw new IllegalArgumentException("JSON codec is required");
+            }
+            if (circuitBreakerConfig == null) {
+                throw new IllegalArgumentException("Circuit breaker config is required");
+            }
+            if (retryPolicy == null) {
+                throw new IllegalArgumentException("Retry policy is required");
+            }
+            if (concurrencyLimit == null) {
+                throw new IllegalArgumentException("Concurrency limit is required");
+            }
+            if (metrics == null) {
+                throw new IllegalArgumentException("Metrics are required");
+            }
+            if (tracer == null) {
+                throw new IllegalArgumentException("Tracer is required");
+            }
+            if (timeout == null || callTimeout == null) {
+                throw new IllegalArgumentException("Timeout is required");
+            }
+            if (warmUpConnections < 0) {
+                throw new IllegalArgumentException("Warm-up connections cannot be negative");
+            }
+            requireNonNegative(timeout, "Timeout");
+            requireNonNegative(connectTimeout, "Connect timeout");
+            requireNonNegative(readTimeout, "Read timeout");
+            requireNonNegative(writeTimeout, "Write timeout");
+            requireNonNegative(callTimeout, "Call timeout");
             return new PaymobConfig(this);
         }
+
+        private static void requireNonNegative(Duration duration, String name) {
+            if (duration != null && duration.isNegative()) {
+                throw new IllegalArgumentException(name + " cannot be negative");
+            }
+        }
     }
 }
@@ -1,22 +1,59 @@
 package com.paymob.sdk.core;
 
+import okhttp3.HttpUrl;
+
+import java.time.ZoneId;
+
 /**
  * Represents Paymob regions with their respective base URLs.
  * Each region has its own dedicated Paymob infrastructure.
  */
 public enum PaymobRegion {
-    EGYPT("https://accept.paymob.com"),
-    KSA("https://ksa.paymob.com"),
-    UAE("https://uae.paymob.com"),
-    OMAN("https://oman.paymob.com");
+    EGYPT("https://accept.paymob.com", "Africa/Cairo"),
+    KSA("https://ksa.paymob.com", "Asia/Riyadh"),
+    UAE("https://uae.paymob.com", "Asia/Dubai"),
+    OMAN("https://oman.paymob.com", "Asia/Muscat");
 
     private final String baseUrl;
+    private final HttpUrl httpUrl;
+    private final ZoneId timeZone;
 
-    PaymobRegion(String baseUrl) {
+    PaymobRegion(String baseUrl, String timeZone) {
         this.baseUrl = baseUrl;
+        this.httpUrl = HttpUrl.get(baseUrl);
+        this.timeZone = ZoneId.of(timeZone);
     }
 
     public String getBaseUrl() {
         return baseUrl;
     }
+
+    /**
+     * Returns the base URL pre-parsed, ready to resolve endpoint paths against.
+     */
+    public HttpUrl getHttpUrl() {
+        return httpUrl;
+    }
+
+    /**
+     * Returns the zone of the region's local time, in which Paymob writes
+     * timestamps such as {@code created_at} without an offset, e.g.
+     * {@code 2024-06-13T11:33:44.592345}.
+     */
+    public ZoneId getTimeZone() {
+        return timeZone;
+    }
+
+    /**
+     * Returns the region served by {@code host}, or null if it is not a Paymob
+     * region host.
+     */
+    public static PaymobRegion ofHost(String host) {
+        for (PaymobRegion region : values()) {
+            if (region.httpUrl.host().equals(host)) {
+                return region;
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,53 @@
+package com.paymob.sdk.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads without requiring Java 21 at compile time.
+ * <p>
+ * The SDK targets Java 17, so
+ * {@code Executors.newVirtualThreadPerTaskExecutor()} is looked up reflectively
+ * once. On runtimes without it, {@link #newPerTaskExecutor()} returns empty and
+ * callers keep the default non-blocking OkHttp path.
+ */
+public final class VirtualThreads {
+    private static final MethodHandle NEW_PER_TASK_EXECUTOR = findFactory();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Returns true if the running JVM supports virtual threads.
+     */
+    public static boolean isSupported() {
+        return NEW_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor, or returns empty before Java 21.
+     */
+    public static Optional<ExecutorService> newPerTaskExecutor() {
+        if (NEW_PER_TASK_EXECUTOR == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((ExecutorService) NEW_PER_TASK_EXECUTOR.invoke());
+        } catch (Throwable e) {
+            return Optional.empty();
+        }
+    }
+
+    private static MethodHandle findFactory() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
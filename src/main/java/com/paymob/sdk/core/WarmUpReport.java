@@ -0,0 +1,75 @@
+package com.paymob.sdk.core;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of {@link PaymobClient#warmUp()}.
+ * <p>
+ * Warm-up never fails the client; anything that went wrong is listed in
+ * {@link #getErrors()} and the corresponding work is simply done lazily on the
+ * first real request instead.
+ */
+public final class WarmUpReport {
+    private final Duration duration;
+    private final int connections;
+    private final boolean tokenPrefetched;
+    private final int primedTypes;
+    private final List<Exception> errors;
+
+    WarmUpReport(Duration duration, int connections, boolean tokenPrefetched, int primedTypes,
+            List<Exception> errors) {
+        this.duration = duration;
+        this.connections = connections;
+        this.tokenPrefetched = tokenPrefetched;
+        this.primedTypes = primedTypes;
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * Wall-clock time the warm-up took.
+     */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    /**
+     * Pooled connections open after warm-up.
+     */
+    public int getConnections() {
+        return connections;
+    }
+
+    /**
+     * Whether a bearer token is ready for the first Bearer-authenticated call.
+     */
+    public boolean isTokenPrefetched() {
+        return tokenPrefetched;
+    }
+
+    /**
+     * Number of request/response types whose Jackson serializers were
+     * initialized.
+     */
+    public int getPrimedTypes() {
+        return primedTypes;
+    }
+
+    public List<Exception> getErrors() {
+        return errors;
+    }
+
+    public boolean isSuccessful() {
+        return errors.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUpReport{duration=" + duration.toMillis() + "ms"
+                + ", connections=" + connections
+                + ", tokenPrefetched=" + tokenPrefetched
+                + ", primedTypes=" + primedTypes
+                + ", errors=" + errors.size() + "}";
+    }
+}
@@ -1,42 +1,91 @@
 package com.paymob.sdk.core.auth;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.concurrent.atomic.AtomicReference;
 import com.paymob.sdk.http.HttpClient;
+import com.paymob.sdk.metrics.PaymobMetrics;
+import okhttp3.HttpUrl;
 
 /**
  * Authentication strategy using Bearer Token.
  * Step 1: POST /api/auth/tokens with api_key → Bearer token
- * Step 2: Cache token with 55-min TTL (Caffeine)
- * Step 3: Auto-refresh transparently before expiry
+ * Step 2: Hold the token in an immutable holder read without locking
+ * Step 3: Refresh in the background before expiry, single-flight
  * Used by: Subscription module
+ * <p>
+ * In steady state a request never waits for renewal. A refresh is scheduled
+ * {@link #REFRESH_AHEAD} before the token expires, and runs only if the token
+ * was read since it was issued, so an idle strategy stops logging in and
+ * renews on demand instead. If that has not happened by
+ * the time the token enters its {@link #EXPIRY_BUFFER}, the next request
+ * triggers it in the background and still uses the current token. Callers only
+ * block when there is no usable token at all (first call, or after expiry), and
+ * then all of them share one login.
+ * <p>
+ * Background logins run on a shared pool with a thread per login in flight;
+ * the refresh scheduler only decides when they start. It holds each strategy
+ * weakly, so a client dropped without {@link #close()} can still be collected.
+ * <p>
+ * Logins and token lookups are reported to {@link #setMetrics(PaymobMetrics)}.
  */
-public class BearerTokenAuthStrategy implements AuthStrategy {
+public class BearerTokenAuthStrategy implements AuthStrategy, AutoCloseable {
+    /** Lifetime assumed for tokens returned by the token endpoint. */
+    static final Duration TOKEN_TTL = Duration.ofSeconds(3600);
+    /** Window before expiry in which a token is reported as expired. */
+    static final Duration EXPIRY_BUFFER = Duration.ofSeconds(300);
+    /** How long before expiry the proactive refresh fires. */
+    static final Duration REFRESH_AHEAD = Duration.ofSeconds(600);
+
+    /** Only times proactive refreshes; the logins themselves run on {@link #LOGINS}. */
+    private static final ScheduledExecutorService REFRESHER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "paymob-token-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * Runs background logins, each on its own thread, so a slow token endpoint
+     * for one strategy never delays another's refresh. Logins are single-flight
+     * per strategy, so there is at most one thread per strategy.
+     */
+    private static final ExecutorService LOGINS = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "paymob-token-login");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final String apiKey;
-    private final String baseUrl;
+    private final HttpUrl tokenUrl;
     private final HttpClient httpClient;
-    private final Cache<String, String> tokenCache;
-    private volatile String bearerToken;
-    private volatile Instant tokenExpiry;
-    private final Object lock = new Object();
+    private final Duration tokenTtl;
+    private volatile TokenState state;
+    private final AtomicReference<CompletableFuture<String>> inFlight = new AtomicReference<>();
+    private volatile ScheduledFuture<?> scheduledRefresh;
+    private volatile boolean closed;
+    private volatile PaymobMetrics metrics = PaymobMetrics.NOOP;
 
     public BearerTokenAuthStrategy(String apiKey, String baseUrl, HttpClient httpClient) {
+        this(apiKey, baseUrl, httpClient, TOKEN_TTL);
+    }
+
+    BearerTokenAuthStrategy(String apiKey, String baseUrl, HttpClient httpClient, Duration tokenTtl) {
         if (apiKey == null) {
             throw new NullPointerException("API key cannot be null");
         }
         this.apiKey = apiKey;
-        this.baseUrl = baseUrl;
+        this.tokenUrl = HttpUrl.get(baseUrl).resolve("/api/auth/tokens");
         this.httpClient = httpClient;
-        this.tokenCache = Caffeine.newBuilder()
-                .expireAfterWrite(55, TimeUnit.MINUTES)
-                .maximumSize(100)
-                .build();
-        this.bearerToken = null;
-        this.tokenExpiry = null;
+        this.tokenTtl = tokenTtl;
     }
 
     @Override
@@ -54,120 +103,273 @@ public class BearerTokenAuthStrategy implements AuthStrategy {
         return apiKey;
     }
 
-    public void setBearerToken(String token, Instant expiry) {
-        synchronized (lock) {
-            this.bearerToken = token;
-            this.tokenExpiry = expiry;
-            if (token != null && expiry != null) {
-                tokenCache.put(apiKey, token);
-            }
+    public void setMetrics(PaymobMetrics metrics) {
+        if (metrics == null) {
+            throw new IllegalArgumentException("Metrics are required");
         }
+        this.metrics = metrics;
+    }
+
+    public void setBearerToken(String token, Instant expiry) {
+        this.state = token != null ? new TokenState(token, expiry) : null;
     }
 
     public String getBearerToken() {
-        synchronized (lock) {
-            return bearerToken;
-        }
+        TokenState current = state;
+        return current != null ? current.token : null;
     }
 
     public Instant getTokenExpiry() {
-        synchronized (lock) {
-            return tokenExpiry;
-        }
+        TokenState current = state;
+        return current != null ? current.expiry : null;
     }
 
     public boolean isTokenExpired() {
-        synchronized (lock) {
-            return tokenExpiry == null || Instant.now().isAfter(tokenExpiry.minusSeconds(300)); // 5 min buffer
-        }
+        TokenState current = state;
+        return current == null || !current.isFresh(Instant.now());
     }
 
     private TokenResponse login(TokenRequest request) {
-        httpClient.setBaseUrl(baseUrl);
-        return httpClient.post("/api/auth/tokens", request, TokenResponse.class, null);
+        return httpClient.post(tokenUrl, request, TokenResponse.class, null, "BearerTokenAuthStrategy.login");
     }
 
-    private String fetchTokenSync() {
-        TokenResponse tokenResponse = login(new TokenRequest(apiKey));
+    /**
+     * @param seen the token the caller decided to replace; if another refresh has
+     *             already swapped in a fresh one since, it is reused
+     */
+    private String fetchTokenSync(TokenState seen) {
+        TokenState current = state;
+        if (current != seen && current != null && current.isFresh(Instant.now())) {
+            return current.token;
+        }
+
+        PaymobMetrics recorder = metrics;
+        long start = System.nanoTime();
+        TokenResponse tokenResponse;
+        try {
+            tokenResponse = login(new TokenRequest(apiKey));
+        } catch (RuntimeException e) {
+            recorder.recordTokenRefresh(System.nanoTime() - start, false);
+            throw e;
+        }
         if (tokenResponse == null || tokenResponse.token == null || tokenResponse.token.isBlank()) {
+            recorder.recordTokenRefresh(System.nanoTime() - start, false);
             throw new RuntimeException("Token endpoint returned empty token");
         }
+        recorder.recordTokenRefresh(System.nanoTime() - start, true);
 
         String token = tokenResponse.token;
-        Instant expiry = Instant.now().plusSeconds(3600);
-
-        synchronized (lock) {
-            this.bearerToken = token;
-            this.tokenExpiry = expiry;
-            tokenCache.put(apiKey, token);
-        }
+        Instant expiry = Instant.now().plus(tokenTtl);
+        TokenState renewed = new TokenState(token, expiry);
+        this.state = renewed;
+        scheduleRefresh(renewed);
 
         return token;
     }
 
     /**
-     * Fetches a new bearer token from Paymob API.
-     * 
+     * Fetches a new bearer token from Paymob API in the background.
+     * Concurrent calls share the same in-flight login.
+     *
      * @return CompletableFuture that completes with the token
      */
     public CompletableFuture<String> fetchToken() {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return fetchTokenSync();
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to fetch bearer token", e);
-            }
-        });
+        return refresh(LOGINS, state);
     }
 
     /**
-     * Gets the cached token or fetches a new one if needed.
-     * 
+     * Gets the current token, renewing it if needed.
+     *
      * @return The bearer token
      */
     public String getOrFetchToken() {
-        synchronized (lock) {
-            // 1. Check current token
-            if (bearerToken != null && !isTokenExpired()) {
-                return bearerToken;
-            }
+        TokenState current = state;
+        Instant now = Instant.now();
+
+        // 1. Fresh token: the common case, no locking and no waiting
+        if (current != null && current.isFresh(now)) {
+            current.markRead();
+            metrics.recordTokenLookup(true);
+            return current.token;
+        }
+
+        // 2. Inside the expiry buffer but still valid: renew in the background
+        if (current != null && current.expiry != null && now.isBefore(current.expiry)) {
+            refresh(LOGINS, current);
+            metrics.recordTokenLookup(true);
+            return current.token;
+        }
 
-            // 2. Check cache (in case another thread just updated it)
-            String cachedToken = tokenCache.getIfPresent(apiKey);
-            if (cachedToken != null) {
-                bearerToken = cachedToken;
-                tokenExpiry = Instant.now().plusSeconds(3600);
-                return cachedToken;
+        // 3. No usable token: log in on this thread, or wait for whoever already is
+        metrics.recordTokenLookup(false);
+        String token = await(refresh(Runnable::run, current));
+        markRead(token);
+        return token;
+    }
+
+    /** Marks the current token as read if it is still {@code token}. */
+    private void markRead(String token) {
+        TokenState current = state;
+        if (current != null && current.token.equals(token)) {
+            current.markRead();
+        }
+    }
+
+    /**
+     * Starts a login on {@code executor} unless one is already in flight, in which
+     * case the in-flight future is returned.
+     */
+    private CompletableFuture<String> refresh(Executor executor, TokenState seen) {
+        while (true) {
+            CompletableFuture<String> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+            CompletableFuture<String> created = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, created)) {
+                executor.execute(() -> {
+                    try {
+                        created.complete(fetchTokenSync(seen));
+                    } catch (Throwable e) {
+                        created.completeExceptionally(e);
+                    } finally {
+                        inFlight.compareAndSet(created, null);
+                    }
+                });
+                return created;
             }
+        }
+    }
 
-            // 3. Fetch new token while holding the lock to prevent concurrent logins
-            return fetchTokenSyncUnderLock();
+    private void scheduleRefresh(TokenState renewed) {
+        if (closed) {
+            return;
+        }
+        long delayMillis = Math.max(0,
+                Duration.between(Instant.now(), renewed.expiry.minus(REFRESH_AHEAD)).toMillis());
+        ScheduledFuture<?> previous = scheduledRefresh;
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        WeakReference<BearerTokenAuthStrategy> self = new WeakReference<>(this);
+        ScheduledFuture<?> next = REFRESHER.schedule(() -> {
+            BearerTokenAuthStrategy strategy = self.get();
+            if (strategy != null) {
+                strategy.refreshIfRead(renewed);
+            }
+        }, delayMillis, TimeUnit.MILLISECONDS);
+        scheduledRefresh = next;
+        if (closed) {
+            // close() ran while this was being armed
+            next.cancel(false);
         }
     }
 
-    private String fetchTokenSyncUnderLock() {
-        TokenResponse tokenResponse = login(new TokenRequest(apiKey));
-        if (tokenResponse == null || tokenResponse.token == null || tokenResponse.token.isBlank()) {
-            throw new RuntimeException("Token endpoint returned empty token");
+    /**
+     * Proactive refresh: renews {@code renewed} only if it is still current and
+     * was read since it was issued. Failures are left for the request path,
+     * which retries once the token enters its expiry buffer.
+     */
+    private void refreshIfRead(TokenState renewed) {
+        if (!closed && state == renewed && renewed.read) {
+            refresh(LOGINS, renewed);
         }
+    }
 
-        String token = tokenResponse.token;
-        this.bearerToken = token;
-        this.tokenExpiry = Instant.now().plusSeconds(3600);
-        tokenCache.put(apiKey, token);
+    private static String await(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Failed to fetch bearer token", cause);
+        }
+    }
 
-        return token;
+    /**
+     * Cancels the scheduled background refresh, including one a login still in
+     * flight would arm. The strategy stays usable; requests renew the token on
+     * demand.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        ScheduledFuture<?> pending = scheduledRefresh;
+        if (pending != null) {
+            pending.cancel(false);
+        }
     }
 
     @Override
     public String getAuthorizationHeader() {
-        String token = getOrFetchToken();
+        return header(getOrFetchToken());
+    }
+
+    /**
+     * Non-blocking variant of {@link #getAuthorizationHeader()}. While a token
+     * is usable the returned future is already complete; otherwise it completes
+     * when the shared background login does, and no calling thread waits.
+     *
+     * @return CompletableFuture that completes with the header value, or null
+     */
+    public CompletableFuture<String> getAuthorizationHeaderAsync() {
+        TokenState current = state;
+        Instant now = Instant.now();
+        if (current != null && current.expiry != null && now.isBefore(current.expiry)) {
+            if (current.isFresh(now)) {
+                current.markRead();
+            } else {
+                refresh(LOGINS, current);
+            }
+            metrics.recordTokenLookup(true);
+            return CompletableFuture.completedFuture(header(current.token));
+        }
+        metrics.recordTokenLookup(false);
+        return refresh(LOGINS, current).thenApply(token -> {
+            markRead(token);
+            return header(token);
+        });
+    }
+
+    private static String header(String token) {
         if (token == null || token.isBlank()) {
             return null;
         }
         return "Bearer " + token;
     }
 
+    /**
+     * Immutable token snapshot, swapped as a whole so readers never see a token
+     * paired with another token's expiry.
+     */
+    private static final class TokenState {
+        private final String token;
+        private final Instant expiry;
+        /** Set once a request has used the token; gates the proactive refresh. */
+        private volatile boolean read;
+
+        private TokenState(String token, Instant expiry) {
+            this.token = token;
+            this.expiry = expiry;
+        }
+
+        private boolean isFresh(Instant now) {
+            return expiry != null && now.isBefore(expiry.minus(EXPIRY_BUFFER));
+        }
+
+        private void markRead() {
+            // Read before writing so steady-state lookups stay free of volatile stores
+            if (!read) {
+                read = true;
+            }
+        }
+    }
+
     /**
      * Request DTO for token endpoint.
      */
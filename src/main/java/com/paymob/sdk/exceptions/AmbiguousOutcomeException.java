@@ -0,0 +1,31 @@
+package com.paymob.sdk.exceptions;
+
+/**
+ * Exception thrown when a non-idempotent request (refund, void, capture,
+ * payment, create) failed in a way that does not reveal whether Paymob applied
+ * it: the connection dropped after the request was sent, or the server answered
+ * 5xx.
+ * <p>
+ * Do not simply retry. Look the operation up first, for example through
+ * {@code TransactionInquiryService}, or retry with the same idempotency key.
+ */
+public class AmbiguousOutcomeException extends PaymobServerException {
+    private final String idempotencyKey;
+
+    public AmbiguousOutcomeException(String message, Throwable cause, String idempotencyKey) {
+        super(message, cause);
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public AmbiguousOutcomeException(String message, Integer httpStatus, String errorBody, String idempotencyKey) {
+        super(message, httpStatus, errorBody);
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    /**
+     * Returns the idempotency key the request was sent with.
+     */
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
@@ -0,0 +1,45 @@
+package com.paymob.sdk.exceptions;
+
+/**
+ * Exception thrown when the SDK refuses to send a request: the endpoint's
+ * circuit breaker is open, its bulkhead is full, or a client-side rate or
+ * concurrency limit could not be met in time.
+ * <p>
+ * Nothing was sent, so the call is always safe to retry later.
+ */
+public class CallNotPermittedException extends PaymobException {
+
+    /**
+     * Why the call was refused.
+     */
+    public enum Reason {
+        /** The endpoint has been failing or slow; see {@code CircuitBreaker}. */
+        CIRCUIT_OPEN,
+        /** Too many calls to the same endpoint group are in flight. */
+        BULKHEAD_FULL,
+        /** No rate-limit token became available within the allowed wait. */
+        RATE_LIMITED,
+        /** The adaptive concurrency limit stayed full for the allowed wait. */
+        CONCURRENCY_LIMITED
+    }
+
+    private final Reason reason;
+    private final String endpoint;
+
+    public CallNotPermittedException(String message, Reason reason, String endpoint) {
+        super(message);
+        this.reason = reason;
+        this.endpoint = endpoint;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * Returns the endpoint template or group that refused the call.
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,26 @@
+package com.paymob.sdk.exceptions;
+
+import java.time.Duration;
+
+/**
+ * Exception thrown when Paymob answers 429 Too Many Requests and retries did
+ * not get past it.
+ * <p>
+ * The request was not processed, so it is safe to send again once
+ * {@link #getRetryAfter()} has passed.
+ */
+public class RateLimitedException extends PaymobException {
+    private final Duration retryAfter;
+
+    public RateLimitedException(String message, Integer httpStatus, String errorBody, Duration retryAfter) {
+        super(message, httpStatus, errorBody);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns the server's {@code Retry-After} delay, or null if it sent none.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,131 @@
+package com.paymob.sdk.http;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD concurrency limiter configured by a {@link ConcurrencyLimit}.
+ * <p>
+ * Callers over the limit wait in FIFO order. Async callers get a future that
+ * completes when a slot frees up, and blocking callers wait on that same
+ * future, so both kinds share one queue. Every granted slot must be returned
+ * with {@link #release(long, boolean)}, which also feeds the call's outcome
+ * back into the limit.
+ */
+public final class AdaptiveConcurrencyLimiter {
+    private final ConcurrencyLimit config;
+    private final long latencyThresholdNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<CompletableFuture<Boolean>> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimit config) {
+        this.config = config;
+        this.latencyThresholdNanos = config.getLatencyThreshold().toNanos();
+        this.limit = config.getInitialLimit();
+    }
+
+    /**
+     * Current concurrency limit, rounded down.
+     */
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a future that completes with true once a slot is granted, or
+     * with false if none frees up within {@code maxWaitNanos}.
+     */
+    public CompletableFuture<Boolean> acquireAsync(long maxWaitNanos) {
+        CompletableFuture<Boolean> slot = new CompletableFuture<>();
+        lock.lock();
+        try {
+            if (waiters.isEmpty() && inFlight < (int) limit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(true);
+            }
+            if (maxWaitNanos <= 0) {
+                return CompletableFuture.completedFuture(false);
+            }
+            waiters.add(slot);
+        } finally {
+            lock.unlock();
+        }
+        // A timed-out waiter stays queued but can no longer be completed
+        return slot.completeOnTimeout(false, maxWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Blocking variant of {@link #acquireAsync(long)}.
+     */
+    public boolean acquire(long maxWaitNanos) {
+        CompletableFuture<Boolean> slot = acquireAsync(maxWaitNanos);
+        try {
+            return slot.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (!slot.complete(false) && slot.join()) {
+                release(0, false);
+            }
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns a slot and adjusts the limit.
+     *
+     * @param latencyNanos How long the call took
+     * @param dropped      True if the call hit a 429 or timed out
+     */
+    public void release(long latencyNanos, boolean dropped) {
+        List<CompletableFuture<Boolean>> granted = new ArrayList<>();
+        lock.lock();
+        try {
+            if (dropped || latencyNanos > latencyThresholdNanos) {
+                limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+            } else if (inFlight * 2 >= limit) {
+                // Only grow when the limit is actually what holds calls back
+                limit = Math.min(config.getMaxLimit(), limit + 1 / limit);
+            }
+            inFlight--;
+            while (inFlight < (int) limit && !waiters.isEmpty()) {
+                CompletableFuture<Boolean> waiter = waiters.poll();
+                if (!waiter.isDone()) {
+                    inFlight++;
+                    granted.add(waiter);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (CompletableFuture<Boolean> waiter : granted) {
+            // Lost a race with the waiter's timeout: hand the slot back
+            if (!waiter.complete(true)) {
+                release(0, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.paymob.sdk.http;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Semaphore bulkhead capping concurrent calls to one {@link EndpointGroup}.
+ * <p>
+ * Calls beyond the limit are rejected at once rather than queued, so a slow
+ * group cannot hold threads or dispatcher slots that other groups need.
+ */
+public final class Bulkhead {
+    private final EndpointGroup group;
+    private final int maxConcurrentCalls;
+    private final Semaphore permits;
+    private final LongAdder rejectedCalls = new LongAdder();
+
+    public Bulkhead(EndpointGroup group, int maxConcurrentCalls) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("Max concurrent calls must be positive");
+        }
+        this.group = group;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.permits = new Semaphore(maxConcurrentCalls);
+    }
+
+    public EndpointGroup getGroup() {
+        return group;
+    }
+
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    /**
+     * Calls currently in flight.
+     */
+    public int getConcurrentCalls() {
+        return maxConcurrentCalls - permits.availablePermits();
+    }
+
+    /**
+     * Calls rejected since the bulkhead was created.
+     */
+    public long getRejectedCalls() {
+        return rejectedCalls.sum();
+    }
+
+    /**
+     * Takes a permit without waiting. A successful call must be paired with
+     * {@link #release()}.
+     */
+    public boolean tryAcquire() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        rejectedCalls.increment();
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    @Override
+    public String toString() {
+        return "Bulkhead{group=" + group + ", concurrentCalls=" + getConcurrentCalls()
+                + ", maxConcurrentCalls=" + maxConcurrentCalls + "}";
+    }
+}
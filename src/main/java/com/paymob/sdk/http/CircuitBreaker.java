@@ -0,0 +1,225 @@
+package com.paymob.sdk.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Circuit breaker for one endpoint template, configured by
+ * {@link CircuitBreakerConfig}.
+ * <p>
+ * Outcomes are kept in a ring buffer of the last
+ * {@code slidingWindowSize} calls with running failure and slow-call counts,
+ * so recording a call is O(1). The lock is held only for that bookkeeping,
+ * never across a request.
+ */
+public final class CircuitBreaker {
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    /**
+     * Breaker states.
+     */
+    public enum State {
+        /** Calls flow and outcomes are recorded. */
+        CLOSED,
+        /** Calls are rejected until the wait in open state has passed. */
+        OPEN,
+        /** A limited number of trial calls decide whether to close again. */
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final CircuitBreakerConfig config;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final byte[] window;
+    private final int minimumCalls;
+    private final long slowCallNanos;
+    private final LongAdder notPermittedCalls = new LongAdder();
+
+    private volatile State state = State.CLOSED;
+    private int size;
+    private int next;
+    private int failures;
+    private int slowCalls;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(String name, CircuitBreakerConfig config) {
+        this.name = name;
+        this.config = config;
+        this.window = new byte[config.getSlidingWindowSize()];
+        this.minimumCalls = Math.min(config.getMinimumCalls(), config.getSlidingWindowSize());
+        this.slowCallNanos = config.getSlowCallDuration().toNanos();
+    }
+
+    /**
+     * Returns the endpoint template this breaker guards.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Failure percentage over the current window, or -1 while fewer than the
+     * minimum number of calls have been recorded.
+     */
+    public float getFailureRate() {
+        lock.lock();
+        try {
+            return size < minimumCalls ? -1 : failures * 100f / size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Slow-call percentage over the current window, or -1 while fewer than the
+     * minimum number of calls have been recorded.
+     */
+    public float getSlowCallRate() {
+        lock.lock();
+        try {
+            return size < minimumCalls ? -1 : slowCalls * 100f / size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Calls recorded in the current window.
+     */
+    public int getBufferedCalls() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Calls rejected since the breaker was created.
+     */
+    public long getNotPermittedCalls() {
+        return notPermittedCalls.sum();
+    }
+
+    /**
+     * Returns true if a call may proceed. Every permitted call must be followed
+     * by exactly one of {@link #onSuccess}, {@link #onError} or
+     * {@link #releasePermission()}.
+     */
+    public boolean tryAcquirePermission() {
+        if (state == State.CLOSED) {
+            return true;
+        }
+        lock.lock();
+        try {
+            if (state == State.OPEN
+                    && System.nanoTime() - openedAtNanos >= config.getWaitInOpenState().toNanos()) {
+                state = State.HALF_OPEN;
+                halfOpenPermits = config.getPermittedCallsInHalfOpenState();
+                halfOpenSuccesses = 0;
+            }
+            if (state == State.CLOSED) {
+                return true;
+            }
+            if (state == State.HALF_OPEN && halfOpenPermits > 0) {
+                halfOpenPermits--;
+                return true;
+            }
+        } finally {
+            lock.unlock();
+        }
+        notPermittedCalls.increment();
+        return false;
+    }
+
+    /**
+     * Gives back a permission whose call was cancelled without an outcome.
+     */
+    public void releasePermission() {
+        lock.lock();
+        try {
+            if (state == State.HALF_OPEN) {
+                halfOpenPermits++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess(long duration, TimeUnit unit) {
+        record(false, unit.toNanos(duration) > slowCallNanos);
+    }
+
+    public void onError(long duration, TimeUnit unit) {
+        record(true, unit.toNanos(duration) > slowCallNanos);
+    }
+
+    private void record(boolean failed, boolean slow) {
+        lock.lock();
+        try {
+            switch (state) {
+                case HALF_OPEN:
+                    if (failed || slow) {
+                        open();
+                    } else if (++halfOpenSuccesses >= config.getPermittedCallsInHalfOpenState()) {
+                        close();
+                    }
+                    break;
+                case CLOSED:
+                    add((byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0)));
+                    if (size >= minimumCalls
+                            && (failures * 100f / size >= config.getFailureRateThreshold()
+                                    || slowCalls * 100f / size >= config.getSlowCallRateThreshold())) {
+                        open();
+                    }
+                    break;
+                default:
+                    // Outcome of a call permitted before the breaker opened
+                    break;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(byte outcome) {
+        if (size == window.length) {
+            byte evicted = window[next];
+            failures -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            size++;
+        }
+        window[next] = outcome;
+        failures += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+    }
+
+    private void close() {
+        size = 0;
+        next = 0;
+        failures = 0;
+        slowCalls = 0;
+        state = State.CLOSED;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{name='" + name + "', state=" + state + "}";
+    }
+}
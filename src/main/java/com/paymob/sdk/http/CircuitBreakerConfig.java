@@ -0,0 +1,181 @@
+package com.paymob.sdk.http;
+
+import java.time.Duration;
+
+/**
+ * Immutable settings for the per-endpoint circuit breakers in
+ * {@link OkHttpClientAdapter}.
+ * <p>
+ * Each endpoint template keeps a count-based sliding window of its last calls.
+ * A call is a failure if it throws an I/O error or gets a 5xx, and slow if it
+ * takes longer than {@link Builder#slowCallDuration}. Once the window holds at
+ * least {@link Builder#minimumCalls} calls and either rate reaches its
+ * threshold, the breaker opens: calls fail fast with
+ * {@code CallNotPermittedException} until {@link Builder#waitInOpenState}
+ * has passed. Then a few trial calls are let through, and their results decide
+ * whether the breaker closes again.
+ */
+public final class CircuitBreakerConfig {
+    private static final CircuitBreakerConfig DEFAULTS = builder().build();
+    private static final CircuitBreakerConfig DISABLED = builder().enabled(false).build();
+
+    private final boolean enabled;
+    private final int slidingWindowSize;
+    private final int minimumCalls;
+    private final float failureRateThreshold;
+    private final float slowCallRateThreshold;
+    private final Duration slowCallDuration;
+    private final Duration waitInOpenState;
+    private final int permittedCallsInHalfOpenState;
+
+    private CircuitBreakerConfig(Builder builder) {
+        this.enabled = builder.enabled;
+        this.slidingWindowSize = builder.slidingWindowSize;
+        this.minimumCalls = builder.minimumCalls;
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallDuration = builder.slowCallDuration;
+        this.waitInOpenState = builder.waitInOpenState;
+        this.permittedCallsInHalfOpenState = builder.permittedCallsInHalfOpenState;
+    }
+
+    /**
+     * Window of 100 calls, at least 20 before tripping, 50% failures or 80%
+     * calls slower than 5s, 30s open, 5 trial calls.
+     */
+    public static CircuitBreakerConfig defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Never opens.
+     */
+    public static CircuitBreakerConfig disabled() {
+        return DISABLED;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getSlidingWindowSize() {
+        return slidingWindowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public float getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public float getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public Duration getSlowCallDuration() {
+        return slowCallDuration;
+    }
+
+    public Duration getWaitInOpenState() {
+        return waitInOpenState;
+    }
+
+    public int getPermittedCallsInHalfOpenState() {
+        return permittedCallsInHalfOpenState;
+    }
+
+    public static class Builder {
+        private boolean enabled = true;
+        private int slidingWindowSize = 100;
+        private int minimumCalls = 20;
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 80;
+        private Duration slowCallDuration = Duration.ofSeconds(5);
+        private Duration waitInOpenState = Duration.ofSeconds(30);
+        private int permittedCallsInHalfOpenState = 5;
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * Number of most recent calls the rates are computed over. Defaults to
+         * 100.
+         */
+        public Builder slidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+            return this;
+        }
+
+        /**
+         * Calls recorded before the breaker may open. Defaults to 20.
+         */
+        public Builder minimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * Failure percentage that opens the breaker. Defaults to 50.
+         */
+        public Builder failureRateThreshold(float failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * Slow-call percentage that opens the breaker. Defaults to 80.
+         */
+        public Builder slowCallRateThreshold(float slowCallRateThreshold) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            return this;
+        }
+
+        /**
+         * Calls taking longer than this count as slow. Defaults to 5 seconds.
+         */
+        public Builder slowCallDuration(Duration slowCallDuration) {
+            this.slowCallDuration = slowCallDuration;
+            return this;
+        }
+
+        /**
+         * How long an open breaker rejects calls before letting trial calls
+         * through. Defaults to 30 seconds.
+         */
+        public Builder waitInOpenState(Duration waitInOpenState) {
+            this.waitInOpenState = waitInOpenState;
+            return this;
+        }
+
+        /**
+         * Trial calls allowed while half-open. Defaults to 5.
+         */
+        public Builder permittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+            this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+            return this;
+        }
+
+        public CircuitBreakerConfig build() {
+            if (slidingWindowSize < 1 || minimumCalls < 1 || permittedCallsInHalfOpenState < 1) {
+                throw new IllegalArgumentException("Window size, minimum calls and trial calls must be positive");
+            }
+            if (failureRateThreshold <= 0 || failureRateThreshold > 100
+                    || slowCallRateThreshold <= 0 || slowCallRateThreshold > 100) {
+                throw new IllegalArgumentException("Rate thresholds must be in (0, 100]");
+            }
+            if (slowCallDuration == null || slowCallDuration.isNegative()
+                    || waitInOpenState == null || waitInOpenState.isNegative()) {
+                throw new IllegalArgumentException("Durations must not be null or negative");
+            }
+            return new CircuitBreakerConfig(this);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.paymob.sdk.http;
+
+import java.time.Duration;
+
+/**
+ * Immutable settings for the {@link AdaptiveConcurrencyLimiter}.
+ * <p>
+ * The limiter uses additive increase, multiplicative decrease (AIMD). While
+ * calls are fast and succeed, the limit grows by about one per limit's worth of
+ * calls. A 429, a timeout, or a call slower than {@code latencyThreshold}
+ * multiplies it by {@code backoffRatio}. The limit always stays within
+ * {@code [minLimit, maxLimit]}.
+ */
+public final class ConcurrencyLimit {
+    private static final ConcurrencyLimit DEFAULTS = builder().build();
+    private static final ConcurrencyLimit DISABLED = builder().enabled(false).build();
+
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final Duration latencyThreshold;
+    private final Duration maxWait;
+
+    private ConcurrencyLimit(Builder builder) {
+        this.enabled = builder.enabled;
+        this.initialLimit = builder.initialLimit;
+        this.minLimit = builder.minLimit;
+        this.maxLimit = builder.maxLimit;
+        this.backoffRatio = builder.backoffRatio;
+        this.latencyThreshold = builder.latencyThreshold;
+        this.maxWait = builder.maxWait;
+    }
+
+    /**
+     * Starts at 20 concurrent calls within {@code [1, 200]}, backs off by 10%,
+     * treats calls over 2s as congestion, waits up to 5s for a slot.
+     */
+    public static ConcurrencyLimit defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * No concurrency limiting.
+     */
+    public static ConcurrencyLimit disabled() {
+        return DISABLED;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public Duration getLatencyThreshold() {
+        return latencyThreshold;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public static class Builder {
+        private boolean enabled = true;
+        private int initialLimit = 20;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        private double backoffRatio = 0.9;
+        private Duration latencyThreshold = Duration.ofSeconds(2);
+        private Duration maxWait = Duration.ofSeconds(5);
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        public Builder initialLimit(int initialLimit) {
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        public Builder minLimit(int minLimit) {
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        public Builder maxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Factor applied to the limit on congestion, in (0, 1). Defaults to
+         * 0.9.
+         */
+        public Builder backoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+            return this;
+        }
+
+        /**
+         * Calls slower than this count as congestion. Defaults to 2 seconds.
+         */
+        public Builder latencyThreshold(Duration latencyThreshold) {
+            this.latencyThreshold = latencyThreshold;
+            return this;
+        }
+
+        /**
+         * Longest a call waits for a slot. Defaults to 5 seconds.
+         */
+        public Builder maxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        public ConcurrencyLimit build() {
+            if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+            }
+            if (!(backoffRatio > 0 && backoffRatio < 1)) {
+                throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+            }
+            if (latencyThreshold == null || latencyThreshold.isNegative() || maxWait == null
+                    || maxWait.isNegative()) {
+                throw new IllegalArgumentException("Durations must not be null or negative");
+            }
+            return new ConcurrencyLimit(this);
+        }
+    }
+}
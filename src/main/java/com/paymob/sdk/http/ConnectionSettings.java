@@ -0,0 +1,132 @@
+package com.paymob.sdk.http;
+
+import okhttp3.Protocol;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable connection pool, dispatcher and protocol settings for the OkHttp
+ * core behind {@link OkHttpClientAdapter}.
+ * <p>
+ * These settings belong to the shared core, not to individual clients: every
+ * client derived from one core uses the same pool and dispatcher.
+ * <p>
+ * Almost all SDK traffic goes to a single region host, so
+ * {@code maxRequestsPerHost} defaults to {@code maxRequests} rather than
+ * OkHttp's default of 5. The dispatcher limits apply to asynchronous calls.
+ */
+public final class ConnectionSettings {
+    private static final ConnectionSettings DEFAULTS = builder().build();
+
+    private final int maxIdleConnections;
+    private final Duration keepAlive;
+    private final int maxRequests;
+    private final int maxRequestsPerHost;
+    private final List<Protocol> protocols;
+
+    private ConnectionSettings(Builder builder) {
+        this.maxIdleConnections = builder.maxIdleConnections;
+        this.keepAlive = builder.keepAlive;
+        this.maxRequests = builder.maxRequests;
+        this.maxRequestsPerHost = builder.maxRequestsPerHost;
+        this.protocols = Collections.unmodifiableList(Arrays.asList(builder.protocols));
+    }
+
+    public static ConnectionSettings defaults() {
+        return DEFAULTS;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public int getMaxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    public List<Protocol> getProtocols() {
+        return protocols;
+    }
+
+    public static class Builder {
+        private int maxIdleConnections = 5;
+        private Duration keepAlive = Duration.ofMinutes(5);
+        private int maxRequests = 64;
+        private int maxRequestsPerHost = 64;
+        private Protocol[] protocols = { Protocol.HTTP_2, Protocol.HTTP_1_1 };
+
+        /**
+         * Idle connections kept in the pool. Defaults to 5.
+         */
+        public Builder maxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * How long an idle connection is kept before eviction. Defaults to 5
+         * minutes.
+         */
+        public Builder keepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+            return this;
+        }
+
+        /**
+         * Maximum concurrent asynchronous requests. Defaults to 64.
+         */
+        public Builder maxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * Maximum concurrent asynchronous requests to one host. Defaults to 64.
+         */
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * Protocols to negotiate, in order of preference. Defaults to HTTP/2 with
+         * HTTP/1.1 fallback; pass only {@link Protocol#HTTP_1_1} to disable
+         * HTTP/2.
+         */
+        public Builder protocols(Protocol... protocols) {
+            this.protocols = protocols != null ? protocols.clone() : null;
+            return this;
+        }
+
+        public ConnectionSettings build() {
+            if (maxIdleConnections < 0) {
+                throw new IllegalArgumentException("Max idle connections cannot be negative");
+            }
+            if (keepAlive == null || keepAlive.isNegative() || keepAlive.isZero()) {
+                throw new IllegalArgumentException("Keep-alive must be positive");
+            }
+            if (maxRequests < 1 || maxRequestsPerHost < 1) {
+                throw new IllegalArgumentException("Max requests must be positive");
+            }
+            if (protocols == null || protocols.length == 0) {
+                throw new IllegalArgumentException("At least one protocol is required");
+            }
+            return new ConnectionSettings(this);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.paymob.sdk.http;
+
+import okhttp3.HttpUrl;
+
+import java.util.List;
+
+/**
+ * The Paymob API areas the SDK calls, used to give each its own bulkhead.
+ * <p>
+ * Groups are derived from the request path, so one transport can tell checkout
+ * traffic ({@link #INTENTIONS}, {@link #PAYMENTS}) apart from admin traffic
+ * ({@link #SUBSCRIPTIONS}, {@link #QUICK_LINKS}) without the services having
+ * to label their calls.
+ */
+public enum EndpointGroup {
+    /** Intention create, update and retrieve, including CIT/MIT intentions. */
+    INTENTIONS("/v1/intention"),
+    /** Refund, void and capture. */
+    TRANSACTIONS("/api/acceptance/void_refund", "/api/acceptance/capture"),
+    /** Saved-card MOTO charges. */
+    PAYMENTS("/api/acceptance/payments"),
+    /** Transaction inquiry and lookup. */
+    INQUIRY("/api/ecommerce/orders/transaction_inquiry", "/api/acceptance/transactions"),
+    /** Subscriptions and subscription plans. */
+    SUBSCRIPTIONS("/api/acceptance/subscriptions", "/api/acceptance/subscription-plans"),
+    /** Payment links. */
+    QUICK_LINKS("/api/ecommerce/payment-links"),
+    /** Bearer token login. */
+    AUTH("/api/auth"),
+    /** Anything else. */
+    OTHER();
+
+    private static final EndpointGroup[] VALUES = values();
+
+    private final List<String> prefixes;
+
+    EndpointGroup(String... prefixes) {
+        this.prefixes = List.of(prefixes);
+    }
+
+    /**
+     * Returns the group {@code url} belongs to.
+     */
+    public static EndpointGroup of(HttpUrl url) {
+        String path = url.encodedPath();
+        for (EndpointGroup group : VALUES) {
+            for (String prefix : group.prefixes) {
+                if (path.startsWith(prefix)) {
+                    return group;
+                }
+            }
+        }
+        return OTHER;
+    }
+
+    /**
+     * Returns {@code url}'s path with identifiers replaced by {@code {id}},
+     * e.g. {@code /api/acceptance/subscriptions/{id}/suspend}.
+     * <p>
+     * A segment counts as an identifier if it is numeric, or at least 8
+     * characters long and contains a digit; this also keeps client secrets
+     * and public keys out of the template.
+     */
+    public static String templateOf(HttpUrl url) {
+        List<String> segments = url.encodedPathSegments();
+        StringBuilder template = new StringBuilder(url.encodedPath().length());
+        for (String segment : segments) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            template.append('/').append(isIdentifier(segment) ? "{id}" : segment);
+        }
+        return template.length() == 0 ? "/" : template.toString();
+    }
+
+    private static boolean isIdentifier(String segment) {
+        boolean hasDigit = false;
+        boolean allDigits = true;
+        for (int i = 0; i < segment.length(); i++) {
+            boolean digit = Character.isDigit(segment.charAt(i));
+            hasDigit |= digit;
+            allDigits &= digit;
+        }
+        return allDigits || (hasDigit && segment.length() >= 8);
+    }
+}
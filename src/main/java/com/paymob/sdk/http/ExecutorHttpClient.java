@@ -0,0 +1,245 @@
+package com.paymob.sdk.http;
+
+import com.paymob.sdk.core.auth.AuthStrategy;
+import com.paymob.sdk.metrics.PaymobMetrics;
+import com.paymob.sdk.tracing.PaymobTracer;
+import com.paymob.sdk.models.enums.LogLevel;
+import okhttp3.HttpUrl;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link HttpClient} decorator that runs asynchronous calls as blocking calls on
+ * a caller-supplied {@link Executor}.
+ * <p>
+ * With a virtual-thread-per-task executor, every in-flight call costs one cheap
+ * virtual thread and is not capped by the OkHttp dispatcher's request limits.
+ * Futures complete on the executor's threads, so dependent stages run there
+ * too. Synchronous calls and configuration go straight to the delegate.
+ */
+public class ExecutorHttpClient implements HttpClient {
+    private final HttpClient delegate;
+    private final Executor executor;
+
+    public ExecutorHttpClient(HttpClient delegate, Executor executor) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("HTTP client is required");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor is required");
+        }
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    public HttpClient getDelegate() {
+        return delegate;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public <T> T get(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy) {
+        return delegate.get(url, responseClass, authStrategy);
+    }
+
+    @Override
+    public <T> T post(HttpUrl url, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy) {
+        return delegate.post(url, requestBody, responseClass, authStrategy);
+    }
+
+    @Override
+    public <T> T put(HttpUrl url, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy) {
+        return delegate.put(url, requestBody, responseClass, authStrategy);
+    }
+
+    @Override
+    public <T> T delete(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy) {
+        return delegate.delete(url, responseClass, authStrategy);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy) {
+        return CompletableFuture.supplyAsync(() -> delegate.get(url, responseClass, authStrategy), executor);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> postAsync(HttpUrl url, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy) {
+        return CompletableFuture.supplyAsync(() -> delegate.post(url, requestBody, responseClass, authStrategy),
+                executor);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> putAsync(HttpUrl url, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy) {
+        return CompletableFuture.supplyAsync(() -> delegate.put(url, requestBody, responseClass, authStrategy),
+                executor);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> deleteAsync(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy) {
+        return CompletableFuture.supplyAsync(() -> delegate.delete(url, responseClass, authStrategy), executor);
+    }
+
+    @Override
+    public <T> T get(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy, String operation) {
+        return delegate.get(url, responseClass, authStrategy, operation);
+    }
+
+    @Override
+    public <T> T post(HttpUrl url, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy,
+            String operation) {
+        return delegate.post(url, requestBody, responseClass, authStrategy, operation);
+    }
+
+    @Override
+    public <T> T put(HttpUrl url, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy,
+            String operation) {
+        return delegate.put(url, requestBody, responseClass, authStrategy, operation);
+    }
+
+    @Override
+    public <T> T delete(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy, String operation) {
+        return delegate.delete(url, responseClass, authStrategy, operation);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy,
+            String operation) {
+        return CompletableFuture.supplyAsync(() -> delegate.get(url, responseClass, authStrategy, operation),
+                executor);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> postAsync(HttpUrl url, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy, String operation) {
+        return CompletableFuture.supplyAsync(
+                () -> delegate.post(url, requestBody, responseClass, authStrategy, operation), executor);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> putAsync(HttpUrl url, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy, String operation) {
+        return CompletableFuture.supplyAsync(
+                () -> delegate.put(url, requestBody, responseClass, authStrategy, operation), executor);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> deleteAsync(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy,
+            String operation) {
+        return CompletableFuture.supplyAsync(() -> delegate.delete(url, responseClass, authStrategy, operation),
+                executor);
+    }
+
+    @Override
+    public <T> T get(String endpoint, Class<T> responseClass, AuthStrategy authStrategy) {
+        return delegate.get(endpoint, responseClass, authStrategy);
+    }
+
+    @Override
+    public <T> T post(String endpoint, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy) {
+        return delegate.post(endpoint, requestBody, responseClass, authStrategy);
+    }
+
+    @Override
+    public <T> T put(String endpoint, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy) {
+        return delegate.put(endpoint, requestBody, responseClass, authStrategy);
+    }
+
+    @Override
+    public <T> T delete(String endpoint, Class<T> responseClass, AuthStrategy authStrategy) {
+        return delegate.delete(endpoint, responseClass, authStrategy);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> getAsync(String endpoint, Class<T> responseClass, AuthStrategy authStrategy) {
+        return CompletableFuture.supplyAsync(() -> delegate.get(endpoint, responseClass, authStrategy), executor);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> postAsync(String endpoint, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy) {
+        return CompletableFuture.supplyAsync(() -> delegate.post(endpoint, requestBody, responseClass, authStrategy),
+                executor);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> putAsync(String endpoint, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy) {
+        return CompletableFuture.supplyAsync(() -> delegate.put(endpoint, requestBody, responseClass, authStrategy),
+                executor);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> deleteAsync(String endpoint, Class<T> responseClass,
+            AuthStrategy authStrategy) {
+        return CompletableFuture.supplyAsync(() -> delegate.delete(endpoint, responseClass, authStrategy), executor);
+    }
+
+    @Override
+    @Deprecated
+    public void setBaseUrl(String baseUrl) {
+        delegate.setBaseUrl(baseUrl);
+    }
+
+    @Override
+    public void setTimeout(int timeoutSeconds) {
+        delegate.setTimeout(timeoutSeconds);
+    }
+
+    @Override
+    public void setTimeouts(Duration connect, Duration read, Duration write, Duration call) {
+        delegate.setTimeouts(connect, read, write, call);
+    }
+
+    @Override
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        delegate.setRetryPolicy(retryPolicy);
+    }
+
+    @Override
+    public void setCircuitBreakerConfig(CircuitBreakerConfig config) {
+        delegate.setCircuitBreakerConfig(config);
+    }
+
+    @Override
+    public void setBulkheadLimits(Map<EndpointGroup, Integer> limits) {
+        delegate.setBulkheadLimits(limits);
+    }
+
+    @Override
+    public void setRateLimits(Map<EndpointGroup, RateLimit> limits) {
+        delegate.setRateLimits(limits);
+    }
+
+    @Override
+    public void setConcurrencyLimit(ConcurrencyLimit limit) {
+        delegate.setConcurrencyLimit(limit);
+    }
+
+    @Override
+    public void setMetrics(PaymobMetrics metrics) {
+        delegate.setMetrics(metrics);
+    }
+
+    @Override
+    public void setTracer(PaymobTracer tracer) {
+        delegate.setTracer(tracer);
+    }
+
+    @Override
+    public int warmUp(HttpUrl url, int connections) {
+        return delegate.warmUp(url, connections);
+    }
+
+    @Override
+    public void setLogLevel(LogLevel logLevel) {
+        delegate.setLogLevel(logLevel);
+    }
+}
@@ -1,12 +1,154 @@
 package com.paymob.sdk.http;
 
 import com.paymob.sdk.core.auth.AuthStrategy;
+import com.paymob.sdk.metrics.PaymobMetrics;
+import com.paymob.sdk.tracing.PaymobTracer;
+import okhttp3.HttpUrl;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface for HTTP client implementations.
  * Allows swapping between different HTTP client libraries.
+ * <p>
+ * Methods taking an {@link HttpUrl} address the request absolutely and are safe
+ * to share between services targeting different regions. Methods taking a
+ * {@code String} endpoint resolve it against the URL passed to
+ * {@link #setBaseUrl(String)}.
+ * <p>
+ * The {@link HttpUrl} methods default to the {@code String} ones with the
+ * absolute URL, so implementations written before they existed keep
+ * compiling; such implementations must accept an absolute URL as the
+ * endpoint, since services no longer call {@link #setBaseUrl(String)}.
  */
 public interface HttpClient {
+    /**
+     * Performs a GET request with authentication.
+     */
+    default <T> T get(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy) {
+        return get(url.toString(), responseClass, authStrategy);
+    }
+
+    /**
+     * Performs a POST request with authentication.
+     */
+    default <T> T post(HttpUrl url, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy) {
+        return post(url.toString(), requestBody, responseClass, authStrategy);
+    }
+
+    /**
+     * Performs a PUT request with authentication.
+     */
+    default <T> T put(HttpUrl url, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy) {
+        return put(url.toString(), requestBody, responseClass, authStrategy);
+    }
+
+    /**
+     * Performs a DELETE request with authentication.
+     */
+    default <T> T delete(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy) {
+        return delete(url.toString(), responseClass, authStrategy);
+    }
+
+    /**
+     * Performs a GET request without blocking the calling thread.
+     * <p>
+     * The default implementation runs the blocking {@link #get} on the common
+     * pool; implementations backed by a non-blocking transport should override it.
+     */
+    default <T> CompletableFuture<T> getAsync(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy) {
+        return CompletableFuture.supplyAsync(() -> get(url, responseClass, authStrategy));
+    }
+
+    /**
+     * Performs a POST request without blocking the calling thread.
+     */
+    default <T> CompletableFuture<T> postAsync(HttpUrl url, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy) {
+        return CompletableFuture.supplyAsync(() -> post(url, requestBody, responseClass, authStrategy));
+    }
+
+    /**
+     * Performs a PUT request without blocking the calling thread.
+     */
+    default <T> CompletableFuture<T> putAsync(HttpUrl url, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy) {
+        return CompletableFuture.supplyAsync(() -> put(url, requestBody, responseClass, authStrategy));
+    }
+
+    /**
+     * Performs a DELETE request without blocking the calling thread.
+     */
+    default <T> CompletableFuture<T> deleteAsync(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy) {
+        return CompletableFuture.supplyAsync(() -> delete(url, responseClass, authStrategy));
+    }
+
+    /**
+     * Performs a GET request, traced under {@code operation}, the calling
+     * service method, e.g. {@code SubscriptionService.getSubscription}.
+     * Implementations without tracing ignore the name.
+     */
+    default <T> T get(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy, String operation) {
+        return get(url, responseClass, authStrategy);
+    }
+
+    /**
+     * Performs a POST request, traced under {@code operation}.
+     */
+    default <T> T post(HttpUrl url, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy,
+            String operation) {
+        return post(url, requestBody, responseClass, authStrategy);
+    }
+
+    /**
+     * Performs a PUT request, traced under {@code operation}.
+     */
+    default <T> T put(HttpUrl url, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy,
+            String operation) {
+        return put(url, requestBody, responseClass, authStrategy);
+    }
+
+    /**
+     * Performs a DELETE request, traced under {@code operation}.
+     */
+    default <T> T delete(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy, String operation) {
+        return delete(url, responseClass, authStrategy);
+    }
+
+    /**
+     * Performs a GET request without blocking, traced under {@code operation}.
+     */
+    default <T> CompletableFuture<T> getAsync(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy,
+            String operation) {
+        return getAsync(url, responseClass, authStrategy);
+    }
+
+    /**
+     * Performs a POST request without blocking, traced under {@code operation}.
+     */
+    default <T> CompletableFuture<T> postAsync(HttpUrl url, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy, String operation) {
+        return postAsync(url, requestBody, responseClass, authStrategy);
+    }
+
+    /**
+     * Performs a PUT request without blocking, traced under {@code operation}.
+     */
+    default <T> CompletableFuture<T> putAsync(HttpUrl url, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy, String operation) {
+        return putAsync(url, requestBody, responseClass, authStrategy);
+    }
+
+    /**
+     * Performs a DELETE request without blocking, traced under {@code operation}.
+     */
+    default <T> CompletableFuture<T> deleteAsync(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy,
+            String operation) {
+        return deleteAsync(url, responseClass, authStrategy);
+    }
+
     /**
      * Performs a GET request with authentication.
      */
@@ -28,15 +170,127 @@ public interface HttpClient {
     <T> T delete(String endpoint, Class<T> responseClass, AuthStrategy authStrategy);
 
     /**
-     * Sets the base URL for all requests.
+     * Performs a GET request without blocking the calling thread.
+     * <p>
+     * The default implementation runs the blocking {@link #get} on the common
+     * pool; implementations backed by a non-blocking transport should override it.
+     */
+    default <T> CompletableFuture<T> getAsync(String endpoint, Class<T> responseClass, AuthStrategy authStrategy) {
+        return CompletableFuture.supplyAsync(() -> get(endpoint, responseClass, authStrategy));
+    }
+
+    /**
+     * Performs a POST request without blocking the calling thread.
      */
+    default <T> CompletableFuture<T> postAsync(String endpoint, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy) {
+        return CompletableFuture.supplyAsync(() -> post(endpoint, requestBody, responseClass, authStrategy));
+    }
+
+    /**
+     * Performs a PUT request without blocking the calling thread.
+     */
+    default <T> CompletableFuture<T> putAsync(String endpoint, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy) {
+        return CompletableFuture.supplyAsync(() -> put(endpoint, requestBody, responseClass, authStrategy));
+    }
+
+    /**
+     * Performs a DELETE request without blocking the calling thread.
+     */
+    default <T> CompletableFuture<T> deleteAsync(String endpoint, Class<T> responseClass,
+            AuthStrategy authStrategy) {
+        return CompletableFuture.supplyAsync(() -> delete(endpoint, responseClass, authStrategy));
+    }
+
+    /**
+     * Sets the base URL used to resolve {@code String} endpoints.
+     *
+     * @deprecated The base URL is shared mutable state; pass an absolute
+     *             {@link HttpUrl} to the request methods instead.
+     */
+    @Deprecated
     void setBaseUrl(String baseUrl);
 
     /**
-     * Sets the timeout for requests.
+     * Sets the connect, read and write timeout for requests.
      */
     void setTimeout(int timeoutSeconds);
 
+    /**
+     * Sets each timeout separately. A zero duration means no timeout. The call
+     * timeout bounds the whole call, including redirects and retries.
+     * <p>
+     * Implementations without separate timeouts fall back to
+     * {@link #setTimeout(int)} with the read timeout.
+     */
+    default void setTimeouts(Duration connect, Duration read, Duration write, Duration call) {
+        setTimeout((int) read.getSeconds());
+    }
+
+    /**
+     * Sets how transient failures are retried. Implementations without retries
+     * ignore it.
+     */
+    default void setRetryPolicy(RetryPolicy retryPolicy) {
+    }
+
+    /**
+     * Sets the per-endpoint circuit breaker settings. Implementations without
+     * circuit breakers ignore it.
+     */
+    default void setCircuitBreakerConfig(CircuitBreakerConfig config) {
+    }
+
+    /**
+     * Sets the maximum concurrent calls per endpoint group; groups not listed
+     * are unbounded. Implementations without bulkheads ignore it.
+     */
+    default void setBulkheadLimits(Map<EndpointGroup, Integer> limits) {
+    }
+
+    /**
+     * Sets the token-bucket rate limit per endpoint group; groups not listed
+     * are not rate limited. Implementations without rate limiting ignore it.
+     */
+    default void setRateLimits(Map<EndpointGroup, RateLimit> limits) {
+    }
+
+    /**
+     * Sets the adaptive concurrency limit applied to each endpoint group.
+     * Implementations without concurrency limiting ignore it.
+     */
+    default void setConcurrencyLimit(ConcurrencyLimit limit) {
+    }
+
+    /**
+     * Sets where call metrics are reported. Implementations without
+     * instrumentation ignore it.
+     */
+    default void setMetrics(PaymobMetrics metrics) {
+    }
+
+    /**
+     * Sets the tracer that receives a span per call. Implementations without
+     * tracing ignore it.
+     */
+    default void setTracer(PaymobTracer tracer) {
+    }
+
+    /**
+     * Opens up to {@code connections} pooled connections to the host of
+     * {@code url}, so the first real request skips DNS, TCP and TLS setup. Over
+     * HTTP/2 a single connection is shared by every request.
+     *
+     * @param url         Any URL on the target host
+     * @param connections Number of connections to try to open
+     * @return Number of pooled connections after warm-up; 0 if the
+     *         implementation does not pool connections
+     */
+    default int warmUp(HttpUrl url, int connections) {
+        return 0;
+    }
+
     /**
      * Sets the logging level.
      */
@@ -0,0 +1,111 @@
+package com.paymob.sdk.http;
+
+import okhttp3.Request;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Classifies requests by whether repeating them is safe, and carries the
+ * client-generated idempotency keys sent with unsafe ones.
+ * <p>
+ * GET, HEAD, PUT and DELETE are idempotent. A POST is not, unless it only reads
+ * (token login, transaction inquiry) or moves a resource to a fixed state
+ * (suspend, resume, cancel). Refunds, voids, captures, payments and every
+ * create call are therefore unsafe to repeat.
+ * <p>
+ * Unsafe requests carry an {@value #HEADER} header. The key stays the same
+ * across transport retries of one call, and {@link #keyed(Object, String)}
+ * pins it across separate calls. The SDK's own safety does not depend on
+ * Paymob honouring the header: unsafe requests are only retried when they
+ * certainly never reached the server.
+ */
+public final class Idempotency {
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final Set<String> READ_ONLY_POST_PATHS = Set.of(
+            "/api/auth/tokens",
+            "/api/ecommerce/orders/transaction_inquiry");
+    private static final String[] STATE_TRANSITION_SUFFIXES = {
+            "/suspend", "/resume", "/cancel", "/delete-card", "/register_webhook" };
+
+    private Idempotency() {
+    }
+
+    /**
+     * Returns true if sending {@code request} twice has the same effect as
+     * sending it once.
+     */
+    public static boolean isIdempotent(Request request) {
+        String method = request.method();
+        if (!"POST".equals(method) && !"PATCH".equals(method)) {
+            return true;
+        }
+        String path = request.url().encodedPath();
+        if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        if (READ_ONLY_POST_PATHS.contains(path)) {
+            return true;
+        }
+        for (String suffix : STATE_TRANSITION_SUFFIXES) {
+            if (path.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if {@code exception} shows the request was never sent:
+     * the host could not be resolved or no connection was established.
+     * Anything else may have reached the server.
+     */
+    public static boolean isNotSent(IOException exception) {
+        if (exception instanceof ConnectException
+                || exception instanceof UnknownHostException
+                || exception instanceof NoRouteToHostException) {
+            return true;
+        }
+        return exception instanceof SocketTimeoutException
+                && exception.getMessage() != null
+                && exception.getMessage().startsWith("connect timed out");
+    }
+
+    /**
+     * Generates a new random idempotency key.
+     */
+    public static String newKey() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Wraps a request body so that it is sent with {@code key} instead of a
+     * freshly generated key. Use it to repeat an unsafe call after confirming
+     * the first attempt did not land.
+     */
+    public static Object keyed(Object body, String key) {
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("Idempotency key is required");
+        }
+        return new KeyedBody(body, key);
+    }
+
+    /**
+     * A request body paired with a caller-chosen idempotency key.
+     */
+    static final class KeyedBody {
+        final Object body;
+        final String key;
+
+        private KeyedBody(Object body, String key) {
+            this.body = body;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.paymob.sdk.http;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared JSON codec for the SDK.
+ * <p>
+ * Holds a single tuned {@link ObjectMapper} and caches the
+ * {@link ObjectReader}/{@link ObjectWriter} for every type it has seen, so
+ * Jackson's serializer and deserializer lookups happen once per class instead
+ * of once per call. Readers and writers are immutable and thread-safe.
+ * <p>
+ * The mapper passed in must be fully configured before the codec is created;
+ * cached readers and writers snapshot its configuration. To customise JSON
+ * handling, configure a copy of {@link #defaultObjectMapper()} and wrap it in
+ * a new codec rather than changing the shared one.
+ */
+public final class JsonCodec {
+    public static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    private static final JsonCodec SHARED = new JsonCodec(defaultObjectMapper());
+
+    private final ObjectMapper objectMapper;
+    private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public JsonCodec(ObjectMapper objectMapper) {
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("Object mapper is required");
+        }
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the process-wide codec backed by {@link #defaultObjectMapper()}.
+     */
+    public static JsonCodec shared() {
+        return SHARED;
+    }
+
+    /**
+     * Creates a mapper with the SDK defaults: unknown properties are ignored and
+     * null fields are left out of request bodies.
+     */
+    public static ObjectMapper defaultObjectMapper() {
+        return new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    }
+
+    /**
+     * Returns the mapper backing this codec, for reading its configuration and
+     * for conversions the codec does not offer. Treat it as read-only: readers
+     * and writers already cached would not see a change, and the
+     * {@link #shared()} codec's mapper serves every client in the JVM.
+     */
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    public ObjectReader readerFor(Class<?> type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    public ObjectWriter writerFor(Class<?> type) {
+        return writers.computeIfAbsent(type, objectMapper::writerFor);
+    }
+
+    public <T> T read(InputStream in, Class<T> type) throws IOException {
+        return readerFor(type).readValue(in);
+    }
+
+    public <T> T read(String json, Class<T> type) throws IOException {
+        return readerFor(type).readValue(json);
+    }
+
+    public <T> T treeToValue(JsonNode node, Class<T> type) throws IOException {
+        return readerFor(type).readValue(node);
+    }
+
+    public JsonNode readTree(String json) throws IOException {
+        return objectMapper.readTree(json);
+    }
+
+    public JsonNode readTree(byte[] json) throws IOException {
+        return objectMapper.readTree(json);
+    }
+
+    /**
+     * Opens a streaming parser over {@code json}, for callers that read a few
+     * fields without building a tree.
+     */
+    public JsonParser createParser(String json) throws IOException {
+        return objectMapper.getFactory().createParser(json);
+    }
+
+    /**
+     * Same as {@link #createParser(String)} for a UTF-8 body.
+     */
+    public JsonParser createParser(byte[] json) throws IOException {
+        return objectMapper.getFactory().createParser(json);
+    }
+
+    public String writeAsString(Object value) throws IOException {
+        return writerFor(typeOf(value)).writeValueAsString(value);
+    }
+
+    /**
+     * Serializes the value straight into an Okio {@link Buffer} and wraps it as a
+     * JSON request body. No intermediate String or byte array is created, and the
+     * body can be written more than once (retries, logging).
+     */
+    public RequestBody toRequestBody(Object value) throws IOException {
+        Buffer buffer = new Buffer();
+        writerFor(typeOf(value)).writeValue(buffer.outputStream(), value);
+        return new BufferRequestBody(buffer);
+    }
+
+    private static Class<?> typeOf(Object value) {
+        return value != null ? value.getClass() : Object.class;
+    }
+
+    private static final class BufferRequestBody extends RequestBody {
+        private final Buffer buffer;
+
+        private BufferRequestBody(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return JSON;
+        }
+
+        @Override
+        public long contentLength() {
+            return buffer.size();
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            // Segments are shared with the sink, not copied
+            buffer.copyTo(sink.getBuffer(), 0, buffer.size());
+            sink.emitCompleteSegments();
+        }
+    }
+}
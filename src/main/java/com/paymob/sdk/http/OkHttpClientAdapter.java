@@ -2,146 +2,483 @@ package com.paymob.sdk.http;
 
 import com.paymob.sdk.models.enums.LogLevel;
 
+import com.paymob.sdk.core.PaymobRegion;
 import com.paymob.sdk.core.auth.AuthStrategy;
 import com.paymob.sdk.core.auth.SecretKeyAuthStrategy;
 import com.paymob.sdk.core.auth.BearerTokenAuthStrategy;
 import com.paymob.sdk.exceptions.*;
 import com.paymob.sdk.http.interceptors.AuthInterceptor;
+import com.paymob.sdk.http.interceptors.BulkheadInterceptor;
+import com.paymob.sdk.http.interceptors.CircuitBreakerInterceptor;
+import com.paymob.sdk.http.interceptors.RejectedCallException;
 import com.paymob.sdk.http.interceptors.RetryInterceptor;
 import com.paymob.sdk.http.interceptors.LoggingInterceptor;
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.paymob.sdk.http.interceptors.MetricsInterceptor;
+import com.paymob.sdk.http.interceptors.TracingInterceptor;
+import com.paymob.sdk.metrics.PaymobMetrics;
+import com.paymob.sdk.tracing.PaymobSpan;
+import com.paymob.sdk.tracing.PaymobTracer;
 import okhttp3.*;
 import okhttp3.logging.HttpLoggingInterceptor;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * OkHttp implementation of HttpClient interface.
  * Provides connection pooling, timeouts, retry logic, and interceptors.
+ * Async variants are dispatched with {@link Call#enqueue} and never block the
+ * calling thread on network I/O.
+ * <p>
+ * Timeouts are applied per call by an interceptor rather than baked into the
+ * OkHttp client, so changing them never rebuilds the client or its pool.
+ * <p>
+ * Retries follow the {@link RetryPolicy}. Synchronous calls retry inside
+ * {@link RetryInterceptor} on the caller's thread. Asynchronous calls are
+ * re-enqueued from a shared scheduler after their backoff, so no dispatcher
+ * thread ever sleeps. Either way, retries stop at the call timeout.
+ * <p>
+ * Ahead of the retries, a {@link Bulkhead} per {@link EndpointGroup} and a
+ * {@link CircuitBreaker} per endpoint template reject calls that should not be
+ * sent at all, with a {@link CallNotPermittedException}.
+ * <p>
+ * Before any of that, each call is admitted by a per-group {@link RateLimiter}
+ * and {@link AdaptiveConcurrencyLimiter}, if configured. Synchronous calls wait
+ * for them on the caller's thread; asynchronous calls wait without a thread
+ * and are only enqueued once admitted, so dispatcher threads never block.
+ * <p>
+ * Each attempt is reported to the configured {@link PaymobMetrics}; with
+ * {@link PaymobMetrics#NOOP} nothing is measured. Likewise, with a
+ * {@link PaymobTracer} each call runs in an operation span with child spans per
+ * attempt and for JSON binding; with {@link PaymobTracer#NOOP} no span is
+ * created.
  */
 public class OkHttpClientAdapter implements HttpClient {
-    private OkHttpClient client;
-    private ObjectMapper objectMapper;
-    private String baseUrl;
+    private static final ScheduledExecutorService RETRY_SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "paymob-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final OkHttpClient core;
+    private final boolean ownsCore;
+    private final OkHttpClient client;
+    private final JsonCodec codec;
+    private volatile Timeouts timeouts;
+    private volatile RetryPolicy retryPolicy = RetryPolicy.defaults();
+    private volatile PaymobMetrics metrics = PaymobMetrics.NOOP;
+    private volatile PaymobTracer tracer = PaymobTracer.NOOP;
+    private volatile String baseUrl;
     private final LoggingInterceptor loggingInterceptor;
+    private final BulkheadInterceptor bulkheadInterceptor = new BulkheadInterceptor();
+    private final CircuitBreakerInterceptor circuitBreakerInterceptor = new CircuitBreakerInterceptor();
+    private final Throttle throttle = new Throttle(RETRY_SCHEDULER);
 
     public OkHttpClientAdapter() {
-        this.objectMapper = new ObjectMapper()
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this(JsonCodec.shared());
+    }
+
+    public OkHttpClientAdapter(JsonCodec codec) {
+        this(newCore(), codec, true);
+    }
+
+    /**
+     * Derives this adapter's client from {@code core} with
+     * {@link OkHttpClient#newBuilder()}, so it shares the core's connection pool,
+     * dispatcher and thread pool. Many adapters built from one core cost no extra
+     * sockets or threads.
+     *
+     * <p>
+     * The core's pool and dispatcher gauges are left to its owner; see
+     * {@link #registerGauges(OkHttpClient, PaymobMetrics)}.
+     *
+     * @param core  Shared OkHttp client; should not carry SDK interceptors itself
+     * @param codec JSON codec for request and response bodies
+     */
+    public OkHttpClientAdapter(OkHttpClient core, JsonCodec codec) {
+        this(core, codec, false);
+    }
+
+    private OkHttpClientAdapter(OkHttpClient core, JsonCodec codec, boolean ownsCore) {
+        if (core == null) {
+            throw new IllegalArgumentException("OkHttp client is required");
+        }
+        if (codec == null) {
+            throw new IllegalArgumentException("JSON codec is required");
+        }
+        this.codec = codec;
         this.loggingInterceptor = new LoggingInterceptor();
-        this.client = new OkHttpClient.Builder()
+        this.timeouts = new Timeouts(core.connectTimeoutMillis(), core.readTimeoutMillis(),
+                core.writeTimeoutMillis(), core.callTimeoutMillis());
+        this.core = core;
+        this.ownsCore = ownsCore;
+        this.client = core.newBuilder()
+                .addInterceptor(this::applyTimeouts)
+                .addInterceptor(new AuthInterceptor())
+                .addInterceptor(bulkheadInterceptor)
+                .addInterceptor(circuitBreakerInterceptor)
+                .addInterceptor(new RetryInterceptor(() -> retryPolicy, () -> metrics))
+                .addInterceptor(new TracingInterceptor())
+                .addInterceptor(new MetricsInterceptor(() -> metrics))
+                .addInterceptor(this.loggingInterceptor)
+                .build();
+    }
+
+    /**
+     * Registers connection pool and dispatcher gauges for {@code core} with
+     * {@code metrics}. Call it once per core, from whoever owns it, however
+     * many adapters share the core.
+     */
+    public static void registerGauges(OkHttpClient core, PaymobMetrics metrics) {
+        if (metrics == PaymobMetrics.NOOP) {
+            return;
+        }
+        ConnectionPool pool = core.connectionPool();
+        Dispatcher dispatcher = core.dispatcher();
+        metrics.registerGauge(PaymobMetrics.CONNECTIONS, pool::connectionCount);
+        metrics.registerGauge(PaymobMetrics.IDLE_CONNECTIONS, pool::idleConnectionCount);
+        metrics.registerGauge(PaymobMetrics.QUEUED_CALLS, dispatcher::queuedCallsCount);
+        metrics.registerGauge(PaymobMetrics.RUNNING_CALLS, dispatcher::runningCallsCount);
+    }
+
+    /**
+     * Creates an OkHttp client with the SDK's default timeouts and no
+     * interceptors, suitable as a shared core for
+     * {@link #OkHttpClientAdapter(OkHttpClient, JsonCodec)}.
+     */
+    public static OkHttpClient newCore() {
+        return newCore(ConnectionSettings.defaults());
+    }
+
+    /**
+     * Creates a core OkHttp client with the given pool, dispatcher and protocol
+     * settings and the SDK's default 60s timeouts.
+     */
+    public static OkHttpClient newCore(ConnectionSettings settings) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(settings.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(settings.getMaxRequestsPerHost());
+        return new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(settings.getMaxIdleConnections(),
+                        settings.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .protocols(settings.getProtocols())
                 .connectTimeout(60, TimeUnit.SECONDS)
                 .readTimeout(60, TimeUnit.SECONDS)
                 .writeTimeout(60, TimeUnit.SECONDS)
-                .addInterceptor(new AuthInterceptor())
-                .addInterceptor(new RetryInterceptor())
-                .addInterceptor(this.loggingInterceptor)
                 .build();
     }
 
+    /**
+     * Returns the underlying OkHttp client.
+     */
+    public OkHttpClient getOkHttpClient() {
+        return client;
+    }
+
     @Override
-    public <T> T get(String endpoint, Class<T> responseClass, AuthStrategy authStrategy) {
-        try {
-            Request.Builder requestBuilder = new Request.Builder()
-                    .url(baseUrl + endpoint)
-                    .get();
+    public <T> T get(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy) {
+        return execute("GET", url, null, responseClass, authStrategy, null);
+    }
 
-            applyAuth(requestBuilder, authStrategy);
+    @Override
+    public <T> T get(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy, String operation) {
+        return execute("GET", url, null, responseClass, authStrategy, operation);
+    }
 
-            Request request = requestBuilder.build();
-            Response response = client.newCall(request).execute();
+    @Override
+    public <T> T post(HttpUrl url, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy) {
+        return execute("POST", url, requestBody, responseClass, authStrategy, null);
+    }
 
-            return handleResponse(response, responseClass);
-        } catch (IOException e) {
-            throw new PaymobException("GET request failed", e);
-        }
+    @Override
+    public <T> T post(HttpUrl url, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy,
+            String operation) {
+        return execute("POST", url, requestBody, responseClass, authStrategy, operation);
     }
 
     @Override
-    public <T> T post(String endpoint, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy) {
-        try {
-            RequestBody body;
-            if (requestBody instanceof RequestBody) {
-                body = (RequestBody) requestBody;
-            } else {
-                String jsonBody = objectMapper.writeValueAsString(requestBody);
-                body = RequestBody.create(jsonBody, MediaType.get("application/json; charset=utf-8"));
-            }
+    public <T> T put(HttpUrl url, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy) {
+        return execute("PUT", url, requestBody, responseClass, authStrategy, null);
+    }
 
-            Request.Builder requestBuilder = new Request.Builder()
-                    .url(baseUrl + endpoint)
-                    .post(body);
+    @Override
+    public <T> T put(HttpUrl url, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy,
+            String operation) {
+        return execute("PUT", url, requestBody, responseClass, authStrategy, operation);
+    }
 
-            applyAuth(requestBuilder, authStrategy);
+    @Override
+    public <T> T delete(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy) {
+        return execute("DELETE", url, null, responseClass, authStrategy, null);
+    }
 
-            Request request = requestBuilder.build();
-            Response response = client.newCall(request).execute();
+    @Override
+    public <T> T delete(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy, String operation) {
+        return execute("DELETE", url, null, responseClass, authStrategy, operation);
+    }
 
-            return handleResponse(response, responseClass);
-        } catch (IOException e) {
-            throw new PaymobException("POST request failed", e);
-        }
+    @Override
+    public <T> CompletableFuture<T> getAsync(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy) {
+        return enqueue("GET", url, null, responseClass, authStrategy, null);
     }
 
     @Override
-    public <T> T put(String endpoint, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy) {
-        try {
-            RequestBody body;
-            if (requestBody instanceof RequestBody) {
-                body = (RequestBody) requestBody;
-            } else {
-                String jsonBody = objectMapper.writeValueAsString(requestBody);
-                body = RequestBody.create(jsonBody, MediaType.get("application/json; charset=utf-8"));
-            }
+    public <T> CompletableFuture<T> getAsync(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy,
+            String operation) {
+        return enqueue("GET", url, null, responseClass, authStrategy, operation);
+    }
 
-            Request.Builder requestBuilder = new Request.Builder()
-                    .url(baseUrl + endpoint)
-                    .put(body);
+    @Override
+    public <T> CompletableFuture<T> postAsync(HttpUrl url, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy) {
+        return enqueue("POST", url, requestBody, responseClass, authStrategy, null);
+    }
 
-            applyAuth(requestBuilder, authStrategy);
+    @Override
+    public <T> CompletableFuture<T> postAsync(HttpUrl url, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy, String operation) {
+        return enqueue("POST", url, requestBody, responseClass, authStrategy, operation);
+    }
 
-            Request request = requestBuilder.build();
-            Response response = client.newCall(request).execute();
+    @Override
+    public <T> CompletableFuture<T> putAsync(HttpUrl url, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy) {
+        return enqueue("PUT", url, requestBody, responseClass, authStrategy, null);
+    }
 
-            return handleResponse(response, responseClass);
-        } catch (IOException e) {
-            throw new PaymobException("PUT request failed", e);
-        }
+    @Override
+    public <T> CompletableFuture<T> putAsync(HttpUrl url, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy, String operation) {
+        return enqueue("PUT", url, requestBody, responseClass, authStrategy, operation);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> deleteAsync(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy) {
+        return enqueue("DELETE", url, null, responseClass, authStrategy, null);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> deleteAsync(HttpUrl url, Class<T> responseClass, AuthStrategy authStrategy,
+            String operation) {
+        return enqueue("DELETE", url, null, responseClass, authStrategy, operation);
+    }
+
+    @Override
+    public <T> T get(String endpoint, Class<T> responseClass, AuthStrategy authStrategy) {
+        return get(resolve(endpoint), responseClass, authStrategy);
+    }
+
+    @Override
+    public <T> T post(String endpoint, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy) {
+        return post(resolve(endpoint), requestBody, responseClass, authStrategy);
+    }
+
+    @Override
+    public <T> T put(String endpoint, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy) {
+        return put(resolve(endpoint), requestBody, responseClass, authStrategy);
     }
 
     @Override
     public <T> T delete(String endpoint, Class<T> responseClass, AuthStrategy authStrategy) {
-        try {
-            Request.Builder requestBuilder = new Request.Builder()
-                    .url(baseUrl + endpoint)
-                    .delete();
+        return delete(resolve(endpoint), responseClass, authStrategy);
+    }
 
-            applyAuth(requestBuilder, authStrategy);
+    @Override
+    public <T> CompletableFuture<T> getAsync(String endpoint, Class<T> responseClass, AuthStrategy authStrategy) {
+        return getAsync(resolve(endpoint), responseClass, authStrategy);
+    }
 
-            Request request = requestBuilder.build();
-            Response response = client.newCall(request).execute();
+    @Override
+    public <T> CompletableFuture<T> postAsync(String endpoint, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy) {
+        return postAsync(resolve(endpoint), requestBody, responseClass, authStrategy);
+    }
 
-            return handleResponse(response, responseClass);
-        } catch (IOException e) {
-            throw new PaymobException("DELETE request failed", e);
-        }
+    @Override
+    public <T> CompletableFuture<T> putAsync(String endpoint, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy) {
+        return putAsync(resolve(endpoint), requestBody, responseClass, authStrategy);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> deleteAsync(String endpoint, Class<T> responseClass,
+            AuthStrategy authStrategy) {
+        return deleteAsync(resolve(endpoint), responseClass, authStrategy);
     }
 
     @Override
+    @Deprecated
     public void setBaseUrl(String baseUrl) {
         this.baseUrl = baseUrl;
     }
 
     @Override
     public void setTimeout(int timeoutSeconds) {
-        client = client.newBuilder()
-                .connectTimeout(timeoutSeconds, TimeUnit.SECONDS)
-                .readTimeout(timeoutSeconds, TimeUnit.SECONDS)
-                .writeTimeout(timeoutSeconds, TimeUnit.SECONDS)
-                .build();
+        int millis = (int) TimeUnit.SECONDS.toMillis(timeoutSeconds);
+        timeouts = new Timeouts(millis, millis, millis, timeouts.callMillis);
+    }
+
+    @Override
+    public void setTimeouts(Duration connect, Duration read, Duration write, Duration call) {
+        timeouts = new Timeouts(toMillis(connect), toMillis(read), toMillis(write), toMillis(call));
+    }
+
+    @Override
+    public void setRetryPolicy(RetryPolicy retryPolicy) {
+        if (retryPolicy == null) {
+            throw new IllegalArgumentException("Retry policy is required");
+        }
+        this.retryPolicy = retryPolicy;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    @Override
+    public void setCircuitBreakerConfig(CircuitBreakerConfig config) {
+        circuitBreakerInterceptor.setConfig(config);
+    }
+
+    @Override
+    public void setBulkheadLimits(Map<EndpointGroup, Integer> limits) {
+        bulkheadInterceptor.setLimits(limits);
+    }
+
+    @Override
+    public void setRateLimits(Map<EndpointGroup, RateLimit> limits) {
+        throttle.setRateLimits(limits);
+    }
+
+    @Override
+    public void setConcurrencyLimit(ConcurrencyLimit limit) {
+        throttle.setConcurrencyLimit(limit);
+    }
+
+    /**
+     * Sets where per-call metrics go. An adapter that created its own core also
+     * registers the core's pool and dispatcher gauges; one sharing a core
+     * leaves that to the core's owner.
+     */
+    @Override
+    public void setMetrics(PaymobMetrics metrics) {
+        if (metrics == null) {
+            throw new IllegalArgumentException("Metrics are required");
+        }
+        this.metrics = metrics;
+        if (ownsCore) {
+            registerGauges(core, metrics);
+        }
+    }
+
+    public PaymobMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void setTracer(PaymobTracer tracer) {
+        if (tracer == null) {
+            throw new IllegalArgumentException("Tracer is required");
+        }
+        this.tracer = tracer;
+    }
+
+    public PaymobTracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Returns the configured rate limiters.
+     */
+    public Map<EndpointGroup, RateLimiter> getRateLimiters() {
+        return throttle.getRateLimiters();
+    }
+
+    /**
+     * Returns the adaptive concurrency limiters created so far.
+     */
+    public Map<EndpointGroup, AdaptiveConcurrencyLimiter> getConcurrencyLimiters() {
+        return throttle.getConcurrencyLimiters();
+    }
+
+    /**
+     * Returns the circuit breakers created so far, keyed by endpoint template.
+     */
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+        return circuitBreakerInterceptor.getCircuitBreakers();
+    }
+
+    /**
+     * Returns the configured bulkheads.
+     */
+    public Map<EndpointGroup, Bulkhead> getBulkheads() {
+        return bulkheadInterceptor.getBulkheads();
+    }
+
+    public Duration getConnectTimeout() {
+        return Duration.ofMillis(timeouts.connectMillis);
+    }
+
+    public Duration getReadTimeout() {
+        return Duration.ofMillis(timeouts.readMillis);
+    }
+
+    public Duration getWriteTimeout() {
+        return Duration.ofMillis(timeouts.writeMillis);
+    }
+
+    public Duration getCallTimeout() {
+        return Duration.ofMillis(timeouts.callMillis);
+    }
+
+    /**
+     * Sends {@code connections} concurrent HEAD requests through the bare core
+     * client: no auth, no retries, no logging. Any response status counts as
+     * success; only the connection matters.
+     */
+    @Override
+    public int warmUp(HttpUrl url, int connections) {
+        CountDownLatch done = new CountDownLatch(connections);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicReference<IOException> failure = new AtomicReference<>();
+        for (int i = 0; i < connections; i++) {
+            core.newCall(new Request.Builder().url(url).head().build()).enqueue(new Callback() {
+                @Override
+                public void onResponse(Call call, Response response) {
+                    response.close();
+                    succeeded.incrementAndGet();
+                    done.countDown();
+                }
+
+                @Override
+                public void onFailure(Call call, IOException e) {
+                    failure.compareAndSet(null, e);
+                    done.countDown();
+                }
+            });
+        }
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PaymobException("Connection warm-up interrupted", e);
+        }
+        if (succeeded.get() == 0 && failure.get() != null) {
+            throw new PaymobException("Connection warm-up failed", failure.get());
+        }
+        return core.connectionPool().connectionCount();
     }
 
     @Override
@@ -164,34 +501,342 @@ public class OkHttpClientAdapter implements HttpClient {
         }
     }
 
-    private void applyAuth(Request.Builder requestBuilder, AuthStrategy authStrategy) {
-        if (authStrategy instanceof SecretKeyAuthStrategy) {
-            SecretKeyAuthStrategy secretAuth = (SecretKeyAuthStrategy) authStrategy;
-            requestBuilder.header("Authorization", secretAuth.getAuthorizationHeader());
-        } else if (authStrategy instanceof BearerTokenAuthStrategy) {
-            BearerTokenAuthStrategy bearerAuth = (BearerTokenAuthStrategy) authStrategy;
-            String authorizationHeader = bearerAuth.getAuthorizationHeader();
-            if (authorizationHeader != null) {
-                requestBuilder.header("Authorization", authorizationHeader);
+    private HttpUrl resolve(String endpoint) {
+        return HttpUrl.get(baseUrl + endpoint);
+    }
+
+    /**
+     * Builds the request, authenticating it and serializing its body.
+     *
+     * @param operation Span tag for traced calls, or null
+     */
+    private Request newRequest(String method, HttpUrl url, Object requestBody, String authorization,
+            TracingInterceptor.Operation operation) {
+        Request.Builder builder = new Request.Builder().url(url);
+        if (authorization != null) {
+            builder.header("Authorization", authorization);
+        }
+        if (operation != null) {
+            builder.tag(TracingInterceptor.Operation.class, operation);
+        }
+        switch (method) {
+            case "POST":
+                return withIdempotencyKey(builder.post(toRequestBody(requestBody, method, operation)), requestBody);
+            case "PUT":
+                return builder.put(toRequestBody(requestBody, method, operation)).build();
+            case "DELETE":
+                return builder.delete().build();
+            default:
+                return builder.get().build();
+        }
+    }
+
+    /**
+     * Builds the request, adding an {@link Idempotency#HEADER} to unsafe
+     * requests. The key is reused by every retry of the returned request.
+     */
+    private static Request withIdempotencyKey(Request.Builder builder, Object requestBody) {
+        Request request = builder.build();
+        if (Idempotency.isIdempotent(request) || request.header(Idempotency.HEADER) != null) {
+            return request;
+        }
+        String key = requestBody instanceof Idempotency.KeyedBody
+                ? ((Idempotency.KeyedBody) requestBody).key
+                : Idempotency.newKey();
+        return request.newBuilder().header(Idempotency.HEADER, key).build();
+    }
+
+    private RequestBody toRequestBody(Object requestBody, String method, TracingInterceptor.Operation operation) {
+        if (requestBody instanceof Idempotency.KeyedBody) {
+            requestBody = ((Idempotency.KeyedBody) requestBody).body;
+        }
+        if (requestBody instanceof RequestBody) {
+            return (RequestBody) requestBody;
+        }
+        PaymobSpan span = operation != null ? operation.child("paymob.json.serialize") : PaymobSpan.NOOP;
+        try {
+            return codec.toRequestBody(requestBody);
+        } catch (IOException e) {
+            span.recordException(e);
+            throw new PaymobException(method + " request failed", e);
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Runs one synchronous call inside its operation span, if tracing is on.
+     */
+    private <T> T execute(String method, HttpUrl url, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy, String operationName) {
+        TracingInterceptor.Operation operation = startOperation(method, url, operationName);
+        if (operation == null) {
+            return execute(newRequest(method, url, requestBody, authorization(authStrategy), null),
+                    responseClass, method);
+        }
+        PaymobSpan span = operation.getSpan();
+        PaymobSpan.Scope scope = span.makeCurrent();
+        try {
+            return execute(newRequest(method, url, requestBody, authorization(authStrategy), operation),
+                    responseClass, method);
+        } catch (RuntimeException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            scope.close();
+            span.end();
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #execute(String, HttpUrl, Object, Class, AuthStrategy, String)}; the operation
+     * span ends when the returned future completes.
+     * <p>
+     * If a bearer token has to be fetched first, the request is only built and
+     * enqueued once the background login completes, so the caller never waits
+     * for it.
+     */
+    private <T> CompletableFuture<T> enqueue(String method, HttpUrl url, Object requestBody, Class<T> responseClass,
+            AuthStrategy authStrategy, String operationName) {
+        TracingInterceptor.Operation operation = startOperation(method, url, operationName);
+        PaymobSpan span = operation != null ? operation.getSpan() : PaymobSpan.NOOP;
+        CompletableFuture<String> authorization;
+        try {
+            authorization = authorizationAsync(authStrategy);
+        } catch (RuntimeException e) {
+            authorization = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> future;
+        if (authorization.isDone() && !authorization.isCompletedExceptionally()) {
+            future = send(method, url, requestBody, responseClass, authorization.join(), operation);
+        } else {
+            CompletableFuture<T> composed = new CompletableFuture<>();
+            authorization.whenComplete((header, error) -> {
+                if (error != null) {
+                    composed.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                    return;
+                }
+                if (composed.isDone()) {
+                    // Cancelled while the token was fetched
+                    return;
+                }
+                CompletableFuture<T> call = send(method, url, requestBody, responseClass, header, operation);
+                composed.whenComplete((result, failure) -> {
+                    if (composed.isCancelled()) {
+                        call.cancel(true);
+                    }
+                });
+                call.whenComplete((result, failure) -> {
+                    if (failure != null) {
+                        composed.completeExceptionally(failure);
+                    } else {
+                        composed.complete(result);
+                    }
+                });
+            });
+            future = composed;
+        }
+        if (operation != null) {
+            future.whenComplete((result, error) -> {
+                if (error != null) {
+                    span.recordException(error);
+                }
+                span.end();
+            });
+        }
+        return future;
+    }
+
+    /**
+     * Builds the request inside the operation span and enqueues it.
+     */
+    private <T> CompletableFuture<T> send(String method, HttpUrl url, Object requestBody, Class<T> responseClass,
+            String authorization, TracingInterceptor.Operation operation) {
+        PaymobSpan span = operation != null ? operation.getSpan() : PaymobSpan.NOOP;
+        PaymobSpan.Scope scope = span.makeCurrent();
+        try {
+            return enqueue(newRequest(method, url, requestBody, authorization, operation), responseClass, method);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Starts the operation span for a call, or returns null if tracing is off.
+     *
+     * @param operationName Span name given by the calling service, or null to
+     *                      name it after the method and endpoint template
+     */
+    private TracingInterceptor.Operation startOperation(String method, HttpUrl url, String operationName) {
+        PaymobTracer current = tracer;
+        if (current == PaymobTracer.NOOP) {
+            return null;
+        }
+        String endpoint = EndpointGroup.templateOf(url);
+        PaymobSpan span = current.startSpan(operationName != null ? operationName : method + " " + endpoint, null)
+                .setAttribute(PaymobTracer.HTTP_METHOD, method)
+                .setAttribute(PaymobTracer.ENDPOINT, endpoint);
+        PaymobRegion region = PaymobRegion.ofHost(url.host());
+        if (region != null) {
+            span.setAttribute(PaymobTracer.REGION, region.name());
+        }
+        return new TracingInterceptor.Operation(current, span);
+    }
+
+    private <T> T execute(Request request, Class<T> responseClass, String method) {
+        Throttle.Permit permit = throttle.acquire(EndpointGroup.of(request.url()),
+                TimeUnit.MILLISECONDS.toNanos(timeouts.callMillis));
+        boolean dropped = false;
+        try (Response response = newCall(request).execute()) {
+            dropped = response.code() == 429;
+            return handleResponse(response, responseClass);
+        } catch (IOException e) {
+            dropped = e instanceof InterruptedIOException;
+            throw requestFailed(request, method, e);
+        } finally {
+            permit.release(dropped);
+        }
+    }
+
+    /**
+     * Dispatches the call on OkHttp's dispatcher and completes the returned future
+     * from its callback, so no caller thread is held while the request is in
+     * flight.
+     */
+    private <T> CompletableFuture<T> enqueue(Request request, Class<T> responseClass, String method) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long callMillis = timeouts.callMillis;
+        long deadlineNanos = callMillis > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(callMillis) : 0;
+        // Retries are scheduled here, not slept in RetryInterceptor
+        Request single = request.newBuilder().tag(RetryPolicy.class, RetryPolicy.none()).build();
+        AsyncCall<T> asyncCall = new AsyncCall<>(single, responseClass, method, retryPolicy, deadlineNanos, future);
+        // Cancelling the future releases the underlying connection as well
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                asyncCall.cancel();
             }
+        });
+        long capNanos = deadlineNanos != 0 ? Math.max(1, deadlineNanos - System.nanoTime()) : 0;
+        throttle.acquireAsync(EndpointGroup.of(request.url()), capNanos).whenComplete((permit, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                return;
+            }
+            future.whenComplete((result, failure) -> permit.release(asyncCall.dropped));
+            asyncCall.send();
+        });
+        return future;
+    }
+
+    private Call newCall(Request request) {
+        Call call = client.newCall(request);
+        call.timeout().timeout(timeouts.callMillis, TimeUnit.MILLISECONDS);
+        return call;
+    }
+
+    private Response applyTimeouts(Interceptor.Chain chain) throws IOException {
+        Timeouts current = timeouts;
+        return chain
+                .withConnectTimeout(current.connectMillis, TimeUnit.MILLISECONDS)
+                .withReadTimeout(current.readMillis, TimeUnit.MILLISECONDS)
+                .withWriteTimeout(current.writeMillis, TimeUnit.MILLISECONDS)
+                .proceed(chain.request());
+    }
+
+    /**
+     * Wraps an I/O failure. For an unsafe request that may have reached the
+     * server, the failure is an {@link AmbiguousOutcomeException}.
+     */
+    private static PaymobException requestFailed(Request request, String method, IOException e) {
+        if (e instanceof RejectedCallException) {
+            return ((RejectedCallException) e).getRejection();
+        }
+        if (!Idempotency.isIdempotent(request) && !Idempotency.isNotSent(e)) {
+            return new AmbiguousOutcomeException(method + " request outcome unknown", e,
+                    request.header(Idempotency.HEADER));
         }
+        return new PaymobException(method + " request failed", e);
+    }
+
+    private static boolean fitsDeadline(long delayMillis, long deadlineNanos) {
+        return deadlineNanos == 0
+                || System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis) - deadlineNanos < 0;
     }
 
+    private static int toMillis(Duration duration) {
+        if (duration == null || duration.isNegative()) {
+            throw new IllegalArgumentException("Timeout must not be null or negative");
+        }
+        return (int) Math.min(Integer.MAX_VALUE, duration.toMillis());
+    }
+
+    /**
+     * Returns the Authorization header for a call, or null for none. A bearer
+     * strategy without a usable token logs in on the calling thread.
+     */
+    private static String authorization(AuthStrategy authStrategy) {
+        if (authStrategy instanceof SecretKeyAuthStrategy || authStrategy instanceof BearerTokenAuthStrategy) {
+            return authStrategy.getAuthorizationHeader();
+        }
+        return null;
+    }
+
+    /**
+     * Non-blocking variant of {@link #authorization(AuthStrategy)}; a bearer
+     * login runs in the background.
+     */
+    private static CompletableFuture<String> authorizationAsync(AuthStrategy authStrategy) {
+        if (authStrategy instanceof BearerTokenAuthStrategy) {
+            return ((BearerTokenAuthStrategy) authStrategy).getAuthorizationHeaderAsync();
+        }
+        return CompletableFuture.completedFuture(authorization(authStrategy));
+    }
+
+    /**
+     * Success bodies are bound straight from the response byte stream; the body
+     * is only materialized as a String for {@code String} targets and on the error
+     * path, where it is attached to the thrown exception.
+     */
+    @SuppressWarnings("unchecked")
     private <T> T handleResponse(Response response, Class<T> responseClass) throws IOException {
         int statusCode = response.code();
-        String responseBody = response.body() != null ? response.body().string() : "";
+        ResponseBody body = response.body();
+        TracingInterceptor.Operation operation = response.request().tag(TracingInterceptor.Operation.class);
+        if (operation != null) {
+            operation.getSpan().setAttribute(PaymobTracer.HTTP_STATUS, statusCode);
+        }
 
-        if (statusCode >= 200 && statusCode < 300) {
-            if (responseClass == String.class) {
-                return (T) responseBody;
+        if (statusCode < 200 || statusCode >= 300) {
+            throw mapToException(response, body != null ? body.string() : "");
+        }
+        if (responseClass == String.class) {
+            return (T) (body != null ? body.string() : "");
+        }
+        PaymobSpan span = operation != null ? operation.child("paymob.json.deserialize") : PaymobSpan.NOOP;
+        try {
+            if (body == null) {
+                return codec.read("", responseClass);
             }
-            return objectMapper.readValue(responseBody, responseClass);
-        } else {
-            throw mapToException(statusCode, responseBody);
+            try (InputStream in = body.byteStream()) {
+                return codec.read(in, responseClass);
+            }
+        } catch (IOException | RuntimeException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
         }
     }
 
-    private PaymobException mapToException(int statusCode, String responseBody) {
+    private PaymobException mapToException(Response response, String responseBody) {
+        Request request = response.request();
+        int statusCode = response.code();
+        if (statusCode >= 500 && !Idempotency.isIdempotent(request)) {
+            return new AmbiguousOutcomeException("Server error; outcome unknown", statusCode, responseBody,
+                    request.header(Idempotency.HEADER));
+        }
         switch (statusCode) {
             case 401:
                 return new AuthenticationException("Authentication failed", statusCode, responseBody);
@@ -199,6 +844,10 @@ public class OkHttpClientAdapter implements HttpClient {
                 return new ResourceNotFoundException("Resource not found", statusCode, responseBody);
             case 406:
                 return new ValidationException("Validation failed", statusCode, responseBody);
+            case 429:
+                long retryAfterMillis = RetryPolicy.parseRetryAfter(response.header("Retry-After"), Instant.now());
+                return new RateLimitedException("Rate limit exceeded", statusCode, responseBody,
+                        retryAfterMillis >= 0 ? Duration.ofMillis(retryAfterMillis) : null);
             case 500:
             case 502:
             case 503:
@@ -208,4 +857,121 @@ public class OkHttpClientAdapter implements HttpClient {
                 return new PaymobException("HTTP error: " + statusCode, statusCode, responseBody);
         }
     }
+
+    /**
+     * One asynchronous request and its retries. Each attempt is a fresh OkHttp
+     * call whose call timeout is whatever remains of the overall deadline.
+     */
+    private final class AsyncCall<T> implements Callback {
+        private final Request request;
+        private final Class<T> responseClass;
+        private final String method;
+        private final RetryPolicy policy;
+        private final long deadlineNanos;
+        private final CompletableFuture<T> future;
+        private int retry;
+        private volatile Call current;
+        private volatile boolean dropped;
+
+        private AsyncCall(Request request, Class<T> responseClass, String method, RetryPolicy policy,
+                long deadlineNanos, CompletableFuture<T> future) {
+            this.request = request;
+            this.responseClass = responseClass;
+            this.method = method;
+            this.policy = policy;
+            this.deadlineNanos = deadlineNanos;
+            this.future = future;
+        }
+
+        private void send() {
+            if (future.isDone()) {
+                return;
+            }
+            long remainingNanos = 0;
+            if (deadlineNanos != 0) {
+                remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    dropped = true;
+                    future.completeExceptionally(
+                            requestFailed(request, method, new InterruptedIOException("timeout")));
+                    return;
+                }
+            }
+            Call call = client.newCall(request);
+            call.timeout().timeout(remainingNanos, TimeUnit.NANOSECONDS);
+            current = call;
+            call.enqueue(this);
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        }
+
+        private void cancel() {
+            Call call = current;
+            if (call != null) {
+                call.cancel();
+            }
+        }
+
+        private boolean retryAfter(long delayMillis, int statusCode) {
+            if (retry >= policy.getMaxRetries() || future.isDone() || !fitsDeadline(delayMillis, deadlineNanos)) {
+                return false;
+            }
+            retry++;
+            PaymobMetrics current = metrics;
+            if (current != PaymobMetrics.NOOP) {
+                current.recordRetry(EndpointGroup.templateOf(request.url()), statusCode);
+            }
+            RETRY_SCHEDULER.schedule(this::send, delayMillis, TimeUnit.MILLISECONDS);
+            return true;
+        }
+
+        @Override
+        public void onResponse(Call call, Response response) {
+            if (response.code() == 429) {
+                dropped = true;
+            }
+            if (policy.isRetryable(request, response.code()) && retry < policy.getMaxRetries()
+                    && retryAfter(policy.delayMillis(retry + 1, response), response.code())) {
+                response.close();
+                return;
+            }
+            try (response) {
+                future.complete(handleResponse(response, responseClass));
+            } catch (IOException e) {
+                future.completeExceptionally(requestFailed(request, method, e));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onFailure(Call call, IOException e) {
+            if (e instanceof InterruptedIOException) {
+                dropped = true;
+            }
+            if (!call.isCanceled() && policy.isRetryable(request, e) && retry < policy.getMaxRetries()
+                    && retryAfter(policy.backoffMillis(retry + 1), 0)) {
+                return;
+            }
+            future.completeExceptionally(requestFailed(request, method, e));
+        }
+    }
+
+    /**
+     * Snapshot of the per-call timeouts, swapped as a whole.
+     */
+    private static final class Timeouts {
+        private final int connectMillis;
+        private final int readMillis;
+        private final int writeMillis;
+        private final int callMillis;
+
+        private Timeouts(int connectMillis, int readMillis, int writeMillis, int callMillis) {
+            this.connectMillis = connectMillis;
+            this.readMillis = readMillis;
+            this.writeMillis = writeMillis;
+            this.callMillis = callMillis;
+        }
+    }
 }
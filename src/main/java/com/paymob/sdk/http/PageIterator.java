@@ -0,0 +1,177 @@
+package com.paymob.sdk.http;
+
+import com.paymob.sdk.core.auth.AuthStrategy;
+import com.paymob.sdk.exceptions.PaymobException;
+import okhttp3.HttpUrl;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates the items of a paginated Paymob list, following each page's
+ * {@code next} link lazily.
+ * <p>
+ * Nothing is requested until the first item is needed. Once a page arrives,
+ * the request for the next one is sent through {@link HttpClient#getAsync} at
+ * once, so it downloads while the caller works through the current page. At
+ * most the current page and the one after it are held, so walking a list of
+ * any length takes constant memory.
+ * <p>
+ * {@code next} links are resolved against the first page's URL and must stay
+ * on its scheme, host and port, because every page request carries the
+ * service's credentials. A link elsewhere fails with {@link PaymobException}.
+ * A failed page request throws its exception from {@link #hasNext()}.
+ * <p>
+ * Not thread-safe. {@link #close()} cancels a prefetch in flight; streams
+ * from {@link #stream()} do so when closed.
+ *
+ * @param <P> Page type
+ * @param <T> Item type
+ */
+public final class PageIterator<P, T> implements Iterator<T>, AutoCloseable {
+    private final HttpClient httpClient;
+    private final AuthStrategy authStrategy;
+    private final Class<P> pageClass;
+    private final Function<P, List<T>> results;
+    private final Function<P, String> next;
+    private final HttpUrl baseUrl;
+    private final String operation;
+
+    private Iterator<T> current = Collections.emptyIterator();
+    private HttpUrl pending;
+    private CompletableFuture<P> prefetch;
+    private boolean closed;
+
+    /**
+     * @param httpClient   Client the pages are requested through
+     * @param authStrategy Credentials for every page request
+     * @param firstPage    Address of the first page
+     * @param pageClass    Page type to deserialize
+     * @param results      Items of a page; null is treated as empty
+     * @param next         Link to the following page; null or blank ends the list
+     */
+    public PageIterator(HttpClient httpClient, AuthStrategy authStrategy, HttpUrl firstPage, Class<P> pageClass,
+                        Function<P, List<T>> results, Function<P, String> next) {
+        this(httpClient, authStrategy, firstPage, pageClass, results, next, null);
+    }
+
+    /**
+     * @param operation Name every page request is traced under, e.g.
+     *                  {@code SubscriptionService.streamAll}; null names them
+     *                  after the endpoint
+     * @see #PageIterator(HttpClient, AuthStrategy, HttpUrl, Class, Function, Function)
+     */
+    public PageIterator(HttpClient httpClient, AuthStrategy authStrategy, HttpUrl firstPage, Class<P> pageClass,
+                        Function<P, List<T>> results, Function<P, String> next, String operation) {
+        if (httpClient == null) {
+            throw new IllegalArgumentException("HTTP client is required");
+        }
+        if (firstPage == null) {
+            throw new IllegalArgumentException("First page URL is required");
+        }
+        if (pageClass == null || results == null || next == null) {
+            throw new IllegalArgumentException("Page class, results and next accessors are required");
+        }
+        this.httpClient = httpClient;
+        this.authStrategy = authStrategy;
+        this.pageClass = pageClass;
+        this.results = results;
+        this.next = next;
+        this.baseUrl = firstPage;
+        this.pending = firstPage;
+        this.operation = operation;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (closed || (prefetch == null && pending == null)) {
+                return false;
+            }
+            if (prefetch == null) {
+                prefetch = fetch(pending);
+            }
+            P page = await(prefetch);
+            prefetch = null;
+            pending = nextPage(page);
+            if (pending != null) {
+                // Download the following page while this one is consumed
+                prefetch = fetch(pending);
+            }
+            List<T> items = page != null ? results.apply(page) : null;
+            current = items != null ? items.iterator() : Collections.emptyIterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * Returns the remaining items as a sequential stream that closes this
+     * iterator when it is closed.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Stops the iteration and cancels a page request still in flight.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        current = Collections.emptyIterator();
+        if (prefetch != null) {
+            prefetch.cancel(true);
+            prefetch = null;
+        }
+    }
+
+    private CompletableFuture<P> fetch(HttpUrl url) {
+        return httpClient.getAsync(url, pageClass, authStrategy, operation);
+    }
+
+    private HttpUrl nextPage(P page) {
+        String link = page != null ? next.apply(page) : null;
+        if (link == null || link.isBlank()) {
+            return null;
+        }
+        HttpUrl url = baseUrl.resolve(link);
+        if (url == null || !url.scheme().equals(baseUrl.scheme()) || !url.host().equals(baseUrl.host())
+                || url.port() != baseUrl.port()) {
+            throw new PaymobException("Pagination link leaves " + baseUrl.host() + ": " + link);
+        }
+        return url;
+    }
+
+    private static <P> P await(CompletableFuture<P> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PaymobException("Failed to fetch page", cause);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.paymob.sdk.http;
+
+import java.time.Duration;
+
+/**
+ * Immutable token-bucket settings for one {@link EndpointGroup}.
+ * <p>
+ * The bucket holds up to {@code burst} tokens and refills at
+ * {@code permitsPerSecond}. Each call takes one token, waiting up to
+ * {@code maxWait} for it; a call that would wait longer fails fast with
+ * {@code CallNotPermittedException} instead of being sent into a 429.
+ */
+public final class RateLimit {
+    private final double permitsPerSecond;
+    private final int burst;
+    private final Duration maxWait;
+
+    private RateLimit(Builder builder) {
+        this.permitsPerSecond = builder.permitsPerSecond;
+        this.burst = builder.burst;
+        this.maxWait = builder.maxWait;
+    }
+
+    /**
+     * Shorthand for a limit with the default maximum wait.
+     */
+    public static RateLimit of(double permitsPerSecond, int burst) {
+        return builder().permitsPerSecond(permitsPerSecond).burst(burst).build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimit{permitsPerSecond=" + permitsPerSecond + ", burst=" + burst + ", maxWait=" + maxWait + "}";
+    }
+
+    public static class Builder {
+        private double permitsPerSecond;
+        private int burst = 1;
+        private Duration maxWait = Duration.ofSeconds(5);
+
+        /**
+         * Sustained rate. Required.
+         */
+        public Builder permitsPerSecond(double permitsPerSecond) {
+            this.permitsPerSecond = permitsPerSecond;
+            return this;
+        }
+
+        /**
+         * Calls that may go out back to back after an idle period. Defaults
+         * to 1.
+         */
+        public Builder burst(int burst) {
+            this.burst = burst;
+            return this;
+        }
+
+        /**
+         * Longest a call waits for a token. Defaults to 5 seconds; zero never
+         * waits.
+         */
+        public Builder maxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        public RateLimit build() {
+            if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond)) {
+                throw new IllegalArgumentException("Permits per second must be positive");
+            }
+            if (burst < 1) {
+                throw new IllegalArgumentException("Burst must be positive");
+            }
+            if (maxWait == null || maxWait.isNegative()) {
+                throw new IllegalArgumentException("Max wait must not be null or negative");
+            }
+            return new RateLimit(this);
+        }
+    }
+}
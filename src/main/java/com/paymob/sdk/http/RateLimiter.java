@@ -0,0 +1,119 @@
+package com.paymob.sdk.http;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket configured by a {@link RateLimit}.
+ * <p>
+ * A caller that finds the bucket empty reserves a future token, so the token
+ * count may go negative. Each reservation is then a fixed delay, and callers
+ * are served in order without polling. A reservation is refused outright when
+ * its delay would exceed the wait the caller allows.
+ */
+public final class RateLimiter {
+    private final RateLimit limit;
+    private final double nanosPerPermit;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder rejectedCalls = new LongAdder();
+    private double tokens;
+    private long refilledAtNanos;
+
+    public RateLimiter(RateLimit limit) {
+        this.limit = limit;
+        this.nanosPerPermit = TimeUnit.SECONDS.toNanos(1) / limit.getPermitsPerSecond();
+        this.tokens = limit.getBurst();
+        this.refilledAtNanos = System.nanoTime();
+    }
+
+    public RateLimit getLimit() {
+        return limit;
+    }
+
+    /**
+     * Tokens currently available; negative while callers are waiting.
+     */
+    public double getAvailablePermits() {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            return tokens;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Calls refused since the limiter was created.
+     */
+    public long getRejectedCalls() {
+        return rejectedCalls.sum();
+    }
+
+    /**
+     * Takes a token, blocking the calling thread until it is due.
+     *
+     * @return false if the token would not be due within {@code maxWaitNanos}
+     */
+    public boolean acquire(long maxWaitNanos) {
+        long waitNanos = reserve(maxWaitNanos);
+        if (waitNanos < 0) {
+            return false;
+        }
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Takes a token without blocking. The returned future completes on
+     * {@code scheduler} once the token is due, or is already completed with
+     * false if it would not be due within {@code maxWaitNanos}.
+     */
+    public CompletableFuture<Boolean> acquireAsync(long maxWaitNanos, ScheduledExecutorService scheduler) {
+        long waitNanos = reserve(maxWaitNanos);
+        if (waitNanos <= 0) {
+            return CompletableFuture.completedFuture(waitNanos == 0);
+        }
+        CompletableFuture<Boolean> due = new CompletableFuture<>();
+        scheduler.schedule(() -> due.complete(true), waitNanos, TimeUnit.NANOSECONDS);
+        return due;
+    }
+
+    /**
+     * Reserves one token.
+     *
+     * @return nanoseconds until the token is due, or -1 if that exceeds
+     *         {@code maxWaitNanos} and nothing was reserved
+     */
+    long reserve(long maxWaitNanos) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            refill(now);
+            long waitNanos = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * nanosPerPermit);
+            if (waitNanos > maxWaitNanos) {
+                rejectedCalls.increment();
+                return -1;
+            }
+            tokens -= 1;
+            return waitNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(limit.getBurst(), tokens + (now - refilledAtNanos) / nanosPerPermit);
+        refilledAtNanos = now;
+    }
+}
@@ -9,6 +9,7 @@ import java.util.Map;
  */
 public class RequestBuilder {
     private final OkHttpClient client;
+    private final JsonCodec codec;
     private String baseUrl;
     private String method;
     private String endpoint;
@@ -16,7 +17,12 @@ public class RequestBuilder {
     private Map<String, String> headers;
 
     public RequestBuilder(OkHttpClient client) {
+        this(client, JsonCodec.shared());
+    }
+
+    public RequestBuilder(OkHttpClient client, JsonCodec codec) {
         this.client = client;
+        this.codec = codec;
     }
 
     public RequestBuilder baseUrl(String baseUrl) {
@@ -75,8 +81,7 @@ public class RequestBuilder {
 
         // Add request body
         if (requestBody != null && !method.equals("GET") && !method.equals("DELETE")) {
-            String json = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(requestBody);
-            RequestBody body = RequestBody.create(json, MediaType.get("application/json; charset=utf-8"));
+            RequestBody body = codec.toRequestBody(requestBody);
 
             switch (method) {
                 case "POST":
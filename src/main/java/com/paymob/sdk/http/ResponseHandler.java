@@ -1,10 +1,10 @@
 package com.paymob.sdk.http;
 
 import com.paymob.sdk.exceptions.*;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * Handler for processing HTTP responses and mapping to appropriate objects or
@@ -12,24 +12,34 @@ import java.io.IOException;
  * Centralizes response parsing and error handling logic.
  */
 public class ResponseHandler {
-    private final ObjectMapper objectMapper;
+    private final JsonCodec codec;
 
     public ResponseHandler() {
-        this.objectMapper = new ObjectMapper()
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this(JsonCodec.shared());
+    }
+
+    public ResponseHandler(JsonCodec codec) {
+        this.codec = codec;
     }
 
     /**
      * Processes successful response and maps to response class.
+     * The body is streamed into Jackson without an intermediate String.
      */
+    @SuppressWarnings("unchecked")
     public <T> T handleSuccess(Response response, Class<T> responseClass) throws IOException {
-        String responseBody = response.body() != null ? response.body().string() : "";
+        ResponseBody body = response.body();
 
         if (responseClass == String.class) {
-            return (T) responseBody;
+            return (T) (body != null ? body.string() : "");
+        }
+        if (body == null) {
+            return codec.read("", responseClass);
         }
 
-        return objectMapper.readValue(responseBody, responseClass);
+        try (InputStream in = body.byteStream()) {
+            return codec.read(in, responseClass);
+        }
     }
 
     /**
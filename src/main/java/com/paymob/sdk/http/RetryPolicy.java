@@ -0,0 +1,256 @@
+package com.paymob.sdk.http;
+
+import com.paymob.sdk.http.interceptors.RejectedCallException;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable retry settings for transient failures: I/O errors, 5xx responses
+ * and 429 Too Many Requests.
+ * <p>
+ * Backoff is exponential with full jitter: the delay before retry {@code n} is
+ * drawn uniformly from {@code [0, min(maxBackoff, initialBackoff * 2^(n-1))]},
+ * so clients recovering from the same brownout do not retry in lockstep. When
+ * the server sends {@code Retry-After}, that delay is used instead.
+ * <p>
+ * Requests that are not {@linkplain Idempotency#isIdempotent idempotent} are
+ * only retried when they certainly never reached the server: the connection
+ * could not be made, or the server answered 429.
+ * <p>
+ * Retries never outlive the caller: a retry whose delay would end after the
+ * call deadline, set by the call timeout, is not attempted and the last failure
+ * is reported instead.
+ */
+public final class RetryPolicy {
+    private static final RetryPolicy DEFAULTS = builder().build();
+    private static final RetryPolicy NONE = builder().maxRetries(0).build();
+
+    private final int maxRetries;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final boolean jitter;
+    private final boolean respectRetryAfter;
+
+    private RetryPolicy(Builder builder) {
+        this.maxRetries = builder.maxRetries;
+        this.initialBackoff = builder.initialBackoff;
+        this.maxBackoff = builder.maxBackoff;
+        this.jitter = builder.jitter;
+        this.respectRetryAfter = builder.respectRetryAfter;
+    }
+
+    /**
+     * Three retries, 1s initial backoff, 10s cap, full jitter, honouring
+     * {@code Retry-After}.
+     */
+    public static RetryPolicy defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * A policy that never retries.
+     */
+    public static RetryPolicy none() {
+        return NONE;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public boolean isJitter() {
+        return jitter;
+    }
+
+    public boolean isRespectRetryAfter() {
+        return respectRetryAfter;
+    }
+
+    /**
+     * Returns true if a response with this status is worth retrying.
+     */
+    public boolean isRetryable(int statusCode) {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    /**
+     * Returns true if the I/O failure is worth retrying. Authentication and TLS
+     * failures are not transient.
+     */
+    public boolean isRetryable(IOException exception) {
+        if (exception instanceof RejectedCallException) {
+            return false;
+        }
+        String message = exception.getMessage();
+        if (message == null) {
+            return true;
+        }
+        return !message.contains("401") &&
+                !message.contains("403") &&
+                !message.contains("SSL") &&
+                !message.contains("certificate");
+    }
+
+    /**
+     * Returns true if {@code request} may be sent again after a response with
+     * this status.
+     */
+    public boolean isRetryable(Request request, int statusCode) {
+        if (Idempotency.isIdempotent(request)) {
+            return isRetryable(statusCode);
+        }
+        return statusCode == 429;
+    }
+
+    /**
+     * Returns true if {@code request} may be sent again after this I/O
+     * failure.
+     */
+    public boolean isRetryable(Request request, IOException exception) {
+        if (exception instanceof RejectedCallException) {
+            return false;
+        }
+        if (Idempotency.isIdempotent(request)) {
+            return isRetryable(exception);
+        }
+        return Idempotency.isNotSent(exception);
+    }
+
+    /**
+     * Delay before retry number {@code retry} (1-based).
+     */
+    public long backoffMillis(int retry) {
+        long ceiling = initialBackoff.toMillis() << Math.min(retry - 1, 30);
+        if (ceiling < 0 || ceiling > maxBackoff.toMillis()) {
+            ceiling = maxBackoff.toMillis();
+        }
+        if (!jitter || ceiling == 0) {
+            return ceiling;
+        }
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Delay before retrying after {@code response}: the server's
+     * {@code Retry-After} if present and honoured, otherwise
+     * {@link #backoffMillis(int)}.
+     */
+    public long delayMillis(int retry, Response response) {
+        if (respectRetryAfter && response != null) {
+            long retryAfter = parseRetryAfter(response.header("Retry-After"), Instant.now());
+            if (retryAfter >= 0) {
+                return retryAfter;
+            }
+        }
+        return backoffMillis(retry);
+    }
+
+    /**
+     * Parses a {@code Retry-After} value given either as delta-seconds or as an
+     * HTTP date. Returns -1 if the value is missing or malformed.
+     */
+    static long parseRetryAfter(String value, Instant now) {
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+        String trimmed = value.trim();
+        try {
+            long seconds = Long.parseLong(trimmed);
+            return seconds < 0 ? -1 : Duration.ofSeconds(seconds).toMillis();
+        } catch (NumberFormatException e) {
+            // Not delta-seconds; try an HTTP date
+        } catch (ArithmeticException e) {
+            return -1;
+        }
+        try {
+            Instant at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return Math.max(0, Duration.between(now, at).toMillis());
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    public static class Builder {
+        private int maxRetries = 3;
+        private Duration initialBackoff = Duration.ofSeconds(1);
+        private Duration maxBackoff = Duration.ofSeconds(10);
+        private boolean jitter = true;
+        private boolean respectRetryAfter = true;
+
+        /**
+         * Retries after the first attempt. Defaults to 3; 0 disables retries.
+         */
+        public Builder maxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Backoff ceiling for the first retry, doubled for each later one.
+         * Defaults to 1 second.
+         */
+        public Builder initialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        /**
+         * Upper bound on any single backoff. Defaults to 10 seconds.
+         */
+        public Builder maxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * Draws each backoff uniformly from zero to its ceiling. On by default;
+         * turn off only for deterministic tests.
+         */
+        public Builder jitter(boolean jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Waits as long as the server's {@code Retry-After} header asks. On by
+         * default.
+         */
+        public Builder respectRetryAfter(boolean respectRetryAfter) {
+            this.respectRetryAfter = respectRetryAfter;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            if (maxRetries < 0) {
+                throw new IllegalArgumentException("Max retries cannot be negative");
+            }
+            if (initialBackoff == null || initialBackoff.isNegative()) {
+                throw new IllegalArgumentException("Initial backoff must not be null or negative");
+            }
+            if (maxBackoff == null || maxBackoff.compareTo(initialBackoff) < 0) {
+                throw new IllegalArgumentException("Max backoff must not be less than initial backoff");
+            }
+            return new RetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.paymob.sdk.http;
+
+import com.paymob.sdk.exceptions.CallNotPermittedException;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Client-side admission control for one adapter, and so for one tenant: a
+ * {@link RateLimiter} and an {@link AdaptiveConcurrencyLimiter} per
+ * {@link EndpointGroup}.
+ * <p>
+ * A call first takes a rate-limit token and then a concurrency slot, so no
+ * slot is held while waiting for a token. Blocking acquisition parks the
+ * caller's thread; asynchronous acquisition completes a future from the
+ * scheduler or from the call that frees a slot, never occupying a thread while
+ * it waits.
+ */
+final class Throttle {
+    private final ScheduledExecutorService scheduler;
+    private volatile Map<EndpointGroup, RateLimiter> rateLimiters = Collections.emptyMap();
+    private volatile ConcurrencyLimit concurrencyLimit = ConcurrencyLimit.disabled();
+    private volatile Map<EndpointGroup, AdaptiveConcurrencyLimiter> concurrencyLimiters = new ConcurrentHashMap<>();
+
+    Throttle(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    void setRateLimits(Map<EndpointGroup, RateLimit> limits) {
+        if (limits == null) {
+            throw new IllegalArgumentException("Rate limits are required");
+        }
+        Map<EndpointGroup, RateLimiter> replacement = new EnumMap<>(EndpointGroup.class);
+        limits.forEach((group, limit) -> replacement.put(group, new RateLimiter(limit)));
+        rateLimiters = Collections.unmodifiableMap(replacement);
+    }
+
+    void setConcurrencyLimit(ConcurrencyLimit limit) {
+        if (limit == null) {
+            throw new IllegalArgumentException("Concurrency limit is required");
+        }
+        concurrencyLimit = limit;
+        concurrencyLimiters = new ConcurrentHashMap<>();
+    }
+
+    Map<EndpointGroup, RateLimiter> getRateLimiters() {
+        return rateLimiters;
+    }
+
+    Map<EndpointGroup, AdaptiveConcurrencyLimiter> getConcurrencyLimiters() {
+        return Collections.unmodifiableMap(concurrencyLimiters);
+    }
+
+    /**
+     * Waits on the calling thread for permission to call {@code group}.
+     *
+     * @param capNanos Upper bound on the wait on top of the configured ones,
+     *                 e.g. the call timeout; 0 for none
+     * @throws CallNotPermittedException if a limit could not be met in time
+     */
+    Permit acquire(EndpointGroup group, long capNanos) {
+        RateLimiter rateLimiter = rateLimiters.get(group);
+        if (rateLimiter != null && !rateLimiter.acquire(maxWait(rateLimiter.getLimit().getMaxWait().toNanos(),
+                capNanos))) {
+            throw rateLimited(group);
+        }
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimiter(group);
+        if (limiter == null) {
+            return Permit.NONE;
+        }
+        if (!limiter.acquire(maxWait(concurrencyLimit.getMaxWait().toNanos(), capNanos))) {
+            throw concurrencyLimited(group);
+        }
+        return new Permit(limiter);
+    }
+
+    /**
+     * Asynchronous variant of {@link #acquire}; the future fails with
+     * {@link CallNotPermittedException}.
+     */
+    CompletableFuture<Permit> acquireAsync(EndpointGroup group, long capNanos) {
+        RateLimiter rateLimiter = rateLimiters.get(group);
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimiter(group);
+        if (rateLimiter == null && limiter == null) {
+            return CompletableFuture.completedFuture(Permit.NONE);
+        }
+        CompletableFuture<Boolean> token = rateLimiter == null
+                ? CompletableFuture.completedFuture(true)
+                : rateLimiter.acquireAsync(maxWait(rateLimiter.getLimit().getMaxWait().toNanos(), capNanos),
+                        scheduler);
+        return token.thenCompose(granted -> {
+            if (!granted) {
+                return CompletableFuture.failedFuture(rateLimited(group));
+            }
+            if (limiter == null) {
+                return CompletableFuture.completedFuture(Permit.NONE);
+            }
+            return limiter.acquireAsync(maxWait(concurrencyLimit.getMaxWait().toNanos(), capNanos))
+                    .thenCompose(slot -> slot
+                            ? CompletableFuture.completedFuture(new Permit(limiter))
+                            : CompletableFuture.failedFuture(concurrencyLimited(group)));
+        });
+    }
+
+    private AdaptiveConcurrencyLimiter concurrencyLimiter(EndpointGroup group) {
+        ConcurrencyLimit limit = concurrencyLimit;
+        if (!limit.isEnabled()) {
+            return null;
+        }
+        return concurrencyLimiters.computeIfAbsent(group, g -> new AdaptiveConcurrencyLimiter(limit));
+    }
+
+    private static long maxWait(long configuredNanos, long capNanos) {
+        return capNanos > 0 ? Math.min(configuredNanos, capNanos) : configuredNanos;
+    }
+
+    private static CallNotPermittedException rateLimited(EndpointGroup group) {
+        return new CallNotPermittedException("Rate limit for " + group + " exceeded",
+                CallNotPermittedException.Reason.RATE_LIMITED, group.name());
+    }
+
+    private static CallNotPermittedException concurrencyLimited(EndpointGroup group) {
+        return new CallNotPermittedException("Concurrency limit for " + group + " reached",
+                CallNotPermittedException.Reason.CONCURRENCY_LIMITED, group.name());
+    }
+
+    /**
+     * A granted concurrency slot, returned exactly once with the call's
+     * outcome.
+     */
+    static final class Permit {
+        static final Permit NONE = new Permit(null);
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(AdaptiveConcurrencyLimiter limiter) {
+            this.limiter = limiter;
+        }
+
+        /**
+         * @param dropped True if the call was throttled by the server or timed
+         *                out
+         */
+        void release(boolean dropped) {
+            if (limiter != null && released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - startNanos, dropped);
+            }
+        }
+    }
+}
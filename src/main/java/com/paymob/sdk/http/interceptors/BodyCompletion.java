@@ -0,0 +1,76 @@
+package com.paymob.sdk.http.interceptors;
+
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a callback once, when a response body has been read to the end, failed
+ * mid-read, or been closed, whichever comes first. Interceptors use it to hold
+ * a resource for the body download and not only until the headers arrive.
+ */
+final class BodyCompletion {
+
+    interface Listener {
+        /**
+         * @param failure The read error that ended the body, or null when it
+         *                was read to the end or closed
+         */
+        void onComplete(IOException failure);
+    }
+
+    private BodyCompletion() {
+    }
+
+    /**
+     * Returns {@code response} with its body wrapped to notify
+     * {@code listener}. A response without a body notifies at once.
+     */
+    static Response whenComplete(Response response, Listener listener) {
+        ResponseBody body = response.body();
+        if (body == null) {
+            listener.onComplete(null);
+            return response;
+        }
+        AtomicBoolean completed = new AtomicBoolean();
+        ForwardingSource tracking = new ForwardingSource(body.source()) {
+            @Override
+            public long read(Buffer sink, long byteCount) throws IOException {
+                long read;
+                try {
+                    read = super.read(sink, byteCount);
+                } catch (IOException e) {
+                    complete(e);
+                    throw e;
+                }
+                if (read == -1) {
+                    complete(null);
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    complete(null);
+                }
+            }
+
+            private void complete(IOException failure) {
+                if (completed.compareAndSet(false, true)) {
+                    listener.onComplete(failure);
+                }
+            }
+        };
+        return response.newBuilder()
+                .body(ResponseBody.create(Okio.buffer(tracking), body.contentType(), body.contentLength()))
+                .build();
+    }
+}
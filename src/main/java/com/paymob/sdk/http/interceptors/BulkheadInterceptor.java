@@ -0,0 +1,66 @@
+package com.paymob.sdk.http.interceptors;
+
+import com.paymob.sdk.exceptions.CallNotPermittedException;
+import com.paymob.sdk.http.Bulkhead;
+import com.paymob.sdk.http.EndpointGroup;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Interceptor that caps concurrent calls per {@link EndpointGroup} with a
+ * {@link Bulkhead}, rejecting calls over the limit instead of queueing them.
+ * <p>
+ * The permit is held for the whole call, retries included, and until the
+ * response body is read to the end or closed, so a slow download counts
+ * against the limit. Groups without a limit pass straight through.
+ */
+public class BulkheadInterceptor implements Interceptor {
+    private volatile Map<EndpointGroup, Bulkhead> bulkheads = Collections.emptyMap();
+
+    /**
+     * Replaces the limits. Calls already in flight release their permits to
+     * the bulkhead they acquired them from.
+     *
+     * @param limits Maximum concurrent calls per group; groups not listed are
+     *               unbounded
+     */
+    public void setLimits(Map<EndpointGroup, Integer> limits) {
+        if (limits == null) {
+            throw new IllegalArgumentException("Bulkhead limits are required");
+        }
+        Map<EndpointGroup, Bulkhead> replacement = new EnumMap<>(EndpointGroup.class);
+        limits.forEach((group, limit) -> replacement.put(group, new Bulkhead(group, limit)));
+        bulkheads = Collections.unmodifiableMap(replacement);
+    }
+
+    public Map<EndpointGroup, Bulkhead> getBulkheads() {
+        return bulkheads;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        EndpointGroup group = EndpointGroup.of(chain.request().url());
+        Bulkhead bulkhead = bulkheads.get(group);
+        if (bulkhead == null) {
+            return chain.proceed(chain.request());
+        }
+        if (!bulkhead.tryAcquire()) {
+            throw new RejectedCallException(new CallNotPermittedException(
+                    "Bulkhead for " + group + " is full", CallNotPermittedException.Reason.BULKHEAD_FULL,
+                    group.name()));
+        }
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (IOException | RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+        return BodyCompletion.whenComplete(response, failure -> bulkhead.release());
+    }
+}
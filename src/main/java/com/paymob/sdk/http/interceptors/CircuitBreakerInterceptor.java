@@ -0,0 +1,97 @@
+package com.paymob.sdk.http.interceptors;
+
+import com.paymob.sdk.exceptions.CallNotPermittedException;
+import com.paymob.sdk.http.CircuitBreaker;
+import com.paymob.sdk.http.CircuitBreakerConfig;
+import com.paymob.sdk.http.EndpointGroup;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interceptor that keeps one {@link CircuitBreaker} per endpoint template
+ * (see {@link EndpointGroup#templateOf}) and rejects calls to endpoints whose
+ * breaker is open.
+ * <p>
+ * It runs before {@link RetryInterceptor}, so a synchronous call counts once
+ * however many times it was retried. The outcome is recorded when the response
+ * body is read to the end or closed: the latency includes the download, and a
+ * body that fails mid-read counts as a failure.
+ */
+public class CircuitBreakerInterceptor implements Interceptor {
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private volatile CircuitBreakerConfig config = CircuitBreakerConfig.disabled();
+
+    /**
+     * Replaces the configuration and resets every breaker.
+     */
+    public void setConfig(CircuitBreakerConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Circuit breaker config is required");
+        }
+        this.config = config;
+        breakers.clear();
+    }
+
+    /**
+     * Returns a live view of the breakers created so far, keyed by endpoint
+     * template.
+     */
+    public Map<String, CircuitBreaker> getCircuitBreakers() {
+        return Collections.unmodifiableMap(breakers);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        CircuitBreakerConfig current = config;
+        Request request = chain.request();
+        if (!current.isEnabled()) {
+            return chain.proceed(request);
+        }
+
+        String template = EndpointGroup.templateOf(request.url());
+        CircuitBreaker breaker = breakers.computeIfAbsent(template, name -> new CircuitBreaker(name, current));
+        if (!breaker.tryAcquirePermission()) {
+            throw new RejectedCallException(new CallNotPermittedException(
+                    "Circuit breaker for " + template + " is open", CallNotPermittedException.Reason.CIRCUIT_OPEN,
+                    template));
+        }
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            if (isCanceled(chain) || e instanceof RejectedCallException) {
+                breaker.releasePermission();
+            } else {
+                breaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            breaker.releasePermission();
+            throw e;
+        }
+
+        boolean serverError = response.code() >= 500;
+        return BodyCompletion.whenComplete(response, failure -> {
+            if (serverError || failure != null) {
+                breaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } else {
+                breaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private boolean isCanceled(Chain chain) {
+        Call call = chain.call();
+        return call != null && call.isCanceled();
+    }
+}
@@ -0,0 +1,107 @@
+package com.paymob.sdk.http.interceptors;
+
+import com.paymob.sdk.http.EndpointGroup;
+import com.paymob.sdk.metrics.PaymobMetrics;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Interceptor that reports each HTTP attempt to {@link PaymobMetrics}: latency
+ * and status per endpoint template, and bytes in and out.
+ * <p>
+ * It runs after {@link RetryInterceptor}, so every attempt is measured on its
+ * own. With {@link PaymobMetrics#NOOP} it only passes the call through.
+ */
+public class MetricsInterceptor implements Interceptor {
+    private final Supplier<PaymobMetrics> metrics;
+
+    /**
+     * @param metrics Read once per attempt, so a new binding applies to new
+     *                calls
+     */
+    public MetricsInterceptor(Supplier<PaymobMetrics> metrics) {
+        if (metrics == null) {
+            throw new IllegalArgumentException("Metrics are required");
+        }
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        PaymobMetrics current = metrics.get();
+        Request request = chain.request();
+        if (current == PaymobMetrics.NOOP) {
+            return chain.proceed(request);
+        }
+
+        String endpoint = EndpointGroup.templateOf(request.url());
+        RequestBody requestBody = request.body();
+        if (requestBody != null && requestBody.contentLength() > 0) {
+            current.recordBytesSent(endpoint, requestBody.contentLength());
+        }
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            current.recordCall(endpoint, request.method(), 0, System.nanoTime() - start);
+            throw e;
+        }
+        current.recordCall(endpoint, request.method(), response.code(), System.nanoTime() - start);
+        return countReceived(response, endpoint, current);
+    }
+
+    private static Response countReceived(Response response, String endpoint, PaymobMetrics metrics) {
+        ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+        long length = body.contentLength();
+        if (length >= 0) {
+            metrics.recordBytesReceived(endpoint, length);
+            return response;
+        }
+        // Chunked: count as the caller reads
+        ForwardingSource counting = new ForwardingSource(body.source()) {
+            private long total;
+            private boolean reported;
+
+            @Override
+            public long read(Buffer sink, long byteCount) throws IOException {
+                long read = super.read(sink, byteCount);
+                if (read == -1) {
+                    report();
+                } else {
+                    total += read;
+                }
+                return read;
+            }
+
+            @Override
+            public void close() throws IOException {
+                report();
+                super.close();
+            }
+
+            private void report() {
+                if (!reported) {
+                    reported = true;
+                    metrics.recordBytesReceived(endpoint, total);
+                }
+            }
+        };
+        return response.newBuilder()
+                .body(ResponseBody.create(Okio.buffer(counting), body.contentType(), -1))
+                .build();
+    }
+}
@@ -0,0 +1,23 @@
+package com.paymob.sdk.http.interceptors;
+
+import com.paymob.sdk.exceptions.CallNotPermittedException;
+
+import java.io.IOException;
+
+/**
+ * Carries a {@link CallNotPermittedException} through OkHttp, whose
+ * interceptors may only throw {@link IOException}. The adapter unwraps it, and
+ * retries never resend a rejected call.
+ */
+public class RejectedCallException extends IOException {
+    private final CallNotPermittedException rejection;
+
+    public RejectedCallException(CallNotPermittedException rejection) {
+        super(rejection.getMessage());
+        this.rejection = rejection;
+    }
+
+    public CallNotPermittedException getRejection() {
+        return rejection;
+    }
+}
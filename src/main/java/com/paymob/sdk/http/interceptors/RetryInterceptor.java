@@ -1,76 +1,141 @@
 package com.paymob.sdk.http.interceptors;
 
+import com.paymob.sdk.http.EndpointGroup;
+import com.paymob.sdk.http.RetryPolicy;
+import com.paymob.sdk.metrics.PaymobMetrics;
+import okhttp3.Call;
 import okhttp3.Interceptor;
 import okhttp3.Request;
 import okhttp3.Response;
 import java.io.IOException;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
- * Interceptor for implementing exponential backoff retry logic.
- * Retries failed requests with increasing delays.
+ * Interceptor for retrying synchronous calls with exponential backoff.
+ * <p>
+ * The backoff is slept on the calling thread, which is the caller's own thread
+ * for {@link Call#execute()}. Asynchronous calls must not sleep on a dispatcher
+ * thread, so the adapter tags them with {@link RetryPolicy#none()} and retries
+ * them from a scheduler instead; a {@link RetryPolicy} request tag always
+ * overrides the interceptor's policy.
+ * <p>
+ * A retry whose backoff would end after the call timeout is not attempted, and
+ * non-idempotent requests are only retried when they never reached the server.
+ * Each retry is reported to {@link PaymobMetrics#recordRetry}.
  */
 public class RetryInterceptor implements Interceptor {
-    private static final int MAX_RETRIES = 3;
-    private static final long INITIAL_BACKOFF_MS = 1000; // 1 second
-    private static final long MAX_BACKOFF_MS = 10000; // 10 seconds
+    private final Supplier<RetryPolicy> policy;
+    private final Supplier<PaymobMetrics> metrics;
+
+    public RetryInterceptor() {
+        this(RetryPolicy::defaults);
+    }
+
+    /**
+     * @param policy Read once per call, so policy changes apply to new calls
+     */
+    public RetryInterceptor(Supplier<RetryPolicy> policy) {
+        this(policy, () -> PaymobMetrics.NOOP);
+    }
+
+    /**
+     * @param policy  Read once per call, so policy changes apply to new calls
+     * @param metrics Receives a count of every retry
+     */
+    public RetryInterceptor(Supplier<RetryPolicy> policy, Supplier<PaymobMetrics> metrics) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Retry policy is required");
+        }
+        if (metrics == null) {
+            throw new IllegalArgumentException("Metrics are required");
+        }
+        this.policy = policy;
+        this.metrics = metrics;
+    }
 
     @Override
     public Response intercept(Chain chain) throws IOException {
         Request request = chain.request();
-        Response response = null;
-        IOException lastException = null;
+        RetryPolicy retryPolicy = request.tag(RetryPolicy.class);
+        if (retryPolicy == null) {
+            retryPolicy = policy.get();
+        }
+        long deadlineNanos = deadlineNanos(chain);
 
-        for (int attempt = 0; attempt <= MAX_RETRIES; attempt++) {
+        for (int retry = 0; ; retry++) {
+            Response response;
             try {
-                if (attempt > 0) {
-                    long backoffMs = Math.min(INITIAL_BACKOFF_MS * (1L << (attempt - 1)), MAX_BACKOFF_MS);
-                    Thread.sleep(backoffMs);
-                }
-
                 response = chain.proceed(request);
-
-                // If successful or client error (4xx), don't retry
-                if (response.isSuccessful() || (response.code() >= 400 && response.code() < 500)) {
-                    return response;
-                }
-
-                // Close response body for retry
-                if (response.body() != null) {
-                    response.body().close();
-                }
-
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                throw new IOException("Request interrupted", e);
             } catch (IOException e) {
-                lastException = e;
-
-                // Don't retry on certain exceptions
-                if (!shouldRetry(e)) {
+                // Don't retry on certain exceptions, or once the call was
+                // cancelled or ran out of its call timeout
+                if (retry >= retryPolicy.getMaxRetries() || !retryPolicy.isRetryable(request, e) || isCanceled(chain)
+                        || !sleepBeforeRetry(retryPolicy.backoffMillis(retry + 1), deadlineNanos)) {
                     throw e;
                 }
+                recordRetry(request, 0);
+                continue;
             }
-        }
 
-        // All retries exhausted
-        if (lastException != null) {
-            throw lastException;
+            if (!retryPolicy.isRetryable(request, response.code()) || retry >= retryPolicy.getMaxRetries()) {
+                return response;
+            }
+            long delayMillis = retryPolicy.delayMillis(retry + 1, response);
+            if (!fitsDeadline(delayMillis, deadlineNanos)) {
+                return response;
+            }
+            // Close response body for retry
+            response.close();
+            if (!sleepBeforeRetry(delayMillis, deadlineNanos)) {
+                throw new IOException("Call timed out before retry");
+            }
+            recordRetry(request, response.code());
         }
+    }
 
-        return response;
+    private void recordRetry(Request request, int statusCode) {
+        PaymobMetrics current = metrics.get();
+        if (current != PaymobMetrics.NOOP) {
+            current.recordRetry(EndpointGroup.templateOf(request.url()), statusCode);
+        }
     }
 
-    private boolean shouldRetry(IOException exception) {
-        // Don't retry on authentication errors, SSL errors, etc.
-        String message = exception.getMessage();
-        if (message == null) {
-            return true;
+    /**
+     * Sleeps for {@code delayMillis} unless that would pass the deadline.
+     *
+     * @return false if the retry should not be attempted
+     */
+    private static boolean sleepBeforeRetry(long delayMillis, long deadlineNanos) throws IOException {
+        if (!fitsDeadline(delayMillis, deadlineNanos)) {
+            return false;
+        }
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Request interrupted", e);
         }
+        return true;
+    }
+
+    private static boolean fitsDeadline(long delayMillis, long deadlineNanos) {
+        return deadlineNanos == 0
+                || System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis) - deadlineNanos < 0;
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} by which the call must finish, or 0
+     * if it has no call timeout.
+     */
+    private static long deadlineNanos(Chain chain) {
+        Call call = chain.call();
+        long timeoutNanos = call != null ? call.timeout().timeoutNanos() : 0;
+        return timeoutNanos > 0 ? System.nanoTime() + timeoutNanos : 0;
+    }
 
-        return !message.contains("401") &&
-                !message.contains("403") &&
-                !message.contains("SSL") &&
-                !message.contains("certificate");
+    private boolean isCanceled(Chain chain) {
+        Call call = chain.call();
+        return call != null && call.isCanceled();
     }
 }
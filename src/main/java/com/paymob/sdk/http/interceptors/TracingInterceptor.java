@@ -0,0 +1,80 @@
+package com.paymob.sdk.http.interceptors;
+
+import com.paymob.sdk.http.EndpointGroup;
+import com.paymob.sdk.tracing.PaymobSpan;
+import com.paymob.sdk.tracing.PaymobTracer;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interceptor that opens a span per HTTP attempt under the operation span the
+ * adapter tagged the request with, and propagates its context in the request
+ * headers.
+ * <p>
+ * It runs after {@link RetryInterceptor}, so each retry gets its own span.
+ * Requests without an {@link Operation} tag pass straight through.
+ */
+public class TracingInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Operation operation = request.tag(Operation.class);
+        if (operation == null) {
+            return chain.proceed(request);
+        }
+
+        PaymobSpan span = operation.tracer.startSpan("HTTP " + request.method(), operation.span)
+                .setAttribute(PaymobTracer.HTTP_METHOD, request.method())
+                .setAttribute(PaymobTracer.ENDPOINT, EndpointGroup.templateOf(request.url()))
+                .setAttribute(PaymobTracer.RESEND_COUNT, operation.attempts.getAndIncrement());
+        Request.Builder propagated = request.newBuilder();
+        span.inject(propagated::header);
+        try {
+            Response response = chain.proceed(propagated.build());
+            span.setAttribute(PaymobTracer.HTTP_STATUS, response.code());
+            return response;
+        } catch (IOException | RuntimeException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Request tag linking every attempt of a call to its operation span.
+     */
+    public static final class Operation {
+        private final PaymobTracer tracer;
+        private final PaymobSpan span;
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        public Operation(PaymobTracer tracer, PaymobSpan span) {
+            this.tracer = tracer;
+            this.span = span;
+        }
+
+        public PaymobSpan getSpan() {
+            return span;
+        }
+
+        /**
+         * Starts a span nested under the operation, e.g. for JSON binding.
+         */
+        public PaymobSpan child(String name) {
+            return tracer.startSpan(name, span);
+        }
+
+        /**
+         * Attempts started so far.
+         */
+        public int getAttempts() {
+            return attempts.get();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.paymob.sdk.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Receives the SDK's measurements. Bind it to a metrics library with
+ * {@code PaymobConfig.Builder.metrics(...)}.
+ * <p>
+ * Every method has an empty default, so a binding only implements what it
+ * records. Calls are made on the request path and must not block. With
+ * {@link #NOOP}, the default, the SDK skips measuring altogether.
+ * <p>
+ * {@code endpoint} is always an endpoint template such as
+ * {@code /api/acceptance/subscriptions/{id}/suspend}, so tag cardinality stays
+ * bounded.
+ */
+public interface PaymobMetrics {
+    /** Pooled connections to Paymob, idle or in use. */
+    String CONNECTIONS = "paymob.http.connections";
+    /** Pooled connections currently idle. */
+    String IDLE_CONNECTIONS = "paymob.http.connections.idle";
+    /** Async calls waiting for a dispatcher slot. */
+    String QUEUED_CALLS = "paymob.http.dispatcher.queued";
+    /** Calls the dispatcher is running. */
+    String RUNNING_CALLS = "paymob.http.dispatcher.running";
+
+    /**
+     * Records nothing and switches measurement off.
+     */
+    PaymobMetrics NOOP = new PaymobMetrics() {
+    };
+
+    /**
+     * One HTTP attempt; each retry is recorded separately.
+     *
+     * @param statusCode HTTP status, or 0 if no response arrived
+     */
+    default void recordCall(String endpoint, String method, int statusCode, long durationNanos) {
+    }
+
+    /**
+     * A retry of {@code endpoint}, recorded before its backoff.
+     *
+     * @param statusCode Status that triggered the retry, or 0 for an I/O failure
+     */
+    default void recordRetry(String endpoint, int statusCode) {
+    }
+
+    default void recordBytesSent(String endpoint, long bytes) {
+    }
+
+    /**
+     * Response body bytes, recorded once the body has been read.
+     */
+    default void recordBytesReceived(String endpoint, long bytes) {
+    }
+
+    /**
+     * One login against the token endpoint.
+     */
+    default void recordTokenRefresh(long durationNanos, boolean success) {
+    }
+
+    /**
+     * One bearer-token lookup; {@code cached} is false when the request had to
+     * wait for a login.
+     */
+    default void recordTokenLookup(boolean cached) {
+    }
+
+    /**
+     * Registers a gauge sampled by the metrics library, e.g.
+     * {@link #CONNECTIONS}. Called once per OkHttp core at setup,
+     * not once per client: tenants of a {@code PaymobClientRegistry} share one.
+     */
+    default void registerGauge(String name, DoubleSupplier value) {
+    }
+}
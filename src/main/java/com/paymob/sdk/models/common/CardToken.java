@@ -0,0 +1,107 @@
+package com.paymob.sdk.models.common;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A saved card, as delivered in the {@code obj} of a card token webhook.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CardToken {
+    @JsonProperty("id")
+    private long id;
+
+    @JsonProperty("token")
+    private String token;
+
+    @JsonProperty("masked_pan")
+    private String maskedPan;
+
+    @JsonProperty("card_subtype")
+    private String cardSubtype;
+
+    @JsonProperty("email")
+    private String email;
+
+    @JsonProperty("merchant_id")
+    private long merchantId;
+
+    @JsonProperty("order_id")
+    private String orderId;
+
+    @JsonProperty("created_at")
+    private String createdAt;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public String getMaskedPan() {
+        return maskedPan;
+    }
+
+    public void setMaskedPan(String maskedPan) {
+        this.maskedPan = maskedPan;
+    }
+
+    public String getCardSubtype() {
+        return cardSubtype;
+    }
+
+    public void setCardSubtype(String cardSubtype) {
+        this.cardSubtype = cardSubtype;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public long getMerchantId() {
+        return merchantId;
+    }
+
+    public void setMerchantId(long merchantId) {
+        this.merchantId = merchantId;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "CardToken{" +
+                "id=" + id +
+                ", maskedPan='" + maskedPan + '\'' +
+                ", cardSubtype='" + cardSubtype + '\'' +
+                '}';
+    }
+}
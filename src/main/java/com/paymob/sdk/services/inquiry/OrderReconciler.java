@@ -0,0 +1,300 @@
+package com.paymob.sdk.services.inquiry;
+
+import com.paymob.sdk.core.PaymobConfig;
+import com.paymob.sdk.exceptions.AmbiguousOutcomeException;
+import com.paymob.sdk.exceptions.PaymobException;
+import com.paymob.sdk.exceptions.ResourceNotFoundException;
+import com.paymob.sdk.http.Idempotency;
+import com.paymob.sdk.http.RetryPolicy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Retries a non-idempotent call only after confirming, through
+ * {@link TransactionInquiryService#byMerchantOrderId(String)}, that the previous
+ * attempt did not create a transaction.
+ * <p>
+ * The call runs normally. If it fails with an {@link AmbiguousOutcomeException},
+ * the reconciler waits for the attempt to settle and looks the merchant order
+ * up. Each wait lasts at least the settle delay, or one backoff if that is
+ * longer, because a payment Paymob is still processing is not found yet.
+ * <ul>
+ * <li>A transaction of this attempt exists: the attempt landed, and that
+ * transaction is returned instead of charging again. It belongs to this
+ * attempt only if its amount matches and it was created no earlier than the
+ * first send, allowing for {@link #CLOCK_SKEW}. Paymob writes
+ * {@code created_at} without an offset, in the region's local time, so it is
+ * read in {@link PaymobConfig#getServerTimeZone()}. Any other transaction on
+ * the order, such as an earlier declined attempt, is ignored.</li>
+ * <li>No transaction of this attempt, on every one of the confirmation
+ * lookups: the attempt never took effect, and the call is repeated with the
+ * same idempotency key.</li>
+ * <li>The lookup itself fails, or a transaction with the right amount has no
+ * readable {@code created_at}: the original exception is rethrown with the
+ * cause suppressed, because neither outcome can be ruled out.</li>
+ * </ul>
+ * Repeats are bounded by {@link RetryPolicy#getMaxRetries()}.
+ */
+public class OrderReconciler {
+    /** Default minimum wait before each lookup. */
+    public static final Duration DEFAULT_SETTLE_DELAY = Duration.ofSeconds(3);
+    /** Default number of lookups that must all find nothing before a resend. */
+    public static final int DEFAULT_CONFIRMATIONS = 2;
+    /** How far Paymob's clock may run behind ours when matching created_at. */
+    public static final Duration CLOCK_SKEW = Duration.ofSeconds(30);
+
+    private final TransactionInquiryService inquiryService;
+    private final RetryPolicy retryPolicy;
+    private final ZoneId serverTimeZone;
+    private final Duration settleDelay;
+    private final int confirmations;
+
+    /**
+     * Takes the retry policy and server time zone from {@code config}, with the
+     * default settle delay and confirmations.
+     */
+    public OrderReconciler(TransactionInquiryService inquiryService, PaymobConfig config) {
+        this(inquiryService, config.getRetryPolicy(), config.getServerTimeZone(), DEFAULT_SETTLE_DELAY,
+                DEFAULT_CONFIRMATIONS);
+    }
+
+    /**
+     * @param serverTimeZone Zone Paymob's offset-less {@code created_at} is
+     *                       written in
+     * @param settleDelay    Minimum wait before each lookup
+     * @param confirmations  Consecutive lookups that must find no transaction
+     *                       of this attempt before the call is resent
+     */
+    public OrderReconciler(TransactionInquiryService inquiryService, RetryPolicy retryPolicy, ZoneId serverTimeZone,
+            Duration settleDelay, int confirmations) {
+        if (inquiryService == null) {
+            throw new IllegalArgumentException("Inquiry service is required");
+        }
+        if (retryPolicy == null) {
+            throw new IllegalArgumentException("Retry policy is required");
+        }
+        if (serverTimeZone == null) {
+            throw new IllegalArgumentException("Server time zone is required");
+        }
+        if (settleDelay == null || settleDelay.isNegative()) {
+            throw new IllegalArgumentException("Settle delay must not be negative");
+        }
+        if (confirmations < 1) {
+            throw new IllegalArgumentException("Confirmations must be positive");
+        }
+        this.inquiryService = inquiryService;
+        this.retryPolicy = retryPolicy;
+        this.serverTimeZone = serverTimeZone;
+        this.settleDelay = settleDelay;
+        this.confirmations = confirmations;
+    }
+
+    /**
+     * Runs {@code call} at most once per landed transaction.
+     *
+     * @param merchantOrderId Order reference the call's transaction is recorded
+     *                        under
+     * @param amountCents     Amount the call charges; a transaction found with
+     *                        another amount is not this call's
+     * @param call            Sends the request with the given idempotency key,
+     *                        e.g. through {@link Idempotency#keyed(Object, String)}
+     * @param adopt           Converts a transaction found by the lookup into the
+     *                        call's result type
+     * @return The call's result, or the transaction a previous attempt created
+     */
+    public <T> T execute(String merchantOrderId, int amountCents, Function<String, T> call,
+            Function<InquiryResponse, T> adopt) {
+        requireArguments(merchantOrderId, amountCents);
+        String key = Idempotency.newKey();
+        Instant sent = Instant.now();
+        for (int retry = 0; ; retry++) {
+            try {
+                return call.apply(key);
+            } catch (AmbiguousOutcomeException e) {
+                InquiryResponse landed = confirm(merchantOrderId, amountCents, sent, retry, e);
+                if (landed != null) {
+                    return adopt.apply(landed);
+                }
+                if (retry >= retryPolicy.getMaxRetries()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #execute}. Waits are scheduled rather
+     * than slept.
+     */
+    public <T> CompletableFuture<T> executeAsync(String merchantOrderId, int amountCents,
+            Function<String, CompletableFuture<T>> call, Function<InquiryResponse, T> adopt) {
+        try {
+            requireArguments(merchantOrderId, amountCents);
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return attemptAsync(merchantOrderId, amountCents, Idempotency.newKey(), Instant.now(), 0, call, adopt);
+    }
+
+    private <T> CompletableFuture<T> attemptAsync(String merchantOrderId, int amountCents, String key, Instant sent,
+            int retry, Function<String, CompletableFuture<T>> call, Function<InquiryResponse, T> adopt) {
+        return call.apply(key)
+                .handle((result, error) -> {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause == null) {
+                        return CompletableFuture.completedFuture(result);
+                    }
+                    if (!(cause instanceof AmbiguousOutcomeException)) {
+                        return CompletableFuture.<T>failedFuture(cause);
+                    }
+                    AmbiguousOutcomeException ambiguous = (AmbiguousOutcomeException) cause;
+                    return confirmAsync(merchantOrderId, amountCents, sent, retry, 0, ambiguous)
+                            .thenCompose(landed -> {
+                                if (landed != null) {
+                                    return CompletableFuture.completedFuture(adopt.apply(landed));
+                                }
+                                if (retry >= retryPolicy.getMaxRetries()) {
+                                    return CompletableFuture.<T>failedFuture(ambiguous);
+                                }
+                                return attemptAsync(merchantOrderId, amountCents, key, sent, retry + 1, call, adopt);
+                            });
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Looks the order up {@link #confirmations} times, settling before each
+     * lookup. Returns the first transaction of this attempt, or null if every
+     * lookup found none.
+     */
+    private InquiryResponse confirm(String merchantOrderId, int amountCents, Instant sent, int retry,
+            AmbiguousOutcomeException original) {
+        for (int check = 0; check < confirmations; check++) {
+            sleep(settleMillis(retry), original);
+            InquiryResponse landed = lookup(merchantOrderId, amountCents, sent, original);
+            if (landed != null) {
+                return landed;
+            }
+        }
+        return null;
+    }
+
+    private CompletableFuture<InquiryResponse> confirmAsync(String merchantOrderId, int amountCents, Instant sent,
+            int retry, int check, AmbiguousOutcomeException original) {
+        if (check >= confirmations) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return new CompletableFuture<Void>()
+                .completeOnTimeout(null, settleMillis(retry), TimeUnit.MILLISECONDS)
+                .thenCompose(ignored -> lookupAsync(merchantOrderId, amountCents, sent, original))
+                .thenCompose(landed -> landed != null
+                        ? CompletableFuture.completedFuture(landed)
+                        : confirmAsync(merchantOrderId, amountCents, sent, retry, check + 1, original));
+    }
+
+    private long settleMillis(int retry) {
+        return Math.max(settleDelay.toMillis(), retryPolicy.backoffMillis(retry + 1));
+    }
+
+    /**
+     * Returns the order's transaction if it belongs to this attempt, otherwise
+     * null.
+     */
+    private InquiryResponse lookup(String merchantOrderId, int amountCents, Instant sent,
+            AmbiguousOutcomeException original) {
+        InquiryResponse response;
+        try {
+            response = inquiryService.byMerchantOrderId(merchantOrderId);
+        } catch (ResourceNotFoundException e) {
+            return null;
+        } catch (PaymobException e) {
+            original.addSuppressed(e);
+            throw original;
+        }
+        return match(response, amountCents, sent, original);
+    }
+
+    private CompletableFuture<InquiryResponse> lookupAsync(String merchantOrderId, int amountCents, Instant sent,
+            AmbiguousOutcomeException original) {
+        return inquiryService.byMerchantOrderIdAsync(merchantOrderId)
+                .handle((response, error) -> {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause == null) {
+                        return match(response, amountCents, sent, original);
+                    }
+                    if (cause instanceof ResourceNotFoundException) {
+                        return null;
+                    }
+                    original.addSuppressed(cause);
+                    throw new CompletionException(original);
+                });
+    }
+
+    /**
+     * Returns {@code response} if it is the transaction of an attempt sent at
+     * {@code sent} for {@code amountCents}, or null if it is some other
+     * transaction on the order. Throws {@code original} if that cannot be told.
+     */
+    private InquiryResponse match(InquiryResponse response, int amountCents, Instant sent,
+            AmbiguousOutcomeException original) {
+        if (response == null || response.getId() == 0 || response.getAmountCents() != amountCents) {
+            return null;
+        }
+        Instant created = parseInstant(response.getCreatedAt());
+        if (created == null) {
+            original.addSuppressed(new PaymobException("Cannot tell whether transaction " + response.getId()
+                    + " belongs to this attempt: created_at is " + response.getCreatedAt()));
+            throw original;
+        }
+        return created.isBefore(sent.minus(CLOCK_SKEW)) ? null : response;
+    }
+
+    /**
+     * Reads {@code timestamp} as Paymob writes it, e.g.
+     * {@code 2024-06-13T11:33:44.592345} in the server's zone, or with an
+     * explicit offset. Returns null if it cannot be read.
+     */
+    private Instant parseInstant(String timestamp) {
+        if (timestamp == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(timestamp).atZone(serverTimeZone).toInstant();
+        } catch (DateTimeParseException e) {
+            // Not Paymob's usual form; accept one with an offset
+        }
+        try {
+            return OffsetDateTime.parse(timestamp).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static void sleep(long millis, AmbiguousOutcomeException original) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            original.addSuppressed(e);
+            throw original;
+        }
+    }
+
+    private static void requireArguments(String merchantOrderId, int amountCents) {
+        if (merchantOrderId == null || merchantOrderId.isEmpty()) {
+            throw new IllegalArgumentException("Merchant order ID is required");
+        }
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+    }
+}
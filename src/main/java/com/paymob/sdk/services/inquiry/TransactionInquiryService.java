@@ -3,6 +3,9 @@ package com.paymob.sdk.services.inquiry;
 import com.paymob.sdk.core.PaymobConfig;
 import com.paymob.sdk.core.auth.AuthStrategy;
 import com.paymob.sdk.http.HttpClient;
+import okhttp3.HttpUrl;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for transaction inquiry and reconciliation.
@@ -12,11 +15,13 @@ public class TransactionInquiryService {
     private final HttpClient httpClient;
     private final AuthStrategy authStrategy;
     private final PaymobConfig config;
+    private final HttpUrl baseUrl;
 
     public TransactionInquiryService(HttpClient httpClient, AuthStrategy authStrategy, PaymobConfig config) {
         this.httpClient = httpClient;
         this.authStrategy = authStrategy;
         this.config = config;
+        this.baseUrl = config.getRegion().getHttpUrl();
     }
 
     /**
@@ -26,9 +31,19 @@ public class TransactionInquiryService {
      * @return Transaction details
      */
     public InquiryResponse inquiry(InquiryRequest request) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.post("/api/ecommerce/orders/transaction_inquiry", request, InquiryResponse.class,
-                authStrategy);
+        return httpClient.post(baseUrl.resolve("/api/ecommerce/orders/transaction_inquiry"), request,
+                InquiryResponse.class, authStrategy, "TransactionInquiryService.inquiry");
+    }
+
+    /**
+     * Asynchronous variant of {@link #inquiry(InquiryRequest)}.
+     *
+     * @param request The inquiry details
+     * @return A future completed with the transaction details
+     */
+    public CompletableFuture<InquiryResponse> inquiryAsync(InquiryRequest request) {
+        return httpClient.postAsync(baseUrl.resolve("/api/ecommerce/orders/transaction_inquiry"), request,
+                InquiryResponse.class, authStrategy, "TransactionInquiryService.inquiryAsync");
     }
 
     /**
@@ -44,6 +59,19 @@ public class TransactionInquiryService {
         return inquiry(request);
     }
 
+    /**
+     * Asynchronous variant of {@link #byMerchantOrderId(String)}.
+     *
+     * @param merchantOrderId Your custom order reference
+     * @return A future completed with the transaction details
+     */
+    public CompletableFuture<InquiryResponse> byMerchantOrderIdAsync(String merchantOrderId) {
+        InquiryRequest request = InquiryRequest.builder()
+                .merchantOrderId(merchantOrderId)
+                .build();
+        return inquiryAsync(request);
+    }
+
     /**
      * Retrieves transaction by Paymob order ID.
      * 
@@ -57,6 +85,19 @@ public class TransactionInquiryService {
         return inquiry(request);
     }
 
+    /**
+     * Asynchronous variant of {@link #byOrderId(long)}.
+     *
+     * @param orderId Paymob's internal order ID
+     * @return A future completed with the transaction details
+     */
+    public CompletableFuture<InquiryResponse> byOrderIdAsync(long orderId) {
+        InquiryRequest request = InquiryRequest.builder()
+                .orderId((int) orderId)
+                .build();
+        return inquiryAsync(request);
+    }
+
     /**
      * Retrieves transaction by transaction ID.
      * 
@@ -64,7 +105,18 @@ public class TransactionInquiryService {
      * @return Transaction details
      */
     public InquiryResponse byTransactionId(long transactionId) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.get("/api/acceptance/transactions/" + transactionId, InquiryResponse.class, authStrategy);
+        return httpClient.get(baseUrl.resolve("/api/acceptance/transactions/" + transactionId), InquiryResponse.class,
+                authStrategy, "TransactionInquiryService.byTransactionId");
+    }
+
+    /**
+     * Asynchronous variant of {@link #byTransactionId(long)}.
+     *
+     * @param transactionId The specific transaction ID
+     * @return A future completed with the transaction details
+     */
+    public CompletableFuture<InquiryResponse> byTransactionIdAsync(long transactionId) {
+        return httpClient.getAsync(baseUrl.resolve("/api/acceptance/transactions/" + transactionId),
+                InquiryResponse.class, authStrategy, "TransactionInquiryService.byTransactionIdAsync");
     }
 }
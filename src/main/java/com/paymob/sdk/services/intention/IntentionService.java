@@ -3,6 +3,9 @@ package com.paymob.sdk.services.intention;
 import com.paymob.sdk.core.PaymobConfig;
 import com.paymob.sdk.core.auth.AuthStrategy;
 import com.paymob.sdk.http.HttpClient;
+import okhttp3.HttpUrl;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for handling Payment Intention APIs.
@@ -12,11 +15,13 @@ public class IntentionService {
     private final HttpClient httpClient;
     private final AuthStrategy authStrategy;
     private final PaymobConfig config;
+    private final HttpUrl baseUrl;
 
     public IntentionService(HttpClient httpClient, AuthStrategy authStrategy, PaymobConfig config) {
         this.httpClient = httpClient;
         this.authStrategy = authStrategy;
         this.config = config;
+        this.baseUrl = config.getRegion().getHttpUrl();
     }
 
     /**
@@ -26,8 +31,19 @@ public class IntentionService {
      * @return The intention response with payment keys and URLs
      */
     public IntentionResponse createIntention(IntentionRequest request) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.post("/v1/intention/", request, IntentionResponse.class, authStrategy);
+        return httpClient.post(baseUrl.resolve("/v1/intention/"), request, IntentionResponse.class, authStrategy,
+                "IntentionService.createIntention");
+    }
+
+    /**
+     * Asynchronous variant of {@link #createIntention(IntentionRequest)}.
+     *
+     * @param request The intention creation request
+     * @return A future completed with the intention response
+     */
+    public CompletableFuture<IntentionResponse> createIntentionAsync(IntentionRequest request) {
+        return httpClient.postAsync(baseUrl.resolve("/v1/intention/"), request, IntentionResponse.class, authStrategy,
+                "IntentionService.createIntentionAsync");
     }
 
     /**
@@ -38,8 +54,20 @@ public class IntentionService {
      * @return The updated intention response
      */
     public IntentionResponse updateIntention(String clientSecret, IntentionRequest request) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.put("/v1/intention/" + clientSecret, request, IntentionResponse.class, authStrategy);
+        return httpClient.put(baseUrl.resolve("/v1/intention/" + clientSecret), request, IntentionResponse.class,
+                authStrategy, "IntentionService.updateIntention");
+    }
+
+    /**
+     * Asynchronous variant of {@link #updateIntention(String, IntentionRequest)}.
+     *
+     * @param clientSecret The client secret from the original intention
+     * @param request      The update request
+     * @return A future completed with the updated intention response
+     */
+    public CompletableFuture<IntentionResponse> updateIntentionAsync(String clientSecret, IntentionRequest request) {
+        return httpClient.putAsync(baseUrl.resolve("/v1/intention/" + clientSecret), request, IntentionResponse.class,
+                authStrategy, "IntentionService.updateIntentionAsync");
     }
 
     /**
@@ -49,9 +77,21 @@ public class IntentionService {
      * @return The intention details
      */
     public IntentionResponse retrieveIntention(String clientSecret) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
         String endpoint = "/v1/intention/element/" + config.getPublicKey() + "/" + clientSecret + "/";
-        return httpClient.get(endpoint, IntentionResponse.class, null);
+        return httpClient.get(baseUrl.resolve(endpoint), IntentionResponse.class, null,
+                "IntentionService.retrieveIntention");
+    }
+
+    /**
+     * Asynchronous variant of {@link #retrieveIntention(String)}.
+     *
+     * @param clientSecret The client secret from the intention
+     * @return A future completed with the intention details
+     */
+    public CompletableFuture<IntentionResponse> retrieveIntentionAsync(String clientSecret) {
+        String endpoint = "/v1/intention/element/" + config.getPublicKey() + "/" + clientSecret + "/";
+        return httpClient.getAsync(baseUrl.resolve(endpoint), IntentionResponse.class, null,
+                "IntentionService.retrieveIntentionAsync");
     }
 
     /**
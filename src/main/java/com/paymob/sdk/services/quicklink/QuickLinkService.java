@@ -3,11 +3,13 @@ package com.paymob.sdk.services.quicklink;
 import com.paymob.sdk.core.PaymobConfig;
 import com.paymob.sdk.core.auth.AuthStrategy;
 import com.paymob.sdk.http.HttpClient;
+import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
 
 import java.io.File;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for creating shareable payment links.
@@ -17,11 +19,13 @@ public class QuickLinkService {
     private final HttpClient httpClient;
     private final AuthStrategy authStrategy;
     private final PaymobConfig config;
+    private final HttpUrl baseUrl;
 
     public QuickLinkService(HttpClient httpClient, AuthStrategy authStrategy, PaymobConfig config) {
         this.httpClient = httpClient;
         this.authStrategy = authStrategy;
         this.config = config;
+        this.baseUrl = config.getRegion().getHttpUrl();
     }
 
     /**
@@ -31,7 +35,64 @@ public class QuickLinkService {
      * @return Payment link details
      */
     public QuickLinkResponse createPaymentLink(QuickLinkRequest request) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
+        return httpClient.post(baseUrl.resolve("/api/ecommerce/payment-links"), buildPaymentLinkBody(request),
+                QuickLinkResponse.class, authStrategy, "QuickLinkService.createPaymentLink");
+    }
+
+    /**
+     * Asynchronous variant of {@link #createPaymentLink(QuickLinkRequest)}.
+     * 
+     * @param request The quick link creation request
+     * @return A future completed with the payment link details
+     */
+    public CompletableFuture<QuickLinkResponse> createPaymentLinkAsync(QuickLinkRequest request) {
+        return httpClient.postAsync(baseUrl.resolve("/api/ecommerce/payment-links"), buildPaymentLinkBody(request),
+                QuickLinkResponse.class, authStrategy, "QuickLinkService.createPaymentLinkAsync");
+    }
+
+    public QuickLinkResponse cancel(int paymentLinkId) {
+        return httpClient.post(baseUrl.resolve("/api/ecommerce/payment-links/cancel"), buildCancelBody(paymentLinkId),
+                QuickLinkResponse.class, authStrategy, "QuickLinkService.cancel");
+    }
+
+    /**
+     * Asynchronous variant of {@link #cancel(int)}.
+     * 
+     * @param paymentLinkId The ID of the payment link to cancel
+     * @return A future completed with the result of the cancellation
+     */
+    public CompletableFuture<QuickLinkResponse> cancelAsync(int paymentLinkId) {
+        return httpClient.postAsync(baseUrl.resolve("/api/ecommerce/payment-links/cancel"),
+                buildCancelBody(paymentLinkId), QuickLinkResponse.class, authStrategy, "QuickLinkService.cancelAsync");
+    }
+
+    /**
+     * Cancels an existing payment link.
+     * 
+     * @param response The response object from a created link
+     * @return Result of the cancellation
+     */
+    public QuickLinkResponse cancel(QuickLinkResponse response) {
+        if (response == null) {
+            throw new IllegalArgumentException("Response cannot be null");
+        }
+        return cancel((int) response.getId());
+    }
+
+    /**
+     * Asynchronous variant of {@link #cancel(QuickLinkResponse)}.
+     * 
+     * @param response The response object from a created link
+     * @return A future completed with the result of the cancellation
+     */
+    public CompletableFuture<QuickLinkResponse> cancelAsync(QuickLinkResponse response) {
+        if (response == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Response cannot be null"));
+        }
+        return cancelAsync((int) response.getId());
+    }
+
+    private static RequestBody buildPaymentLinkBody(QuickLinkRequest request) {
         MultipartBody.Builder bodyBuilder = new MultipartBody.Builder().setType(MultipartBody.FORM)
                 .addFormDataPart("amount_cents", String.valueOf(request.getAmountCents()))
                 .addFormDataPart("payment_methods", String.valueOf(request.getPaymentMethods()))
@@ -69,29 +130,13 @@ public class QuickLinkService {
             bodyBuilder.addFormDataPart("payment_link_image", image.getName(), fileBody);
         }
 
-        RequestBody body = bodyBuilder.build();
-        return httpClient.post("/api/ecommerce/payment-links", body, QuickLinkResponse.class, authStrategy);
+        return bodyBuilder.build();
     }
 
-    public QuickLinkResponse cancel(int paymentLinkId) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        RequestBody body = new MultipartBody.Builder()
+    private static RequestBody buildCancelBody(int paymentLinkId) {
+        return new MultipartBody.Builder()
                 .setType(MultipartBody.FORM)
                 .addFormDataPart("payment_link_id", String.valueOf(paymentLinkId))
                 .build();
-        return httpClient.post("/api/ecommerce/payment-links/cancel", body, QuickLinkResponse.class, authStrategy);
-    }
-
-    /**
-     * Cancels an existing payment link.
-     * 
-     * @param response The response object from a created link
-     * @return Result of the cancellation
-     */
-    public QuickLinkResponse cancel(QuickLinkResponse response) {
-        if (response == null) {
-            throw new IllegalArgumentException("Response cannot be null");
-        }
-        return cancel((int) response.getId());
     }
 }
@@ -2,9 +2,17 @@ package com.paymob.sdk.services.savedcard;
 
 import com.paymob.sdk.core.PaymobConfig;
 import com.paymob.sdk.core.auth.AuthStrategy;
+import com.paymob.sdk.exceptions.AmbiguousOutcomeException;
 import com.paymob.sdk.http.HttpClient;
+import com.paymob.sdk.http.Idempotency;
+import okhttp3.HttpUrl;
+import com.paymob.sdk.services.inquiry.InquiryResponse;
+import com.paymob.sdk.services.inquiry.OrderReconciler;
+import com.paymob.sdk.services.inquiry.TransactionInquiryService;
 import com.paymob.sdk.services.transaction.TransactionResponse;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Service for saved card tokenization payments.
  * Supports both CIT (Customer Initiated) and MIT (Merchant Initiated)
@@ -14,11 +22,38 @@ public class SavedCardService {
     private final HttpClient httpClient;
     private final AuthStrategy authStrategy;
     private final PaymobConfig config;
+    private final HttpUrl baseUrl;
+    private final OrderReconciler reconciler;
 
     public SavedCardService(HttpClient httpClient, AuthStrategy authStrategy, PaymobConfig config) {
+        this(httpClient, authStrategy, config, (OrderReconciler) null);
+    }
+
+    /**
+     * @param inquiryService Used to reconcile ambiguous MOTO payments; may be
+     *                       null, in which case
+     *                       {@link #executeMotoPayment(MotoCardPayRequest, String, int)}
+     *                       is unavailable
+     */
+    public SavedCardService(HttpClient httpClient, AuthStrategy authStrategy, PaymobConfig config,
+            TransactionInquiryService inquiryService) {
+        this(httpClient, authStrategy, config,
+                inquiryService != null ? new OrderReconciler(inquiryService, config) : null);
+    }
+
+    /**
+     * @param reconciler Reconciles ambiguous MOTO payments, e.g. with a custom
+     *                   settle delay; may be null, in which case
+     *                   {@link #executeMotoPayment(MotoCardPayRequest, String, int)}
+     *                   is unavailable
+     */
+    public SavedCardService(HttpClient httpClient, AuthStrategy authStrategy, PaymobConfig config,
+            OrderReconciler reconciler) {
         this.httpClient = httpClient;
         this.authStrategy = authStrategy;
         this.config = config;
+        this.baseUrl = config.getRegion().getHttpUrl();
+        this.reconciler = reconciler;
     }
 
     /**
@@ -29,8 +64,19 @@ public class SavedCardService {
      * @return Payment response containing intention details (client_secret)
      */
     public TokenizedPaymentResponse processCitPayment(CitPaymentRequest request) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.post("/v1/intention/", request, TokenizedPaymentResponse.class, authStrategy);
+        return httpClient.post(baseUrl.resolve("/v1/intention/"), request, TokenizedPaymentResponse.class,
+                authStrategy, "SavedCardService.processCitPayment");
+    }
+
+    /**
+     * Asynchronous variant of {@link #processCitPayment(CitPaymentRequest)}.
+     *
+     * @param request The CIT payment request
+     * @return A future completed with the payment response
+     */
+    public CompletableFuture<TokenizedPaymentResponse> processCitPaymentAsync(CitPaymentRequest request) {
+        return httpClient.postAsync(baseUrl.resolve("/v1/intention/"), request, TokenizedPaymentResponse.class,
+                authStrategy, "SavedCardService.processCitPaymentAsync");
     }
 
     /**
@@ -41,8 +87,19 @@ public class SavedCardService {
      * @return Payment response containing intention details (client_secret)
      */
     public TokenizedPaymentResponse processMitPayment(MitPaymentRequest request) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.post("/v1/intention/", request, TokenizedPaymentResponse.class, authStrategy);
+        return httpClient.post(baseUrl.resolve("/v1/intention/"), request, TokenizedPaymentResponse.class,
+                authStrategy, "SavedCardService.processMitPayment");
+    }
+
+    /**
+     * Asynchronous variant of {@link #processMitPayment(MitPaymentRequest)}.
+     *
+     * @param request The MIT payment request
+     * @return A future completed with the payment response
+     */
+    public CompletableFuture<TokenizedPaymentResponse> processMitPaymentAsync(MitPaymentRequest request) {
+        return httpClient.postAsync(baseUrl.resolve("/v1/intention/"), request, TokenizedPaymentResponse.class,
+                authStrategy, "SavedCardService.processMitPaymentAsync");
     }
 
     /**
@@ -53,7 +110,82 @@ public class SavedCardService {
      * @return Transaction response for the charge attempt
      */
     public TransactionResponse executeMotoPayment(MotoCardPayRequest request) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.post("/api/acceptance/payments/pay", request, TransactionResponse.class, null);
+        return httpClient.post(baseUrl.resolve("/api/acceptance/payments/pay"), request, TransactionResponse.class,
+                null, "SavedCardService.executeMotoPayment");
+    }
+
+    /**
+     * Asynchronous variant of {@link #executeMotoPayment(MotoCardPayRequest)}.
+     *
+     * @param request MOTO payment payload with card token and payment token
+     * @return A future completed with the transaction response
+     */
+    public CompletableFuture<TransactionResponse> executeMotoPaymentAsync(MotoCardPayRequest request) {
+        return httpClient.postAsync(baseUrl.resolve("/api/acceptance/payments/pay"), request, TransactionResponse.class,
+                null, "SavedCardService.executeMotoPaymentAsync");
+    }
+
+    /**
+     * Executes a MOTO payment that charges at most once, even when retried.
+     * <p>
+     * If the charge fails with an {@link AmbiguousOutcomeException}, the order is
+     * looked up by {@code merchantOrderId} before anything is resent. A
+     * transaction of this charge found there is returned instead of charging
+     * again; the payment is resent with the same idempotency key only once
+     * repeated lookups have found none. See {@link OrderReconciler}.
+     *
+     * @param request         MOTO payment payload with card token and payment
+     *                        token
+     * @param merchantOrderId Merchant order reference of the intention the
+     *                        payment token belongs to
+     * @param amountCents     Amount of that intention, used to tell this
+     *                        charge's transaction from others on the order
+     * @return Transaction response for the charge
+     */
+    public TransactionResponse executeMotoPayment(MotoCardPayRequest request, String merchantOrderId,
+            int amountCents) {
+        return requireReconciler().execute(merchantOrderId, amountCents,
+                key -> httpClient.post(baseUrl.resolve("/api/acceptance/payments/pay"),
+                        Idempotency.keyed(request, key), TransactionResponse.class, null,
+                        "SavedCardService.executeMotoPayment"),
+                this::toTransactionResponse);
+    }
+
+    /**
+     * Asynchronous variant of
+     * {@link #executeMotoPayment(MotoCardPayRequest, String, int)}.
+     *
+     * @param request         MOTO payment payload with card token and payment
+     *                        token
+     * @param merchantOrderId Merchant order reference of the intention the
+     *                        payment token belongs to
+     * @param amountCents     Amount of that intention
+     * @return A future completed with the transaction response
+     */
+    public CompletableFuture<TransactionResponse> executeMotoPaymentAsync(MotoCardPayRequest request,
+            String merchantOrderId, int amountCents) {
+        if (reconciler == null) {
+            return CompletableFuture.failedFuture(noReconciler());
+        }
+        return reconciler.executeAsync(merchantOrderId, amountCents,
+                key -> httpClient.postAsync(baseUrl.resolve("/api/acceptance/payments/pay"),
+                        Idempotency.keyed(request, key), TransactionResponse.class, null,
+                        "SavedCardService.executeMotoPaymentAsync"),
+                this::toTransactionResponse);
+    }
+
+    private OrderReconciler requireReconciler() {
+        if (reconciler == null) {
+            throw noReconciler();
+        }
+        return reconciler;
+    }
+
+    private static IllegalStateException noReconciler() {
+        return new IllegalStateException("Reconciliation requires a TransactionInquiryService");
+    }
+
+    private TransactionResponse toTransactionResponse(InquiryResponse inquiry) {
+        return config.getJsonCodec().getObjectMapper().convertValue(inquiry, TransactionResponse.class);
     }
 }
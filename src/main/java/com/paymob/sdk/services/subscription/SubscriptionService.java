@@ -9,6 +9,7 @@ public class SubscriptionService {
     private final com.paymob.sdk.core.auth.AuthStrategy secretKeyAuth;
     private final com.paymob.sdk.core.auth.AuthStrategy bearerTokenAuth;
     private final com.paymob.sdk.core.PaymobConfig config;
+    private final okhttp3.HttpUrl baseUrl;
 
     public SubscriptionService(com.paymob.sdk.http.HttpClient httpClient,
             com.paymob.sdk.core.auth.AuthStrategy secretKeyAuth,
@@ -18,6 +19,7 @@ public class SubscriptionService {
         this.secretKeyAuth = secretKeyAuth;
         this.bearerTokenAuth = bearerTokenAuth;
         this.config = config;
+        this.baseUrl = config.getRegion().getHttpUrl();
     }
 
     /**
@@ -29,9 +31,23 @@ public class SubscriptionService {
      */
     public com.paymob.sdk.services.intention.IntentionResponse subscribe(
             com.paymob.sdk.services.intention.IntentionRequest request) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.post("/v1/intention/", request, com.paymob.sdk.services.intention.IntentionResponse.class,
-                secretKeyAuth);
+        return httpClient.post(baseUrl.resolve("/v1/intention/"), request,
+                com.paymob.sdk.services.intention.IntentionResponse.class, secretKeyAuth,
+                "SubscriptionService.subscribe");
+    }
+
+    /**
+     * Asynchronous variant of
+     * {@link #subscribe(com.paymob.sdk.services.intention.IntentionRequest)}.
+     * 
+     * @param request The intention request for subscription
+     * @return A future completed with the intention response
+     */
+    public java.util.concurrent.CompletableFuture<com.paymob.sdk.services.intention.IntentionResponse> subscribeAsync(
+            com.paymob.sdk.services.intention.IntentionRequest request) {
+        return httpClient.postAsync(baseUrl.resolve("/v1/intention/"), request,
+                com.paymob.sdk.services.intention.IntentionResponse.class, secretKeyAuth,
+                "SubscriptionService.subscribeAsync");
     }
 
     /**
@@ -43,9 +59,23 @@ public class SubscriptionService {
      */
     public com.paymob.sdk.services.intention.IntentionResponse addSecondaryCard(
             com.paymob.sdk.services.intention.IntentionRequest request) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.post("/v1/intention/", request, com.paymob.sdk.services.intention.IntentionResponse.class,
-                secretKeyAuth);
+        return httpClient.post(baseUrl.resolve("/v1/intention/"), request,
+                com.paymob.sdk.services.intention.IntentionResponse.class, secretKeyAuth,
+                "SubscriptionService.addSecondaryCard");
+    }
+
+    /**
+     * Asynchronous variant of
+     * {@link #addSecondaryCard(com.paymob.sdk.services.intention.IntentionRequest)}.
+     * 
+     * @param request The intention request for adding a card
+     * @return A future completed with the intention response
+     */
+    public java.util.concurrent.CompletableFuture<com.paymob.sdk.services.intention.IntentionResponse> addSecondaryCardAsync(
+            com.paymob.sdk.services.intention.IntentionRequest request) {
+        return httpClient.postAsync(baseUrl.resolve("/v1/intention/"), request,
+                com.paymob.sdk.services.intention.IntentionResponse.class, secretKeyAuth,
+                "SubscriptionService.addSecondaryCardAsync");
     }
 
     /**
@@ -55,9 +85,19 @@ public class SubscriptionService {
      * @return Subscription details
      */
     public SubscriptionResponse get(long subscriptionId) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.get("/api/acceptance/subscriptions/" + subscriptionId, SubscriptionResponse.class,
-                bearerTokenAuth);
+        return httpClient.get(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId),
+                SubscriptionResponse.class, bearerTokenAuth, "SubscriptionService.get");
+    }
+
+    /**
+     * Asynchronous variant of {@link #get(long)}.
+     * 
+     * @param subscriptionId The subscription ID
+     * @return A future completed with the subscription details
+     */
+    public java.util.concurrent.CompletableFuture<SubscriptionResponse> getAsync(long subscriptionId) {
+        return httpClient.getAsync(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId),
+                SubscriptionResponse.class, bearerTokenAuth, "SubscriptionService.getAsync");
     }
 
     /**
@@ -67,14 +107,53 @@ public class SubscriptionService {
      * @return Paginated list of subscriptions
      */
     public SubscriptionsPage list(SubscriptionListRequest filters) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
         String endpoint = "/api/acceptance/subscriptions";
         String query = buildListQuery(filters);
         if (!query.isBlank()) {
             endpoint = endpoint + "?" + query;
         }
 
-        return httpClient.get(endpoint, SubscriptionsPage.class, bearerTokenAuth);
+        return httpClient.get(baseUrl.resolve(endpoint), SubscriptionsPage.class, bearerTokenAuth,
+                "SubscriptionService.list");
+    }
+
+    /**
+     * Asynchronous variant of {@link #list(SubscriptionListRequest)}.
+     * 
+     * @param filters Query filters
+     * @return A future completed with the paginated list of subscriptions
+     */
+    public java.util.concurrent.CompletableFuture<SubscriptionsPage> listAsync(SubscriptionListRequest filters) {
+        String endpoint = "/api/acceptance/subscriptions";
+        String query = buildListQuery(filters);
+        if (!query.isBlank()) {
+            endpoint = endpoint + "?" + query;
+        }
+
+        return httpClient.getAsync(baseUrl.resolve(endpoint), SubscriptionsPage.class, bearerTokenAuth,
+                "SubscriptionService.listAsync");
+    }
+
+    /**
+     * Streams every subscription matching the filters, following the
+     * {@code next} links page by page. The page after the current one is
+     * requested in the background while the current one is consumed, and at
+     * most those two pages are held. Close the stream, for example with
+     * try-with-resources, to cancel a prefetch when stopping early.
+     * 
+     * @param filters Query filters
+     * @return Lazily paginated subscriptions
+     */
+    public java.util.stream.Stream<SubscriptionResponse> streamAll(SubscriptionListRequest filters) {
+        String endpoint = "/api/acceptance/subscriptions";
+        String query = buildListQuery(filters);
+        if (!query.isBlank()) {
+            endpoint = endpoint + "?" + query;
+        }
+
+        return new com.paymob.sdk.http.PageIterator<>(httpClient, bearerTokenAuth, baseUrl.resolve(endpoint),
+                SubscriptionsPage.class, SubscriptionsPage::getResults, SubscriptionsPage::getNext,
+                "SubscriptionService.streamAll").stream();
     }
 
     /**
@@ -85,9 +164,21 @@ public class SubscriptionService {
      * @return Updated subscription status
      */
     public SubscriptionResponse update(long subscriptionId, SubscriptionUpdateRequest request) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.put("/api/acceptance/subscriptions/" + subscriptionId, request, SubscriptionResponse.class,
-                bearerTokenAuth);
+        return httpClient.put(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId), request,
+                SubscriptionResponse.class, bearerTokenAuth, "SubscriptionService.update");
+    }
+
+    /**
+     * Asynchronous variant of {@link #update(long, SubscriptionUpdateRequest)}.
+     * 
+     * @param subscriptionId The subscription to update
+     * @param request        The update details
+     * @return A future completed with the updated subscription status
+     */
+    public java.util.concurrent.CompletableFuture<SubscriptionResponse> updateAsync(long subscriptionId,
+            SubscriptionUpdateRequest request) {
+        return httpClient.putAsync(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId), request,
+                SubscriptionResponse.class, bearerTokenAuth, "SubscriptionService.updateAsync");
     }
 
     /**
@@ -97,10 +188,21 @@ public class SubscriptionService {
      * @return Updated subscription status
      */
     public SubscriptionResponse suspend(long subscriptionId) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.post("/api/acceptance/subscriptions/" + subscriptionId + "/suspend",
-                java.util.Collections.emptyMap(),
-                SubscriptionResponse.class, bearerTokenAuth);
+        return httpClient.post(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/suspend"),
+                java.util.Collections.emptyMap(), SubscriptionResponse.class, bearerTokenAuth,
+                "SubscriptionService.suspend");
+    }
+
+    /**
+     * Asynchronous variant of {@link #suspend(long)}.
+     * 
+     * @param subscriptionId The subscription to suspend
+     * @return A future completed with the updated subscription status
+     */
+    public java.util.concurrent.CompletableFuture<SubscriptionResponse> suspendAsync(long subscriptionId) {
+        return httpClient.postAsync(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/suspend"),
+                java.util.Collections.emptyMap(), SubscriptionResponse.class, bearerTokenAuth,
+                "SubscriptionService.suspendAsync");
     }
 
     /**
@@ -110,10 +212,21 @@ public class SubscriptionService {
      * @return Updated subscription status
      */
     public SubscriptionResponse resume(long subscriptionId) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.post("/api/acceptance/subscriptions/" + subscriptionId + "/resume",
-                java.util.Collections.emptyMap(),
-                SubscriptionResponse.class, bearerTokenAuth);
+        return httpClient.post(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/resume"),
+                java.util.Collections.emptyMap(), SubscriptionResponse.class, bearerTokenAuth,
+                "SubscriptionService.resume");
+    }
+
+    /**
+     * Asynchronous variant of {@link #resume(long)}.
+     * 
+     * @param subscriptionId The subscription to resume
+     * @return A future completed with the updated subscription status
+     */
+    public java.util.concurrent.CompletableFuture<SubscriptionResponse> resumeAsync(long subscriptionId) {
+        return httpClient.postAsync(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/resume"),
+                java.util.Collections.emptyMap(), SubscriptionResponse.class, bearerTokenAuth,
+                "SubscriptionService.resumeAsync");
     }
 
     /**
@@ -123,10 +236,21 @@ public class SubscriptionService {
      * @return Updated subscription status
      */
     public SubscriptionResponse cancel(long subscriptionId) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.post("/api/acceptance/subscriptions/" + subscriptionId + "/cancel",
-                java.util.Collections.emptyMap(),
-                SubscriptionResponse.class, bearerTokenAuth);
+        return httpClient.post(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/cancel"),
+                java.util.Collections.emptyMap(), SubscriptionResponse.class, bearerTokenAuth,
+                "SubscriptionService.cancel");
+    }
+
+    /**
+     * Asynchronous variant of {@link #cancel(long)}.
+     * 
+     * @param subscriptionId The subscription to cancel
+     * @return A future completed with the updated subscription status
+     */
+    public java.util.concurrent.CompletableFuture<SubscriptionResponse> cancelAsync(long subscriptionId) {
+        return httpClient.postAsync(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/cancel"),
+                java.util.Collections.emptyMap(), SubscriptionResponse.class, bearerTokenAuth,
+                "SubscriptionService.cancelAsync");
     }
 
     /**
@@ -136,9 +260,21 @@ public class SubscriptionService {
      * @return Last transaction details
      */
     public SubscriptionTransactionResponse getLastTransaction(long subscriptionId) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.get("/api/acceptance/subscriptions/" + subscriptionId + "/last-transaction",
-                SubscriptionTransactionResponse.class, bearerTokenAuth);
+        return httpClient.get(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/last-transaction"),
+                SubscriptionTransactionResponse.class, bearerTokenAuth, "SubscriptionService.getLastTransaction");
+    }
+
+    /**
+     * Asynchronous variant of {@link #getLastTransaction(long)}.
+     * 
+     * @param subscriptionId The subscription ID
+     * @return A future completed with the last transaction details
+     */
+    public java.util.concurrent.CompletableFuture<SubscriptionTransactionResponse> getLastTransactionAsync(
+            long subscriptionId) {
+        return httpClient.getAsync(
+                baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/last-transaction"),
+                SubscriptionTransactionResponse.class, bearerTokenAuth, "SubscriptionService.getLastTransactionAsync");
     }
 
     /**
@@ -148,9 +284,35 @@ public class SubscriptionService {
      * @return Paginated list of transactions
      */
     public SubscriptionTransactionsPage listTransactions(long subscriptionId) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.get("/api/acceptance/subscriptions/" + subscriptionId + "/transactions",
-                SubscriptionTransactionsPage.class, bearerTokenAuth);
+        return httpClient.get(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/transactions"),
+                SubscriptionTransactionsPage.class, bearerTokenAuth, "SubscriptionService.listTransactions");
+    }
+
+    /**
+     * Asynchronous variant of {@link #listTransactions(long)}.
+     * 
+     * @param subscriptionId The subscription ID
+     * @return A future completed with the paginated list of transactions
+     */
+    public java.util.concurrent.CompletableFuture<SubscriptionTransactionsPage> listTransactionsAsync(
+            long subscriptionId) {
+        return httpClient.getAsync(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/transactions"),
+                SubscriptionTransactionsPage.class, bearerTokenAuth, "SubscriptionService.listTransactionsAsync");
+    }
+
+    /**
+     * Streams every transaction of a subscription, following the {@code next}
+     * links with the same prefetching as
+     * {@link #streamAll(SubscriptionListRequest)}.
+     * 
+     * @param subscriptionId The subscription ID
+     * @return Lazily paginated transactions
+     */
+    public java.util.stream.Stream<SubscriptionTransactionResponse> streamTransactions(long subscriptionId) {
+        return new com.paymob.sdk.http.PageIterator<>(httpClient, bearerTokenAuth,
+                baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/transactions"),
+                SubscriptionTransactionsPage.class, SubscriptionTransactionsPage::getResults,
+                SubscriptionTransactionsPage::getNext, "SubscriptionService.streamTransactions").stream();
     }
 
     /**
@@ -160,13 +322,25 @@ public class SubscriptionService {
      * @return List of card tokens
      */
     public java.util.List<SubscriptionCardResponse> listCards(long subscriptionId) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
         SubscriptionCardResponse[] response = httpClient.get(
-                "/api/acceptance/subscriptions/" + subscriptionId + "/card-tokens", SubscriptionCardResponse[].class,
-                bearerTokenAuth);
+                baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/card-tokens"),
+                SubscriptionCardResponse[].class, bearerTokenAuth, "SubscriptionService.listCards");
         return response == null ? java.util.List.of() : java.util.Arrays.asList(response);
     }
 
+    /**
+     * Asynchronous variant of {@link #listCards(long)}.
+     * 
+     * @param subscriptionId The subscription ID
+     * @return A future completed with the list of card tokens
+     */
+    public java.util.concurrent.CompletableFuture<java.util.List<SubscriptionCardResponse>> listCardsAsync(
+            long subscriptionId) {
+        return httpClient.getAsync(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/card-tokens"),
+                SubscriptionCardResponse[].class, bearerTokenAuth, "SubscriptionService.listCardsAsync")
+                .thenApply(response -> response == null ? java.util.List.of() : java.util.Arrays.asList(response));
+    }
+
     /**
      * Deletes a secondary card from a subscription.
      * 
@@ -175,10 +349,23 @@ public class SubscriptionService {
      * @return Updated subscription status
      */
     public SubscriptionResponse deleteCard(long subscriptionId, long cardId) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
         SubscriptionCardActionRequest request = new SubscriptionCardActionRequest(cardId);
-        return httpClient.post("/api/acceptance/subscriptions/" + subscriptionId + "/delete-card", request,
-                SubscriptionResponse.class, bearerTokenAuth);
+        return httpClient.post(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/delete-card"),
+                request, SubscriptionResponse.class, bearerTokenAuth, "SubscriptionService.deleteCard");
+    }
+
+    /**
+     * Asynchronous variant of {@link #deleteCard(long, long)}.
+     * 
+     * @param subscriptionId The subscription ID
+     * @param cardId         The card ID to delete
+     * @return A future completed with the updated subscription status
+     */
+    public java.util.concurrent.CompletableFuture<SubscriptionResponse> deleteCardAsync(
+            long subscriptionId, long cardId) {
+        SubscriptionCardActionRequest request = new SubscriptionCardActionRequest(cardId);
+        return httpClient.postAsync(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/delete-card"),
+                request, SubscriptionResponse.class, bearerTokenAuth, "SubscriptionService.deleteCardAsync");
     }
 
     /**
@@ -189,10 +376,25 @@ public class SubscriptionService {
      * @return Updated subscription status
      */
     public SubscriptionResponse changePrimaryCard(long subscriptionId, long cardId) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
         SubscriptionCardActionRequest request = new SubscriptionCardActionRequest(cardId);
-        return httpClient.post("/api/acceptance/subscriptions/" + subscriptionId + "/change-primary-card", request,
-                SubscriptionResponse.class, bearerTokenAuth);
+        return httpClient.post(
+                baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/change-primary-card"), request,
+                SubscriptionResponse.class, bearerTokenAuth, "SubscriptionService.changePrimaryCard");
+    }
+
+    /**
+     * Asynchronous variant of {@link #changePrimaryCard(long, long)}.
+     * 
+     * @param subscriptionId The subscription ID
+     * @param cardId         The new primary card ID
+     * @return A future completed with the updated subscription status
+     */
+    public java.util.concurrent.CompletableFuture<SubscriptionResponse> changePrimaryCardAsync(
+            long subscriptionId, long cardId) {
+        SubscriptionCardActionRequest request = new SubscriptionCardActionRequest(cardId);
+        return httpClient.postAsync(
+                baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/change-primary-card"), request,
+                SubscriptionResponse.class, bearerTokenAuth, "SubscriptionService.changePrimaryCardAsync");
     }
 
     /**
@@ -203,10 +405,24 @@ public class SubscriptionService {
      * @return Updated subscription status
      */
     public SubscriptionResponse registerWebhook(long subscriptionId, String webhookUrl) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
         SubscriptionWebhookRequest request = new SubscriptionWebhookRequest(webhookUrl);
-        return httpClient.post("/api/acceptance/subscriptions/" + subscriptionId + "/register_webhook", request,
-                SubscriptionResponse.class, bearerTokenAuth);
+        return httpClient.post(baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/register_webhook"),
+                request, SubscriptionResponse.class, bearerTokenAuth, "SubscriptionService.registerWebhook");
+    }
+
+    /**
+     * Asynchronous variant of {@link #registerWebhook(long, String)}.
+     *
+     * @param subscriptionId The subscription ID
+     * @param webhookUrl     Webhook endpoint to receive subscription callbacks
+     * @return A future completed with the updated subscription status
+     */
+    public java.util.concurrent.CompletableFuture<SubscriptionResponse> registerWebhookAsync(
+            long subscriptionId, String webhookUrl) {
+        SubscriptionWebhookRequest request = new SubscriptionWebhookRequest(webhookUrl);
+        return httpClient.postAsync(
+                baseUrl.resolve("/api/acceptance/subscriptions/" + subscriptionId + "/register_webhook"), request,
+                SubscriptionResponse.class, bearerTokenAuth, "SubscriptionService.registerWebhookAsync");
     }
 
     private static String buildListQuery(SubscriptionListRequest filters) {
@@ -3,6 +3,11 @@ package com.paymob.sdk.services.subscription.plan;
 import com.paymob.sdk.core.PaymobConfig;
 import com.paymob.sdk.core.auth.AuthStrategy;
 import com.paymob.sdk.http.HttpClient;
+import com.paymob.sdk.http.PageIterator;
+import okhttp3.HttpUrl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Service for managing subscription plans.
@@ -11,11 +16,13 @@ public class SubscriptionPlanService {
     private final HttpClient httpClient;
     private final AuthStrategy authStrategy;
     private final PaymobConfig config;
+    private final HttpUrl baseUrl;
 
     public SubscriptionPlanService(HttpClient httpClient, AuthStrategy authStrategy, PaymobConfig config) {
         this.httpClient = httpClient;
         this.authStrategy = authStrategy;
         this.config = config;
+        this.baseUrl = config.getRegion().getHttpUrl();
     }
 
     /**
@@ -25,9 +32,19 @@ public class SubscriptionPlanService {
      * @return Created plan details
      */
     public SubscriptionPlanResponse create(SubscriptionPlanRequest request) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.post("/api/acceptance/subscription-plans", request, SubscriptionPlanResponse.class,
-                authStrategy);
+        return httpClient.post(baseUrl.resolve("/api/acceptance/subscription-plans"), request,
+                SubscriptionPlanResponse.class, authStrategy, "SubscriptionPlanService.create");
+    }
+
+    /**
+     * Asynchronous variant of {@link #create(SubscriptionPlanRequest)}.
+     * 
+     * @param request The plan details
+     * @return A future completed with the created plan details
+     */
+    public CompletableFuture<SubscriptionPlanResponse> createAsync(SubscriptionPlanRequest request) {
+        return httpClient.postAsync(baseUrl.resolve("/api/acceptance/subscription-plans"), request,
+                SubscriptionPlanResponse.class, authStrategy, "SubscriptionPlanService.createAsync");
     }
 
     /**
@@ -36,8 +53,32 @@ public class SubscriptionPlanService {
      * @return Paginated list of all plans
      */
     public SubscriptionPlansPage list() {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.get("/api/acceptance/subscription-plans", SubscriptionPlansPage.class, authStrategy);
+        return httpClient.get(baseUrl.resolve("/api/acceptance/subscription-plans"), SubscriptionPlansPage.class,
+                authStrategy, "SubscriptionPlanService.list");
+    }
+
+    /**
+     * Asynchronous variant of {@link #list()}.
+     * 
+     * @return A future completed with the paginated list of all plans
+     */
+    public CompletableFuture<SubscriptionPlansPage> listAsync() {
+        return httpClient.getAsync(baseUrl.resolve("/api/acceptance/subscription-plans"), SubscriptionPlansPage.class,
+                authStrategy, "SubscriptionPlanService.listAsync");
+    }
+
+    /**
+     * Streams every subscription plan, following the {@code next} links page
+     * by page. The page after the current one is requested in the background
+     * while the current one is consumed, and at most those two pages are
+     * held. Close the stream to cancel a prefetch when stopping early.
+     * 
+     * @return Lazily paginated plans
+     */
+    public Stream<SubscriptionPlanResponse> streamAll() {
+        return new PageIterator<>(httpClient, authStrategy, baseUrl.resolve("/api/acceptance/subscription-plans"),
+                SubscriptionPlansPage.class, SubscriptionPlansPage::getResults, SubscriptionPlansPage::getNext,
+                "SubscriptionPlanService.streamAll").stream();
     }
 
     /**
@@ -47,9 +88,19 @@ public class SubscriptionPlanService {
      * @return Plan details
      */
     public SubscriptionPlanResponse retrieve(long planId) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.get("/api/acceptance/subscription-plans/" + planId, SubscriptionPlanResponse.class,
-                authStrategy);
+        return httpClient.get(baseUrl.resolve("/api/acceptance/subscription-plans/" + planId),
+                SubscriptionPlanResponse.class, authStrategy, "SubscriptionPlanService.retrieve");
+    }
+
+    /**
+     * Asynchronous variant of {@link #retrieve(long)}.
+     * 
+     * @param planId The ID of the plan to retrieve
+     * @return A future completed with the plan details
+     */
+    public CompletableFuture<SubscriptionPlanResponse> retrieveAsync(long planId) {
+        return httpClient.getAsync(baseUrl.resolve("/api/acceptance/subscription-plans/" + planId),
+                SubscriptionPlanResponse.class, authStrategy, "SubscriptionPlanService.retrieveAsync");
     }
 
     /**
@@ -61,9 +112,20 @@ public class SubscriptionPlanService {
      * @return Updated plan details
      */
     public SubscriptionPlanResponse update(long planId, SubscriptionPlanUpdateRequest request) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.put("/api/acceptance/subscription-plans/" + planId, request, SubscriptionPlanResponse.class,
-                authStrategy);
+        return httpClient.put(baseUrl.resolve("/api/acceptance/subscription-plans/" + planId), request,
+                SubscriptionPlanResponse.class, authStrategy, "SubscriptionPlanService.update");
+    }
+
+    /**
+     * Asynchronous variant of {@link #update(long, SubscriptionPlanUpdateRequest)}.
+     * 
+     * @param planId  The ID of the plan to update
+     * @param request The fields to update
+     * @return A future completed with the updated plan details
+     */
+    public CompletableFuture<SubscriptionPlanResponse> updateAsync(long planId, SubscriptionPlanUpdateRequest request) {
+        return httpClient.putAsync(baseUrl.resolve("/api/acceptance/subscription-plans/" + planId), request,
+                SubscriptionPlanResponse.class, authStrategy, "SubscriptionPlanService.updateAsync");
     }
 
     /**
@@ -74,10 +136,21 @@ public class SubscriptionPlanService {
      * @return Updated plan details
      */
     public SubscriptionPlanResponse suspend(long planId) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.post("/api/acceptance/subscription-plans/" + planId + "/suspend",
-                java.util.Collections.emptyMap(),
-                SubscriptionPlanResponse.class, authStrategy);
+        return httpClient.post(baseUrl.resolve("/api/acceptance/subscription-plans/" + planId + "/suspend"),
+                java.util.Collections.emptyMap(), SubscriptionPlanResponse.class, authStrategy,
+                "SubscriptionPlanService.suspend");
+    }
+
+    /**
+     * Asynchronous variant of {@link #suspend(long)}.
+     * 
+     * @param planId The ID of the plan to suspend
+     * @return A future completed with the updated plan details
+     */
+    public CompletableFuture<SubscriptionPlanResponse> suspendAsync(long planId) {
+        return httpClient.postAsync(baseUrl.resolve("/api/acceptance/subscription-plans/" + planId + "/suspend"),
+                java.util.Collections.emptyMap(), SubscriptionPlanResponse.class, authStrategy,
+                "SubscriptionPlanService.suspendAsync");
     }
 
     /**
@@ -87,9 +160,20 @@ public class SubscriptionPlanService {
      * @return Updated plan details
      */
     public SubscriptionPlanResponse resume(long planId) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.post("/api/acceptance/subscription-plans/" + planId + "/resume",
-                java.util.Collections.emptyMap(),
-                SubscriptionPlanResponse.class, authStrategy);
+        return httpClient.post(baseUrl.resolve("/api/acceptance/subscription-plans/" + planId + "/resume"),
+                java.util.Collections.emptyMap(), SubscriptionPlanResponse.class, authStrategy,
+                "SubscriptionPlanService.resume");
+    }
+
+    /**
+     * Asynchronous variant of {@link #resume(long)}.
+     * 
+     * @param planId The ID of the plan to resume
+     * @return A future completed with the updated plan details
+     */
+    public CompletableFuture<SubscriptionPlanResponse> resumeAsync(long planId) {
+        return httpClient.postAsync(baseUrl.resolve("/api/acceptance/subscription-plans/" + planId + "/resume"),
+                java.util.Collections.emptyMap(), SubscriptionPlanResponse.class, authStrategy,
+                "SubscriptionPlanService.resumeAsync");
     }
 }
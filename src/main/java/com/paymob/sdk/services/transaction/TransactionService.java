@@ -3,6 +3,9 @@ package com.paymob.sdk.services.transaction;
 import com.paymob.sdk.core.PaymobConfig;
 import com.paymob.sdk.core.auth.AuthStrategy;
 import com.paymob.sdk.http.HttpClient;
+import okhttp3.HttpUrl;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service for handling post-payment operations: Refund, Void & Capture.
@@ -11,11 +14,13 @@ public class TransactionService {
     private final HttpClient httpClient;
     private final AuthStrategy authStrategy;
     private final PaymobConfig config;
+    private final HttpUrl baseUrl;
 
     public TransactionService(HttpClient httpClient, AuthStrategy authStrategy, PaymobConfig config) {
         this.httpClient = httpClient;
         this.authStrategy = authStrategy;
         this.config = config;
+        this.baseUrl = config.getRegion().getHttpUrl();
     }
 
     /**
@@ -25,8 +30,19 @@ public class TransactionService {
      * @return Refund response containing transaction details
      */
     public TransactionResponse refundTransaction(RefundRequest request) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.post("/api/acceptance/void_refund/refund", request, TransactionResponse.class, authStrategy);
+        return httpClient.post(baseUrl.resolve("/api/acceptance/void_refund/refund"), request,
+                TransactionResponse.class, authStrategy, "TransactionService.refundTransaction");
+    }
+
+    /**
+     * Asynchronous variant of {@link #refundTransaction(RefundRequest)}.
+     *
+     * @param request The refund request
+     * @return A future completed with the refund response
+     */
+    public CompletableFuture<TransactionResponse> refundTransactionAsync(RefundRequest request) {
+        return httpClient.postAsync(baseUrl.resolve("/api/acceptance/void_refund/refund"), request,
+                TransactionResponse.class, authStrategy, "TransactionService.refundTransactionAsync");
     }
 
     /**
@@ -36,8 +52,19 @@ public class TransactionService {
      * @return Void response containing transaction details
      */
     public TransactionResponse voidTransaction(VoidRequest request) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.post("/api/acceptance/void_refund/void", request, TransactionResponse.class, authStrategy);
+        return httpClient.post(baseUrl.resolve("/api/acceptance/void_refund/void"), request, TransactionResponse.class,
+                authStrategy, "TransactionService.voidTransaction");
+    }
+
+    /**
+     * Asynchronous variant of {@link #voidTransaction(VoidRequest)}.
+     *
+     * @param request The void request
+     * @return A future completed with the void response
+     */
+    public CompletableFuture<TransactionResponse> voidTransactionAsync(VoidRequest request) {
+        return httpClient.postAsync(baseUrl.resolve("/api/acceptance/void_refund/void"), request,
+                TransactionResponse.class, authStrategy, "TransactionService.voidTransactionAsync");
     }
 
     /**
@@ -48,7 +75,18 @@ public class TransactionService {
      * @return Capture response containing transaction details
      */
     public TransactionResponse captureTransaction(CaptureRequest request) {
-        httpClient.setBaseUrl(config.getRegion().getBaseUrl());
-        return httpClient.post("/api/acceptance/capture", request, TransactionResponse.class, authStrategy);
+        return httpClient.post(baseUrl.resolve("/api/acceptance/capture"), request, TransactionResponse.class,
+                authStrategy, "TransactionService.captureTransaction");
+    }
+
+    /**
+     * Asynchronous variant of {@link #captureTransaction(CaptureRequest)}.
+     *
+     * @param request The capture request
+     * @return A future completed with the capture response
+     */
+    public CompletableFuture<TransactionResponse> captureTransactionAsync(CaptureRequest request) {
+        return httpClient.postAsync(baseUrl.resolve("/api/acceptance/capture"), request, TransactionResponse.class,
+                authStrategy, "TransactionService.captureTransactionAsync");
     }
 }
@@ -0,0 +1,55 @@
+package com.paymob.sdk.tracing;
+
+import java.util.function.BiConsumer;
+
+/**
+ * A span started by a {@link PaymobTracer}. Every method has an empty
+ * default, so a binding only implements what its library supports.
+ */
+public interface PaymobSpan {
+    /**
+     * A span that records nothing.
+     */
+    PaymobSpan NOOP = new PaymobSpan() {
+    };
+
+    default PaymobSpan setAttribute(String key, String value) {
+        return this;
+    }
+
+    default PaymobSpan setAttribute(String key, long value) {
+        return this;
+    }
+
+    default void recordException(Throwable exception) {
+    }
+
+    /**
+     * Makes this span the tracing library's current span on this thread until
+     * the returned scope is closed, so spans started meanwhile nest under it.
+     */
+    default Scope makeCurrent() {
+        return Scope.NOOP;
+    }
+
+    /**
+     * Writes this span's context as headers, e.g. W3C {@code traceparent} and
+     * {@code tracestate}.
+     */
+    default void inject(BiConsumer<String, String> headers) {
+    }
+
+    default void end() {
+    }
+
+    /**
+     * Restores the previous current span when closed.
+     */
+    interface Scope extends AutoCloseable {
+        Scope NOOP = () -> {
+        };
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,40 @@
+package com.paymob.sdk.tracing;
+
+/**
+ * Starts spans for the SDK. Bind it to a tracing library with
+ * {@code PaymobConfig.Builder.tracer(...)}.
+ * <p>
+ * The SDK opens one span per service operation, named after the service
+ * method, e.g. {@code IntentionService.createIntention}. Under it are a span
+ * per HTTP attempt, whose context is propagated in the request headers, and
+ * spans for JSON serialization and deserialization. A bearer-token login made
+ * for a synchronous operation shows up as a nested
+ * {@code BearerTokenAuthStrategy.login} operation; asynchronous operations log
+ * in in the background, so theirs is traced on its own.
+ * <p>
+ * With {@link #NOOP}, the default, no span is started and nothing is
+ * allocated.
+ */
+public interface PaymobTracer {
+    /** Paymob region serving the call, e.g. {@code EGYPT}. */
+    String REGION = "paymob.region";
+    /** Endpoint template, e.g. {@code /api/acceptance/subscriptions/{id}/suspend}. */
+    String ENDPOINT = "paymob.endpoint";
+    String HTTP_METHOD = "http.request.method";
+    String HTTP_STATUS = "http.response.status_code";
+    /** Zero for the first attempt, then one more for each retry. */
+    String RESEND_COUNT = "http.request.resend_count";
+
+    /**
+     * Starts nothing.
+     */
+    PaymobTracer NOOP = (name, parent) -> PaymobSpan.NOOP;
+
+    /**
+     * Starts a span.
+     *
+     * @param parent Span to nest under, or null for the tracing library's
+     *               current context
+     */
+    PaymobSpan startSpan(String name, PaymobSpan parent);
+}
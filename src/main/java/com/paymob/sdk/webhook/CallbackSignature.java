@@ -0,0 +1,221 @@
+package com.paymob.sdk.webhook;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Precompiled layout of the string Paymob signs for a redirect callback.
+ * <p>
+ * A spec lists its parts in concatenation order. A field part names the query
+ * parameters that may carry the value, in order of preference; a literal part
+ * is signed as is. Values are encoded as UTF-8 straight into the
+ * {@link WebhookHmac} input, read either from a parameter map or from the raw
+ * query string in one pass, so the concatenated string is never built.
+ */
+final class CallbackSignature {
+    /** Every parameter a spec or the type detection reads. */
+    private static final String[] NAMES = {
+            "amount_cents", "created_at", "currency", "error_occured", "has_parent_transaction", "id", "obj.id",
+            "integration_id", "is_3d_secure", "is_auth", "is_capture", "is_refunded", "is_standalone_payment",
+            "is_voided", "order_id", "order.id", "order", "owner", "pending", "source_data.pan",
+            "source_data.sub_type", "source_data.type", "success", "card_subtype", "email", "masked_pan",
+            "merchant_id", "token", "trigger_type", "subscription_data.id", "subscription_id", "hmac"
+    };
+    /** Indexes into {@link #NAMES}, grouped by name length. */
+    private static final int[][] NAMES_BY_LENGTH;
+
+    static {
+        int longest = 0;
+        for (String name : NAMES) {
+            longest = Math.max(longest, name.length());
+        }
+        NAMES_BY_LENGTH = new int[longest + 1][0];
+        for (int i = 0; i < NAMES.length; i++) {
+            int[] bucket = NAMES_BY_LENGTH[NAMES[i].length()];
+            bucket = Arrays.copyOf(bucket, bucket.length + 1);
+            bucket[bucket.length - 1] = i;
+            NAMES_BY_LENGTH[NAMES[i].length()] = bucket;
+        }
+    }
+
+    private static final int TOKEN = index("token");
+    private static final int MASKED_PAN = index("masked_pan");
+    private static final int SUBSCRIPTION_ID = index("subscription_data.id");
+    private static final int TRIGGER_TYPE = index("trigger_type");
+    private static final int HMAC = index("hmac");
+
+    static final CallbackSignature TRANSACTION = new CallbackSignature(
+            field("amount_cents"), field("created_at"), field("currency"), field("error_occured"),
+            field("has_parent_transaction"), field("id", "obj.id"), field("integration_id"), field("is_3d_secure"),
+            field("is_auth"), field("is_capture"), field("is_refunded"), field("is_standalone_payment"),
+            field("is_voided"), field("order_id", "order.id", "order"), field("owner"), field("pending"),
+            field("source_data.pan"), field("source_data.sub_type"), field("source_data.type"), field("success"));
+
+    static final CallbackSignature CARD_TOKEN = new CallbackSignature(
+            field("card_subtype"), field("created_at"), field("email"), field("id"), field("masked_pan"),
+            field("merchant_id"), field("order_id"), field("token"));
+
+    /** {@code {trigger_type}for{subscription_data.id}}, as in the POST webhook. */
+    static final CallbackSignature SUBSCRIPTION = new CallbackSignature(
+            field("trigger_type"), literal("for"), field("subscription_data.id", "subscription_id", "id"));
+
+    private final Part[] parts;
+
+    private CallbackSignature(Part... parts) {
+        this.parts = parts;
+    }
+
+    /**
+     * Picks the spec for a parameter map by the parameters it carries.
+     */
+    static CallbackSignature forParameters(Map<String, String> params) {
+        if (params.containsKey("token") && params.containsKey("masked_pan")) {
+            return CARD_TOKEN;
+        } else if (params.containsKey("subscription_data.id") || params.containsKey("trigger_type")) {
+            return SUBSCRIPTION;
+        } else {
+            return TRANSACTION;
+        }
+    }
+
+    /**
+     * Returns true if {@code receivedHmac} signs the values in {@code params}.
+     */
+    boolean matches(Map<String, String> params, String receivedHmac, WebhookHmac hmac) {
+        WebhookHmac.Input input = hmac.input();
+        for (Part part : parts) {
+            if (part.literal != null) {
+                input.append(part.literal, 0, part.literal.length());
+                continue;
+            }
+            for (int name : part.names) {
+                String value = params.get(NAMES[name]);
+                if (value != null) {
+                    input.append(value, 0, value.length());
+                    break;
+                }
+            }
+        }
+        return input.matches(receivedHmac, 0, receivedHmac.length());
+    }
+
+    /**
+     * Returns true if the {@code hmac} parameter of a raw query string signs
+     * its other parameters. The query is scanned once; the first occurrence of
+     * a parameter wins, and values are percent-decoded straight into the
+     * signing input.
+     *
+     * @param rawQuery The query string without {@code ?}, still form-encoded
+     */
+    static boolean matches(String rawQuery, WebhookHmac hmac) {
+        // starts[i] and ends[i] delimit the raw value of NAMES[i], or starts[i] is -1
+        int[] starts = new int[NAMES.length];
+        int[] ends = new int[NAMES.length];
+        Arrays.fill(starts, -1);
+        int start = 0;
+        while (start < rawQuery.length()) {
+            int end = rawQuery.indexOf('&', start);
+            if (end < 0) {
+                end = rawQuery.length();
+            }
+            int equals = rawQuery.indexOf('=', start);
+            int nameEnd = equals >= 0 && equals < end ? equals : end;
+            int name = lookup(rawQuery, start, nameEnd);
+            if (name >= 0 && starts[name] < 0) {
+                starts[name] = Math.min(nameEnd + 1, end);
+                ends[name] = end;
+            }
+            start = end + 1;
+        }
+        if (starts[HMAC] < 0) {
+            return false;
+        }
+
+        CallbackSignature spec;
+        if (starts[TOKEN] >= 0 && starts[MASKED_PAN] >= 0) {
+            spec = CARD_TOKEN;
+        } else if (starts[SUBSCRIPTION_ID] >= 0 || starts[TRIGGER_TYPE] >= 0) {
+            spec = SUBSCRIPTION;
+        } else {
+            spec = TRANSACTION;
+        }
+        WebhookHmac.Input input = hmac.input();
+        for (Part part : spec.parts) {
+            if (part.literal != null) {
+                input.append(part.literal, 0, part.literal.length());
+                continue;
+            }
+            for (int name : part.names) {
+                if (starts[name] >= 0) {
+                    if (!input.appendQueryValue(rawQuery, starts[name], ends[name])) {
+                        return false;
+                    }
+                    break;
+                }
+            }
+        }
+        return input.matches(rawQuery, starts[HMAC], ends[HMAC]);
+    }
+
+    /**
+     * Returns the index in {@link #NAMES} of the raw parameter name
+     * {@code query[start, end)}, or -1 if no spec reads it.
+     */
+    private static int lookup(String query, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = query.charAt(i);
+            if (c == '%' || c == '+') {
+                // Rare: an escaped name is decoded before it is looked up
+                try {
+                    String name = URLDecoder.decode(query.substring(start, end), StandardCharsets.UTF_8);
+                    return lookup(name, 0, name.length());
+                } catch (IllegalArgumentException e) {
+                    return -1;
+                }
+            }
+        }
+        int length = end - start;
+        if (length >= NAMES_BY_LENGTH.length) {
+            return -1;
+        }
+        for (int name : NAMES_BY_LENGTH[length]) {
+            if (query.regionMatches(start, NAMES[name], 0, length)) {
+                return name;
+            }
+        }
+        return -1;
+    }
+
+    private static int index(String name) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Unknown callback parameter " + name);
+    }
+
+    private static Part field(String... names) {
+        int[] indexes = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            indexes[i] = index(names[i]);
+        }
+        return new Part(null, indexes);
+    }
+
+    private static Part literal(String text) {
+        return new Part(text, null);
+    }
+
+    private static final class Part {
+        final String literal;
+        final int[] names;
+
+        Part(String literal, int[] names) {
+            this.literal = literal;
+            this.names = names;
+        }
+    }
+}
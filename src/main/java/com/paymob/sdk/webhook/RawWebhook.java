@@ -0,0 +1,27 @@
+package com.paymob.sdk.webhook;
+
+/**
+ * A received webhook body and the HMAC that came with it, as input to
+ * {@link WebhookValidator#validateAndParseAll}.
+ */
+public final class RawWebhook {
+    private final String payload;
+    private final String hmac;
+
+    /**
+     * @param payload The raw request body
+     * @param hmac    The {@code hmac} query parameter
+     */
+    public RawWebhook(String payload, String hmac) {
+        this.payload = payload;
+        this.hmac = hmac;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public String getHmac() {
+        return hmac;
+    }
+}
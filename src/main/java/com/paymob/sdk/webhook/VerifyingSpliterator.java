@@ -0,0 +1,99 @@
+package com.paymob.sdk.webhook;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Verifies the webhooks of a source spliterator and numbers them in
+ * encounter order, so a parallel stream can report each result's position
+ * without a shared counter.
+ * <p>
+ * A sub-sized source is split by delegating to it and offsetting the suffix
+ * by the exact size of the prefix. Any other source is split the way
+ * {@link Spliterators.AbstractSpliterator} does, by copying a growing batch
+ * into an array whose first element gets the next index.
+ */
+final class VerifyingSpliterator implements Spliterator<WebhookVerification> {
+    private static final int BATCH_UNIT = 1 << 10;
+    private static final int MAX_BATCH = 1 << 20;
+
+    @FunctionalInterface
+    interface Verifier {
+        WebhookVerification verify(long index, RawWebhook webhook);
+    }
+
+    private final Spliterator<RawWebhook> source;
+    private final Verifier verifier;
+    private long index;
+    private int batch;
+    private RawWebhook held;
+
+    VerifyingSpliterator(Spliterator<RawWebhook> source, long index, Verifier verifier) {
+        this.source = source;
+        this.index = index;
+        this.verifier = verifier;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super WebhookVerification> action) {
+        if (!source.tryAdvance(this::hold)) {
+            return false;
+        }
+        RawWebhook webhook = held;
+        held = null;
+        action.accept(verifier.verify(index++, webhook));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super WebhookVerification> action) {
+        source.forEachRemaining(webhook -> action.accept(verifier.verify(index++, webhook)));
+    }
+
+    @Override
+    public Spliterator<WebhookVerification> trySplit() {
+        if (source.hasCharacteristics(SUBSIZED)) {
+            Spliterator<RawWebhook> prefix = source.trySplit();
+            if (prefix == null) {
+                return null;
+            }
+            VerifyingSpliterator split = new VerifyingSpliterator(prefix, index, verifier);
+            index += prefix.getExactSizeIfKnown();
+            return split;
+        }
+
+        int n = (int) Math.min(Math.min(batch + BATCH_UNIT, MAX_BATCH), source.estimateSize());
+        if (n <= 0) {
+            return null;
+        }
+        RawWebhook[] buffer = new RawWebhook[n];
+        int count = 0;
+        while (count < n && source.tryAdvance(this::hold)) {
+            buffer[count++] = held;
+        }
+        held = null;
+        if (count == 0) {
+            return null;
+        }
+        batch = count;
+        VerifyingSpliterator split = new VerifyingSpliterator(
+                Spliterators.spliterator(buffer, 0, count, ORDERED), index, verifier);
+        index += count;
+        return split;
+    }
+
+    private void hold(RawWebhook webhook) {
+        held = webhook;
+    }
+
+    @Override
+    public long estimateSize() {
+        return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | (source.characteristics() & (SIZED | SUBSIZED));
+    }
+}
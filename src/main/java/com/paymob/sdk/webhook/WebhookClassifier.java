@@ -0,0 +1,148 @@
+package com.paymob.sdk.webhook;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.paymob.sdk.http.JsonCodec;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decides the {@link WebhookFamily} of a payload from its top-level keys.
+ * <p>
+ * Each distinguishing fact (a marker key is present, {@code type} has a given
+ * value) sets one bit, and the family is read from a table indexed by those
+ * bits. The table is computed once from the rules, so classification costs a
+ * hash lookup per top-level key however many families there are. The rules
+ * match the {@code canHandleTree} checks of the built-in calculators, with
+ * transaction first, then subscription, then card token.
+ */
+public final class WebhookClassifier {
+    private static final int OBJ = 1;
+    private static final int SUBSCRIPTION_DATA = 1 << 1;
+    private static final int TRIGGER_TYPE = 1 << 2;
+    private static final int TYPE_TRANSACTION = 1 << 3;
+    private static final int TYPE_TOKEN = 1 << 4;
+    private static final int TYPE_OTHER = 1 << 5;
+    private static final int TYPE_ANY = TYPE_TRANSACTION | TYPE_TOKEN | TYPE_OTHER;
+
+    private static final String[] MARKER_NAMES = {"obj", "subscription_data", "trigger_type"};
+    private static final int[] MARKER_FACTS = {OBJ, SUBSCRIPTION_DATA, TRIGGER_TYPE};
+    private static final Map<String, Integer> MARKERS = new HashMap<>();
+    private static final Map<String, Integer> TYPES = new HashMap<>();
+    private static final WebhookFamily[] FAMILIES = new WebhookFamily[1 << 6];
+
+    static {
+        for (int i = 0; i < MARKER_NAMES.length; i++) {
+            MARKERS.put(MARKER_NAMES[i], MARKER_FACTS[i]);
+        }
+        TYPES.put("TRANSACTION", TYPE_TRANSACTION);
+        TYPES.put("TOKEN", TYPE_TOKEN);
+        for (int facts = 0; facts < FAMILIES.length; facts++) {
+            FAMILIES[facts] = rule(facts);
+        }
+    }
+
+    private WebhookClassifier() {
+    }
+
+    private static WebhookFamily rule(int facts) {
+        boolean untypedOrTransaction = (facts & TYPE_ANY) == 0 || (facts & TYPE_TRANSACTION) != 0;
+        if ((facts & OBJ) != 0 && (facts & SUBSCRIPTION_DATA) == 0 && untypedOrTransaction) {
+            return WebhookFamily.TRANSACTION;
+        }
+        if ((facts & SUBSCRIPTION_DATA) != 0 && (facts & TRIGGER_TYPE) != 0) {
+            return WebhookFamily.SUBSCRIPTION;
+        }
+        if ((facts & TYPE_TOKEN) != 0) {
+            return WebhookFamily.CARD_TOKEN;
+        }
+        return null;
+    }
+
+    /**
+     * Family of a parsed payload, or null if it matches none.
+     */
+    public static WebhookFamily classify(JsonNode root) {
+        if (root == null || !root.isObject()) {
+            return null;
+        }
+        int facts = 0;
+        for (int i = 0; i < MARKER_NAMES.length; i++) {
+            if (root.has(MARKER_NAMES[i])) {
+                facts |= MARKER_FACTS[i];
+            }
+        }
+        JsonNode type = root.get("type");
+        if (type != null) {
+            facts |= typeFact(type.asText());
+        }
+        return FAMILIES[facts];
+    }
+
+    private static int typeFact(String text) {
+        Integer fact = TYPES.get(text);
+        return fact != null ? fact : TYPE_OTHER;
+    }
+
+    /**
+     * Family of a raw payload, read in one streaming pass that skips every
+     * value except {@code type}, or null if it matches none.
+     *
+     * @throws IOException If the payload is not well-formed JSON
+     */
+    public static WebhookFamily classify(String payload) throws IOException {
+        try (JsonParser parser = JsonCodec.shared().createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            Scan scan = new Scan();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("type".equals(name)) {
+                    scan.type(token.isScalarValue() ? parser.getText() : "");
+                } else {
+                    scan.key(name);
+                }
+                parser.skipChildren();
+            }
+            return scan.family();
+        }
+    }
+
+    /**
+     * Accumulates top-level facts for readers that walk the payload
+     * themselves. The last {@code type} seen wins, as in a tree.
+     */
+    public static final class Scan {
+        private int facts;
+
+        /**
+         * Records a top-level key other than {@code type}.
+         */
+        public void key(String name) {
+            Integer marker = MARKERS.get(name);
+            if (marker != null) {
+                facts |= marker;
+            }
+        }
+
+        /**
+         * Records the {@code type} value, rendered as {@code JsonNode.asText()}
+         * would render it.
+         */
+        public void type(String text) {
+            facts = (facts & ~TYPE_ANY) | typeFact(text);
+        }
+
+        /**
+         * The family the recorded facts select, or null.
+         */
+        public WebhookFamily family() {
+            return FAMILIES[facts];
+        }
+    }
+}
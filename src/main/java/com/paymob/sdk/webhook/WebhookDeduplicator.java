@@ -0,0 +1,46 @@
+package com.paymob.sdk.webhook;
+
+/**
+ * Remembers which webhook deliveries have been seen, so Paymob's retries of
+ * the same event can be dropped.
+ * <p>
+ * {@link WebhookValidator} calls {@link #markSeen(String)} after the signature
+ * is verified and before the event is parsed, with a key built from the event
+ * kind, its id, its trigger type and the received HMAC. Keys only ever come
+ * from verified webhooks, so a sender cannot fill the store with forged ones.
+ * <p>
+ * The key is recorded when the event is accepted, not after it is handled, so
+ * that two concurrent deliveries are never both processed. An event whose
+ * handling then fails must be forgotten, or Paymob's retry of it is dropped as
+ * a duplicate and the event is lost. Callers of
+ * {@link WebhookValidator#validateAndParse} must call
+ * {@link WebhookValidator#forget(WebhookEvent)} before answering Paymob with an
+ * error.
+ * <p>
+ * {@code WebhookDispatcher} forgets only a webhook it refuses as overloaded,
+ * which Paymob is answered 503 for and delivers again. Its handlers run after
+ * Paymob has been answered 200, so Paymob never redelivers an event whose
+ * handler fails, deduplicated or not; such events reach the dispatcher's
+ * error handler, which must keep them for replay.
+ * <p>
+ * The in-memory implementations in {@code com.paymob.sdk.webhook.dedup} cover
+ * a single receiver. When several instances sit behind a load balancer,
+ * implement this interface over a shared store, for example Redis
+ * {@code SET key 1 NX PX <ttl>}.
+ */
+public interface WebhookDeduplicator {
+
+    /**
+     * Records the key and returns true if it was not already recorded within
+     * the retention window, or false for a duplicate. Must be atomic: of two
+     * concurrent calls with the same key, exactly one returns true.
+     */
+    boolean markSeen(String key);
+
+    /**
+     * Forgets the key, so the next delivery of the event is processed again.
+     * Called through {@link WebhookValidator#forget(WebhookEvent)} when an
+     * event was accepted but could not be handled.
+     */
+    void forget(String key);
+}
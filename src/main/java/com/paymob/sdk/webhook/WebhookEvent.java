@@ -1,21 +1,40 @@
 package com.paymob.sdk.webhook;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.paymob.sdk.http.JsonCodec;
+import com.paymob.sdk.models.common.CardToken;
+import com.paymob.sdk.services.subscription.SubscriptionResponse;
+import com.paymob.sdk.services.transaction.TransactionResponse;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Represents a Paymob webhook event.
  * <p>
  * This is a simple data holder. Event type detection is handled by
  * {@link WebhookEventParser} implementations, not in this class.
+ * <p>
+ * Typed data is bound lazily: {@link #getData(Class)} binds {@code obj} on the
+ * first call for a class and returns the same instance on later calls, so
+ * handlers may call it, or the typed accessors, as often as they like.
  */
 public class WebhookEvent {
+    private static final Set<WebhookEventType> TRANSACTION_TYPES = EnumSet.range(
+            WebhookEventType.TRANSACTION_SUCCESSFUL, WebhookEventType.TRANSACTION_REFUNDED);
+    private static final Set<WebhookEventType> SUBSCRIPTION_TYPES = EnumSet.range(
+            WebhookEventType.SUBSCRIPTION_CREATED, WebhookEventType.SUBSCRIPTION_FAILED_OVERDUE_TRANSACTION);
+
     private final String rawPayload;
     private WebhookEventType type;
     private Object data;
     private Boolean success;
     private JsonNode obj;
     private JsonNode root;
-    private static final com.fasterxml.jackson.databind.ObjectMapper mapper = new com.fasterxml.jackson.databind.ObjectMapper();
+    private boolean duplicate;
+    private String deduplicationKey;
+    private volatile Binding bindings;
 
     public WebhookEvent(String rawPayload) {
         this.rawPayload = rawPayload;
@@ -23,23 +42,60 @@ public class WebhookEvent {
 
     /**
      * Attempts to deserialize the 'obj' (event data) into the specified class.
-     * 
+     * <p>
+     * The result, including a failed binding, is remembered per class, so
+     * every call for the same class returns the same instance. Treat it as
+     * read-only.
+     *
      * @param <T>   The target type
      * @param clazz The class to deserialize into
      * @return The deserialized object, or null if obj is missing or deserialization
      *         fails
      */
     public <T> T getData(Class<T> clazz) {
+        for (Binding binding = bindings; binding != null; binding = binding.next) {
+            if (binding.type == clazz) {
+                return clazz.cast(binding.value);
+            }
+        }
+        T value = bind(clazz);
+        // Racing threads may both bind; either result is equivalent
+        bindings = new Binding(clazz, value, bindings);
+        return value;
+    }
+
+    private <T> T bind(Class<T> clazz) {
         if (obj == null || obj.isNull()) {
             return null;
         }
         try {
-            return mapper.treeToValue(obj, clazz);
-        } catch (com.fasterxml.jackson.core.JsonProcessingException e) {
+            return JsonCodec.shared().treeToValue(obj, clazz);
+        } catch (IOException e) {
             return null;
         }
     }
 
+    /**
+     * The transaction, or null if this is not a transaction event.
+     */
+    public TransactionResponse asTransaction() {
+        return TRANSACTION_TYPES.contains(type) ? getData(TransactionResponse.class) : null;
+    }
+
+    /**
+     * The subscription, or null if this is not a subscription event.
+     */
+    public SubscriptionResponse asSubscription() {
+        return SUBSCRIPTION_TYPES.contains(type) ? getData(SubscriptionResponse.class) : null;
+    }
+
+    /**
+     * The saved card, or null if this is not a card token event.
+     */
+    public CardToken asCardToken() {
+        return type == WebhookEventType.CARD_TOKEN ? getData(CardToken.class) : null;
+    }
+
     public String getRawPayload() {
         return rawPayload;
     }
@@ -52,6 +108,30 @@ public class WebhookEvent {
         this.root = root;
     }
 
+    /**
+     * True when a {@link WebhookDeduplicator} has already seen this event. A
+     * duplicate is not parsed: it carries only the raw payload and its key.
+     */
+    public boolean isDuplicate() {
+        return duplicate;
+    }
+
+    public void setDuplicate(boolean duplicate) {
+        this.duplicate = duplicate;
+    }
+
+    /**
+     * Key the event was recorded under by the validator's
+     * {@link WebhookDeduplicator}, or null when deduplication is off.
+     */
+    public String getDeduplicationKey() {
+        return deduplicationKey;
+    }
+
+    public void setDeduplicationKey(String deduplicationKey) {
+        this.deduplicationKey = deduplicationKey;
+    }
+
     public WebhookEventType getType() {
         return type;
     }
@@ -82,5 +162,21 @@ public class WebhookEvent {
 
     public void setObj(JsonNode obj) {
         this.obj = obj;
+        this.bindings = null;
+    }
+
+    /**
+     * One remembered binding; the list is copied on write and never mutated.
+     */
+    private static final class Binding {
+        final Class<?> type;
+        final Object value;
+        final Binding next;
+
+        Binding(Class<?> type, Object value, Binding next) {
+            this.type = type;
+            this.value = value;
+            this.next = next;
+        }
     }
 }
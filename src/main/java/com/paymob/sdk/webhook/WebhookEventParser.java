@@ -1,5 +1,7 @@
 package com.paymob.sdk.webhook;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 /**
  * Strategy interface for parsing webhook payloads into {@link WebhookEvent}.
  * <p>
@@ -8,6 +10,10 @@ package com.paymob.sdk.webhook;
  * <p>
  * To support a new webhook type, implement this interface and register
  * it in {@link WebhookValidator}.
+ * <p>
+ * {@link WebhookValidator} parses each payload once and calls the
+ * {@link JsonNode} variants. Their defaults fall back to the String methods,
+ * so override them too to avoid parsing again.
  */
 public interface WebhookEventParser {
 
@@ -16,8 +22,26 @@ public interface WebhookEventParser {
      */
     boolean canParse(String payload);
 
+    /**
+     * Returns true if this parser can handle the already parsed payload.
+     */
+    default boolean canParseTree(JsonNode root) {
+        return canParse(root.toString());
+    }
+
     /**
      * Parses the payload into a {@link WebhookEvent} with the correct event type.
      */
     WebhookEvent parse(String payload);
+
+    /**
+     * Builds the {@link WebhookEvent} from the already parsed payload.
+     *
+     * @param payload The raw request body, kept as
+     *                {@link WebhookEvent#getRawPayload()}
+     * @param root    {@code payload} parsed as JSON
+     */
+    default WebhookEvent parse(String payload, JsonNode root) {
+        return parse(payload);
+    }
 }
@@ -1,5 +1,8 @@
 package com.paymob.sdk.webhook;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Types of Paymob webhook events.
  * <p>
@@ -31,6 +34,14 @@ public enum WebhookEventType {
     // ── Card Token types ──
     CARD_TOKEN("TOKEN");
 
+    private static final Map<String, WebhookEventType> BY_VALUE = new HashMap<>();
+
+    static {
+        for (WebhookEventType type : values()) {
+            BY_VALUE.put(type.value, type);
+        }
+    }
+
     private final String value;
 
     WebhookEventType(String value) {
@@ -45,12 +56,11 @@ public enum WebhookEventType {
      * Looks up an event type by its exact internal value string.
      */
     public static WebhookEventType fromValue(String value) {
-        for (WebhookEventType type : values()) {
-            if (type.value.equals(value)) {
-                return type;
-            }
+        WebhookEventType type = value != null ? BY_VALUE.get(value) : null;
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown webhook event type: " + value);
         }
-        throw new IllegalArgumentException("Unknown webhook event type: " + value);
+        return type;
     }
 
     /**
@@ -60,11 +70,6 @@ public enum WebhookEventType {
     public static WebhookEventType fromTriggerType(String triggerType) {
         if (triggerType == null)
             return null;
-        for (WebhookEventType type : values()) {
-            if (type.value.equals(triggerType)) {
-                return type;
-            }
-        }
-        return null;
+        return BY_VALUE.get(triggerType);
     }
 }
@@ -0,0 +1,15 @@
+package com.paymob.sdk.webhook;
+
+/**
+ * Payload shapes Paymob sends to the webhook URL. Each family has one
+ * {@link WebhookSignatureCalculator} and one {@link WebhookEventParser},
+ * registered under it in {@link WebhookValidator}.
+ */
+public enum WebhookFamily {
+    /** {@code obj} without {@code subscription_data}; {@code type}, if any, is {@code TRANSACTION}. */
+    TRANSACTION,
+    /** {@code subscription_data} with a {@code trigger_type}. */
+    SUBSCRIPTION,
+    /** {@code type} is {@code TOKEN}. */
+    CARD_TOKEN
+}
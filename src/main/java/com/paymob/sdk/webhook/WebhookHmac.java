@@ -0,0 +1,240 @@
+package com.paymob.sdk.webhook;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * HMAC-SHA512 under one webhook secret, reusing per-thread state between
+ * calls.
+ * <p>
+ * The key is built once. Each thread keeps its own initialized {@link Mac} and
+ * scratch buffers, so verifying a webhook does not look up a provider, set up a
+ * key or build hex strings. {@link #matches} encodes the input as UTF-8
+ * straight into a reused buffer, decodes the received hex into bytes and
+ * compares them in constant time. Callers in this package that assemble the
+ * signed bytes from several pieces write them into the same buffer through
+ * {@link #input()}.
+ * <p>
+ * Instances are thread-safe. Keep one per secret for the life of the
+ * application; per-thread state becomes collectable once the instance is.
+ */
+public final class WebhookHmac {
+    private static final String ALGORITHM = "HmacSHA512";
+    private static final int LENGTH = 64;
+    private static final int INITIAL_BUFFER = 512;
+    /** Inputs longer than this are encoded into a one-off array instead of growing the reused one. */
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<State> state;
+
+    public WebhookHmac(String hmacSecret) {
+        if (hmacSecret == null || hmacSecret.isEmpty()) {
+            throw new IllegalArgumentException("HMAC secret is required");
+        }
+        this.key = new SecretKeySpec(hmacSecret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.state = ThreadLocal.withInitial(this::newState);
+        // Fail here rather than on the first webhook if the JVM lacks HmacSHA512
+        state.get();
+    }
+
+    /**
+     * Returns the signature of {@code data} as lowercase hex.
+     */
+    public String hex(CharSequence data) {
+        State current = state.get();
+        current.reset();
+        current.append(data, 0, data.length());
+        current.digest();
+        return HexFormat.of().formatHex(current.expected);
+    }
+
+    /**
+     * Returns true if {@code receivedHex} is the signature of {@code data}.
+     * Hex digits are accepted in either case; anything that is not exactly 128
+     * hex digits does not match.
+     */
+    public boolean matches(CharSequence data, CharSequence receivedHex) {
+        if (data == null || receivedHex == null || receivedHex.length() != LENGTH * 2) {
+            return false;
+        }
+        Input input = input();
+        input.append(data, 0, data.length());
+        return input.matches(receivedHex, 0, receivedHex.length());
+    }
+
+    /**
+     * Returns the calling thread's signing input, emptied. It stays valid
+     * until the next call on this instance from the same thread.
+     */
+    Input input() {
+        State current = state.get();
+        current.reset();
+        return current;
+    }
+
+    /**
+     * Signed bytes assembled piece by piece, then checked against a received
+     * signature.
+     */
+    abstract static class Input {
+        byte[] bytes;
+        int length;
+
+        /**
+         * Appends {@code data[start, end)} encoded as UTF-8.
+         */
+        final void append(CharSequence data, int start, int end) {
+            ensure((end - start) * 3);
+            length = encodeUtf8(data, start, end, bytes, length);
+        }
+
+        /**
+         * Appends a form-encoded query value {@code raw[start, end)} as the
+         * bytes it decodes to: {@code +} is a space and {@code %XX} is one
+         * byte. Returns false for a malformed escape.
+         */
+        final boolean appendQueryValue(CharSequence raw, int start, int end) {
+            ensure((end - start) * 3);
+            for (int i = start; i < end; i++) {
+                char c = raw.charAt(i);
+                if (c == '+') {
+                    bytes[length++] = ' ';
+                } else if (c == '%') {
+                    if (i + 2 >= end || !HexFormat.isHexDigit(raw.charAt(i + 1))
+                            || !HexFormat.isHexDigit(raw.charAt(i + 2))) {
+                        return false;
+                    }
+                    bytes[length++] = (byte) (HexFormat.fromHexDigit(raw.charAt(i + 1)) << 4
+                            | HexFormat.fromHexDigit(raw.charAt(i + 2)));
+                    i += 2;
+                } else if (c < 0x80) {
+                    bytes[length++] = (byte) c;
+                } else {
+                    int next = Character.isHighSurrogate(c) && i + 1 < end ? i + 2 : i + 1;
+                    length = encodeUtf8(raw, i, next, bytes, length);
+                    i = next - 1;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns true if {@code receivedHex[start, end)} is the signature of
+         * the appended bytes.
+         */
+        abstract boolean matches(CharSequence receivedHex, int start, int end);
+
+        abstract void ensure(int extra);
+    }
+
+    /**
+     * Encodes {@code data[start, end)} as UTF-8 into {@code out} from
+     * {@code offset}, which must leave three bytes per char, and returns the
+     * new offset. Unpaired surrogates become {@code '?'}, as in
+     * {@link String#getBytes(java.nio.charset.Charset)}.
+     */
+    static int encodeUtf8(CharSequence data, int start, int end, byte[] out, int offset) {
+        int n = offset;
+        for (int i = start; i < end; i++) {
+            char c = data.charAt(i);
+            if (c < 0x80) {
+                out[n++] = (byte) c;
+            } else if (c < 0x800) {
+                out[n++] = (byte) (0xC0 | c >> 6);
+                out[n++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < end
+                    && Character.isLowSurrogate(data.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, data.charAt(++i));
+                out[n++] = (byte) (0xF0 | codePoint >> 18);
+                out[n++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                out[n++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                out[n++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                out[n++] = '?';
+            } else {
+                out[n++] = (byte) (0xE0 | c >> 12);
+                out[n++] = (byte) (0x80 | c >> 6 & 0x3F);
+                out[n++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        return n;
+    }
+
+    private State newState() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return new State(mac);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA512 is not available", e);
+        }
+    }
+
+    private static final class State extends Input {
+        final Mac mac;
+        final byte[] expected = new byte[LENGTH];
+        final byte[] received = new byte[LENGTH];
+        byte[] buffer = new byte[INITIAL_BUFFER];
+
+        State(Mac mac) {
+            this.mac = mac;
+        }
+
+        void reset() {
+            bytes = buffer;
+            length = 0;
+        }
+
+        /**
+         * Grows the input for {@code extra} more bytes. Inputs longer than
+         * {@link #MAX_RETAINED_BUFFER} go to a one-off array instead of
+         * growing the reused one.
+         */
+        @Override
+        void ensure(int extra) {
+            int needed = length + extra;
+            if (needed > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(needed, bytes.length * 2));
+                if (bytes.length <= MAX_RETAINED_BUFFER) {
+                    buffer = bytes;
+                }
+            }
+        }
+
+        @Override
+        boolean matches(CharSequence receivedHex, int start, int end) {
+            if (end - start != LENGTH * 2) {
+                return false;
+            }
+            for (int i = 0; i < LENGTH; i++) {
+                char high = receivedHex.charAt(start + 2 * i);
+                char low = receivedHex.charAt(start + 2 * i + 1);
+                if (!HexFormat.isHexDigit(high) || !HexFormat.isHexDigit(low)) {
+                    return false;
+                }
+                received[i] = (byte) (HexFormat.fromHexDigit(high) << 4 | HexFormat.fromHexDigit(low));
+            }
+            digest();
+            return MessageDigest.isEqual(expected, received);
+        }
+
+        /**
+         * Signs the appended bytes into {@link #expected}.
+         */
+        void digest() {
+            mac.update(bytes, 0, length);
+            try {
+                mac.doFinal(expected, 0);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
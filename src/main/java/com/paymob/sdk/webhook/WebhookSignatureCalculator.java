@@ -1,11 +1,10 @@
 package com.paymob.sdk.webhook;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymob.sdk.http.JsonCodec;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
-import java.util.HexFormat;
+import java.io.IOException;
 
 /**
  * Template Method base class for webhook HMAC signature calculation.
@@ -13,6 +12,8 @@ import java.util.HexFormat;
  * Subclasses define how to build the concatenated string for their webhook
  * type.
  * The HMAC-SHA512 hashing is shared and final — cannot be overridden.
+ * Validators sign through a long-lived {@link WebhookHmac}, so the key and
+ * {@code Mac} are set up once rather than per webhook.
  * <p>
  * To support a new webhook type, extend this class and implement:
  * <ul>
@@ -20,35 +21,85 @@ import java.util.HexFormat;
  * <li>{@link #buildConcatenatedString(String)} — define the concatenation
  * formula</li>
  * </ul>
+ * {@link WebhookValidator} parses each payload once and calls the
+ * {@link JsonNode} variants. Their defaults re-serialize the tree and call the
+ * String methods, so override {@link #canHandleTree(JsonNode)} and
+ * {@link #buildConcatenatedString(JsonNode)} too to avoid parsing again.
  */
 public abstract class WebhookSignatureCalculator {
-    protected final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * This calculator's own mapper, a copy of the SDK's, so a subclass may
+     * configure it without changing JSON handling elsewhere. The built-in
+     * calculators read through {@link #readTree(String)} instead.
+     */
+    protected final ObjectMapper objectMapper = JsonCodec.shared().getObjectMapper().copy();
+
+    /**
+     * Parses {@code payload} through the SDK's shared {@link JsonCodec}.
+     */
+    protected JsonNode readTree(String payload) throws IOException {
+        return JsonCodec.shared().readTree(payload);
+    }
 
     /**
      * Returns true if this calculator can handle the given payload shape.
      */
     public abstract boolean canHandle(String payload);
 
+    /**
+     * Returns true if this calculator can handle the already parsed payload.
+     */
+    public boolean canHandleTree(JsonNode root) {
+        return canHandle(root.toString());
+    }
+
     /**
      * Builds the concatenated string specific to this webhook type.
      * This is the only part that varies between webhook types.
      */
     protected abstract String buildConcatenatedString(String payload) throws Exception;
 
+    /**
+     * Builds the concatenated string from the already parsed payload.
+     */
+    protected String buildConcatenatedString(JsonNode root) throws Exception {
+        return buildConcatenatedString(root.toString());
+    }
+
     /**
      * Template method — calculates HMAC-SHA512 using the subclass's concatenation
      * formula.
      * This method is final to ensure the hashing algorithm is consistent.
+     * <p>
+     * Builds a new key on every call; prefer
+     * {@link #calculateExpectedHmac(String, WebhookHmac)} when signing many
+     * payloads under one secret.
      */
     public final String calculateExpectedHmac(String payload, String hmacSecret) throws Exception {
-        String concatenated = buildConcatenatedString(payload);
+        return calculateExpectedHmac(payload, new WebhookHmac(hmacSecret));
+    }
+
+    /**
+     * Calculates the lowercase hex HMAC-SHA512 of the payload's concatenated
+     * string under {@code hmac}'s key.
+     */
+    public final String calculateExpectedHmac(String payload, WebhookHmac hmac) throws Exception {
+        return hmac.hex(buildConcatenatedString(payload));
+    }
 
-        Mac sha512Hmac = Mac.getInstance("HmacSHA512");
-        SecretKeySpec keySpec = new SecretKeySpec(
-                hmacSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA512");
-        sha512Hmac.init(keySpec);
-        byte[] macData = sha512Hmac.doFinal(concatenated.getBytes(StandardCharsets.UTF_8));
+    /**
+     * Returns true if {@code receivedHmac} is the payload's signature under
+     * {@code hmac}'s key, compared in constant time.
+     */
+    public final boolean verify(String payload, WebhookHmac hmac, String receivedHmac) throws Exception {
+        return hmac.matches(buildConcatenatedString(payload), receivedHmac);
+    }
 
-        return HexFormat.of().formatHex(macData).toLowerCase();
+    /**
+     * Same as {@link #verify(String, WebhookHmac, String)} for an already
+     * parsed payload.
+     */
+    public final boolean verify(JsonNode root, WebhookHmac hmac, String receivedHmac) throws Exception {
+        return hmac.matches(buildConcatenatedString(root), receivedHmac);
     }
 }
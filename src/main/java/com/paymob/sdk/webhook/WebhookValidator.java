@@ -1,20 +1,29 @@
 package com.paymob.sdk.webhook;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.paymob.sdk.http.JsonCodec;
 import com.paymob.sdk.webhook.parser.CardTokenWebhookEventParser;
 import com.paymob.sdk.webhook.parser.SubscriptionWebhookEventParser;
 import com.paymob.sdk.webhook.parser.TransactionWebhookEventParser;
 import com.paymob.sdk.webhook.signature.CardTokenSignatureCalculator;
 import com.paymob.sdk.webhook.signature.SubscriptionSignatureCalculator;
+import com.paymob.sdk.webhook.signature.TransactionFields;
 import com.paymob.sdk.webhook.signature.TransactionSignatureCalculator;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.util.ArrayList;
-import java.util.HexFormat;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Validates Paymob webhook signatures using HMAC-SHA512.
@@ -26,32 +35,75 @@ import java.util.Map;
  * <p>
  * To add a new webhook type:
  * <ol>
+ * <li>Add a {@link WebhookFamily} and its rule in {@link WebhookClassifier}</li>
  * <li>Create a {@link WebhookSignatureCalculator} subclass</li>
  * <li>Create a {@link WebhookEventParser} implementation</li>
- * <li>Register them in this class's constructor</li>
+ * <li>Register them under the family in this class's constructor</li>
  * </ol>
+ * <p>
+ * The family of each payload is decided once by {@link WebhookClassifier},
+ * and its calculator and parser are looked up by that key, so the cost of
+ * dispatch does not grow with the number of registered types.
+ * <p>
+ * Signatures are computed through one {@link WebhookHmac} per validator, so
+ * keep the validator for the life of the application rather than creating one
+ * per request.
+ * <p>
+ * Each payload is parsed into a {@link JsonNode} at most once. Type
+ * detection, signature field extraction and {@link WebhookEvent} construction
+ * all read that one tree through the tree variants of the calculators and
+ * parsers. Transaction webhooks are verified first from a single streaming
+ * pass, so a forged one is rejected without building a tree at all.
+ * <p>
+ * With a {@link WebhookDeduplicator}, {@link #validateAndParse} also drops
+ * Paymob's redeliveries. Right after the signature is verified, it records a
+ * key made of the event kind, {@code obj.id} or {@code subscription_data.id},
+ * the {@code trigger_type} and the received HMAC. An event already recorded
+ * comes back with {@link WebhookEvent#isDuplicate()} set, before any parser
+ * or typed binding runs; a transaction duplicate is recognised from the
+ * streaming pass alone. Because the key is recorded before the caller handles
+ * the event, a caller whose handling fails must call {@link #forget} before
+ * answering Paymob with an error, so that Paymob's retry is processed.
+ * <p>
+ * {@link #validateAndParseAll} and {@link #validateAndParseStream} verify
+ * batches in parallel on a fork-join pool and return a compact
+ * {@link WebhookVerification} per webhook. {@link WebhookHmac} keeps one
+ * {@code Mac} per thread, so each worker reuses its own.
  */
 public class WebhookValidator {
-    private final String hmacSecret;
-    private final List<WebhookSignatureCalculator> calculators;
-    private final List<WebhookEventParser> parsers;
+    private final WebhookHmac hmac;
+    private final TransactionSignatureCalculator transactionCalculator;
+    private final Map<WebhookFamily, WebhookSignatureCalculator> calculators = new EnumMap<>(WebhookFamily.class);
+    private final Map<WebhookFamily, WebhookEventParser> parsers = new EnumMap<>(WebhookFamily.class);
+    private final WebhookDeduplicator deduplicator;
 
     public WebhookValidator(String hmacSecret) {
+        this(hmacSecret, null);
+    }
+
+    /**
+     * @param hmacSecret   The HMAC secret from the Paymob dashboard
+     * @param deduplicator Records seen events so redeliveries are flagged as
+     *                     duplicates; null turns deduplication off
+     */
+    public WebhookValidator(String hmacSecret, WebhookDeduplicator deduplicator) {
         if (hmacSecret == null || hmacSecret.isEmpty()) {
             throw new IllegalArgumentException("HMAC secret is required for webhook validation");
         }
-        this.hmacSecret = hmacSecret;
+        this.hmac = new WebhookHmac(hmacSecret);
+        this.deduplicator = deduplicator;
 
         // Register built-in calculators and parsers
-        this.calculators = new ArrayList<>();
-        this.calculators.add(new TransactionSignatureCalculator());
-        this.calculators.add(new SubscriptionSignatureCalculator());
-        this.calculators.add(new CardTokenSignatureCalculator());
+        this.transactionCalculator = new TransactionSignatureCalculator();
+        register(WebhookFamily.TRANSACTION, transactionCalculator, new TransactionWebhookEventParser());
+        register(WebhookFamily.SUBSCRIPTION, new SubscriptionSignatureCalculator(),
+                new SubscriptionWebhookEventParser());
+        register(WebhookFamily.CARD_TOKEN, new CardTokenSignatureCalculator(), new CardTokenWebhookEventParser());
+    }
 
-        this.parsers = new ArrayList<>();
-        this.parsers.add(new TransactionWebhookEventParser());
-        this.parsers.add(new SubscriptionWebhookEventParser());
-        this.parsers.add(new CardTokenWebhookEventParser());
+    private void register(WebhookFamily family, WebhookSignatureCalculator calculator, WebhookEventParser parser) {
+        calculators.put(family, calculator);
+        parsers.put(family, parser);
     }
 
     /**
@@ -66,157 +118,373 @@ public class WebhookValidator {
             return false;
         }
 
+        String transactionFields;
         try {
-            for (WebhookSignatureCalculator calculator : calculators) {
-                if (calculator.canHandle(payload)) {
-                    String expectedHmac = calculator.calculateExpectedHmac(payload, hmacSecret);
-                    return timingSafeHexEquals(expectedHmac, receivedHmac);
-                }
-            }
-            return false;
+            transactionFields = transactionCalculator.streamConcatenatedString(payload);
         } catch (Exception e) {
             return false;
         }
+        if (transactionFields != null) {
+            return hmac.matches(transactionFields, receivedHmac);
+        }
+        JsonNode root = readTree(payload);
+        return verify(root, WebhookClassifier.classify(root), receivedHmac);
     }
 
     /**
      * Validates webhook signature and parses the event.
+     * <p>
+     * When a {@link WebhookDeduplicator} is configured, an event seen before
+     * is returned unparsed with {@link WebhookEvent#isDuplicate()} set. The
+     * returned event is already recorded as seen: if handling it fails, call
+     * {@link #forget(WebhookEvent)}, or Paymob's retry is dropped as a
+     * duplicate.
+     * <pre>{@code
+     * WebhookEvent event = validator.validateAndParse(body, hmac);
+     * try {
+     *     handle(event);
+     * } catch (RuntimeException e) {
+     *     validator.forget(event);
+     *     throw e; // answered with 5xx, so Paymob retries
+     * }
+     * }</pre>
      *
      * @param payload      The raw request body
      * @param receivedHmac The HMAC received with the webhook
      * @return Parsed webhook event if valid, null otherwise
      */
     public WebhookEvent validateAndParse(String payload, String receivedHmac) {
-        if (!validateSignature(payload, receivedHmac)) {
+        if (payload == null || receivedHmac == null) {
             return null;
         }
 
-        for (WebhookEventParser parser : parsers) {
-            if (parser.canParse(payload)) {
-                return parser.parse(payload);
+        TransactionFields transactionFields;
+        try {
+            transactionFields = transactionCalculator.streamSignedFields(payload);
+        } catch (Exception e) {
+            return null;
+        }
+        JsonNode root;
+        WebhookFamily family;
+        String key = null;
+        if (transactionFields != null) {
+            family = WebhookFamily.TRANSACTION;
+            // Forged transaction webhooks are turned away before any tree is built
+            if (!hmac.matches(transactionFields.concatenated(), receivedHmac)) {
+                return null;
+            }
+            if (deduplicator != null) {
+                key = deduplicationKey("TRANSACTION", Objects.toString(transactionFields.id(), ""), "",
+                        receivedHmac);
+                if (!deduplicator.markSeen(key)) {
+                    return duplicate(payload, key);
+                }
+            }
+            root = readTree(payload);
+        } else {
+            root = readTree(payload);
+            family = WebhookClassifier.classify(root);
+            if (!verify(root, family, receivedHmac)) {
+                return null;
             }
+            if (deduplicator != null) {
+                key = deduplicationKey(root, receivedHmac);
+                if (!deduplicator.markSeen(key)) {
+                    return duplicate(payload, key);
+                }
+            }
+        }
+        if (root == null) {
+            return null;
         }
 
-        // Fallback: valid signature but no parser matched
-        return new WebhookEvent(payload);
+        WebhookEvent event = parse(family, payload, root);
+        event.setDeduplicationKey(key);
+        return event;
     }
 
     /**
-     * Validates GET callback (user redirect) using query parameters.
-     * This is always a transaction callback — no strategy dispatch needed.
+     * Verifies a batch of webhooks in parallel on the common fork-join pool.
+     * The deduplicator, if any, is not consulted.
      *
-     * @param queryParams  Map of query parameters from callback URL
-     * @param receivedHmac The HMAC from query parameter 'hmac'
-     * @return true if signature is valid
+     * @param webhooks The received webhooks
+     * @return One compact result per webhook, in input order, without the
+     *         parsed events
      */
-    public boolean validateCallbackSignature(Map<String, String> queryParams, String receivedHmac) {
-        if (queryParams == null || receivedHmac == null) {
-            return false;
+    public List<WebhookVerification> validateAndParseAll(Collection<RawWebhook> webhooks) {
+        return validateAndParseAll(webhooks, false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Verifies a batch of webhooks in parallel on {@code pool}. The
+     * deduplicator, if any, is not consulted.
+     *
+     * @param webhooks      The received webhooks
+     * @param includeEvents Whether to keep each valid webhook's parsed
+     *                      {@link WebhookEvent} in its result
+     * @param pool          Pool whose workers verify the batch
+     * @return One result per webhook, in input order
+     */
+    public List<WebhookVerification> validateAndParseAll(Collection<RawWebhook> webhooks, boolean includeEvents,
+                                                         ForkJoinPool pool) {
+        if (webhooks == null) {
+            throw new IllegalArgumentException("Webhooks are required");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("Fork-join pool is required");
+        }
+        WebhookVerification[] results = pool.submit(() -> validateAndParseStream(webhooks.stream(), includeEvents)
+                .toArray(WebhookVerification[]::new)).join();
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * Verifies a stream of webhooks lazily, as a parallel stream that runs on
+     * the pool of the thread consuming it. Results keep the encounter order
+     * of {@code webhooks} and their {@link WebhookVerification#getIndex()}
+     * counts from 0 in that order, also when the source size is unknown. The
+     * deduplicator, if any, is not consulted.
+     *
+     * @param webhooks      The received webhooks
+     * @param includeEvents Whether to keep each valid webhook's parsed
+     *                      {@link WebhookEvent} in its result
+     */
+    public Stream<WebhookVerification> validateAndParseStream(Stream<RawWebhook> webhooks, boolean includeEvents) {
+        if (webhooks == null) {
+            throw new IllegalArgumentException("Webhooks are required");
         }
+        VerifyingSpliterator spliterator = new VerifyingSpliterator(webhooks.spliterator(), 0,
+                (index, webhook) -> verify(index, webhook, includeEvents));
+        return StreamSupport.stream(spliterator, true).onClose(webhooks::close);
+    }
 
+    /**
+     * Verifies one webhook of a batch. A transaction webhook's type and id
+     * come from the streaming pass, so without events no tree is built.
+     */
+    private WebhookVerification verify(long index, RawWebhook webhook, boolean includeEvents) {
+        if (webhook == null || webhook.getPayload() == null || webhook.getHmac() == null) {
+            return WebhookVerification.invalid(index);
+        }
+        String payload = webhook.getPayload();
+        TransactionFields transactionFields;
         try {
-            String expectedHmac = calculateCallbackHmac(queryParams);
-            if (expectedHmac == null) {
-                return false;
-            }
-            return timingSafeHexEquals(expectedHmac, receivedHmac);
+            transactionFields = transactionCalculator.streamSignedFields(payload);
         } catch (Exception e) {
-            return false;
+            return WebhookVerification.invalid(index);
         }
+        if (transactionFields != null) {
+            if (!hmac.matches(transactionFields.concatenated(), webhook.getHmac())) {
+                return WebhookVerification.invalid(index);
+            }
+            if (!includeEvents) {
+                return new WebhookVerification(index, true, transactionFields.eventType(), transactionFields.id(),
+                        null);
+            }
+            JsonNode root = readTree(payload);
+            if (root == null) {
+                return WebhookVerification.invalid(index);
+            }
+            WebhookEvent event = parse(WebhookFamily.TRANSACTION, payload, root);
+            return new WebhookVerification(index, true, event.getType(), transactionFields.id(), event);
+        }
+
+        JsonNode root = readTree(payload);
+        WebhookFamily family = WebhookClassifier.classify(root);
+        if (!verify(root, family, webhook.getHmac())) {
+            return WebhookVerification.invalid(index);
+        }
+        WebhookEvent event = parse(family, payload, root);
+        JsonNode id = root.path(family == WebhookFamily.SUBSCRIPTION ? "subscription_data" : "obj").get("id");
+        return new WebhookVerification(index, true, event.getType(),
+                id != null && !id.isNull() ? id.asText() : null, includeEvents ? event : null);
     }
 
-    private String calculateCallbackHmac(Map<String, String> queryParams) throws Exception {
-        if (queryParams.containsKey("token") && queryParams.containsKey("masked_pan")) {
-            return calculateCardTokenCallbackHmac(queryParams);
-        } else if (queryParams.containsKey("subscription_data.id") || queryParams.containsKey("trigger_type")) {
-            return calculateSubscriptionCallbackHmac(queryParams);
-        } else {
-            return calculateTransactionCallbackHmac(queryParams);
+    private WebhookEvent parse(WebhookFamily family, String payload, JsonNode root) {
+        WebhookEventParser parser = parsers.get(family);
+        WebhookEvent event = parser != null ? parser.parse(payload, root) : null;
+        if (event == null) {
+            // Fallback: valid signature but no parser matched
+            event = new WebhookEvent(payload);
+            event.setRoot(root);
         }
+        return event;
     }
 
-    private String calculateTransactionCallbackHmac(Map<String, String> queryParams) throws Exception {
-        String[] fields = {
-                "amount_cents", "created_at", "currency", "error_occured", "has_parent_transaction",
-                "id", "integration_id", "is_3d_secure", "is_auth", "is_capture", "is_refunded",
-                "is_standalone_payment", "is_voided", "order_id", "owner", "pending",
-                "source_data.pan", "source_data.sub_type", "source_data.type", "success"
-        };
+    /**
+     * Verifies a webhook and binds its data straight into {@code type}, for
+     * callers that need only the typed object and not a {@link WebhookEvent}.
+     * <p>
+     * A transaction webhook is verified from the token stream and its
+     * {@code obj} is bound from the body bytes, so no {@link JsonNode} is
+     * built. Other webhooks are verified on a tree as usual, and their
+     * {@code subscription_data} or {@code obj} is bound from it. The
+     * deduplicator, if any, is not consulted.
+     *
+     * @param body         Raw request body, UTF-8 JSON
+     * @param receivedHmac The HMAC received with the webhook
+     * @param type         Class to bind the event data into
+     * @return The bound data if the signature is valid and binding succeeds,
+     *         null otherwise
+     */
+    public <T> T validateAndBind(byte[] body, String receivedHmac, Class<T> type) {
+        if (body == null || receivedHmac == null || type == null) {
+            return null;
+        }
 
-        StringBuilder concatenated = new StringBuilder();
-        for (String field : fields) {
-            String value = queryParams.get(field);
-            if (value == null && "order_id".equals(field)) {
-                value = queryParams.get("order.id");
-                if (value == null) {
-                    value = queryParams.get("order");
+        try {
+            TransactionFields transactionFields = transactionCalculator.streamSignedFields(body);
+            if (transactionFields != null) {
+                if (!hmac.matches(transactionFields.concatenated(), receivedHmac)) {
+                    return null;
                 }
+                return bindMember(body, "obj", type);
+            }
+
+            JsonNode root = JsonCodec.shared().readTree(body);
+            WebhookFamily family = WebhookClassifier.classify(root);
+            if (!verify(root, family, receivedHmac)) {
+                return null;
             }
-            if (value == null && "id".equals(field)) {
-                value = queryParams.get("obj.id");
+            JsonNode data = root.get(family == WebhookFamily.SUBSCRIPTION ? "subscription_data" : "obj");
+            return data != null && !data.isNull() ? JsonCodec.shared().treeToValue(data, type) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Binds the last top-level {@code name} member of the body, the one a tree
+     * and the signature check also see when a key is repeated.
+     */
+    private static <T> T bindMember(byte[] body, String name, Class<T> type) throws IOException {
+        long offset = -1;
+        try (JsonParser parser = JsonCodec.shared().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
             }
-            if (value == null) {
-                value = "";
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                boolean match = name.equals(parser.currentName());
+                JsonToken token = parser.nextToken();
+                if (match) {
+                    offset = token == JsonToken.VALUE_NULL ? -1 : parser.getTokenLocation().getByteOffset();
+                }
+                parser.skipChildren();
             }
-            concatenated.append(value);
         }
-        return computeHmac(concatenated.toString());
+        if (offset < 0) {
+            return null;
+        }
+        return JsonCodec.shared().readerFor(type).readValue(body, (int) offset, body.length - (int) offset);
+    }
+
+    /**
+     * Forgets a parsed event's deduplication key, so Paymob's next delivery
+     * of it is processed again. Call this when handling fails and Paymob is
+     * answered with an error. Does nothing when deduplication is off.
+     */
+    public void forget(WebhookEvent event) {
+        if (deduplicator != null && event != null && event.getDeduplicationKey() != null) {
+            deduplicator.forget(event.getDeduplicationKey());
+        }
     }
 
-    private String calculateCardTokenCallbackHmac(Map<String, String> queryParams) throws Exception {
-        String[] fields = {
-                "card_subtype", "created_at", "email", "id", "masked_pan", "merchant_id", "order_id", "token"
-        };
+    private static WebhookEvent duplicate(String payload, String key) {
+        WebhookEvent event = new WebhookEvent(payload);
+        event.setDuplicate(true);
+        event.setDeduplicationKey(key);
+        return event;
+    }
 
-        StringBuilder concatenated = new StringBuilder();
-        for (String field : fields) {
-            String value = queryParams.get(field);
-            if (value == null) {
-                value = "";
+    /**
+     * Key of a verified non-transaction webhook. Subscription webhooks sign
+     * only the trigger and subscription id, so the key also takes
+     * {@code transaction_id} when present to keep each recurring charge apart.
+     */
+    private static String deduplicationKey(JsonNode root, String receivedHmac) {
+        JsonNode subscription = root.get("subscription_data");
+        if (subscription != null) {
+            String triggerType = root.path("trigger_type").asText("");
+            JsonNode transactionId = root.get("transaction_id");
+            if (transactionId != null && !transactionId.isNull()) {
+                triggerType = triggerType + "/" + transactionId.asText();
             }
-            concatenated.append(value);
+            return deduplicationKey("SUBSCRIPTION", subscription.path("id").asText(""), triggerType,
+                    receivedHmac);
         }
-        return computeHmac(concatenated.toString());
+        return deduplicationKey(root.path("type").asText(""), root.path("obj").path("id").asText(""), "",
+                receivedHmac);
     }
 
-    private String calculateSubscriptionCallbackHmac(Map<String, String> queryParams) throws Exception {
-        String triggerType = queryParams.getOrDefault("trigger_type", "");
-        String subId = queryParams.get("subscription_data.id");
-        if (subId == null) {
-            subId = queryParams.get("subscription_id");
-            if (subId == null) {
-                subId = queryParams.get("id");
-            }
+    private static String deduplicationKey(String kind, String id, String triggerType, String receivedHmac) {
+        return kind + ':' + id + ':' + triggerType + ':' + receivedHmac.toLowerCase(Locale.ROOT);
+    }
+
+    private boolean verify(JsonNode root, WebhookFamily family, String receivedHmac) {
+        WebhookSignatureCalculator calculator = family != null ? calculators.get(family) : null;
+        if (calculator == null) {
+            return false;
         }
-        if (subId == null)
-            subId = "";
 
-        // Matching POST logic: {trigger_type}for{subscription_data.id}
-        String concatenated = triggerType + "for" + subId;
-        return computeHmac(concatenated);
+        try {
+            return calculator.verify(root, hmac, receivedHmac);
+        } catch (Exception e) {
+            return false;
+        }
     }
 
-    private String computeHmac(String concatenated) throws Exception {
-        Mac sha512Hmac = Mac.getInstance("HmacSHA512");
-        SecretKeySpec keySpec = new SecretKeySpec(
-                hmacSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA512");
-        sha512Hmac.init(keySpec);
-        byte[] macData = sha512Hmac.doFinal(
-                concatenated.getBytes(StandardCharsets.UTF_8));
+    /**
+     * Parses the payload for the whole pipeline, or returns null if it is not
+     * a JSON object.
+     */
+    private static JsonNode readTree(String payload) {
+        try {
+            JsonNode root = JsonCodec.shared().readTree(payload);
+            return root != null && root.isObject() ? root : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Validates GET callback (user redirect) using query parameters.
+     * Transaction, card token and subscription callbacks are told apart by
+     * the parameters present.
+     *
+     * @param queryParams  Map of query parameters from callback URL
+     * @param receivedHmac The HMAC from query parameter 'hmac'
+     * @return true if signature is valid
+     */
+    public boolean validateCallbackSignature(Map<String, String> queryParams, String receivedHmac) {
+        if (queryParams == null || receivedHmac == null) {
+            return false;
+        }
 
-        return HexFormat.of().formatHex(macData).toLowerCase();
+        try {
+            return CallbackSignature.forParameters(queryParams).matches(queryParams, receivedHmac, hmac);
+        } catch (Exception e) {
+            return false;
+        }
     }
 
-    private boolean timingSafeHexEquals(String expectedHex, String receivedHex) {
-        if (expectedHex == null || receivedHex == null) {
+    /**
+     * Validates a GET callback (user redirect) straight from its raw query
+     * string, including the {@code hmac} parameter, without building a map.
+     * The first occurrence of each parameter is used.
+     *
+     * @param rawQuery The query string as sent, without the leading {@code ?},
+     *                 for example {@code URI.getRawQuery()} or
+     *                 {@code HttpServletRequest.getQueryString()}
+     * @return true if signature is valid
+     */
+    public boolean validateCallbackSignature(String rawQuery) {
+        if (rawQuery == null) {
             return false;
         }
 
         try {
-            byte[] expectedBytes = HexFormat.of().parseHex(expectedHex);
-            byte[] receivedBytes = HexFormat.of().parseHex(receivedHex.toLowerCase());
-            return MessageDigest.isEqual(expectedBytes, receivedBytes);
-        } catch (IllegalArgumentException e) {
+            return CallbackSignature.matches(rawQuery, hmac);
+        } catch (Exception e) {
             return false;
         }
     }
@@ -0,0 +1,63 @@
+package com.paymob.sdk.webhook;
+
+/**
+ * Result of verifying one webhook of a batch.
+ * <p>
+ * Carries only what routing and bookkeeping usually need: the webhook's
+ * position in the input, whether its signature is valid, its event type and
+ * its id. The parsed {@link WebhookEvent} is kept only when it was asked for.
+ */
+public final class WebhookVerification {
+    private final long index;
+    private final boolean valid;
+    private final WebhookEventType type;
+    private final String id;
+    private final WebhookEvent event;
+
+    WebhookVerification(long index, boolean valid, WebhookEventType type, String id, WebhookEvent event) {
+        this.index = index;
+        this.valid = valid;
+        this.type = type;
+        this.id = id;
+        this.event = event;
+    }
+
+    static WebhookVerification invalid(long index) {
+        return new WebhookVerification(index, false, null, null, null);
+    }
+
+    /**
+     * Position of the webhook in the input, from 0.
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * The event type, or null if the webhook is invalid or its type could not
+     * be determined.
+     */
+    public WebhookEventType getType() {
+        return type;
+    }
+
+    /**
+     * {@code obj.id}, or {@code subscription_data.id} for subscription
+     * webhooks; null if the webhook is invalid or has none.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * The parsed event, or null unless events were requested and the webhook
+     * is valid.
+     */
+    public WebhookEvent getEvent() {
+        return event;
+    }
+}
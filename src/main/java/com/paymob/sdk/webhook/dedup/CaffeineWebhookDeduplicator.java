@@ -0,0 +1,60 @@
+package com.paymob.sdk.webhook.dedup;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymob.sdk.webhook.WebhookDeduplicator;
+
+import java.time.Duration;
+
+/**
+ * In-memory {@link WebhookDeduplicator} on a bounded Caffeine cache.
+ * <p>
+ * Keys expire {@code retention} after they were first seen. Beyond
+ * {@code maximumEntries}, Caffeine evicts the least valuable keys first, so
+ * memory stays bounded under any delivery rate; an evicted key is simply
+ * processed again if Paymob redelivers it.
+ *
+ * <pre>{@code
+ * WebhookValidator validator = new WebhookValidator(hmacSecret,
+ *         new CaffeineWebhookDeduplicator(Duration.ofHours(24), 100_000));
+ * }</pre>
+ */
+public class CaffeineWebhookDeduplicator implements WebhookDeduplicator {
+    private final Cache<String, Boolean> seen;
+
+    /**
+     * @param retention      How long a key is remembered
+     * @param maximumEntries Upper bound on remembered keys
+     */
+    public CaffeineWebhookDeduplicator(Duration retention, long maximumEntries) {
+        if (retention == null || retention.isNegative() || retention.isZero()) {
+            throw new IllegalArgumentException("Retention must be positive");
+        }
+        if (maximumEntries < 1) {
+            throw new IllegalArgumentException("Maximum entries must be at least 1");
+        }
+        this.seen = Caffeine.newBuilder()
+                .expireAfterWrite(retention)
+                .maximumSize(maximumEntries)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    @Override
+    public boolean markSeen(String key) {
+        return seen.asMap().putIfAbsent(key, Boolean.TRUE) == null;
+    }
+
+    @Override
+    public void forget(String key) {
+        seen.invalidate(key);
+    }
+
+    /**
+     * Approximate number of remembered keys.
+     */
+    public long size() {
+        seen.cleanUp();
+        return seen.estimatedSize();
+    }
+}
@@ -0,0 +1,154 @@
+package com.paymob.sdk.webhook.dedup;
+
+import com.paymob.sdk.webhook.WebhookDeduplicator;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory {@link WebhookDeduplicator} that stores a 64-bit hash of each key
+ * in primitive arrays, at 16 bytes per entry instead of a cached key string
+ * and its cache node.
+ * <p>
+ * The table has a fixed number of slots, split into independently locked
+ * segments. A key lives within a short probe window of its home slot; when
+ * the window holds no free or expired slot, the key closest to expiry is
+ * overwritten, so the oldest deliveries are forgotten first and memory never
+ * grows.
+ * <p>
+ * Two keys are treated as the same when their hashes collide. Keys end with
+ * the verified HMAC, so with 64-bit hashes a false duplicate is practically
+ * impossible; use {@link CaffeineWebhookDeduplicator} where exact matching is
+ * required.
+ */
+public class CompactWebhookDeduplicator implements WebhookDeduplicator {
+    private static final int SEGMENTS = 16;
+    private static final int PROBES = 8;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final long retentionNanos;
+    private final LongSupplier nanoTime;
+
+    /**
+     * @param retention How long a key is remembered
+     * @param capacity  Slots in the table, rounded up to a power of two
+     */
+    public CompactWebhookDeduplicator(Duration retention, int capacity) {
+        this(retention, capacity, System::nanoTime);
+    }
+
+    CompactWebhookDeduplicator(Duration retention, int capacity, LongSupplier nanoTime) {
+        if (retention == null || retention.isNegative() || retention.isZero()) {
+            throw new IllegalArgumentException("Retention must be positive");
+        }
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30");
+        }
+        int slots = Math.max(SEGMENTS * PROBES, Integer.highestOneBit(capacity - 1) << 1);
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(slots / SEGMENTS);
+        }
+        this.segmentMask = SEGMENTS - 1;
+        this.retentionNanos = retention.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public boolean markSeen(String key) {
+        long hash = hash(key);
+        return segmentFor(hash).markSeen(hash, nanoTime.getAsLong(), retentionNanos);
+    }
+
+    @Override
+    public void forget(String key) {
+        long hash = hash(key);
+        segmentFor(hash).forget(hash);
+    }
+
+    /**
+     * Total slots in the table.
+     */
+    public int capacity() {
+        return segments.length * segments[0].hashes.length;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> 60) & segmentMask];
+    }
+
+    /**
+     * FNV-1a over the key's characters, finished with the MurmurHash3 mixer.
+     * Zero marks an empty slot, so it is never returned.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h != 0 ? h : 1;
+    }
+
+    private static final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long[] hashes;
+        private final long[] expiresAt;
+        private final int mask;
+
+        Segment(int slots) {
+            this.hashes = new long[slots];
+            this.expiresAt = new long[slots];
+            this.mask = slots - 1;
+        }
+
+        boolean markSeen(long hash, long now, long retentionNanos) {
+            lock.lock();
+            try {
+                int home = (int) hash & mask;
+                int free = -1;
+                int oldest = -1;
+                for (int probe = 0; probe < PROBES; probe++) {
+                    int slot = (home + probe) & mask;
+                    if (hashes[slot] == 0 || expiresAt[slot] - now <= 0) {
+                        if (free < 0) {
+                            free = slot;
+                        }
+                    } else if (hashes[slot] == hash) {
+                        return false;
+                    } else if (oldest < 0 || expiresAt[slot] - expiresAt[oldest] < 0) {
+                        oldest = slot;
+                    }
+                }
+                int target = free >= 0 ? free : oldest;
+                hashes[target] = hash;
+                expiresAt[target] = now + retentionNanos;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void forget(long hash) {
+            lock.lock();
+            try {
+                int home = (int) hash & mask;
+                for (int probe = 0; probe < PROBES; probe++) {
+                    int slot = (home + probe) & mask;
+                    if (hashes[slot] == hash) {
+                        hashes[slot] = 0;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
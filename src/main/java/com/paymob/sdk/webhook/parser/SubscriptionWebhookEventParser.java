@@ -1,7 +1,7 @@
 package com.paymob.sdk.webhook.parser;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymob.sdk.http.JsonCodec;
 import com.paymob.sdk.webhook.WebhookEvent;
 import com.paymob.sdk.webhook.WebhookEventParser;
 import com.paymob.sdk.webhook.WebhookEventType;
@@ -11,26 +11,38 @@ import com.paymob.sdk.webhook.WebhookEventType;
  * Maps {@code trigger_type} to the corresponding {@link WebhookEventType}.
  */
 public class SubscriptionWebhookEventParser implements WebhookEventParser {
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonCodec jsonCodec = JsonCodec.shared();
 
     @Override
     public boolean canParse(String payload) {
         if (payload == null)
             return false;
         try {
-            JsonNode root = objectMapper.readTree(payload);
-            return root.has("subscription_data") && root.has("trigger_type");
+            return canParseTree(jsonCodec.readTree(payload));
         } catch (Exception e) {
             return false;
         }
     }
 
+    @Override
+    public boolean canParseTree(JsonNode root) {
+        return root != null && root.has("subscription_data") && root.has("trigger_type");
+    }
+
     @Override
     public WebhookEvent parse(String payload) {
+        try {
+            return parse(payload, jsonCodec.readTree(payload));
+        } catch (Exception e) {
+            return new WebhookEvent(payload);
+        }
+    }
+
+    @Override
+    public WebhookEvent parse(String payload, JsonNode root) {
         WebhookEvent event = new WebhookEvent(payload);
 
         try {
-            JsonNode root = objectMapper.readTree(payload);
             JsonNode subscriptionData = root.get("subscription_data");
             JsonNode triggerType = root.get("trigger_type");
 
@@ -1,7 +1,7 @@
 package com.paymob.sdk.webhook.parser;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymob.sdk.http.JsonCodec;
 import com.paymob.sdk.webhook.WebhookEvent;
 import com.paymob.sdk.webhook.WebhookEventParser;
 import com.paymob.sdk.webhook.WebhookEventType;
@@ -12,33 +12,45 @@ import com.paymob.sdk.webhook.WebhookEventType;
  * {@code is_voided}.
  */
 public class TransactionWebhookEventParser implements WebhookEventParser {
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonCodec jsonCodec = JsonCodec.shared();
 
     @Override
     public boolean canParse(String payload) {
         if (payload == null)
             return false;
         try {
-            JsonNode root = objectMapper.readTree(payload);
-            if (!root.has("obj") || root.has("subscription_data")) {
-                return false;
-            }
-            if (root.has("type")) {
-                String type = root.get("type").asText();
-                return "TRANSACTION".equals(type);
-            }
-            return true;
+            return canParseTree(jsonCodec.readTree(payload));
         } catch (Exception e) {
             return false;
         }
     }
 
+    @Override
+    public boolean canParseTree(JsonNode root) {
+        if (root == null || !root.has("obj") || root.has("subscription_data")) {
+            return false;
+        }
+        if (root.has("type")) {
+            String type = root.get("type").asText();
+            return "TRANSACTION".equals(type);
+        }
+        return true;
+    }
+
     @Override
     public WebhookEvent parse(String payload) {
+        try {
+            return parse(payload, jsonCodec.readTree(payload));
+        } catch (Exception e) {
+            return new WebhookEvent(payload);
+        }
+    }
+
+    @Override
+    public WebhookEvent parse(String payload, JsonNode root) {
         WebhookEvent event = new WebhookEvent(payload);
 
         try {
-            JsonNode root = objectMapper.readTree(payload);
             JsonNode obj = root.get("obj");
             if (obj == null)
                 return event;
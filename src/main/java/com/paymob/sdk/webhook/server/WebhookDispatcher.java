@@ -0,0 +1,328 @@
+package com.paymob.sdk.webhook.server;
+
+import com.paymob.sdk.webhook.WebhookEvent;
+import com.paymob.sdk.webhook.WebhookEventType;
+import com.paymob.sdk.webhook.WebhookValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * Verifies webhooks and hands them to handlers on a bounded worker pool.
+ * <p>
+ * {@link #dispatch(byte[], String)} runs on the receiving thread: it verifies
+ * the signature, routes the event by {@link WebhookEventType} and queues it,
+ * then returns at once so Paymob can be acknowledged before the handler runs.
+ * The queue is bounded; when it is full the webhook is refused with
+ * {@link Outcome#OVERLOADED} and Paymob delivers it again later, so a burst
+ * turns into backpressure instead of unbounded memory.
+ * <p>
+ * When the validator has a {@link com.paymob.sdk.webhook.WebhookDeduplicator},
+ * redeliveries are acknowledged as {@link Outcome#DUPLICATE} without reaching
+ * a handler, and a webhook refused as overloaded is forgotten again so its
+ * retry is processed. A handler runs after Paymob was acknowledged, so an
+ * event whose handler throws is not delivered again; it goes to the
+ * {@link Builder#errorHandler error handler}, which must keep it if it is to
+ * be replayed.
+ * <p>
+ * The dispatcher does not depend on a transport. {@link WebhookServer} serves
+ * it over the JDK HTTP server; other frameworks call {@code dispatch} from
+ * their own request handler and answer with {@link Outcome#getStatusCode()}.
+ */
+public final class WebhookDispatcher implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(WebhookDispatcher.class);
+
+    private final WebhookValidator validator;
+    private final Map<WebhookEventType, WebhookHandler> handlers;
+    private final WebhookHandler fallback;
+    private final BiConsumer<WebhookEvent, Exception> errorHandler;
+    private final Duration drainTimeout;
+    private final ThreadPoolExecutor workers;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder overloaded = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private WebhookDispatcher(Builder builder) {
+        this.validator = builder.validator;
+        this.handlers = new EnumMap<>(builder.handlers);
+        this.fallback = builder.fallback;
+        this.errorHandler = builder.errorHandler;
+        this.drainTimeout = builder.drainTimeout;
+        AtomicInteger count = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(builder.workers, builder.workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(builder.queueCapacity), r -> {
+                    Thread thread = new Thread(r, "paymob-webhook-worker-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Result of receiving one webhook, with the HTTP status to answer Paymob
+     * with.
+     */
+    public enum Outcome {
+        /** Verified and queued for its handler. */
+        ACCEPTED(200),
+        /** Verified, but no handler is registered for its type. */
+        IGNORED(200),
+        /** Verified, but already received; not handled again. */
+        DUPLICATE(200),
+        /** Missing or wrong signature, or not a webhook payload. */
+        INVALID_SIGNATURE(401),
+        /** Body larger than the receiver accepts. */
+        PAYLOAD_TOO_LARGE(413),
+        /** Worker queue full or dispatcher closed; Paymob should retry later. */
+        OVERLOADED(503);
+
+        private final int statusCode;
+
+        Outcome(int statusCode) {
+            this.statusCode = statusCode;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+    }
+
+    /**
+     * Verifies a webhook body read as bytes and queues it for its handler.
+     *
+     * @param body         Raw request body, UTF-8 JSON
+     * @param receivedHmac The {@code hmac} query parameter
+     */
+    public Outcome dispatch(byte[] body, String receivedHmac) {
+        if (body == null) {
+            rejected.increment();
+            return Outcome.INVALID_SIGNATURE;
+        }
+        return dispatch(new String(body, StandardCharsets.UTF_8), receivedHmac);
+    }
+
+    /**
+     * Verifies a webhook body and queues it for its handler.
+     *
+     * @param payload      Raw request body
+     * @param receivedHmac The {@code hmac} query parameter
+     */
+    public Outcome dispatch(String payload, String receivedHmac) {
+        if (workers.isShutdown()) {
+            overloaded.increment();
+            return Outcome.OVERLOADED;
+        }
+        WebhookEvent event = validator.validateAndParse(payload, receivedHmac);
+        if (event == null) {
+            rejected.increment();
+            return Outcome.INVALID_SIGNATURE;
+        }
+        if (event.isDuplicate()) {
+            duplicates.increment();
+            return Outcome.DUPLICATE;
+        }
+        WebhookHandler handler = event.getType() != null ? handlers.get(event.getType()) : null;
+        if (handler == null) {
+            handler = fallback;
+        }
+        if (handler == null) {
+            return Outcome.IGNORED;
+        }
+
+        WebhookHandler target = handler;
+        try {
+            workers.execute(() -> run(target, event));
+        } catch (RejectedExecutionException e) {
+            validator.forget(event);
+            overloaded.increment();
+            return Outcome.OVERLOADED;
+        }
+        accepted.increment();
+        return Outcome.ACCEPTED;
+    }
+
+    private void run(WebhookHandler handler, WebhookEvent event) {
+        try {
+            handler.handle(event);
+            processed.increment();
+        } catch (Exception e) {
+            failed.increment();
+            try {
+                errorHandler.accept(event, e);
+            } catch (RuntimeException ignored) {
+                // A failing error handler must not kill the worker
+            }
+        }
+    }
+
+    /** Webhooks verified and queued. */
+    public long getAccepted() {
+        return accepted.sum();
+    }
+
+    /** Webhooks refused for a missing or wrong signature. */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /** Verified webhooks dropped as redeliveries of an earlier one. */
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    /** Webhooks refused because the queue was full or the dispatcher closed. */
+    public long getOverloaded() {
+        return overloaded.sum();
+    }
+
+    /** Events their handler completed. */
+    public long getProcessed() {
+        return processed.sum();
+    }
+
+    /** Events whose handler threw. */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /** Events waiting for a worker. */
+    public int getQueueSize() {
+        return workers.getQueue().size();
+    }
+
+    /**
+     * Stops accepting webhooks and waits up to the drain timeout for queued
+     * events to finish. Events still queued after that are dropped.
+     */
+    @Override
+    public void close() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static class Builder {
+        private WebhookValidator validator;
+        private final Map<WebhookEventType, WebhookHandler> handlers = new EnumMap<>(WebhookEventType.class);
+        private WebhookHandler fallback;
+        private int workers = Math.max(2, Runtime.getRuntime().availableProcessors());
+        private int queueCapacity = 1024;
+        private Duration drainTimeout = Duration.ofSeconds(10);
+        private BiConsumer<WebhookEvent, Exception> errorHandler = (event, e) -> log.warn(
+                "Webhook handler failed for {} event", event.getType(), e);
+
+        /**
+         * Verifies signatures and parses events. Required.
+         */
+        public Builder validator(WebhookValidator validator) {
+            this.validator = validator;
+            return this;
+        }
+
+        /**
+         * Routes events of {@code type} to {@code handler}, replacing any
+         * earlier handler for that type.
+         */
+        public Builder on(WebhookEventType type, WebhookHandler handler) {
+            if (type == null) {
+                throw new IllegalArgumentException("Event type is required");
+            }
+            if (handler == null) {
+                throw new IllegalArgumentException("Handler is required");
+            }
+            handlers.put(type, handler);
+            return this;
+        }
+
+        /**
+         * Receives verified events no other handler is registered for,
+         * including events whose type could not be determined. Without one,
+         * such events are acknowledged and dropped.
+         */
+        public Builder fallback(WebhookHandler fallback) {
+            this.fallback = fallback;
+            return this;
+        }
+
+        /**
+         * Worker threads running handlers. Defaults to the number of
+         * processors, at least 2.
+         */
+        public Builder workers(int workers) {
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * Events that may wait for a worker before webhooks are refused with
+         * 503. Defaults to 1024.
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * How long {@link #close()} waits for queued events. Defaults to 10
+         * seconds.
+         */
+        public Builder drainTimeout(Duration drainTimeout) {
+            this.drainTimeout = drainTimeout;
+            return this;
+        }
+
+        /**
+         * Called on the worker when a handler throws. Paymob has already been
+         * acknowledged and will not deliver the event again, so this is the
+         * place to persist it for replay. Defaults to logging a warning
+         * through SLF4J.
+         */
+        public Builder errorHandler(BiConsumer<WebhookEvent, Exception> errorHandler) {
+            this.errorHandler = errorHandler;
+            return this;
+        }
+
+        public WebhookDispatcher build() {
+            if (validator == null) {
+                throw new IllegalArgumentException("Webhook validator is required");
+            }
+            if (workers < 1) {
+                throw new IllegalArgumentException("Workers must be at least 1");
+            }
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException("Queue capacity must be at least 1");
+            }
+            if (drainTimeout == null || drainTimeout.isNegative()) {
+                throw new IllegalArgumentException("Drain timeout must not be null or negative");
+            }
+            if (errorHandler == null) {
+                throw new IllegalArgumentException("Error handler is required");
+            }
+            return new WebhookDispatcher(this);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.paymob.sdk.webhook.server;
+
+import com.paymob.sdk.webhook.WebhookEvent;
+
+/**
+ * Processes one verified webhook event on a {@link WebhookDispatcher} worker.
+ * <p>
+ * Paymob has already been acknowledged by the time a handler runs, so a
+ * failure is not retried by Paymob; it goes to the dispatcher's error handler.
+ */
+@FunctionalInterface
+public interface WebhookHandler {
+
+    void handle(WebhookEvent event) throws Exception;
+}
@@ -0,0 +1,272 @@
+package com.paymob.sdk.webhook.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded webhook endpoint on the JDK's {@code com.sun.net.httpserver}, with
+ * no dependencies beyond the SDK.
+ * <p>
+ * Accepts {@code POST <path>?hmac=...}, reads the body as bytes up to a size
+ * limit and passes it to a {@link WebhookDispatcher}. Paymob is answered as
+ * soon as the event is verified and queued:
+ * <ul>
+ * <li>200 when queued, or when no handler is registered for the type</li>
+ * <li>401 for a missing or wrong signature</li>
+ * <li>413 for a body over the limit</li>
+ * <li>503 with {@code Retry-After} when the worker queue is full</li>
+ * </ul>
+ * Verification runs on a small pool of I/O threads; handlers run on the
+ * dispatcher's workers.
+ */
+public final class WebhookServer implements AutoCloseable {
+    private final WebhookDispatcher dispatcher;
+    private final InetSocketAddress address;
+    private final String path;
+    private final int maxBodyBytes;
+    private final int ioThreads;
+    private final int backlog;
+
+    private HttpServer server;
+    private ExecutorService ioExecutor;
+
+    private WebhookServer(Builder builder) {
+        this.dispatcher = builder.dispatcher;
+        this.address = builder.address;
+        this.path = builder.path;
+        this.maxBodyBytes = builder.maxBodyBytes;
+        this.ioThreads = builder.ioThreads;
+        this.backlog = builder.backlog;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Binds the address and starts serving.
+     *
+     * @throws IOException If the address cannot be bound
+     */
+    public WebhookServer start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Webhook server already started");
+        }
+        AtomicInteger count = new AtomicInteger();
+        ioExecutor = Executors.newFixedThreadPool(ioThreads, r -> {
+            Thread thread = new Thread(r, "paymob-webhook-http-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(address, backlog);
+        server.setExecutor(ioExecutor);
+        server.createContext(path, this::handle);
+        server.start();
+        return this;
+    }
+
+    /**
+     * The bound port, which differs from the configured one when that was 0.
+     */
+    public int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("Webhook server not started");
+        }
+        return server.getAddress().getPort();
+    }
+
+    public WebhookDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+            if (contentLength != null && exceeds(contentLength)) {
+                respond(exchange, WebhookDispatcher.Outcome.PAYLOAD_TOO_LARGE);
+                return;
+            }
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readNBytes(maxBodyBytes + 1);
+            }
+            if (body.length > maxBodyBytes) {
+                respond(exchange, WebhookDispatcher.Outcome.PAYLOAD_TOO_LARGE);
+                return;
+            }
+            respond(exchange, dispatcher.dispatch(body, queryParameter(exchange.getRequestURI().getRawQuery(),
+                    "hmac")));
+        } catch (RuntimeException e) {
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private boolean exceeds(String contentLength) {
+        try {
+            return Long.parseLong(contentLength.trim()) > maxBodyBytes;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static void respond(HttpExchange exchange, WebhookDispatcher.Outcome outcome) throws IOException {
+        if (outcome == WebhookDispatcher.Outcome.OVERLOADED) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+        }
+        exchange.sendResponseHeaders(outcome.getStatusCode(), -1);
+    }
+
+    /**
+     * Returns the first value of {@code name} in a raw query string, or null.
+     */
+    static String queryParameter(String rawQuery, String name) {
+        if (rawQuery == null) {
+            return null;
+        }
+        int start = 0;
+        while (start <= rawQuery.length()) {
+            int end = rawQuery.indexOf('&', start);
+            if (end < 0) {
+                end = rawQuery.length();
+            }
+            int equals = rawQuery.indexOf('=', start);
+            if (equals > start && equals < end && equals - start == name.length()
+                    && rawQuery.startsWith(name, start)) {
+                return URLDecoder.decode(rawQuery.substring(equals + 1, end), StandardCharsets.UTF_8);
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    /**
+     * Stops accepting connections, waits up to {@code delay} for exchanges in
+     * progress, then closes the dispatcher so queued events drain.
+     */
+    public void stop(Duration delay) {
+        if (server != null) {
+            server.stop((int) Math.min(Integer.MAX_VALUE, delay.toSeconds()));
+            ioExecutor.shutdown();
+            try {
+                ioExecutor.awaitTermination(delay.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        dispatcher.close();
+    }
+
+    /**
+     * Same as {@link #stop(Duration)} with a one second delay.
+     */
+    @Override
+    public void close() {
+        stop(Duration.ofSeconds(1));
+    }
+
+    public static class Builder {
+        private WebhookDispatcher dispatcher;
+        private InetSocketAddress address = new InetSocketAddress(8080);
+        private String path = "/webhooks/paymob";
+        private int maxBodyBytes = 256 * 1024;
+        private int ioThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        private int backlog = 0;
+
+        /**
+         * Verifies and dispatches received webhooks. Required; closed when
+         * the server stops.
+         */
+        public Builder dispatcher(WebhookDispatcher dispatcher) {
+            this.dispatcher = dispatcher;
+            return this;
+        }
+
+        /**
+         * Listens on all interfaces at {@code port}; 0 picks a free port.
+         * Defaults to 8080.
+         */
+        public Builder port(int port) {
+            this.address = new InetSocketAddress(port);
+            return this;
+        }
+
+        public Builder address(InetSocketAddress address) {
+            this.address = address;
+            return this;
+        }
+
+        /**
+         * Path of the notification URL configured in the Paymob dashboard.
+         * Defaults to {@code /webhooks/paymob}.
+         */
+        public Builder path(String path) {
+            this.path = path;
+            return this;
+        }
+
+        /**
+         * Largest body read; bigger ones get 413. Defaults to 256 KiB.
+         */
+        public Builder maxBodyBytes(int maxBodyBytes) {
+            this.maxBodyBytes = maxBodyBytes;
+            return this;
+        }
+
+        /**
+         * Threads reading and verifying requests. Defaults to the number of
+         * processors, at least 2.
+         */
+        public Builder ioThreads(int ioThreads) {
+            this.ioThreads = ioThreads;
+            return this;
+        }
+
+        /**
+         * Pending connection backlog; 0 uses the system default.
+         */
+        public Builder backlog(int backlog) {
+            this.backlog = backlog;
+            return this;
+        }
+
+        public WebhookServer build() {
+            if (dispatcher == null) {
+                throw new IllegalArgumentException("Webhook dispatcher is required");
+            }
+            if (address == null) {
+                throw new IllegalArgumentException("Address is required");
+            }
+            if (path == null || !path.startsWith("/")) {
+                throw new IllegalArgumentException("Path must start with /");
+            }
+            if (maxBodyBytes < 1) {
+                throw new IllegalArgumentException("Max body bytes must be at least 1");
+            }
+            if (ioThreads < 1) {
+                throw new IllegalArgumentException("I/O threads must be at least 1");
+            }
+            if (backlog < 0) {
+                throw new IllegalArgumentException("Backlog cannot be negative");
+            }
+            return new WebhookServer(this);
+        }
+    }
+}
@@ -19,16 +19,24 @@ public class CardTokenSignatureCalculator extends WebhookSignatureCalculator {
         if (payload == null)
             return false;
         try {
-            JsonNode root = objectMapper.readTree(payload);
-            return root.has("type") && "TOKEN".equals(root.get("type").asText());
+            return canHandleTree(readTree(payload));
         } catch (Exception e) {
             return false;
         }
     }
 
+    @Override
+    public boolean canHandleTree(JsonNode root) {
+        return root != null && root.has("type") && "TOKEN".equals(root.get("type").asText());
+    }
+
     @Override
     protected String buildConcatenatedString(String payload) throws Exception {
-        JsonNode root = objectMapper.readTree(payload);
+        return buildConcatenatedString(readTree(payload));
+    }
+
+    @Override
+    protected String buildConcatenatedString(JsonNode root) throws Exception {
         JsonNode obj = root.get("obj");
 
         if (obj == null) {
@@ -15,16 +15,24 @@ public class SubscriptionSignatureCalculator extends WebhookSignatureCalculator
         if (payload == null)
             return false;
         try {
-            JsonNode root = objectMapper.readTree(payload);
-            return root.has("subscription_data") && root.has("trigger_type");
+            return canHandleTree(readTree(payload));
         } catch (Exception e) {
             return false;
         }
     }
 
+    @Override
+    public boolean canHandleTree(JsonNode root) {
+        return root != null && root.has("subscription_data") && root.has("trigger_type");
+    }
+
     @Override
     protected String buildConcatenatedString(String payload) throws Exception {
-        JsonNode root = objectMapper.readTree(payload);
+        return buildConcatenatedString(readTree(payload));
+    }
+
+    @Override
+    protected String buildConcatenatedString(JsonNode root) throws Exception {
         JsonNode subscriptionData = root.get("subscription_data");
         JsonNode triggerType = root.get("trigger_type");
 
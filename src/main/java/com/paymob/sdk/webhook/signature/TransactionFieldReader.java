@@ -0,0 +1,288 @@
+package com.paymob.sdk.webhook.signature;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.paymob.sdk.webhook.WebhookClassifier;
+import com.paymob.sdk.webhook.WebhookEventType;
+import com.paymob.sdk.webhook.WebhookFamily;
+
+import java.io.IOException;
+
+/**
+ * Reads the 20 signed transaction fields from a token stream in one forward
+ * pass, without building a tree. The same pass classifies the payload with a
+ * {@link WebhookClassifier.Scan}, so only transaction webhooks yield fields.
+ * <p>
+ * Values land in fixed slots in Paymob's concatenation order, so the order of
+ * keys in the payload does not matter and a repeated key keeps its last value,
+ * exactly as {@link TransactionSignatureCalculator#buildConcatenatedString(
+ * com.fasterxml.jackson.databind.JsonNode)} sees it. Scalars are rendered the
+ * way {@code JsonNode.asText()} renders them; containers where a scalar is
+ * expected render as the empty string.
+ */
+final class TransactionFieldReader {
+    private static final int FIELDS = 20;
+    private static final int ORDER_ID = 13;
+    private static final int SOURCE_DATA_PAN = 16;
+    private static final int SOURCE_DATA_SUB_TYPE = 17;
+    private static final int SOURCE_DATA_TYPE = 18;
+
+    private static final int HAS_ID = 1;
+    private static final int REFUNDED = 1 << 1;
+    private static final int VOIDED = 1 << 2;
+    private static final int SUCCESS = 1 << 3;
+
+    private final boolean bigDecimalFloats;
+
+    /**
+     * @param bigDecimalFloats Whether the tree path reads floating-point
+     *                         numbers as {@code BigDecimal}
+     */
+    TransactionFieldReader(boolean bigDecimalFloats) {
+        this.bigDecimalFloats = bigDecimalFloats;
+    }
+
+    /**
+     * Returns the signed field values in concatenation order, with absent
+     * fields as the empty string, or null if the payload is not a
+     * {@link WebhookFamily#TRANSACTION} webhook. The facts that decide the
+     * event type are read in the same pass.
+     *
+     * @throws IOException If the payload is not well-formed JSON
+     */
+    TransactionFields read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return null;
+        }
+        String[] values = null;
+        int facts = 0;
+        WebhookClassifier.Scan scan = new WebhookClassifier.Scan();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("type".equals(name)) {
+                scan.type(text(parser, token));
+                continue;
+            }
+            scan.key(name);
+            if ("obj".equals(name)) {
+                values = new String[FIELDS];
+                facts = 0;
+                if (token == JsonToken.START_OBJECT) {
+                    facts = readObj(parser, values);
+                } else {
+                    parser.skipChildren();
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (values == null || scan.family() != WebhookFamily.TRANSACTION) {
+            return null;
+        }
+        for (int i = 0; i < FIELDS; i++) {
+            if (values[i] == null) {
+                values[i] = "";
+            }
+        }
+        return new TransactionFields(values, (facts & HAS_ID) != 0, eventType(facts));
+    }
+
+    /**
+     * The type {@code TransactionWebhookEventParser} derives from the same
+     * fields on a tree.
+     */
+    private static WebhookEventType eventType(int facts) {
+        if ((facts & HAS_ID) == 0) {
+            return null;
+        }
+        if ((facts & REFUNDED) != 0) {
+            return WebhookEventType.TRANSACTION_REFUNDED;
+        }
+        if ((facts & VOIDED) != 0) {
+            return WebhookEventType.TRANSACTION_VOIDED;
+        }
+        return (facts & SUCCESS) != 0
+                ? WebhookEventType.TRANSACTION_SUCCESSFUL
+                : WebhookEventType.TRANSACTION_FAILED;
+    }
+
+    /**
+     * Reads the signed fields of {@code obj} and returns the type facts, each
+     * taken from the last occurrence of its key.
+     */
+    private int readObj(JsonParser parser, String[] values) throws IOException {
+        int facts = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("order".equals(name)) {
+                values[ORDER_ID] = null;
+                if (token == JsonToken.START_OBJECT) {
+                    readOrder(parser, values);
+                } else {
+                    parser.skipChildren();
+                }
+            } else if ("source_data".equals(name)) {
+                values[SOURCE_DATA_PAN] = null;
+                values[SOURCE_DATA_SUB_TYPE] = null;
+                values[SOURCE_DATA_TYPE] = null;
+                if (token == JsonToken.START_OBJECT) {
+                    readSourceData(parser, values);
+                } else {
+                    parser.skipChildren();
+                }
+            } else {
+                int slot = objSlot(name);
+                if (slot >= 0) {
+                    facts = fact(facts, slot, parser, token);
+                    values[slot] = text(parser, token);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return facts;
+    }
+
+    /**
+     * Updates the type facts for a signed field, reading the value the way
+     * the parser does: {@code is_refunded} and {@code is_voided} count only
+     * as JSON {@code true}, {@code success} as {@code JsonNode.asBoolean()}.
+     */
+    private static int fact(int facts, int slot, JsonParser parser, JsonToken token) throws IOException {
+        switch (slot) {
+            case 5:
+                return facts | HAS_ID;
+            case 10:
+                return token == JsonToken.VALUE_TRUE ? facts | REFUNDED : facts & ~REFUNDED;
+            case 12:
+                return token == JsonToken.VALUE_TRUE ? facts | VOIDED : facts & ~VOIDED;
+            case 19:
+                return asBoolean(parser, token) ? facts | SUCCESS : facts & ~SUCCESS;
+            default:
+                return facts;
+        }
+    }
+
+    private static boolean asBoolean(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_TRUE:
+                return true;
+            case VALUE_STRING:
+                return "true".equals(parser.getText().trim());
+            case VALUE_NUMBER_INT:
+                switch (parser.getNumberType()) {
+                    case INT:
+                        return parser.getIntValue() != 0;
+                    case LONG:
+                        return parser.getLongValue() != 0;
+                    default:
+                        return parser.getBigIntegerValue().signum() != 0;
+                }
+            default:
+                return false;
+        }
+    }
+
+    private void readOrder(JsonParser parser, String[] values) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("id".equals(name)) {
+                values[ORDER_ID] = text(parser, token);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void readSourceData(JsonParser parser, String[] values) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            switch (name) {
+                case "pan":
+                    values[SOURCE_DATA_PAN] = text(parser, token);
+                    break;
+                case "sub_type":
+                    values[SOURCE_DATA_SUB_TYPE] = text(parser, token);
+                    break;
+                case "type":
+                    values[SOURCE_DATA_TYPE] = text(parser, token);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Slot of a top-level {@code obj} field in the concatenation, or -1 if it
+     * is not signed.
+     */
+    private static int objSlot(String name) {
+        switch (name) {
+            case "amount_cents":
+                return 0;
+            case "created_at":
+                return 1;
+            case "currency":
+                return 2;
+            case "error_occured":
+                return 3;
+            case "has_parent_transaction":
+                return 4;
+            case "id":
+                return 5;
+            case "integration_id":
+                return 6;
+            case "is_3d_secure":
+                return 7;
+            case "is_auth":
+                return 8;
+            case "is_capture":
+                return 9;
+            case "is_refunded":
+                return 10;
+            case "is_standalone_payment":
+                return 11;
+            case "is_voided":
+                return 12;
+            case "owner":
+                return 14;
+            case "pending":
+                return 15;
+            case "success":
+                return 19;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Renders the current value as {@code JsonNode.asText()} would, skipping
+     * over containers.
+     */
+    private String text(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_TRUE:
+                return "true";
+            case VALUE_FALSE:
+                return "false";
+            case VALUE_NULL:
+                return "null";
+            case VALUE_NUMBER_INT:
+                return parser.getNumberValue().toString();
+            case VALUE_NUMBER_FLOAT:
+                return bigDecimalFloats
+                        ? parser.getDecimalValue().toString()
+                        : String.valueOf(parser.getDoubleValue());
+            default:
+                parser.skipChildren();
+                return "";
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.paymob.sdk.webhook.signature;
+
+import com.paymob.sdk.webhook.WebhookEventType;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The signed fields of a transaction webhook, read from the token stream by
+ * {@link TransactionSignatureCalculator#streamSignedFields(String)}, with the
+ * facts needed to identify the event without building a tree.
+ */
+public final class TransactionFields {
+    private static final int ID = 5;
+
+    private final String[] values;
+    private final boolean hasId;
+    private final WebhookEventType eventType;
+
+    TransactionFields(String[] values, boolean hasId, WebhookEventType eventType) {
+        this.values = values;
+        this.hasId = hasId;
+        this.eventType = eventType;
+    }
+
+    /**
+     * The 20 field values in Paymob's concatenation order, absent ones empty.
+     */
+    public List<String> values() {
+        return Collections.unmodifiableList(Arrays.asList(values));
+    }
+
+    /**
+     * The string the HMAC is computed over.
+     */
+    public String concatenated() {
+        int length = 0;
+        for (String value : values) {
+            length += value.length();
+        }
+        StringBuilder concatenated = new StringBuilder(length);
+        for (String value : values) {
+            concatenated.append(value);
+        }
+        return concatenated.toString();
+    }
+
+    /**
+     * {@code obj.id} as text, or null if {@code obj} has no {@code id}.
+     */
+    public String id() {
+        return hasId ? values[ID] : null;
+    }
+
+    /**
+     * The event type {@code TransactionWebhookEventParser} would assign, or
+     * null if {@code obj} has no {@code id}.
+     */
+    public WebhookEventType eventType() {
+        return eventType;
+    }
+}
@@ -1,8 +1,12 @@
 package com.paymob.sdk.webhook.signature;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.paymob.sdk.http.JsonCodec;
 import com.paymob.sdk.webhook.WebhookSignatureCalculator;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -10,33 +14,47 @@ import java.util.List;
  * Signature calculator for transaction webhooks.
  * <p>
  * Concatenates 20 fields from {@code obj} in Paymob's required order.
+ * {@link #streamConcatenatedString(String)} reads the same fields straight
+ * from the token stream, for callers that only need the signature.
  */
 public class TransactionSignatureCalculator extends WebhookSignatureCalculator {
+    private final TransactionFieldReader fieldReader = new TransactionFieldReader(
+            JsonCodec.shared().getObjectMapper().isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS));
 
     @Override
     public boolean canHandle(String payload) {
         if (payload == null)
             return false;
         try {
-            JsonNode root = objectMapper.readTree(payload);
-            // Has 'obj' but NOT 'subscription_data'
-            if (!root.has("obj") || root.has("subscription_data")) {
-                return false;
-            }
-            // If 'type' exists, it must be 'TRANSACTION'
-            if (root.has("type")) {
-                String type = root.get("type").asText();
-                return "TRANSACTION".equals(type);
-            }
-            return true; // Backward compatibility for payloads without 'type'
+            return canHandleTree(readTree(payload));
         } catch (Exception e) {
             return false;
         }
     }
 
+    @Override
+    public boolean canHandleTree(JsonNode root) {
+        if (root == null)
+            return false;
+        // Has 'obj' but NOT 'subscription_data'
+        if (!root.has("obj") || root.has("subscription_data")) {
+            return false;
+        }
+        // If 'type' exists, it must be 'TRANSACTION'
+        if (root.has("type")) {
+            String type = root.get("type").asText();
+            return "TRANSACTION".equals(type);
+        }
+        return true; // Backward compatibility for payloads without 'type'
+    }
+
     @Override
     protected String buildConcatenatedString(String payload) throws Exception {
-        JsonNode root = objectMapper.readTree(payload);
+        return buildConcatenatedString(readTree(payload));
+    }
+
+    @Override
+    protected String buildConcatenatedString(JsonNode root) throws Exception {
         JsonNode obj = root.get("obj");
 
         if (obj == null) {
@@ -75,6 +93,44 @@ public class TransactionSignatureCalculator extends WebhookSignatureCalculator {
         return String.join("", fields);
     }
 
+    /**
+     * Builds the concatenated string in one streaming pass over the payload,
+     * without building a tree, so a forged signature can be rejected cheaply.
+     * The result always equals {@link #buildConcatenatedString(String)}.
+     *
+     * @return The concatenated string, or null if {@link #canHandle(String)}
+     *         would return false
+     * @throws IOException If the payload is not well-formed JSON
+     */
+    public String streamConcatenatedString(String payload) throws IOException {
+        TransactionFields fields = streamSignedFields(payload);
+        return fields != null ? fields.concatenated() : null;
+    }
+
+    /**
+     * Reads the 20 signed fields in one streaming pass, for callers that
+     * need {@code obj.id} or the event type besides the signature.
+     *
+     * @return The fields, or null if {@link #canHandle(String)} would return
+     *         false
+     * @throws IOException If the payload is not well-formed JSON
+     */
+    public TransactionFields streamSignedFields(String payload) throws IOException {
+        try (JsonParser parser = JsonCodec.shared().createParser(payload)) {
+            return fieldReader.read(parser);
+        }
+    }
+
+    /**
+     * Same as {@link #streamSignedFields(String)}, reading a UTF-8 body as
+     * received without decoding it to a String first.
+     */
+    public TransactionFields streamSignedFields(byte[] body) throws IOException {
+        try (JsonParser parser = JsonCodec.shared().createParser(body)) {
+            return fieldReader.read(parser);
+        }
+    }
+
     private String text(JsonNode node, String fieldName) {
         JsonNode field = node.get(fieldName);
         if (field == null)
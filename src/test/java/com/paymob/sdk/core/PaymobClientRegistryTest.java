@@ -0,0 +1,157 @@
+package com.paymob.sdk.core;
+
+import com.paymob.sdk.http.ConnectionSettings;
+import com.paymob.sdk.http.OkHttpClientAdapter;
+import com.paymob.sdk.metrics.PaymobMetrics;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class PaymobClientRegistryTest {
+
+    private PaymobClientRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = PaymobClientRegistry.builder()
+                .maximumTenants(10)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.close();
+    }
+
+    private static PaymobConfig config(String merchant, PaymobRegion region) {
+        return PaymobConfig.builder()
+                .secretKey("sk_test_" + merchant)
+                .apiKey("ak_test_" + merchant)
+                .region(region)
+                .build();
+    }
+
+    private static OkHttpClient okHttpOf(PaymobClient client) {
+        return ((OkHttpClientAdapter) client.getHttpClient()).getOkHttpClient();
+    }
+
+    @Test
+    void client_sameTenant_returnsCachedInstance() {
+        PaymobClient first = registry.client("merchant-1", config("1", PaymobRegion.EGYPT));
+        PaymobClient second = registry.client("merchant-1", config("1", PaymobRegion.EGYPT));
+
+        assertSame(first, second);
+        assertSame(first, registry.getIfPresent("merchant-1"));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void coreGauges_areRegisteredOnceForAllTenants() {
+        PaymobMetrics coreMetrics = mock(PaymobMetrics.class);
+        PaymobMetrics tenantMetrics = mock(PaymobMetrics.class);
+        try (PaymobClientRegistry metered = PaymobClientRegistry.builder().metrics(coreMetrics).build()) {
+            for (int i = 0; i < 3; i++) {
+                metered.client("merchant-" + i, PaymobConfig.builder()
+                        .secretKey("sk_test_" + i)
+                        .apiKey("ak_test_" + i)
+                        .metrics(tenantMetrics)
+                        .build());
+            }
+        }
+
+        verify(coreMetrics, times(1)).registerGauge(eq(PaymobMetrics.CONNECTIONS), any());
+        verify(coreMetrics, times(1)).registerGauge(eq(PaymobMetrics.RUNNING_CALLS), any());
+        verify(tenantMetrics, never()).registerGauge(any(), any());
+    }
+
+    @Test
+    void client_differentTenants_shareConnectionPoolAndDispatcher() {
+        PaymobClient egypt = registry.client("merchant-eg", config("eg", PaymobRegion.EGYPT));
+        PaymobClient ksa = registry.client("merchant-sa", config("sa", PaymobRegion.KSA));
+
+        assertNotSame(egypt, ksa);
+        assertNotSame(egypt.getHttpClient(), ksa.getHttpClient());
+        OkHttpClient core = registry.getOkHttpClient();
+        assertSame(core.connectionPool(), okHttpOf(egypt).connectionPool());
+        assertSame(core.connectionPool(), okHttpOf(ksa).connectionPool());
+        assertSame(core.dispatcher(), okHttpOf(egypt).dispatcher());
+        assertSame(core.dispatcher(), okHttpOf(ksa).dispatcher());
+    }
+
+    @Test
+    void client_tenantTimeoutDoesNotLeakIntoOtherTenants() {
+        PaymobConfig slow = PaymobConfig.builder()
+                .secretKey("sk_test_slow")
+                .apiKey("ak_test_slow")
+                .timeout(120)
+                .build();
+        PaymobClient slowClient = registry.client("slow", slow);
+        PaymobClient defaultClient = registry.client("default", config("d", PaymobRegion.EGYPT));
+
+        assertEquals(Duration.ofSeconds(120), ((OkHttpClientAdapter) slowClient.getHttpClient()).getReadTimeout());
+        assertEquals(Duration.ofSeconds(60), ((OkHttpClientAdapter) defaultClient.getHttpClient()).getReadTimeout());
+        assertSame(okHttpOf(slowClient).connectionPool(), okHttpOf(defaultClient).connectionPool());
+    }
+
+    @Test
+    void client_beyondMaximumTenants_evicts() {
+        for (int i = 0; i < 50; i++) {
+            registry.client("merchant-" + i, config(String.valueOf(i), PaymobRegion.EGYPT));
+        }
+
+        assertTrue(registry.size() <= 10, "size was " + registry.size());
+    }
+
+    @Test
+    void invalidate_rebuildsClientOnNextAccess() {
+        PaymobClient first = registry.client("merchant-1", config("1", PaymobRegion.EGYPT));
+
+        registry.invalidate("merchant-1");
+
+        assertNull(registry.getIfPresent("merchant-1"));
+        PaymobClient rebuilt = registry.client("merchant-1", config("1b", PaymobRegion.EGYPT));
+        assertNotSame(first, rebuilt);
+        assertEquals("sk_test_1b", rebuilt.getConfig().getSecretKey());
+    }
+
+    @Test
+    void suppliedCore_isSharedAndLeftOpenOnClose() {
+        OkHttpClient core = OkHttpClientAdapter.newCore();
+        PaymobClientRegistry shared = PaymobClientRegistry.builder().okHttpClient(core).build();
+        PaymobClient client = shared.client("merchant-1", config("1", PaymobRegion.EGYPT));
+
+        assertSame(core.connectionPool(), okHttpOf(client).connectionPool());
+        shared.close();
+        assertFalse(core.dispatcher().executorService().isShutdown());
+        core.dispatcher().executorService().shutdown();
+    }
+
+    @Test
+    void connectionSettings_configureTheSharedCore() {
+        PaymobClientRegistry tuned = PaymobClientRegistry.builder()
+                .connectionSettings(ConnectionSettings.builder().maxRequestsPerHost(100).build())
+                .build();
+        PaymobClient client = tuned.client("merchant-1", config("1", PaymobRegion.EGYPT));
+
+        assertEquals(100, okHttpOf(client).dispatcher().getMaxRequestsPerHost());
+        tuned.close();
+    }
+
+    @Test
+    void builder_rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> PaymobClientRegistry.builder().maximumTenants(0).build());
+        assertThrows(IllegalArgumentException.class, () -> registry.client(null, config("1", PaymobRegion.EGYPT)));
+        assertThrows(IllegalArgumentException.class, () -> registry.client("merchant-1", null));
+    }
+}
@@ -1,6 +1,9 @@
 package com.paymob.sdk.core;
 
+import com.paymob.sdk.http.ExecutorHttpClient;
 import com.paymob.sdk.http.HttpClient;
+import com.paymob.sdk.services.intention.IntentionRequest;
+import com.paymob.sdk.services.intention.IntentionResponse;
 import com.paymob.sdk.services.intention.IntentionService;
 import com.paymob.sdk.models.enums.LogLevel;
 import org.junit.jupiter.api.Test;
@@ -11,6 +14,11 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import okhttp3.HttpUrl;
 
 class PaymobClientTest {
     @Mock
@@ -133,4 +141,77 @@ class PaymobClientTest {
         assertEquals(Duration.ofSeconds(45), actualConfig.getTimeout());
         assertEquals(LogLevel.BODY, actualConfig.getLogLevel());
     }
+
+    @Test
+    void testWarmUpOpensConnectionsAndPrimesCodec() {
+        when(mockHttpClient.warmUp(PaymobRegion.EGYPT.getHttpUrl(), 1)).thenReturn(1);
+
+        WarmUpReport report = client.warmUp();
+
+        verify(mockHttpClient).warmUp(PaymobRegion.EGYPT.getHttpUrl(), 1);
+        assertEquals(1, report.getConnections());
+        assertTrue(report.getPrimedTypes() > 0);
+        assertFalse(report.getDuration().isNegative());
+    }
+
+    @Test
+    void testWarmUpCollectsFailuresInsteadOfThrowing() {
+        when(mockHttpClient.warmUp(any(), anyInt())).thenThrow(new RuntimeException("DNS failure"));
+        // The mock token endpoint returns null, which the strategy rejects
+
+        WarmUpReport report = client.warmUp();
+
+        assertFalse(report.isSuccessful());
+        assertFalse(report.isTokenPrefetched());
+        assertEquals(2, report.getErrors().size());
+    }
+
+    @Test
+    void testEagerWarmUpRunsDuringBuild() {
+        PaymobConfig eager = PaymobConfig.builder()
+                .secretKey("sk_test_123")
+                .apiKey("ak_test_123")
+                .eagerWarmUp(true)
+                .warmUpConnections(4)
+                .build();
+
+        PaymobClient.builder().config(eager).httpClient(mockHttpClient).build();
+
+        verify(mockHttpClient).warmUp(PaymobRegion.EGYPT.getHttpUrl(), 4);
+    }
+
+    @Test
+    void testVirtualThreadsDegradeGracefully() {
+        PaymobClient vt = PaymobClient.builder()
+                .config(config)
+                .httpClient(mockHttpClient)
+                .virtualThreads(true)
+                .build();
+
+        assertEquals(Runtime.version().feature() >= 21, VirtualThreads.isSupported());
+        if (VirtualThreads.isSupported()) {
+            assertInstanceOf(ExecutorHttpClient.class, vt.getHttpClient());
+        } else {
+            assertSame(mockHttpClient, vt.getHttpClient());
+        }
+        vt.close();
+    }
+
+    @Test
+    void testWithExecutorRunsAsyncCallsOnExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "caller-executor"));
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(mockHttpClient.post(any(HttpUrl.class), any(), eq(IntentionResponse.class), any(), any()))
+                .thenAnswer(invocation -> {
+                    thread.set(Thread.currentThread().getName());
+                    return new IntentionResponse();
+                });
+
+        PaymobClient view = client.withExecutor(executor);
+        assertNotNull(view.intentions().createIntentionAsync(new IntentionRequest()).get(5, TimeUnit.SECONDS));
+
+        assertEquals("caller-executor", thread.get());
+        assertSame(client.getConfig(), view.getConfig());
+        executor.shutdown();
+    }
 }
@@ -1,11 +1,21 @@
 package com.paymob.sdk.core;
 
+import com.paymob.sdk.http.ConcurrencyLimit;
+import com.paymob.sdk.http.ConnectionSettings;
+import com.paymob.sdk.http.CircuitBreakerConfig;
+import com.paymob.sdk.http.EndpointGroup;
+import com.paymob.sdk.http.RateLimit;
 import com.paymob.sdk.models.enums.LogLevel;
+import okhttp3.Protocol;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
 
 class PaymobConfigTest {
     private PaymobConfig.Builder builder;
@@ -31,6 +41,13 @@ class PaymobConfigTest {
         assertEquals(LogLevel.NONE, config.getLogLevel());
     }
 
+    @Test
+    void testServerTimeZoneDefaultsToRegion() {
+        assertEquals(ZoneId.of("Africa/Cairo"), builder.build().getServerTimeZone());
+        assertEquals(ZoneId.of("Asia/Riyadh"), builder.region(PaymobRegion.KSA).build().getServerTimeZone());
+        assertEquals(ZoneOffset.UTC, builder.serverTimeZone(ZoneOffset.UTC).build().getServerTimeZone());
+    }
+
     @Test
     void testBuildWithAllOptions() {
         PaymobConfig config = builder
@@ -79,4 +96,92 @@ class PaymobConfigTest {
         assertNull(config.getPublicKey());
         assertNull(config.getHmacSecret());
     }
+
+    @Test
+    void testTimeoutsDefaultToTimeout() {
+        PaymobConfig config = builder.timeout(Duration.ofSeconds(45)).build();
+
+        assertEquals(Duration.ofSeconds(45), config.getConnectTimeout());
+        assertEquals(Duration.ofSeconds(45), config.getReadTimeout());
+        assertEquals(Duration.ofSeconds(45), config.getWriteTimeout());
+        assertEquals(Duration.ZERO, config.getCallTimeout());
+    }
+
+    @Test
+    void testSeparateTimeoutsAndConnectionSettings() {
+        PaymobConfig config = builder
+                .connectTimeout(Duration.ofSeconds(5))
+                .readTimeout(Duration.ofSeconds(20))
+                .writeTimeout(Duration.ofSeconds(10))
+                .callTimeout(Duration.ofSeconds(30))
+                .maxIdleConnections(20)
+                .keepAlive(Duration.ofMinutes(2))
+                .maxRequests(200)
+                .maxRequestsPerHost(100)
+                .protocols(Protocol.HTTP_1_1)
+                .build();
+
+        assertEquals(Duration.ofSeconds(5), config.getConnectTimeout());
+        assertEquals(Duration.ofSeconds(20), config.getReadTimeout());
+        assertEquals(Duration.ofSeconds(10), config.getWriteTimeout());
+        assertEquals(Duration.ofSeconds(30), config.getCallTimeout());
+        ConnectionSettings connection = config.getConnectionSettings();
+        assertEquals(20, connection.getMaxIdleConnections());
+        assertEquals(Duration.ofMinutes(2), connection.getKeepAlive());
+        assertEquals(200, connection.getMaxRequests());
+        assertEquals(100, connection.getMaxRequestsPerHost());
+        assertEquals(List.of(Protocol.HTTP_1_1), connection.getProtocols());
+    }
+
+    @Test
+    void testInvalidConnectionSettingsThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> builder.maxRequestsPerHost(0).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> PaymobConfig.builder().secretKey("sk").readTimeout(Duration.ofSeconds(-1)).build());
+    }
+
+    @Test
+    void testResilienceIsOptIn() {
+        PaymobConfig defaults = PaymobConfig.builder().secretKey("sk_test").build();
+
+        assertTrue(defaults.getBulkheadLimits().isEmpty());
+        assertSame(CircuitBreakerConfig.disabled(), defaults.getCircuitBreakerConfig());
+    }
+
+    @Test
+    void testBulkheadsCapOnlyConfiguredGroups() {
+        PaymobConfig config = builder
+                .secretKey("sk_test")
+                .bulkhead(EndpointGroup.SUBSCRIPTIONS, 16)
+                .bulkhead(EndpointGroup.INTENTIONS, 48)
+                .bulkhead(EndpointGroup.QUICK_LINKS, 16)
+                .bulkhead(EndpointGroup.QUICK_LINKS, 0)
+                .build();
+
+        assertEquals(16, config.getBulkheadLimits().get(EndpointGroup.SUBSCRIPTIONS));
+        assertEquals(48, config.getBulkheadLimits().get(EndpointGroup.INTENTIONS));
+        assertFalse(config.getBulkheadLimits().containsKey(EndpointGroup.QUICK_LINKS));
+        assertThrows(IllegalArgumentException.class, () -> builder.bulkhead(EndpointGroup.AUTH, -1));
+    }
+
+    @Test
+    void testRateAndConcurrencyLimitsAreOptIn() {
+        PaymobConfig defaults = PaymobConfig.builder().secretKey("sk_test").build();
+        assertTrue(defaults.getRateLimits().isEmpty());
+        assertFalse(defaults.getConcurrencyLimit().isEnabled());
+
+        RateLimit mit = RateLimit.of(20, 40);
+        PaymobConfig config = builder
+                .secretKey("sk_test")
+                .rateLimit(EndpointGroup.INTENTIONS, mit)
+                .rateLimit(EndpointGroup.PAYMENTS, RateLimit.of(5, 5))
+                .rateLimit(EndpointGroup.PAYMENTS, null)
+                .concurrencyLimit(ConcurrencyLimit.defaults())
+                .build();
+
+        assertEquals(Map.of(EndpointGroup.INTENTIONS, mit), config.getRateLimits());
+        assertTrue(config.getConcurrencyLimit().isEnabled());
+        assertThrows(IllegalArgumentException.class, () -> builder.rateLimit(null, mit));
+        assertThrows(IllegalArgumentException.class, () -> builder.concurrencyLimit(null).build());
+    }
 }
@@ -37,4 +37,10 @@ class PaymobRegionTest {
             assertTrue(region.getBaseUrl().concat("/unifiedcheckout/").startsWith("https://"));
         }
     }
+
+    @Test
+    void testOfHost() {
+        assertEquals(PaymobRegion.KSA, PaymobRegion.ofHost("ksa.paymob.com"));
+        assertNull(PaymobRegion.ofHost("localhost"));
+    }
 }
@@ -1,15 +1,18 @@
 package com.paymob.sdk.core.auth;
 
 import com.paymob.sdk.http.HttpClient;
+import okhttp3.HttpUrl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.stubbing.Answer;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.*;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -34,7 +37,8 @@ class BearerTokenAuthStrategyConcurrencyTest {
         BearerTokenAuthStrategy.TokenResponse response = new BearerTokenAuthStrategy.TokenResponse();
         response.token = "new_mock_token";
 
-        when(httpClient.post(eq("/api/auth/tokens"), any(), eq(BearerTokenAuthStrategy.TokenResponse.class), isNull()))
+        when(httpClient.post(eq(HttpUrl.get(baseUrl + "/api/auth/tokens")), any(),
+                eq(BearerTokenAuthStrategy.TokenResponse.class), isNull(), any()))
                 .thenAnswer((Answer<BearerTokenAuthStrategy.TokenResponse>) invocation -> {
                     Thread.sleep(100); // Simulate network latency
                     return response;
@@ -60,8 +64,213 @@ class BearerTokenAuthStrategyConcurrencyTest {
         }
 
         // Verify that HTTP login was called exactly once despite 10 concurrent requests
-        verify(httpClient, times(1)).post(anyString(), any(), any(), any());
+        verify(httpClient, times(1)).post(any(HttpUrl.class), any(), any(), any(), any());
 
         executor.shutdown();
     }
+
+    @Test
+    void getAuthorizationHeader_insideExpiryBuffer_neverBlocksReaders() throws Exception {
+        // Token is still valid but due for renewal; the login hangs until released
+        strategy.setBearerToken("old_token", Instant.now().plusSeconds(120));
+        CountDownLatch loginStarted = new CountDownLatch(1);
+        CountDownLatch releaseLogin = new CountDownLatch(1);
+        BearerTokenAuthStrategy.TokenResponse response = new BearerTokenAuthStrategy.TokenResponse();
+        response.token = "renewed_token";
+        when(httpClient.post(any(HttpUrl.class), any(), eq(BearerTokenAuthStrategy.TokenResponse.class), isNull(),
+                any()))
+                .thenAnswer((Answer<BearerTokenAuthStrategy.TokenResponse>) invocation -> {
+                    loginStarted.countDown();
+                    releaseLogin.await();
+                    return response;
+                });
+
+        int threadCount = 8;
+        int readsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executor.submit(() -> {
+                for (int r = 0; r < readsPerThread; r++) {
+                    assertEquals("Bearer old_token", strategy.getAuthorizationHeader());
+                }
+                return null;
+            }));
+        }
+
+        // Every read completes while the renewal is still stuck in flight
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        assertTrue(loginStarted.await(5, TimeUnit.SECONDS));
+
+        releaseLogin.countDown();
+        awaitToken("renewed_token");
+        verify(httpClient, times(1)).post(any(HttpUrl.class), any(), any(), any(), any());
+
+        executor.shutdown();
+    }
+
+    @Test
+    void getAuthorizationHeader_whenLoginFails_allWaitersFailAndNextCallRetries() throws Exception {
+        BearerTokenAuthStrategy.TokenResponse response = new BearerTokenAuthStrategy.TokenResponse();
+        response.token = "second_try";
+        CountDownLatch releaseLogin = new CountDownLatch(1);
+        when(httpClient.post(any(HttpUrl.class), any(), eq(BearerTokenAuthStrategy.TokenResponse.class), isNull(),
+                any()))
+                .thenAnswer((Answer<BearerTokenAuthStrategy.TokenResponse>) invocation -> {
+                    releaseLogin.await();
+                    throw new IllegalStateException("token endpoint down");
+                })
+                .thenReturn(response);
+
+        int threadCount = 5;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch ready = new CountDownLatch(threadCount);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                return strategy.getAuthorizationHeader();
+            }));
+        }
+        ready.await();
+        Thread.sleep(100); // let every caller reach the shared login
+        releaseLogin.countDown();
+
+        for (Future<String> future : futures) {
+            ExecutionException e = assertThrows(ExecutionException.class, future::get);
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+        assertEquals("Bearer second_try", strategy.getAuthorizationHeader());
+
+        executor.shutdown();
+    }
+
+    @Test
+    void proactiveRefresh_renewsTokenBeforeExpiryWithoutARequest() throws Exception {
+        // Lifetime just past the refresh lead, so the background refresh fires almost at once
+        BearerTokenAuthStrategy shortLived = new BearerTokenAuthStrategy(apiKey, baseUrl, httpClient,
+                BearerTokenAuthStrategy.REFRESH_AHEAD.plusMillis(50));
+        BearerTokenAuthStrategy.TokenResponse first = new BearerTokenAuthStrategy.TokenResponse();
+        first.token = "first";
+        BearerTokenAuthStrategy.TokenResponse second = new BearerTokenAuthStrategy.TokenResponse();
+        second.token = "second";
+        when(httpClient.post(any(HttpUrl.class), any(), eq(BearerTokenAuthStrategy.TokenResponse.class), isNull(),
+                any()))
+                .thenReturn(first, second);
+
+        try {
+            assertEquals("Bearer first", shortLived.getAuthorizationHeader());
+            awaitToken(shortLived, "second");
+            assertFalse(shortLived.isTokenExpired());
+        } finally {
+            shortLived.close();
+        }
+    }
+
+    @Test
+    void proactiveRefresh_isNotDelayedByAnotherStrategysHangingLogin() throws Exception {
+        // One tenant's token endpoint hangs in a background login
+        HttpClient hangingClient = mock(HttpClient.class);
+        CountDownLatch releaseLogin = new CountDownLatch(1);
+        when(hangingClient.post(any(HttpUrl.class), any(), eq(BearerTokenAuthStrategy.TokenResponse.class), isNull(),
+                any()))
+                .thenAnswer((Answer<BearerTokenAuthStrategy.TokenResponse>) invocation -> {
+                    releaseLogin.await();
+                    throw new IllegalStateException("token endpoint hung");
+                });
+        BearerTokenAuthStrategy hanging = new BearerTokenAuthStrategy(apiKey, baseUrl, hangingClient);
+        CompletableFuture<String> stuck = hanging.fetchToken();
+
+        BearerTokenAuthStrategy shortLived = new BearerTokenAuthStrategy(apiKey, baseUrl, httpClient,
+                BearerTokenAuthStrategy.REFRESH_AHEAD.plusMillis(50));
+        BearerTokenAuthStrategy.TokenResponse first = new BearerTokenAuthStrategy.TokenResponse();
+        first.token = "first";
+        BearerTokenAuthStrategy.TokenResponse second = new BearerTokenAuthStrategy.TokenResponse();
+        second.token = "second";
+        when(httpClient.post(any(HttpUrl.class), any(), eq(BearerTokenAuthStrategy.TokenResponse.class), isNull(),
+                any()))
+                .thenReturn(first, second);
+
+        try {
+            assertEquals("Bearer first", shortLived.getAuthorizationHeader());
+            awaitToken(shortLived, "second");
+            assertFalse(stuck.isDone());
+        } finally {
+            releaseLogin.countDown();
+            shortLived.close();
+            hanging.close();
+        }
+    }
+
+    @Test
+    void proactiveRefresh_skipsTokenThatWasNeverRead() throws Exception {
+        BearerTokenAuthStrategy idle = new BearerTokenAuthStrategy(apiKey, baseUrl, httpClient,
+                BearerTokenAuthStrategy.REFRESH_AHEAD.plusMillis(50));
+        BearerTokenAuthStrategy.TokenResponse first = new BearerTokenAuthStrategy.TokenResponse();
+        first.token = "first";
+        BearerTokenAuthStrategy.TokenResponse second = new BearerTokenAuthStrategy.TokenResponse();
+        second.token = "second";
+        when(httpClient.post(any(HttpUrl.class), any(), eq(BearerTokenAuthStrategy.TokenResponse.class), isNull(),
+                any()))
+                .thenReturn(first, second);
+
+        try {
+            // Logged in, but no request ever reads the token
+            assertEquals("first", idle.fetchToken().get(5, TimeUnit.SECONDS));
+            Thread.sleep(300);
+
+            assertEquals("first", idle.getBearerToken());
+            verify(httpClient, times(1)).post(any(HttpUrl.class), any(), any(), any(), any());
+        } finally {
+            idle.close();
+        }
+    }
+
+    @Test
+    void close_duringLogin_keepsThatLoginFromArmingARefresh() throws Exception {
+        BearerTokenAuthStrategy closing = new BearerTokenAuthStrategy(apiKey, baseUrl, httpClient,
+                BearerTokenAuthStrategy.REFRESH_AHEAD.plusMillis(50));
+        CountDownLatch loginStarted = new CountDownLatch(1);
+        CountDownLatch releaseLogin = new CountDownLatch(1);
+        BearerTokenAuthStrategy.TokenResponse response = new BearerTokenAuthStrategy.TokenResponse();
+        response.token = "token";
+        when(httpClient.post(any(HttpUrl.class), any(), eq(BearerTokenAuthStrategy.TokenResponse.class), isNull(),
+                any()))
+                .thenAnswer((Answer<BearerTokenAuthStrategy.TokenResponse>) invocation -> {
+                    loginStarted.countDown();
+                    releaseLogin.await();
+                    return response;
+                });
+
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> header = caller.submit(closing::getAuthorizationHeader);
+            assertTrue(loginStarted.await(5, TimeUnit.SECONDS));
+            closing.close();
+            releaseLogin.countDown();
+
+            // The token was read, so only the close keeps the refresh from firing
+            assertEquals("Bearer token", header.get(5, TimeUnit.SECONDS));
+            Thread.sleep(300);
+            verify(httpClient, times(1)).post(any(HttpUrl.class), any(), any(), any(), any());
+        } finally {
+            caller.shutdown();
+        }
+    }
+
+    private void awaitToken(String expected) throws InterruptedException {
+        awaitToken(strategy, expected);
+    }
+
+    private static void awaitToken(BearerTokenAuthStrategy strategy, String expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!expected.equals(strategy.getBearerToken())) {
+            if (System.nanoTime() > deadline) {
+                fail("Token was not renewed to " + expected + ", still " + strategy.getBearerToken());
+            }
+            Thread.sleep(10);
+        }
+    }
 }
@@ -3,10 +3,16 @@ package com.paymob.sdk.core.auth;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 import java.time.Instant;
 import com.paymob.sdk.http.HttpClient;
+import com.paymob.sdk.metrics.PaymobMetrics;
+import okhttp3.HttpUrl;
 
 class BearerTokenAuthStrategyTest {
     private BearerTokenAuthStrategy authStrategy;
@@ -86,7 +92,8 @@ class BearerTokenAuthStrategyTest {
 
         BearerTokenAuthStrategy.TokenResponse tokenResponse = new BearerTokenAuthStrategy.TokenResponse();
         tokenResponse.token = TOKEN;
-        when(httpClient.post(eq("/api/auth/tokens"), any(), eq(BearerTokenAuthStrategy.TokenResponse.class), isNull()))
+        when(httpClient.post(eq(HttpUrl.get(BASE_URL + "/api/auth/tokens")), any(),
+                eq(BearerTokenAuthStrategy.TokenResponse.class), isNull(), any()))
                 .thenReturn(tokenResponse);
 
         assertEquals("Bearer " + TOKEN, authStrategy.getAuthorizationHeader());
@@ -126,4 +133,23 @@ class BearerTokenAuthStrategyTest {
         assertEquals(emptyKey, auth.getApiKey());
         assertEquals("BEARER_TOKEN", auth.getType());
     }
+
+    @Test
+    void testMetricsRecordTokenLookupsAndRefresh() {
+        PaymobMetrics metrics = mock(PaymobMetrics.class);
+        authStrategy.setMetrics(metrics);
+        BearerTokenAuthStrategy.TokenResponse response = new BearerTokenAuthStrategy.TokenResponse();
+        response.token = TOKEN;
+        when(httpClient.post(any(HttpUrl.class), any(), eq(BearerTokenAuthStrategy.TokenResponse.class), isNull(),
+                any()))
+                .thenReturn(response);
+
+        authStrategy.getAuthorizationHeader();
+        authStrategy.getAuthorizationHeader();
+
+        verify(metrics).recordTokenLookup(false);
+        verify(metrics).recordTokenLookup(true);
+        verify(metrics).recordTokenRefresh(anyLong(), eq(true));
+        authStrategy.close();
+    }
 }
@@ -0,0 +1,109 @@
+package com.paymob.sdk.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static ConcurrencyLimit.Builder config() {
+        return ConcurrencyLimit.builder()
+                .initialLimit(4)
+                .minLimit(1)
+                .maxLimit(8)
+                .backoffRatio(0.5)
+                .latencyThreshold(Duration.ofMillis(100));
+    }
+
+    @Test
+    void testRejectsOverLimitWithoutWait() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config().initialLimit(2).build());
+
+        assertTrue(limiter.acquire(0));
+        assertTrue(limiter.acquire(0));
+        assertFalse(limiter.acquire(0));
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void testHalvesOnDropAndNeverGoesBelowMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config().build());
+
+        limiter.acquire(0);
+        limiter.release(FAST, true);
+        assertEquals(2, limiter.getLimit());
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(0);
+            limiter.release(FAST, true);
+        }
+        assertEquals(1, limiter.getLimit());
+    }
+
+    @Test
+    void testSlowCallCountsAsCongestion() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config().build());
+
+        limiter.acquire(0);
+        limiter.release(SECOND, false);
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void testGrowsAdditivelyOnlyWhenSaturated() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config().build());
+
+        // One call in flight out of four: the limit is not what holds traffic back
+        limiter.acquire(0);
+        limiter.release(FAST, false);
+        assertEquals(4, limiter.getLimit());
+
+        for (int round = 0; round < 8; round++) {
+            for (int i = 0; i < 4; i++) {
+                limiter.acquire(0);
+            }
+            for (int i = 0; i < 4; i++) {
+                limiter.release(FAST, false);
+            }
+        }
+        assertTrue(limiter.getLimit() > 4 && limiter.getLimit() <= 8);
+    }
+
+    @Test
+    void testQueuedWaiterIsGrantedOnRelease() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config().initialLimit(1).build());
+        limiter.acquire(0);
+
+        CompletableFuture<Boolean> waiter = limiter.acquireAsync(SECOND);
+        assertFalse(waiter.isDone());
+        limiter.release(FAST, false);
+
+        assertTrue(waiter.get(1, TimeUnit.SECONDS));
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void testTimedOutWaiterDoesNotLeakSlot() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config().initialLimit(1).build());
+        limiter.acquire(0);
+
+        assertFalse(limiter.acquireAsync(TimeUnit.MILLISECONDS.toNanos(20)).get(1, TimeUnit.SECONDS));
+        limiter.release(FAST, false);
+
+        assertEquals(0, limiter.getInFlight());
+        assertTrue(limiter.acquire(0));
+    }
+
+    @Test
+    void testInvalidConfigIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> config().initialLimit(10).build());
+        assertThrows(IllegalArgumentException.class, () -> config().backoffRatio(1).build());
+        assertThrows(IllegalArgumentException.class, () -> config().minLimit(0).build());
+    }
+}
@@ -0,0 +1,105 @@
+package com.paymob.sdk.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static CircuitBreakerConfig.Builder config() {
+        return CircuitBreakerConfig.builder()
+                .slidingWindowSize(10)
+                .minimumCalls(4)
+                .failureRateThreshold(50)
+                .slowCallDuration(Duration.ofMillis(100))
+                .waitInOpenState(Duration.ofHours(1))
+                .permittedCallsInHalfOpenState(2);
+    }
+
+    @Test
+    void testOpensOnceFailureRateIsReached() {
+        CircuitBreaker breaker = new CircuitBreaker("/x", config().build());
+
+        breaker.onSuccess(1, TimeUnit.MILLISECONDS);
+        breaker.onError(1, TimeUnit.MILLISECONDS);
+        breaker.onSuccess(1, TimeUnit.MILLISECONDS);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.onError(1, TimeUnit.MILLISECONDS);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission());
+        assertEquals(1, breaker.getNotPermittedCalls());
+    }
+
+    @Test
+    void testOpensOnSlowCalls() {
+        CircuitBreaker breaker = new CircuitBreaker("/x", config().slowCallRateThreshold(75).build());
+
+        for (int i = 0; i < 3; i++) {
+            breaker.onSuccess(500, TimeUnit.MILLISECONDS);
+        }
+        breaker.onSuccess(1, TimeUnit.MILLISECONDS);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testOldOutcomesSlideOutOfTheWindow() {
+        CircuitBreaker breaker = new CircuitBreaker("/x", config().minimumCalls(10).build());
+
+        for (int i = 0; i < 4; i++) {
+            breaker.onError(1, TimeUnit.MILLISECONDS);
+        }
+        for (int i = 0; i < 10; i++) {
+            breaker.onSuccess(1, TimeUnit.MILLISECONDS);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0f, breaker.getFailureRate());
+        assertEquals(10, breaker.getBufferedCalls());
+    }
+
+    @Test
+    void testHalfOpenClosesAfterSuccessfulTrialCalls() {
+        CircuitBreaker breaker = new CircuitBreaker("/x", config().waitInOpenState(Duration.ZERO).build());
+        tripOpen(breaker);
+
+        assertTrue(breaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission());
+        assertFalse(breaker.tryAcquirePermission());
+        breaker.onSuccess(1, TimeUnit.MILLISECONDS);
+        breaker.onSuccess(1, TimeUnit.MILLISECONDS);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getBufferedCalls());
+    }
+
+    @Test
+    void testHalfOpenReopensOnFailure() {
+        CircuitBreaker breaker = new CircuitBreaker("/x", config().waitInOpenState(Duration.ZERO).build());
+        tripOpen(breaker);
+
+        assertTrue(breaker.tryAcquirePermission());
+        breaker.onError(1, TimeUnit.MILLISECONDS);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testInvalidConfigIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CircuitBreakerConfig.builder().slidingWindowSize(0).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> CircuitBreakerConfig.builder().failureRateThreshold(120).build());
+    }
+
+    private static void tripOpen(CircuitBreaker breaker) {
+        for (int i = 0; i < 4; i++) {
+            breaker.onError(1, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
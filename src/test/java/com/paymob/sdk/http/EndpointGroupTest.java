@@ -0,0 +1,32 @@
+package com.paymob.sdk.http;
+
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointGroupTest {
+
+    @Test
+    void testTemplateReplacesIdentifiers() {
+        assertEquals("/api/acceptance/subscriptions/{id}/suspend",
+                EndpointGroup.templateOf(url("/api/acceptance/subscriptions/8812/suspend")));
+        assertEquals("/v1/intention/element/{id}/{id}",
+                EndpointGroup.templateOf(url("/v1/intention/element/egy_pk_test_1a2b3c/egy_csk_test_9f8e7d/")));
+        assertEquals("/api/acceptance/capture", EndpointGroup.templateOf(url("/api/acceptance/capture")));
+    }
+
+    @Test
+    void testGroupsFollowServiceAreas() {
+        assertEquals(EndpointGroup.INTENTIONS, EndpointGroup.of(url("/v1/intention/")));
+        assertEquals(EndpointGroup.TRANSACTIONS, EndpointGroup.of(url("/api/acceptance/void_refund/refund")));
+        assertEquals(EndpointGroup.PAYMENTS, EndpointGroup.of(url("/api/acceptance/payments/pay")));
+        assertEquals(EndpointGroup.SUBSCRIPTIONS, EndpointGroup.of(url("/api/acceptance/subscription-plans/4")));
+        assertEquals(EndpointGroup.INQUIRY, EndpointGroup.of(url("/api/acceptance/transactions/7")));
+        assertEquals(EndpointGroup.OTHER, EndpointGroup.of(url("/health")));
+    }
+
+    private static HttpUrl url(String path) {
+        return HttpUrl.get("https://accept.paymob.com" + path);
+    }
+}
@@ -0,0 +1,76 @@
+package com.paymob.sdk.http;
+
+import com.paymob.sdk.core.auth.AuthStrategy;
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ExecutorHttpClientTest {
+
+    private static final HttpUrl URL = HttpUrl.get("https://accept.paymob.com/api/test");
+
+    private HttpClient delegate;
+    private ExecutorService executor;
+    private ExecutorHttpClient client;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(HttpClient.class);
+        executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "test-executor"));
+        client = new ExecutorHttpClient(delegate, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void asyncCallsRunBlockingDelegateOnExecutor() {
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(delegate.post(eq(URL), eq("body"), eq(String.class), any())).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return "ok";
+        });
+
+        assertEquals("ok", client.postAsync(URL, "body", String.class, null).join());
+        assertEquals("test-executor", thread.get());
+        verify(delegate, never()).postAsync(any(HttpUrl.class), any(), any(), any());
+    }
+
+    @Test
+    void syncCallsAndConfigurationGoStraightToDelegate() {
+        AuthStrategy auth = mock(AuthStrategy.class);
+        when(delegate.get(URL, String.class, auth)).thenReturn("direct");
+        when(delegate.warmUp(URL, 2)).thenReturn(2);
+
+        assertEquals("direct", client.get(URL, String.class, auth));
+        assertEquals(2, client.warmUp(URL, 2));
+        client.setTimeout(10);
+        verify(delegate).setTimeout(10);
+    }
+
+    @Test
+    void asyncFailureCompletesExceptionally() {
+        when(delegate.get(URL, String.class, null)).thenThrow(new IllegalStateException("boom"));
+
+        Exception e = assertThrows(Exception.class, () -> client.getAsync(URL, String.class, null).join());
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void constructorRequiresDelegateAndExecutor() {
+        assertThrows(IllegalArgumentException.class, () -> new ExecutorHttpClient(null, executor));
+        assertThrows(IllegalArgumentException.class, () -> new ExecutorHttpClient(delegate, null));
+    }
+}
@@ -0,0 +1,71 @@
+package com.paymob.sdk.http;
+
+import com.paymob.sdk.core.auth.AuthStrategy;
+import com.paymob.sdk.models.enums.LogLevel;
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientTest {
+
+    /** An implementation written against the String-only interface. */
+    private static final class LegacyClient implements HttpClient {
+        final List<String> calls = new ArrayList<>();
+
+        @Override
+        public <T> T get(String endpoint, Class<T> responseClass, AuthStrategy authStrategy) {
+            calls.add("GET " + endpoint);
+            return null;
+        }
+
+        @Override
+        public <T> T post(String endpoint, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy) {
+            calls.add("POST " + endpoint);
+            return null;
+        }
+
+        @Override
+        public <T> T put(String endpoint, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy) {
+            calls.add("PUT " + endpoint);
+            return null;
+        }
+
+        @Override
+        public <T> T delete(String endpoint, Class<T> responseClass, AuthStrategy authStrategy) {
+            calls.add("DELETE " + endpoint);
+            return null;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public void setBaseUrl(String baseUrl) {
+        }
+
+        @Override
+        public void setTimeout(int timeoutSeconds) {
+        }
+
+        @Override
+        public void setLogLevel(LogLevel logLevel) {
+        }
+    }
+
+    @Test
+    void httpUrlMethodsDefaultToStringMethodsWithAbsoluteUrl() {
+        LegacyClient client = new LegacyClient();
+        HttpUrl url = HttpUrl.get("https://accept.paymob.com/api/acceptance/subscriptions?state=active");
+
+        client.get(url, Object.class, null);
+        client.post(url, "{}", Object.class, null);
+        client.put(url, "{}", Object.class, null);
+        client.delete(url, Object.class, null);
+
+        String absolute = "https://accept.paymob.com/api/acceptance/subscriptions?state=active";
+        assertEquals(List.of("GET " + absolute, "POST " + absolute, "PUT " + absolute, "DELETE " + absolute),
+                client.calls);
+    }
+}
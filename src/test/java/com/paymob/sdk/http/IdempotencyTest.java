@@ -0,0 +1,56 @@
+package com.paymob.sdk.http;
+
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyTest {
+
+    @Test
+    void testMoneyMovingPostsAreNotIdempotent() {
+        assertFalse(Idempotency.isIdempotent(post("/api/acceptance/void_refund/refund")));
+        assertFalse(Idempotency.isIdempotent(post("/api/acceptance/capture")));
+        assertFalse(Idempotency.isIdempotent(post("/api/acceptance/payments/pay")));
+        assertFalse(Idempotency.isIdempotent(post("/v1/intention/")));
+    }
+
+    @Test
+    void testReadsAndStateTransitionsAreIdempotent() {
+        assertTrue(Idempotency.isIdempotent(new Request.Builder().url("https://accept.paymob.com/x").build()));
+        assertTrue(Idempotency.isIdempotent(post("/api/ecommerce/orders/transaction_inquiry")));
+        assertTrue(Idempotency.isIdempotent(post("/api/auth/tokens")));
+        assertTrue(Idempotency.isIdempotent(post("/api/acceptance/subscriptions/7/suspend")));
+    }
+
+    @Test
+    void testOnlyConnectionFailuresProveTheRequestWasNotSent() {
+        assertTrue(Idempotency.isNotSent(new ConnectException("Connection refused")));
+        assertTrue(Idempotency.isNotSent(new SocketTimeoutException("connect timed out")));
+        assertFalse(Idempotency.isNotSent(new SocketTimeoutException("timeout")));
+        assertFalse(Idempotency.isNotSent(new IOException("unexpected end of stream")));
+    }
+
+    @Test
+    void testUnsafeRequestsAreRetriedOnlyWhenNotSent() {
+        RetryPolicy policy = RetryPolicy.defaults();
+        Request refund = post("/api/acceptance/void_refund/refund");
+
+        assertFalse(policy.isRetryable(refund, 503));
+        assertTrue(policy.isRetryable(refund, 429));
+        assertFalse(policy.isRetryable(refund, new SocketTimeoutException("timeout")));
+        assertTrue(policy.isRetryable(refund, new ConnectException("Connection refused")));
+    }
+
+    private static Request post(String path) {
+        return new Request.Builder()
+                .url("https://accept.paymob.com" + path)
+                .post(RequestBody.create(new byte[0]))
+                .build();
+    }
+}
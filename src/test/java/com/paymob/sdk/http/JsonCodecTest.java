@@ -0,0 +1,85 @@
+package com.paymob.sdk.http;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonCodecTest {
+
+    private final JsonCodec codec = new JsonCodec(JsonCodec.defaultObjectMapper());
+
+    @Test
+    void readersAndWritersAreCachedPerType() {
+        assertSame(codec.readerFor(TestDto.class), codec.readerFor(TestDto.class));
+        assertSame(codec.writerFor(TestDto.class), codec.writerFor(TestDto.class));
+        assertNotSame(codec.readerFor(TestDto.class), codec.readerFor(JsonNode.class));
+    }
+
+    @Test
+    void sharedCodecIsSingleton() {
+        assertSame(JsonCodec.shared(), JsonCodec.shared());
+    }
+
+    @Test
+    void toRequestBody_writesJsonWithoutNulls() throws IOException {
+        TestDto dto = new TestDto();
+        dto.id = 7;
+
+        RequestBody body = codec.toRequestBody(dto);
+
+        assertEquals("application/json; charset=utf-8", body.contentType().toString());
+        assertEquals("{\"id\":7}".length(), body.contentLength());
+        assertEquals("{\"id\":7}", write(body));
+    }
+
+    @Test
+    void toRequestBody_canBeWrittenMoreThanOnce() throws IOException {
+        TestDto dto = new TestDto();
+        dto.id = 1;
+        dto.name = "retry";
+
+        RequestBody body = codec.toRequestBody(dto);
+
+        assertEquals(write(body), write(body));
+    }
+
+    @Test
+    void read_ignoresUnknownProperties() throws IOException {
+        byte[] json = "{\"id\":3,\"name\":\"a\",\"extra\":true}".getBytes(StandardCharsets.UTF_8);
+
+        TestDto dto = codec.read(new ByteArrayInputStream(json), TestDto.class);
+
+        assertEquals(3, dto.id);
+        assertEquals("a", dto.name);
+    }
+
+    @Test
+    void treeToValue_bindsNode() throws IOException {
+        JsonNode node = codec.readTree("{\"id\":5}");
+
+        assertEquals(5, codec.treeToValue(node, TestDto.class).id);
+    }
+
+    @Test
+    void constructor_requiresMapper() {
+        assertThrows(IllegalArgumentException.class, () -> new JsonCodec(null));
+    }
+
+    private static String write(RequestBody body) throws IOException {
+        Buffer sink = new Buffer();
+        body.writeTo(sink);
+        return sink.readUtf8();
+    }
+
+    static class TestDto {
+        public int id;
+        public String name;
+    }
+}
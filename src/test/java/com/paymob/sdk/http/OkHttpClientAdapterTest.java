@@ -1,9 +1,19 @@
 package com.paymob.sdk.http;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.paymob.sdk.core.auth.SecretKeyAuthStrategy;
 import com.paymob.sdk.core.auth.BearerTokenAuthStrategy;
+import com.paymob.sdk.exceptions.AmbiguousOutcomeException;
 import com.paymob.sdk.exceptions.AuthenticationException;
+import com.paymob.sdk.exceptions.CallNotPermittedException;
+import com.paymob.sdk.exceptions.PaymobException;
+import com.paymob.sdk.exceptions.PaymobServerException;
+import com.paymob.sdk.exceptions.RateLimitedException;
+import com.paymob.sdk.exceptions.ValidationException;
+import com.paymob.sdk.metrics.PaymobMetrics;
+import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -11,8 +21,23 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 class OkHttpClientAdapterTest {
     private MockWebServer mockWebServer;
@@ -159,6 +184,120 @@ class OkHttpClientAdapterTest {
         });
     }
 
+    @Test
+    void testGetAsyncRequest() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"id\": 7}")
+                .addHeader("Content-Type", "application/json"));
+
+        CompletableFuture<TestResponse> future = httpClient.getAsync("/async", TestResponse.class, secretKeyAuth);
+
+        assertEquals(7, future.get(5, TimeUnit.SECONDS).id);
+        RecordedRequest recordedRequest = mockWebServer.takeRequest();
+        assertEquals("GET", recordedRequest.getMethod());
+        assertEquals("/async", recordedRequest.getPath());
+        assertEquals("Token sk_test_123", recordedRequest.getHeader("Authorization"));
+    }
+
+    @Test
+    void testAsyncRequestDoesNotWaitForBearerLogin() throws Exception {
+        CountDownLatch releaseLogin = new CountDownLatch(1);
+        BearerTokenAuthStrategy loggingIn = slowBearerLogin(releaseLogin);
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"id\": 7}")
+                .addHeader("Content-Type", "application/json"));
+
+        CompletableFuture<TestResponse> future = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> httpClient.getAsync("/async", TestResponse.class, loggingIn));
+
+        assertFalse(future.isDone());
+        assertEquals(0, mockWebServer.getRequestCount());
+        releaseLogin.countDown();
+        assertEquals(7, future.get(5, TimeUnit.SECONDS).id);
+        assertEquals("Bearer async_token", mockWebServer.takeRequest().getHeader("Authorization"));
+    }
+
+    @Test
+    void testAsyncRequestCancelledDuringBearerLoginIsNeverSent() throws Exception {
+        CountDownLatch releaseLogin = new CountDownLatch(1);
+        BearerTokenAuthStrategy loggingIn = slowBearerLogin(releaseLogin);
+
+        CompletableFuture<String> future = httpClient.getAsync("/async", String.class, loggingIn);
+        future.cancel(true);
+        releaseLogin.countDown();
+
+        assertNull(mockWebServer.takeRequest(500, TimeUnit.MILLISECONDS));
+    }
+
+    /** Bearer strategy whose token endpoint answers once {@code release} opens. */
+    private BearerTokenAuthStrategy slowBearerLogin(CountDownLatch release) {
+        HttpClient tokenClient = mock(HttpClient.class);
+        when(tokenClient.post(any(HttpUrl.class), any(), any(), isNull(), any())).thenAnswer(invocation -> {
+            release.await();
+            return new ObjectMapper().readValue("{\"token\": \"async_token\"}", invocation.<Class<?>>getArgument(2));
+        });
+        return new BearerTokenAuthStrategy("ak_test_123", mockWebServer.url("/").toString(), tokenClient);
+    }
+
+    @Test
+    void testPostAsyncRequest() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"id\": 123}")
+                .addHeader("Content-Type", "application/json"));
+
+        TestResponse response = httpClient
+                .postAsync("/create", new TestRequestBody("test"), TestResponse.class, secretKeyAuth)
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(123, response.id);
+        RecordedRequest recordedRequest = mockWebServer.takeRequest();
+        assertEquals("POST", recordedRequest.getMethod());
+        assertTrue(recordedRequest.getBody().readUtf8().contains("test"));
+    }
+
+    @Test
+    void testAsyncErrorCompletesExceptionally() {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(401)
+                .setBody("{\"error\": \"Unauthorized\"}"));
+
+        CompletableFuture<String> future = httpClient.deleteAsync("/protected", String.class, secretKeyAuth);
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(AuthenticationException.class, thrown.getCause());
+    }
+
+    @Test
+    void testAbsoluteUrlsShareOneAdapterAcrossHosts() throws Exception {
+        try (MockWebServer otherRegion = new MockWebServer()) {
+            otherRegion.start();
+            mockWebServer.enqueue(new MockResponse().setBody("{\"id\": 1}"));
+            otherRegion.enqueue(new MockResponse().setBody("{\"id\": 2}"));
+
+            CompletableFuture<TestResponse> first = httpClient.getAsync(mockWebServer.url("/a"), TestResponse.class,
+                    secretKeyAuth);
+            CompletableFuture<TestResponse> second = httpClient.getAsync(otherRegion.url("/b"), TestResponse.class,
+                    secretKeyAuth);
+
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).id);
+            assertEquals(2, second.get(5, TimeUnit.SECONDS).id);
+            assertEquals("/a", mockWebServer.takeRequest().getPath());
+            assertEquals("/b", otherRegion.takeRequest().getPath());
+        }
+    }
+
+    @Test
+    void testErrorBodyIsAttachedToException() {
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(406)
+                .setBody("{\"detail\": \"amount mismatch\"}"));
+
+        ValidationException thrown = assertThrows(ValidationException.class,
+                () -> httpClient.post("/create", new TestRequestBody("x"), TestResponse.class, secretKeyAuth));
+
+        assertEquals("{\"detail\": \"amount mismatch\"}", thrown.getErrorBody());
+    }
+
     @Test
     void testBaseUrlConfiguration() {
         // Test that base URL is properly set
@@ -177,6 +316,254 @@ class OkHttpClientAdapterTest {
         assertNotNull(httpClient);
     }
 
+    @Test
+    void testSetTimeoutDoesNotRebuildClient() {
+        OkHttpClient before = httpClient.getOkHttpClient();
+
+        httpClient.setTimeout(30);
+        httpClient.setTimeouts(Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofSeconds(15),
+                Duration.ofSeconds(20));
+
+        assertSame(before, httpClient.getOkHttpClient());
+        assertEquals(Duration.ofSeconds(5), httpClient.getConnectTimeout());
+        assertEquals(Duration.ofSeconds(10), httpClient.getReadTimeout());
+        assertEquals(Duration.ofSeconds(15), httpClient.getWriteTimeout());
+        assertEquals(Duration.ofSeconds(20), httpClient.getCallTimeout());
+    }
+
+    @Test
+    void testCallTimeoutAppliesPerCall() {
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("{\"id\": 1}")
+                .setHeadersDelay(2, TimeUnit.SECONDS));
+        httpClient.setTimeouts(Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(5),
+                Duration.ofMillis(300));
+
+        long start = System.nanoTime();
+        assertThrows(PaymobException.class, () -> httpClient.get("/slow", TestResponse.class, secretKeyAuth));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    void testWarmUpOpensPooledConnectionsWithoutAuth() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404));
+
+        int connections = httpClient.warmUp(mockWebServer.url("/"), 2);
+
+        assertTrue(connections >= 1);
+        RecordedRequest request = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("HEAD", request.getMethod());
+        assertNull(request.getHeader("Authorization"));
+    }
+
+    @Test
+    void testWarmUpFailsWhenHostIsUnreachable() throws IOException {
+        HttpUrl unreachable = mockWebServer.url("/");
+        mockWebServer.shutdown();
+
+        assertThrows(PaymobException.class, () -> httpClient.warmUp(unreachable, 1));
+    }
+
+    @Test
+    void testNewCoreAppliesConnectionSettings() {
+        OkHttpClient core = OkHttpClientAdapter.newCore(ConnectionSettings.builder()
+                .maxRequests(128)
+                .maxRequestsPerHost(96)
+                .protocols(Protocol.HTTP_1_1)
+                .build());
+        OkHttpClientAdapter adapter = new OkHttpClientAdapter(core, JsonCodec.shared());
+
+        assertEquals(128, adapter.getOkHttpClient().dispatcher().getMaxRequests());
+        assertEquals(96, adapter.getOkHttpClient().dispatcher().getMaxRequestsPerHost());
+        assertEquals(List.of(Protocol.HTTP_1_1), adapter.getOkHttpClient().protocols());
+        assertSame(core.connectionPool(), adapter.getOkHttpClient().connectionPool());
+    }
+
+    @Test
+    void testAsyncRetryIsScheduledNotSlept() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setBody("{\"id\": 7}"));
+        httpClient.setRetryPolicy(RetryPolicy.builder()
+                .initialBackoff(Duration.ofMillis(500))
+                .jitter(false)
+                .build());
+
+        CompletableFuture<TestResponse> future = httpClient.getAsync("/flaky", TestResponse.class, secretKeyAuth);
+        mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        Thread.sleep(200);
+
+        // During the backoff no dispatcher thread is held
+        assertFalse(future.isDone());
+        assertEquals(0, httpClient.getOkHttpClient().dispatcher().runningCallsCount());
+        assertEquals(7, future.get(5, TimeUnit.SECONDS).id);
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void testRetryAfterBeyondCallTimeoutIsNotAttempted() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "5"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "5"));
+        httpClient.setTimeouts(Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(5),
+                Duration.ofSeconds(1));
+
+        long start = System.nanoTime();
+        assertThrows(PaymobServerException.class, () -> httpClient.get("/busy", TestResponse.class, secretKeyAuth));
+        ExecutionException thrown = assertThrows(ExecutionException.class,
+                () -> httpClient.getAsync("/busy", TestResponse.class, secretKeyAuth).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(PaymobServerException.class, thrown.getCause());
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void testNoRetryPolicyFailsOnFirstServerError() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        httpClient.setRetryPolicy(RetryPolicy.none());
+
+        assertThrows(PaymobServerException.class, () -> httpClient.get("/down", TestResponse.class, secretKeyAuth));
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void testUnsafePostCarriesIdempotencyKeyAndIsNotRetriedOnServerError() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(502));
+
+        AmbiguousOutcomeException thrown = assertThrows(AmbiguousOutcomeException.class,
+                () -> httpClient.post("/api/acceptance/void_refund/refund", new TestRequestBody("x"),
+                        TestResponse.class, secretKeyAuth));
+
+        RecordedRequest request = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(request.getHeader(Idempotency.HEADER));
+        assertEquals(request.getHeader(Idempotency.HEADER), thrown.getIdempotencyKey());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void testKeyedBodyPinsIdempotencyKey() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("{\"id\": 1}"));
+
+        httpClient.post("/api/acceptance/capture", Idempotency.keyed(new TestRequestBody("x"), "fixed-key"),
+                TestResponse.class, secretKeyAuth);
+
+        RecordedRequest request = mockWebServer.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("fixed-key", request.getHeader(Idempotency.HEADER));
+        assertEquals("{\"data\":\"x\"}", request.getBody().readUtf8());
+    }
+
+    @Test
+    void testIdempotentPostIsStillRetried() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setBody("{\"id\": 3}"));
+        httpClient.setRetryPolicy(RetryPolicy.builder().initialBackoff(Duration.ZERO).build());
+
+        TestResponse response = httpClient.post("/api/ecommerce/orders/transaction_inquiry",
+                new TestRequestBody("x"), TestResponse.class, secretKeyAuth);
+
+        assertEquals(3, response.id);
+        assertNull(mockWebServer.takeRequest(1, TimeUnit.SECONDS).getHeader(Idempotency.HEADER));
+    }
+
+    @Test
+    void testOpenCircuitFailsFastWithoutSending() throws Exception {
+        httpClient.setRetryPolicy(RetryPolicy.none());
+        httpClient.setCircuitBreakerConfig(CircuitBreakerConfig.builder()
+                .slidingWindowSize(2)
+                .minimumCalls(2)
+                .build());
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+        for (int i = 0; i < 2; i++) {
+            assertThrows(PaymobServerException.class, () -> httpClient.get("/flaky", String.class, secretKeyAuth));
+        }
+
+        CallNotPermittedException sync = assertThrows(CallNotPermittedException.class,
+                () -> httpClient.get("/flaky", String.class, secretKeyAuth));
+        ExecutionException async = assertThrows(ExecutionException.class,
+                () -> httpClient.getAsync("/flaky", String.class, secretKeyAuth).get(5, TimeUnit.SECONDS));
+
+        assertEquals(CallNotPermittedException.Reason.CIRCUIT_OPEN, sync.getReason());
+        assertInstanceOf(CallNotPermittedException.class, async.getCause());
+        assertEquals(2, mockWebServer.getRequestCount());
+        assertEquals(CircuitBreaker.State.OPEN, httpClient.getCircuitBreakers().get("/flaky").getState());
+    }
+
+    @Test
+    void testTooManyRequestsMapsToRateLimitedException() {
+        httpClient.setRetryPolicy(RetryPolicy.none());
+        mockWebServer.enqueue(new MockResponse().setResponseCode(429).addHeader("Retry-After", "7"));
+
+        RateLimitedException thrown = assertThrows(RateLimitedException.class,
+                () -> httpClient.get("/busy", String.class, secretKeyAuth));
+
+        assertEquals(429, thrown.getHttpStatus());
+        assertEquals(Duration.ofSeconds(7), thrown.getRetryAfter());
+    }
+
+    @Test
+    void testRateLimitRejectsWithoutSendingWhenTokenIsTooFarOff() throws Exception {
+        httpClient.setRateLimits(Map.of(EndpointGroup.OTHER,
+                RateLimit.builder().permitsPerSecond(0.1).maxWait(Duration.ZERO).build()));
+        mockWebServer.enqueue(new MockResponse().setBody("ok"));
+
+        assertEquals("ok", httpClient.get("/limited", String.class, secretKeyAuth));
+        CallNotPermittedException sync = assertThrows(CallNotPermittedException.class,
+                () -> httpClient.get("/limited", String.class, secretKeyAuth));
+        ExecutionException async = assertThrows(ExecutionException.class,
+                () -> httpClient.getAsync("/limited", String.class, secretKeyAuth).get(5, TimeUnit.SECONDS));
+
+        assertEquals(CallNotPermittedException.Reason.RATE_LIMITED, sync.getReason());
+        assertInstanceOf(CallNotPermittedException.class, async.getCause());
+        assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void testAsyncCallWaitsForConcurrencySlotWithoutBlocking() throws Exception {
+        httpClient.setConcurrencyLimit(ConcurrencyLimit.builder().initialLimit(1).minLimit(1).build());
+        mockWebServer.enqueue(new MockResponse().setBody("first").setBodyDelay(300, TimeUnit.MILLISECONDS));
+        mockWebServer.enqueue(new MockResponse().setBody("second"));
+
+        CompletableFuture<String> first = httpClient.getAsync("/slow", String.class, secretKeyAuth);
+        CompletableFuture<String> second = httpClient.getAsync("/slow", String.class, secretKeyAuth);
+
+        assertNotNull(mockWebServer.takeRequest(1, TimeUnit.SECONDS));
+        assertNull(mockWebServer.takeRequest(100, TimeUnit.MILLISECONDS));
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        assertEquals("second", second.get(5, TimeUnit.SECONDS));
+        AdaptiveConcurrencyLimiter limiter = httpClient.getConcurrencyLimiters().get(EndpointGroup.OTHER);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testMetricsRecordEachAttemptAndRetry() throws Exception {
+        PaymobMetrics metrics = mock(PaymobMetrics.class);
+        httpClient.setMetrics(metrics);
+        httpClient.setRetryPolicy(RetryPolicy.builder().initialBackoff(Duration.ZERO).build());
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        mockWebServer.enqueue(new MockResponse().setBody("{\"id\": 9}"));
+        String template = "/api/acceptance/subscriptions/{id}";
+
+        httpClient.get("/api/acceptance/subscriptions/123", TestResponse.class, secretKeyAuth);
+
+        verify(metrics).recordCall(eq(template), eq("GET"), eq(503), anyLong());
+        verify(metrics).recordCall(eq(template), eq("GET"), eq(200), anyLong());
+        verify(metrics).recordRetry(template, 503);
+        verify(metrics).recordBytesReceived(template, 9);
+        verify(metrics).registerGauge(eq(PaymobMetrics.CONNECTIONS), any());
+        verify(metrics).registerGauge(eq(PaymobMetrics.QUEUED_CALLS), any());
+    }
+
+    @Test
+    void testAdapterSharingCoreLeavesGaugesToOwner() {
+        PaymobMetrics metrics = mock(PaymobMetrics.class);
+        OkHttpClientAdapter tenant = new OkHttpClientAdapter(httpClient.getOkHttpClient(), JsonCodec.shared());
+
+        tenant.setMetrics(metrics);
+
+        verify(metrics, never()).registerGauge(any(), any());
+    }
+
     // Test helper classes
     static class TestRequestBody {
         public String data;
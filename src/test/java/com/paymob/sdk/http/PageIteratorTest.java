@@ -0,0 +1,120 @@
+package com.paymob.sdk.http;
+
+import com.paymob.sdk.core.auth.AuthStrategy;
+import com.paymob.sdk.exceptions.PaymobException;
+import com.paymob.sdk.exceptions.ResourceNotFoundException;
+import com.paymob.sdk.services.subscription.SubscriptionResponse;
+import com.paymob.sdk.services.subscription.SubscriptionsPage;
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PageIteratorTest {
+
+    private static final HttpUrl FIRST = HttpUrl.get("https://accept.paymob.com/api/acceptance/subscriptions");
+
+    private HttpClient httpClient;
+    private AuthStrategy auth;
+
+    @BeforeEach
+    void setUp() {
+        httpClient = mock(HttpClient.class);
+        auth = mock(AuthStrategy.class);
+    }
+
+    @Test
+    void followsNextLinksAndPrefetchesOnePageAhead() {
+        page(FIRST, "https://accept.paymob.com/api/acceptance/subscriptions?page=2", 1, 2);
+        page(url("?page=2"), "/api/acceptance/subscriptions?page=3", 3);
+        page(url("?page=3"), null, 4, 5);
+
+        PageIterator<SubscriptionsPage, SubscriptionResponse> iterator = iterator();
+        verifyNoInteractions(httpClient);
+
+        assertEquals(1, iterator.next().getId());
+        // Page 2 is requested as soon as page 1 arrives, page 3 not yet
+        verify(httpClient).getAsync(url("?page=2"), SubscriptionsPage.class, auth, null);
+        verify(httpClient, never()).getAsync(url("?page=3"), SubscriptionsPage.class, auth, null);
+
+        List<Long> ids = new ArrayList<>();
+        iterator.forEachRemaining(sub -> ids.add(sub.getId()));
+        assertEquals(List.of(2L, 3L, 4L, 5L), ids);
+        verify(httpClient, times(3)).getAsync(any(HttpUrl.class), eq(SubscriptionsPage.class), same(auth), isNull());
+    }
+
+    @Test
+    void skipsEmptyPages() {
+        page(FIRST, "?page=2");
+        page(url("?page=2"), "", 7);
+
+        try (Stream<SubscriptionResponse> stream = iterator().stream()) {
+            assertEquals(List.of(7L), stream.map(SubscriptionResponse::getId).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void rejectsNextLinkToAnotherHost() {
+        page(FIRST, "https://attacker.example/api/acceptance/subscriptions?page=2", 1);
+
+        PageIterator<SubscriptionsPage, SubscriptionResponse> iterator = iterator();
+
+        assertThrows(PaymobException.class, iterator::hasNext);
+        verify(httpClient, times(1)).getAsync(any(HttpUrl.class), eq(SubscriptionsPage.class), same(auth), isNull());
+    }
+
+    @Test
+    void rethrowsPageFailureUnwrapped() {
+        ResourceNotFoundException failure = new ResourceNotFoundException("gone", "{}");
+        when(httpClient.getAsync(FIRST, SubscriptionsPage.class, auth, null))
+                .thenReturn(CompletableFuture.failedFuture(failure));
+
+        assertSame(failure, assertThrows(ResourceNotFoundException.class, iterator()::hasNext));
+    }
+
+    @Test
+    void closeCancelsPrefetch() {
+        page(FIRST, "?page=2", 1);
+        CompletableFuture<SubscriptionsPage> second = new CompletableFuture<>();
+        when(httpClient.getAsync(url("?page=2"), SubscriptionsPage.class, auth, null)).thenReturn(second);
+
+        Stream<SubscriptionResponse> stream = iterator().stream();
+        assertEquals(1, stream.iterator().next().getId());
+        stream.close();
+
+        assertTrue(second.isCancelled());
+    }
+
+    private PageIterator<SubscriptionsPage, SubscriptionResponse> iterator() {
+        return new PageIterator<>(httpClient, auth, FIRST, SubscriptionsPage.class, SubscriptionsPage::getResults,
+                SubscriptionsPage::getNext);
+    }
+
+    private void page(HttpUrl url, String next, int... ids) {
+        SubscriptionsPage page = new SubscriptionsPage();
+        page.setNext(next);
+        List<SubscriptionResponse> results = new ArrayList<>();
+        for (int id : ids) {
+            SubscriptionResponse sub = new SubscriptionResponse();
+            sub.setId(id);
+            results.add(sub);
+        }
+        page.setResults(results);
+        when(httpClient.getAsync(url, SubscriptionsPage.class, auth, null))
+                .thenReturn(CompletableFuture.completedFuture(page));
+    }
+
+    private static HttpUrl url(String query) {
+        return FIRST.resolve(query);
+    }
+}
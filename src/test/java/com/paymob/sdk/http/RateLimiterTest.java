@@ -0,0 +1,82 @@
+package com.paymob.sdk.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    @Test
+    void testBurstIsAvailableImmediately() {
+        RateLimiter limiter = new RateLimiter(RateLimit.of(1, 3));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.reserve(0));
+        }
+        assertEquals(-1, limiter.reserve(0));
+        assertEquals(1, limiter.getRejectedCalls());
+    }
+
+    @Test
+    void testReservationsQueueAtTheConfiguredRate() {
+        RateLimiter limiter = new RateLimiter(RateLimit.of(10, 1));
+        long second = TimeUnit.SECONDS.toNanos(1);
+
+        assertEquals(0, limiter.reserve(second));
+        long first = limiter.reserve(second);
+        long next = limiter.reserve(second);
+
+        assertTrue(first > TimeUnit.MILLISECONDS.toNanos(80) && first <= TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(next - first > TimeUnit.MILLISECONDS.toNanos(90));
+        assertTrue(limiter.getAvailablePermits() < 0);
+    }
+
+    @Test
+    void testRefusedReservationTakesNoToken() {
+        RateLimiter limiter = new RateLimiter(RateLimit.of(1, 1));
+        limiter.reserve(0);
+
+        assertEquals(-1, limiter.reserve(TimeUnit.MILLISECONDS.toNanos(100)));
+        assertTrue(limiter.getAvailablePermits() >= 0);
+    }
+
+    @Test
+    void testBlockingAcquireWaitsForToken() {
+        RateLimiter limiter = new RateLimiter(RateLimit.of(20, 1));
+        limiter.acquire(0);
+
+        long start = System.nanoTime();
+        assertTrue(limiter.acquire(TimeUnit.SECONDS.toNanos(1)));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(40));
+    }
+
+    @Test
+    void testAsyncAcquireCompletesFromScheduler() throws Exception {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            RateLimiter limiter = new RateLimiter(RateLimit.of(20, 1));
+            assertTrue(limiter.acquireAsync(0, scheduler).getNow(false));
+
+            CompletableFuture<Boolean> waiting = limiter.acquireAsync(TimeUnit.SECONDS.toNanos(1), scheduler);
+            assertFalse(waiting.isDone());
+            assertTrue(waiting.get(1, TimeUnit.SECONDS));
+            assertFalse(limiter.acquireAsync(0, scheduler).getNow(true));
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidLimitIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.of(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.of(1, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> RateLimit.builder().permitsPerSecond(1).maxWait(Duration.ofSeconds(-1)).build());
+    }
+}
@@ -0,0 +1,67 @@
+package com.paymob.sdk.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+
+    @Test
+    void testBackoffIsExponentialAndCapped() {
+        RetryPolicy policy = RetryPolicy.builder()
+                .initialBackoff(Duration.ofMillis(100))
+                .maxBackoff(Duration.ofMillis(350))
+                .jitter(false)
+                .build();
+
+        assertEquals(100, policy.backoffMillis(1));
+        assertEquals(200, policy.backoffMillis(2));
+        assertEquals(350, policy.backoffMillis(3));
+        assertEquals(350, policy.backoffMillis(64));
+    }
+
+    @Test
+    void testFullJitterStaysWithinCeiling() {
+        RetryPolicy policy = RetryPolicy.defaults();
+
+        for (int i = 0; i < 1_000; i++) {
+            long delay = policy.backoffMillis(2);
+            assertTrue(delay >= 0 && delay <= 2_000, "delay " + delay);
+        }
+    }
+
+    @Test
+    void testParsesRetryAfterSecondsAndDate() {
+        Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        assertEquals(3_000, RetryPolicy.parseRetryAfter("3", now));
+        assertEquals(10_000, RetryPolicy.parseRetryAfter("Mon, 01 Jan 2024 00:00:10 GMT", now));
+        assertEquals(0, RetryPolicy.parseRetryAfter("Sun, 31 Dec 2023 23:59:00 GMT", now));
+        assertEquals(-1, RetryPolicy.parseRetryAfter("soon", now));
+        assertEquals(-1, RetryPolicy.parseRetryAfter(null, now));
+    }
+
+    @Test
+    void testRetryableStatusesAndExceptions() {
+        RetryPolicy policy = RetryPolicy.defaults();
+
+        assertTrue(policy.isRetryable(503));
+        assertTrue(policy.isRetryable(429));
+        assertFalse(policy.isRetryable(404));
+        assertTrue(policy.isRetryable(new IOException("connection reset")));
+        assertFalse(policy.isRetryable(new IOException("SSL handshake aborted")));
+    }
+
+    @Test
+    void testInvalidPolicyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder().maxRetries(-1).build());
+        assertThrows(IllegalArgumentException.class, () -> RetryPolicy.builder()
+                .initialBackoff(Duration.ofSeconds(5))
+                .maxBackoff(Duration.ofSeconds(1))
+                .build());
+    }
+}
@@ -0,0 +1,112 @@
+package com.paymob.sdk.http.interceptors;
+
+import com.paymob.sdk.exceptions.CallNotPermittedException;
+import com.paymob.sdk.http.EndpointGroup;
+import okhttp3.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BulkheadInterceptorTest {
+
+    private BulkheadInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new BulkheadInterceptor();
+        interceptor.setLimits(Map.of(EndpointGroup.SUBSCRIPTIONS, 1));
+    }
+
+    @Test
+    void intercept_fullGroup_rejectsWithoutTouchingOtherGroups() throws Exception {
+        CountDownLatch inFlight = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Interceptor.Chain slow = chain("/api/acceptance/subscriptions/1", invocation -> {
+            inFlight.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return response(invocation.getArgument(0));
+        });
+        Thread admin = new Thread(() -> {
+            try {
+                interceptor.intercept(slow).close();
+            } catch (IOException e) {
+                fail(e);
+            }
+        });
+        admin.start();
+        assertTrue(inFlight.await(5, TimeUnit.SECONDS));
+
+        RejectedCallException rejected = assertThrows(RejectedCallException.class,
+                () -> interceptor.intercept(chain("/api/acceptance/subscriptions/2", i -> response(i.getArgument(0)))));
+        Response checkout = interceptor.intercept(chain("/v1/intention/", i -> response(i.getArgument(0))));
+
+        assertEquals(CallNotPermittedException.Reason.BULKHEAD_FULL, rejected.getRejection().getReason());
+        assertEquals(200, checkout.code());
+        assertEquals(1, interceptor.getBulkheads().get(EndpointGroup.SUBSCRIPTIONS).getRejectedCalls());
+        release.countDown();
+        admin.join();
+        assertEquals(0, interceptor.getBulkheads().get(EndpointGroup.SUBSCRIPTIONS).getConcurrentCalls());
+    }
+
+    @Test
+    void intercept_holdsPermitUntilBodyIsClosed() throws IOException {
+        Response response = interceptor.intercept(
+                chain("/api/acceptance/subscriptions/1", i -> response(i.getArgument(0))));
+
+        assertEquals(1, interceptor.getBulkheads().get(EndpointGroup.SUBSCRIPTIONS).getConcurrentCalls());
+        assertThrows(RejectedCallException.class, () -> interceptor.intercept(
+                chain("/api/acceptance/subscriptions/2", i -> response(i.getArgument(0)))));
+
+        response.close();
+        response.close();
+
+        assertEquals(0, interceptor.getBulkheads().get(EndpointGroup.SUBSCRIPTIONS).getConcurrentCalls());
+    }
+
+    @Test
+    void intercept_releasesPermitWhenBodyIsReadToTheEnd() throws IOException {
+        Response response = interceptor.intercept(
+                chain("/api/acceptance/subscriptions/1", i -> response(i.getArgument(0))));
+
+        assertEquals("{}", response.body().source().readUtf8());
+
+        assertEquals(0, interceptor.getBulkheads().get(EndpointGroup.SUBSCRIPTIONS).getConcurrentCalls());
+    }
+
+    @Test
+    void intercept_failedCall_releasesPermit() throws IOException {
+        Interceptor.Chain failing = chain("/api/acceptance/subscriptions/1", i -> {
+            throw new IOException("reset");
+        });
+
+        assertThrows(IOException.class, () -> interceptor.intercept(failing));
+
+        assertEquals(0, interceptor.getBulkheads().get(EndpointGroup.SUBSCRIPTIONS).getConcurrentCalls());
+    }
+
+    private static Interceptor.Chain chain(String path, org.mockito.stubbing.Answer<Response> answer)
+            throws IOException {
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        Request request = new Request.Builder().url("https://accept.paymob.com" + path).build();
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(any(Request.class))).thenAnswer(answer);
+        return chain;
+    }
+
+    private static Response response(Request request) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create("{}", MediaType.parse("application/json")))
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.paymob.sdk.http.interceptors;
+
+import com.paymob.sdk.exceptions.CallNotPermittedException;
+import com.paymob.sdk.http.CircuitBreaker;
+import com.paymob.sdk.http.CircuitBreakerConfig;
+import okhttp3.*;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CircuitBreakerInterceptorTest {
+
+    private CircuitBreakerInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new CircuitBreakerInterceptor();
+        interceptor.setConfig(CircuitBreakerConfig.builder()
+                .slidingWindowSize(4)
+                .minimumCalls(4)
+                .build());
+    }
+
+    @Test
+    void intercept_failingEndpoint_opensOnlyItsTemplate() throws IOException {
+        for (int i = 0; i < 4; i++) {
+            Interceptor.Chain chain = chain("/api/acceptance/subscriptions/" + i + "/suspend", 503);
+            interceptor.intercept(chain).close();
+        }
+
+        RejectedCallException rejected = assertThrows(RejectedCallException.class,
+                () -> interceptor.intercept(chain("/api/acceptance/subscriptions/99/suspend", 200)));
+        Response other = interceptor.intercept(chain("/api/acceptance/subscriptions/99/resume", 200));
+
+        assertEquals(CallNotPermittedException.Reason.CIRCUIT_OPEN, rejected.getRejection().getReason());
+        assertEquals("/api/acceptance/subscriptions/{id}/suspend", rejected.getRejection().getEndpoint());
+        assertEquals(200, other.code());
+        assertEquals(CircuitBreaker.State.OPEN,
+                interceptor.getCircuitBreakers().get("/api/acceptance/subscriptions/{id}/suspend").getState());
+    }
+
+    @Test
+    void intercept_ioException_countsAsFailure() throws IOException {
+        Interceptor.Chain chain = chain("/api/acceptance/capture", 200);
+        when(chain.proceed(any(Request.class))).thenThrow(new IOException("reset"));
+
+        assertThrows(IOException.class, () -> interceptor.intercept(chain));
+        assertEquals(1, interceptor.getCircuitBreakers().get("/api/acceptance/capture").getBufferedCalls());
+    }
+
+    @Test
+    void intercept_recordsOutcomeWhenBodyIsClosed() throws IOException {
+        Response response = interceptor.intercept(chain("/api/acceptance/capture", 200));
+        CircuitBreaker breaker = interceptor.getCircuitBreakers().get("/api/acceptance/capture");
+
+        assertEquals(0, breaker.getBufferedCalls());
+        response.close();
+        response.close();
+
+        assertEquals(1, breaker.getBufferedCalls());
+    }
+
+    @Test
+    void intercept_slowBodyDownload_countsAsSlowCall() throws Exception {
+        interceptor.setConfig(CircuitBreakerConfig.builder()
+                .slidingWindowSize(1)
+                .minimumCalls(1)
+                .slowCallDuration(Duration.ofMillis(50))
+                .build());
+
+        try (Response response = interceptor.intercept(chain("/api/acceptance/capture", 200))) {
+            Thread.sleep(100);
+            response.body().string();
+        }
+
+        assertEquals(100f, interceptor.getCircuitBreakers().get("/api/acceptance/capture").getSlowCallRate());
+    }
+
+    @Test
+    void intercept_bodyReadFailure_countsAsFailure() throws IOException {
+        interceptor.setConfig(CircuitBreakerConfig.builder()
+                .slidingWindowSize(1)
+                .minimumCalls(1)
+                .build());
+        Interceptor.Chain chain = chain("/api/acceptance/capture", 200);
+        Request request = chain.request();
+        when(chain.proceed(any(Request.class))).thenReturn(new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create(Okio.buffer(new ForwardingSource(new Buffer()) {
+                    @Override
+                    public long read(Buffer sink, long byteCount) throws IOException {
+                        throw new IOException("unexpected end of stream");
+                    }
+                }), MediaType.parse("application/json"), -1))
+                .build());
+
+        try (Response response = interceptor.intercept(chain)) {
+            assertThrows(IOException.class, () -> response.body().string());
+        }
+
+        assertEquals(100f, interceptor.getCircuitBreakers().get("/api/acceptance/capture").getFailureRate());
+    }
+
+    @Test
+    void intercept_disabled_passesThrough() throws IOException {
+        interceptor.setConfig(CircuitBreakerConfig.disabled());
+
+        interceptor.intercept(chain("/api/acceptance/capture", 500));
+
+        assertTrue(interceptor.getCircuitBreakers().isEmpty());
+    }
+
+    private static Interceptor.Chain chain(String path, int code) throws IOException {
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        Request request = new Request.Builder().url("https://accept.paymob.com" + path).build();
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(any(Request.class))).thenReturn(new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("Message")
+                .body(ResponseBody.create("{}", MediaType.parse("application/json")))
+                .build());
+        return chain;
+    }
+}
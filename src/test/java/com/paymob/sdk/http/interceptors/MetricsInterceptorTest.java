@@ -0,0 +1,80 @@
+package com.paymob.sdk.http.interceptors;
+
+import com.paymob.sdk.metrics.PaymobMetrics;
+import okhttp3.*;
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MetricsInterceptorTest {
+    private static final String TEMPLATE = "/api/acceptance/subscriptions/{id}/suspend";
+
+    @Test
+    void intercept_recordsStatusLatencyAndBytesPerTemplate() throws Exception {
+        PaymobMetrics metrics = mock(PaymobMetrics.class);
+        MetricsInterceptor interceptor = new MetricsInterceptor(() -> metrics);
+        Interceptor.Chain chain = chain(RequestBody.create("{\"a\":1}", MediaType.get("application/json")));
+        when(chain.proceed(any(Request.class))).thenAnswer(i -> response(i.getArgument(0), 201,
+                ResponseBody.create("{}", MediaType.get("application/json"))));
+
+        interceptor.intercept(chain).close();
+
+        verify(metrics).recordCall(eq(TEMPLATE), eq("POST"), eq(201), anyLong());
+        verify(metrics).recordBytesSent(TEMPLATE, 7);
+        verify(metrics).recordBytesReceived(TEMPLATE, 2);
+    }
+
+    @Test
+    void intercept_chunkedBody_countsBytesAsTheyAreRead() throws Exception {
+        PaymobMetrics metrics = mock(PaymobMetrics.class);
+        MetricsInterceptor interceptor = new MetricsInterceptor(() -> metrics);
+        Interceptor.Chain chain = chain(null);
+        when(chain.proceed(any(Request.class))).thenAnswer(i -> response(i.getArgument(0), 200,
+                ResponseBody.create(new Buffer().writeUtf8("hello"), null, -1)));
+
+        Response response = interceptor.intercept(chain);
+        verify(metrics, never()).recordBytesReceived(anyString(), anyLong());
+        assertEquals("hello", response.body().string());
+
+        verify(metrics, times(1)).recordBytesReceived(TEMPLATE, 5);
+    }
+
+    @Test
+    void intercept_ioFailure_recordsStatusZero() throws Exception {
+        PaymobMetrics metrics = mock(PaymobMetrics.class);
+        MetricsInterceptor interceptor = new MetricsInterceptor(() -> metrics);
+        Interceptor.Chain chain = chain(null);
+        when(chain.proceed(any(Request.class))).thenThrow(new ConnectException("refused"));
+
+        assertThrows(IOException.class, () -> interceptor.intercept(chain));
+
+        verify(metrics).recordCall(eq(TEMPLATE), eq("GET"), eq(0), anyLong());
+    }
+
+    private static Interceptor.Chain chain(RequestBody body) {
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        Request request = new Request.Builder()
+                .url("https://accept.paymob.com/api/acceptance/subscriptions/42/suspend")
+                .method(body != null ? "POST" : "GET", body)
+                .build();
+        when(chain.request()).thenReturn(request);
+        return chain;
+    }
+
+    private static Response response(Request request, int code, ResponseBody body) {
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("OK")
+                .body(body)
+                .build();
+    }
+}
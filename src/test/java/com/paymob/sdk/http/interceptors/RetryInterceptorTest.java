@@ -1,5 +1,6 @@
 package com.paymob.sdk.http.interceptors;
 
+import com.paymob.sdk.http.RetryPolicy;
 import okhttp3.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -93,4 +94,28 @@ class RetryInterceptorTest {
         assertThrows(IOException.class, () -> interceptor.intercept(chain));
         verify(chain, times(4)).proceed(any(Request.class)); // 1 initial + 3 retries
     }
+
+    @Test
+    void intercept_requestTagOverridesPolicy() throws IOException {
+        Request noRetries = request.newBuilder().tag(RetryPolicy.class, RetryPolicy.none()).build();
+        when(chain.request()).thenReturn(noRetries);
+        when(chain.proceed(any(Request.class))).thenReturn(createResponse(503));
+
+        Response response = interceptor.intercept(chain);
+
+        assertEquals(503, response.code());
+        verify(chain, times(1)).proceed(any(Request.class));
+    }
+
+    @Test
+    void intercept_usesConfiguredPolicy() throws IOException {
+        interceptor = new RetryInterceptor(() -> RetryPolicy.builder()
+                .maxRetries(1)
+                .initialBackoff(java.time.Duration.ZERO)
+                .build());
+        when(chain.proceed(any(Request.class))).thenThrow(new IOException("reset"));
+
+        assertThrows(IOException.class, () -> interceptor.intercept(chain));
+        verify(chain, times(2)).proceed(any(Request.class));
+    }
 }
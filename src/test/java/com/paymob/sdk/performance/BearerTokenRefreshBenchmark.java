@@ -0,0 +1,119 @@
+package com.paymob.sdk.performance;
+
+import com.paymob.sdk.core.auth.AuthStrategy;
+import com.paymob.sdk.core.auth.BearerTokenAuthStrategy;
+import com.paymob.sdk.http.HttpClient;
+import com.paymob.sdk.models.enums.LogLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading the bearer authorization header from several threads, once
+ * with a fresh token and once while a renewal is stuck in flight. Both should
+ * cost the same: readers inside the expiry buffer keep the current token and
+ * never wait for the login.
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="BearerTokenRefresh -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class BearerTokenRefreshBenchmark {
+    private final CountDownLatch releaseLogin = new CountDownLatch(1);
+    private BearerTokenAuthStrategy fresh;
+    private BearerTokenAuthStrategy renewing;
+
+    @Setup
+    public void setUp() {
+        HttpClient hangingLogin = new HangingLoginClient(releaseLogin);
+        fresh = new BearerTokenAuthStrategy("ak_bench", "https://accept.paymob.com", hangingLogin);
+        fresh.setBearerToken("fresh_token", Instant.now().plusSeconds(3600));
+        renewing = new BearerTokenAuthStrategy("ak_bench", "https://accept.paymob.com", hangingLogin);
+        // Valid, but inside the expiry buffer: the first read starts a login that never returns
+        renewing.setBearerToken("old_token", Instant.now().plusSeconds(120));
+    }
+
+    @TearDown
+    public void tearDown() {
+        releaseLogin.countDown();
+        fresh.close();
+        renewing.close();
+    }
+
+    @Benchmark
+    public String freshToken() {
+        return fresh.getAuthorizationHeader();
+    }
+
+    @Benchmark
+    public String duringRenewal() {
+        return renewing.getAuthorizationHeader();
+    }
+
+    /** Token endpoint that hangs until the benchmark tears down. */
+    private static final class HangingLoginClient implements HttpClient {
+        private final CountDownLatch release;
+
+        HangingLoginClient(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public <T> T post(String endpoint, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy) {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("Login released");
+        }
+
+        @Override
+        public <T> T get(String endpoint, Class<T> responseClass, AuthStrategy authStrategy) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T put(String endpoint, Object requestBody, Class<T> responseClass, AuthStrategy authStrategy) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T delete(String endpoint, Class<T> responseClass, AuthStrategy authStrategy) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        @Deprecated
+        public void setBaseUrl(String baseUrl) {
+        }
+
+        @Override
+        public void setTimeout(int timeoutSeconds) {
+        }
+
+        @Override
+        public void setLogLevel(LogLevel logLevel) {
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.paymob.sdk.performance;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymob.sdk.services.subscription.SubscriptionsPage;
+import com.paymob.sdk.services.transaction.TransactionResponse;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares binding a success body through an intermediate String against
+ * streaming it from {@link ResponseBody#byteStream()}.
+ * <p>
+ * Run with the GC profiler to see allocation per call
+ * ({@code gc.alloc.rate.norm}):
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="ResponseDeserialization -prof gc"
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseDeserializationBenchmark {
+    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+    @Param({ "transaction", "subscriptionsPage" })
+    public String payload;
+
+    private ObjectMapper objectMapper;
+    private byte[] bytes;
+    private Class<?> responseClass;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        if ("transaction".equals(payload)) {
+            bytes = transactionJson().getBytes(StandardCharsets.UTF_8);
+            responseClass = TransactionResponse.class;
+        } else {
+            bytes = subscriptionsPageJson(200).getBytes(StandardCharsets.UTF_8);
+            responseClass = SubscriptionsPage.class;
+        }
+    }
+
+    @Benchmark
+    public Object viaString() throws IOException {
+        ResponseBody body = ResponseBody.create(bytes, JSON);
+        return objectMapper.readValue(body.string(), responseClass);
+    }
+
+    @Benchmark
+    public Object viaByteStream() throws IOException {
+        ResponseBody body = ResponseBody.create(bytes, JSON);
+        try (InputStream in = body.byteStream()) {
+            return objectMapper.readValue(in, responseClass);
+        }
+    }
+
+    static String transactionJson() {
+        StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 60; i++) {
+            if (i > 0) {
+                data.append(',');
+            }
+            data.append("\"field_").append(i).append("\":\"value with some text ").append(i).append('"');
+        }
+        return "{\"id\":192031,\"pending\":false,\"amount_cents\":100000,\"success\":true,\"is_auth\":false,"
+                + "\"is_capture\":false,\"is_standalone_payment\":true,\"is_voided\":false,\"is_refunded\":true,"
+                + "\"is_3d_secure\":true,\"integration_id\":4097558,\"profile_id\":164295,"
+                + "\"has_parent_transaction\":true,\"created_at\":\"2025-01-20T10:15:30.000000+02:00\","
+                + "\"currency\":\"EGP\",\"error_occured\":false,\"is_live\":false,"
+                + "\"merchant_order_id\":\"order-8842\",\"message\":\"Refunded\","
+                + "\"source_data\":{\"pan\":\"2346\",\"type\":\"card\",\"sub_type\":\"MasterCard\"},"
+                + "\"order\":{\"id\":217503754,\"created_at\":\"2025-01-20T10:14:02.000000+02:00\","
+                + "\"amount_cents\":100000,\"currency\":\"EGP\",\"merchant_order_id\":\"order-8842\"},"
+                + "\"data\":{" + data + "}}";
+    }
+
+    static String subscriptionsPageJson(int results) {
+        StringBuilder sb = new StringBuilder(
+                "{\"next\":\"https://accept.paymob.com/api/acceptance/subscriptions?page=2\",\"previous\":null,"
+                        + "\"results\":[");
+        for (int i = 0; i < results; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{\"id\":").append(1000 + i)
+                    .append(",\"state\":\"active\",\"frequency\":30,\"amount_cents\":25000,\"plan_id\":77,")
+                    .append("\"starts_at\":\"2025-01-01\",\"next_billing\":\"2025-02-01\",")
+                    .append("\"reminder_date\":\"2025-01-29\",\"ends_at\":\"2026-01-01\"}");
+        }
+        return sb.append("]}").toString();
+    }
+}
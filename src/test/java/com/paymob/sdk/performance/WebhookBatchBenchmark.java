@@ -0,0 +1,111 @@
+package com.paymob.sdk.performance;
+
+import com.paymob.sdk.webhook.RawWebhook;
+import com.paymob.sdk.webhook.WebhookValidator;
+import com.paymob.sdk.webhook.WebhookVerification;
+import com.paymob.sdk.webhook.signature.TransactionSignatureCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies a batch of one million transaction webhooks one by one with
+ * {@link WebhookValidator#validateAndParse}, in parallel with compact
+ * results, and in parallel with parsed events that are consumed as they are
+ * produced. The batch repeats 1024 distinct signed payloads so it fits in a
+ * small heap. The speedup of the parallel variants is bounded by the number
+ * of processors.
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="WebhookBatch -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WebhookBatchBenchmark {
+    private static final String SECRET = "0A1B2C3D4E5F60718293A4B5C6D7E8F9";
+    private static final int DISTINCT = 1024;
+
+    @Param("1000000")
+    private int size;
+
+    private WebhookValidator validator;
+    private List<RawWebhook> batch;
+
+    @Setup
+    public void setUp() throws Exception {
+        TransactionSignatureCalculator calculator = new TransactionSignatureCalculator();
+        RawWebhook[] distinct = new RawWebhook[DISTINCT];
+        for (int i = 0; i < DISTINCT; i++) {
+            String payload = "{\"type\":\"TRANSACTION\",\"obj\":" + ResponseDeserializationBenchmark.transactionJson()
+                    + ",\"sequence\":" + i + "}";
+            distinct[i] = new RawWebhook(payload, calculator.calculateExpectedHmac(payload, SECRET));
+        }
+        validator = new WebhookValidator(SECRET);
+        batch = new Repeating(distinct, size);
+    }
+
+    @Benchmark
+    public long sequentialEvents() {
+        long valid = 0;
+        for (RawWebhook webhook : batch) {
+            if (validator.validateAndParse(webhook.getPayload(), webhook.getHmac()) != null) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public List<WebhookVerification> parallelCompact() {
+        return validator.validateAndParseAll(batch);
+    }
+
+    @Benchmark
+    public long parallelEvents() {
+        return validator.validateAndParseStream(batch.stream(), true)
+                .filter(result -> result.getEvent() != null)
+                .count();
+    }
+
+    /**
+     * Read-only list cycling through a few webhooks, so a million-entry batch
+     * does not hold a million payloads.
+     */
+    private static final class Repeating extends AbstractList<RawWebhook> implements RandomAccess {
+        private final RawWebhook[] webhooks;
+        private final int size;
+
+        Repeating(RawWebhook[] webhooks, int size) {
+            this.webhooks = webhooks;
+            this.size = size;
+        }
+
+        @Override
+        public RawWebhook get(int index) {
+            return webhooks[index % webhooks.length];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.paymob.sdk.performance;
+
+import com.paymob.sdk.services.transaction.TransactionResponse;
+import com.paymob.sdk.webhook.WebhookEvent;
+import com.paymob.sdk.webhook.WebhookValidator;
+import com.paymob.sdk.webhook.signature.TransactionSignatureCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ways of getting a {@link TransactionResponse} out of a verified
+ * transaction webhook: through a parsed {@link WebhookEvent}, read once or
+ * three times, and bound straight from the body bytes.
+ * <p>
+ * Run with the GC profiler to see allocation per call
+ * ({@code gc.alloc.rate.norm}):
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="WebhookBinding -prof gc"
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookBindingBenchmark {
+    private static final String SECRET = "0A1B2C3D4E5F60718293A4B5C6D7E8F9";
+
+    private String payload;
+    private byte[] body;
+    private String hmac;
+    private WebhookValidator validator;
+
+    @Setup
+    public void setUp() throws Exception {
+        payload = "{\"type\":\"TRANSACTION\",\"obj\":" + ResponseDeserializationBenchmark.transactionJson() + "}";
+        body = payload.getBytes(StandardCharsets.UTF_8);
+        hmac = new TransactionSignatureCalculator().calculateExpectedHmac(payload, SECRET);
+        validator = new WebhookValidator(SECRET);
+    }
+
+    @Benchmark
+    public TransactionResponse eventOnce() {
+        return validator.validateAndParse(payload, hmac).asTransaction();
+    }
+
+    @Benchmark
+    public long eventThreeReads() {
+        WebhookEvent event = validator.validateAndParse(payload, hmac);
+        return event.asTransaction().getId() + event.asTransaction().getAmountCents()
+                + event.getData(TransactionResponse.class).getIntegrationId();
+    }
+
+    @Benchmark
+    public TransactionResponse boundFromBytes() {
+        return validator.validateAndBind(body, hmac, TransactionResponse.class);
+    }
+}
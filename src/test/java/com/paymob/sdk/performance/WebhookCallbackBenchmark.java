@@ -0,0 +1,116 @@
+package com.paymob.sdk.performance;
+
+import com.paymob.sdk.webhook.WebhookHmac;
+import com.paymob.sdk.webhook.WebhookValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares validating a transaction redirect callback by building the
+ * concatenated string from a parameter map, as before, against the
+ * precompiled spec on the same map, and against the raw query string with no
+ * map at all. The map variants include decoding the query into the map, as a
+ * web framework does before the handler runs.
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="WebhookCallback -prof gc"
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookCallbackBenchmark {
+    private static final String SECRET = "0A1B2C3D4E5F60718293A4B5C6D7E8F9";
+    private static final String[] FIELDS = {
+            "amount_cents", "created_at", "currency", "error_occured", "has_parent_transaction",
+            "id", "integration_id", "is_3d_secure", "is_auth", "is_capture", "is_refunded",
+            "is_standalone_payment", "is_voided", "order_id", "owner", "pending",
+            "source_data.pan", "source_data.sub_type", "source_data.type", "success"
+    };
+
+    private WebhookValidator validator;
+    private WebhookHmac hmac;
+    private String query;
+
+    @Setup
+    public void setUp() {
+        validator = new WebhookValidator(SECRET);
+        hmac = new WebhookHmac(SECRET);
+        String unsigned = "amount_cents=100000&created_at=2024-06-13T11%3A33%3A44.592345&currency=EGP"
+                + "&error_occured=false&has_parent_transaction=false&id=192036465&integration_id=4097558"
+                + "&is_3d_secure=true&is_auth=false&is_capture=false&is_refunded=false"
+                + "&is_standalone_payment=true&is_voided=false&order=217503754&owner=302852&pending=false"
+                + "&source_data.pan=2346&source_data.sub_type=MasterCard&source_data.type=card&success=true"
+                + "&data.message=Approved&merchant_order_id=order-42";
+        query = unsigned + "&hmac=" + hmac.hex(concatenation(parse(unsigned)));
+        if (!validator.validateCallbackSignature(query) || !concatenated() || !mapSpec()) {
+            throw new IllegalStateException("Benchmark callback does not verify");
+        }
+    }
+
+    @Benchmark
+    public boolean concatenated() {
+        Map<String, String> params = parse(query);
+        return hmac.matches(concatenation(params), params.get("hmac"));
+    }
+
+    @Benchmark
+    public boolean mapSpec() {
+        Map<String, String> params = parse(query);
+        return validator.validateCallbackSignature(params, params.get("hmac"));
+    }
+
+    @Benchmark
+    public boolean rawQuery() {
+        return validator.validateCallbackSignature(query);
+    }
+
+    private static Map<String, String> parse(String query) {
+        Map<String, String> params = new HashMap<>();
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            params.putIfAbsent(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    /** The concatenation {@code WebhookValidator} built before the precompiled specs. */
+    private static String concatenation(Map<String, String> params) {
+        StringBuilder concatenated = new StringBuilder();
+        for (String field : FIELDS) {
+            String value = params.get(field);
+            if (value == null && "order_id".equals(field)) {
+                value = params.get("order.id");
+                if (value == null) {
+                    value = params.get("order");
+                }
+            }
+            if (value == null && "id".equals(field)) {
+                value = params.get("obj.id");
+            }
+            if (value == null) {
+                value = "";
+            }
+            concatenated.append(value);
+        }
+        return concatenated.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package com.paymob.sdk.performance;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.paymob.sdk.http.JsonCodec;
+import com.paymob.sdk.webhook.WebhookClassifier;
+import com.paymob.sdk.webhook.WebhookEventType;
+import com.paymob.sdk.webhook.WebhookFamily;
+import com.paymob.sdk.webhook.WebhookSignatureCalculator;
+import com.paymob.sdk.webhook.signature.CardTokenSignatureCalculator;
+import com.paymob.sdk.webhook.signature.SubscriptionSignatureCalculator;
+import com.paymob.sdk.webhook.signature.TransactionSignatureCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares choosing a card token webhook's calculator by asking each one in
+ * turn against the table-driven {@link WebhookClassifier}, and looking up a
+ * subscription trigger type by scanning the enum against the map.
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="WebhookClassifier"
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookClassifierBenchmark {
+    private JsonNode root;
+    private List<WebhookSignatureCalculator> calculators;
+
+    @Setup
+    public void setUp() throws Exception {
+        root = JsonCodec.shared().readTree("{\"type\":\"TOKEN\",\"obj\":{\"id\":789,\"token\":\"abc\","
+                + "\"masked_pan\":\"xxxx-xxxx-xxxx-1234\",\"card_subtype\":\"Visa\"}}");
+        calculators = List.of(new TransactionSignatureCalculator(), new SubscriptionSignatureCalculator(),
+                new CardTokenSignatureCalculator());
+    }
+
+    @Benchmark
+    public WebhookSignatureCalculator scanCalculators() {
+        for (WebhookSignatureCalculator calculator : calculators) {
+            if (calculator.canHandleTree(root)) {
+                return calculator;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public WebhookFamily classifyTree() {
+        return WebhookClassifier.classify(root);
+    }
+
+    @Benchmark
+    public WebhookEventType triggerTypeScan() {
+        for (WebhookEventType type : WebhookEventType.values()) {
+            if (type.getValue().equals("Failed Overdue Transaction")) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public WebhookEventType triggerTypeLookup() {
+        return WebhookEventType.fromTriggerType("Failed Overdue Transaction");
+    }
+}
@@ -0,0 +1,76 @@
+package com.paymob.sdk.performance;
+
+import com.paymob.sdk.services.transaction.TransactionResponse;
+import com.paymob.sdk.webhook.WebhookEvent;
+import com.paymob.sdk.webhook.WebhookValidator;
+import com.paymob.sdk.webhook.dedup.CaffeineWebhookDeduplicator;
+import com.paymob.sdk.webhook.dedup.CompactWebhookDeduplicator;
+import com.paymob.sdk.webhook.signature.TransactionSignatureCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares receiving a redelivered transaction webhook with and without a
+ * deduplicator. Without one the event is parsed and bound again; with one it
+ * is dropped after the streaming signature check.
+ * <p>
+ * Run with the GC profiler to see allocation per call
+ * ({@code gc.alloc.rate.norm}):
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="WebhookDeduplication -prof gc"
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookDeduplicationBenchmark {
+    private static final String SECRET = "0A1B2C3D4E5F60718293A4B5C6D7E8F9";
+
+    private String payload;
+    private String hmac;
+    private WebhookValidator plain;
+    private WebhookValidator caffeine;
+    private WebhookValidator compact;
+
+    @Setup
+    public void setUp() throws Exception {
+        payload = "{\"type\":\"TRANSACTION\",\"obj\":" + ResponseDeserializationBenchmark.transactionJson() + "}";
+        hmac = new TransactionSignatureCalculator().calculateExpectedHmac(payload, SECRET);
+        plain = new WebhookValidator(SECRET);
+        caffeine = new WebhookValidator(SECRET, new CaffeineWebhookDeduplicator(Duration.ofHours(1), 100_000));
+        compact = new WebhookValidator(SECRET, new CompactWebhookDeduplicator(Duration.ofHours(1), 1 << 17));
+        caffeine.validateAndParse(payload, hmac);
+        compact.validateAndParse(payload, hmac);
+    }
+
+    @Benchmark
+    public Object reparsed() {
+        WebhookEvent event = plain.validateAndParse(payload, hmac);
+        return event.getData(TransactionResponse.class);
+    }
+
+    @Benchmark
+    public boolean droppedByCaffeine() {
+        return caffeine.validateAndParse(payload, hmac).isDuplicate();
+    }
+
+    @Benchmark
+    public boolean droppedByCompact() {
+        return compact.validateAndParse(payload, hmac).isDuplicate();
+    }
+}
@@ -0,0 +1,70 @@
+package com.paymob.sdk.performance;
+
+import com.paymob.sdk.webhook.WebhookHmac;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares verifying a webhook signature with a new {@link Mac} and key per
+ * call, hex-formatting and re-parsing the digest, against a reused
+ * {@link WebhookHmac}.
+ * <p>
+ * Run with the GC profiler to see allocation per call
+ * ({@code gc.alloc.rate.norm}):
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="WebhookHmac -prof gc"
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookHmacBenchmark {
+    private static final String SECRET = "0A1B2C3D4E5F60718293A4B5C6D7E8F9";
+
+    private String concatenated;
+    private String receivedHmac;
+    private WebhookHmac hmac;
+
+    @Setup
+    public void setUp() {
+        // The 20 transaction fields Paymob signs, concatenated
+        concatenated = "1000002025-01-20T10:15:30.000000+02:00EGPfalsetrue1920314097558truefalsefalsetrue"
+                + "truefalse217503754164295false2346MasterCardcardtrue";
+        hmac = new WebhookHmac(SECRET);
+        receivedHmac = hmac.hex(concatenated);
+    }
+
+    @Benchmark
+    public boolean perCallMac() throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA512");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA512"));
+        String expected = HexFormat.of().formatHex(mac.doFinal(concatenated.getBytes(StandardCharsets.UTF_8)))
+                .toLowerCase();
+        return MessageDigest.isEqual(HexFormat.of().parseHex(expected),
+                HexFormat.of().parseHex(receivedHmac.toLowerCase()));
+    }
+
+    @Benchmark
+    public boolean reusedMac() {
+        return hmac.matches(concatenated, receivedHmac);
+    }
+}
@@ -0,0 +1,65 @@
+package com.paymob.sdk.performance;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.paymob.sdk.http.JsonCodec;
+import com.paymob.sdk.webhook.WebhookHmac;
+import com.paymob.sdk.webhook.WebhookValidator;
+import com.paymob.sdk.webhook.signature.TransactionSignatureCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rejecting a transaction webhook with a forged signature by building
+ * a tree first against reading the signed fields from the token stream.
+ * <p>
+ * Run with the GC profiler to see allocation per call
+ * ({@code gc.alloc.rate.norm}):
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="WebhookRejection -prof gc"
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookRejectionBenchmark {
+    private static final String SECRET = "0A1B2C3D4E5F60718293A4B5C6D7E8F9";
+    private static final String FORGED = "ab".repeat(64);
+
+    private String payload;
+    private WebhookHmac hmac;
+    private TransactionSignatureCalculator calculator;
+    private WebhookValidator validator;
+
+    @Setup
+    public void setUp() {
+        payload = "{\"type\":\"TRANSACTION\",\"obj\":" + ResponseDeserializationBenchmark.transactionJson() + "}";
+        hmac = new WebhookHmac(SECRET);
+        calculator = new TransactionSignatureCalculator();
+        validator = new WebhookValidator(SECRET);
+    }
+
+    @Benchmark
+    public boolean viaTree() throws Exception {
+        JsonNode root = JsonCodec.shared().readTree(payload);
+        return calculator.canHandleTree(root) && calculator.verify(root, hmac, FORGED);
+    }
+
+    @Benchmark
+    public boolean viaStream() {
+        return validator.validateSignature(payload, FORGED);
+    }
+}
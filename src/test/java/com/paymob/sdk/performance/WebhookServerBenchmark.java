@@ -0,0 +1,121 @@
+package com.paymob.sdk.performance;
+
+import com.paymob.sdk.webhook.WebhookEventType;
+import com.paymob.sdk.webhook.WebhookHmac;
+import com.paymob.sdk.webhook.WebhookValidator;
+import com.paymob.sdk.webhook.server.WebhookDispatcher;
+import com.paymob.sdk.webhook.server.WebhookServer;
+import com.paymob.sdk.webhook.signature.TransactionSignatureCalculator;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Webhooks received per second, in process through {@link WebhookDispatcher}
+ * and over loopback HTTP through {@link WebhookServer}, using locally signed
+ * transaction payloads and a no-op handler.
+ * <p>
+ * {@code dispatch} measures verification and queueing capacity. The
+ * {@code httpPost} figure is bounded by the JDK server's single selector
+ * thread and the loopback round trip, not by verification.
+ *
+ * <pre>
+ * mvn -P benchmark test-compile exec:exec -Djmh.args="WebhookServer"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WebhookServerBenchmark {
+    private static final String SECRET = "0A1B2C3D4E5F60718293A4B5C6D7E8F9";
+    private static final MediaType JSON = MediaType.get("application/json");
+    private static final int PAYLOADS = 256;
+
+    private final LongAdder handled = new LongAdder();
+    private byte[][] bodies;
+    private String[] hmacs;
+    private WebhookServer server;
+    private OkHttpClient client;
+    private String url;
+
+    @Setup
+    public void setUp() throws Exception {
+        TransactionSignatureCalculator calculator = new TransactionSignatureCalculator();
+        WebhookHmac hmac = new WebhookHmac(SECRET);
+        bodies = new byte[PAYLOADS][];
+        hmacs = new String[PAYLOADS];
+        for (int i = 0; i < PAYLOADS; i++) {
+            String payload = "{\"type\":\"TRANSACTION\",\"obj\":" + ResponseDeserializationBenchmark.transactionJson()
+                    .replace("\"id\":192031", "\"id\":" + (192031 + i)) + "}";
+            bodies[i] = payload.getBytes(StandardCharsets.UTF_8);
+            hmacs[i] = calculator.calculateExpectedHmac(payload, hmac);
+        }
+
+        WebhookDispatcher dispatcher = WebhookDispatcher.builder()
+                .validator(new WebhookValidator(SECRET))
+                .queueCapacity(65536)
+                .on(WebhookEventType.TRANSACTION_SUCCESSFUL, event -> handled.increment())
+                .on(WebhookEventType.TRANSACTION_REFUNDED, event -> handled.increment())
+                .build();
+        server = WebhookServer.builder().dispatcher(dispatcher).port(0).build().start();
+        url = "http://localhost:" + server.getPort() + "/webhooks/paymob?hmac=";
+        Dispatcher okDispatcher = new Dispatcher();
+        okDispatcher.setMaxRequestsPerHost(64);
+        client = new OkHttpClient.Builder()
+                .dispatcher(okDispatcher)
+                .connectionPool(new ConnectionPool(64, 1, TimeUnit.MINUTES))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public WebhookDispatcher.Outcome dispatch() {
+        int i = ThreadLocalRandom.current().nextInt(PAYLOADS);
+        return server.getDispatcher().dispatch(bodies[i], hmacs[i]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int httpPost() throws IOException {
+        int i = ThreadLocalRandom.current().nextInt(PAYLOADS);
+        Request request = new Request.Builder()
+                .url(url + hmacs[i])
+                .post(RequestBody.create(bodies[i], JSON))
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            return response.code();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.paymob.sdk.services.inquiry;
+
+import com.paymob.sdk.exceptions.AmbiguousOutcomeException;
+import com.paymob.sdk.exceptions.ResourceNotFoundException;
+import com.paymob.sdk.http.RetryPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderReconcilerTest {
+
+    private static final RetryPolicy ONE_RETRY = RetryPolicy.builder()
+            .maxRetries(1)
+            .initialBackoff(Duration.ZERO)
+            .build();
+    private static final ZoneId CAIRO = ZoneId.of("Africa/Cairo");
+    /** Paymob's created_at form: local time, microseconds, no offset. */
+    private static final DateTimeFormatter PAYMOB_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS");
+
+    private TransactionInquiryService inquiry;
+    private OrderReconciler reconciler;
+    private AtomicInteger sends;
+
+    @BeforeEach
+    void setUp() {
+        inquiry = mock(TransactionInquiryService.class);
+        reconciler = new OrderReconciler(inquiry, ONE_RETRY, CAIRO, Duration.ZERO, 2);
+        sends = new AtomicInteger();
+    }
+
+    /** Fails ambiguously on the first send and answers "charged" afterwards. */
+    private Function<String, String> lostOnce() {
+        return key -> {
+            if (sends.incrementAndGet() == 1) {
+                throw new AmbiguousOutcomeException("read timeout", 0, "", key);
+            }
+            return "charged";
+        };
+    }
+
+    /** {@code instant} as Paymob's Egypt region writes it, e.g. 2024-06-13T11:33:44.592345. */
+    private static String paymobTimestamp(Instant instant) {
+        return LocalDateTime.ofInstant(instant, CAIRO).format(PAYMOB_TIMESTAMP);
+    }
+
+    private static InquiryResponse transaction(long id, int amountCents, String createdAt) {
+        InquiryResponse response = new InquiryResponse();
+        response.setId(id);
+        response.setAmountCents(amountCents);
+        response.setCreatedAt(createdAt);
+        return response;
+    }
+
+    @Test
+    void execute_stillProcessing_adoptsTransactionFoundByLaterConfirmation() {
+        when(inquiry.byMerchantOrderId("order-1"))
+                .thenThrow(new ResourceNotFoundException("none"))
+                .thenReturn(transaction(7, 5000, paymobTimestamp(Instant.now())));
+
+        String result = reconciler.execute("order-1", 5000, lostOnce(), landed -> "adopted " + landed.getId());
+
+        assertEquals("adopted 7", result);
+        assertEquals(1, sends.get());
+    }
+
+    @Test
+    void execute_resendsOnlyAfterEveryConfirmationFindsNothing() {
+        when(inquiry.byMerchantOrderId("order-1")).thenThrow(new ResourceNotFoundException("none"));
+
+        String result = reconciler.execute("order-1", 5000, lostOnce(), landed -> "adopted");
+
+        assertEquals("charged", result);
+        assertEquals(2, sends.get());
+        verify(inquiry, times(2)).byMerchantOrderId("order-1");
+    }
+
+    @Test
+    void execute_earlierTransactionOnOrder_isNotTakenAsThisAttempt() {
+        InquiryResponse declined = transaction(3, 5000, paymobTimestamp(Instant.now().minus(Duration.ofMinutes(10))));
+        when(inquiry.byMerchantOrderId("order-1")).thenReturn(declined);
+
+        String result = reconciler.execute("order-1", 5000, lostOnce(), landed -> "adopted");
+
+        assertEquals("charged", result);
+        assertEquals(2, sends.get());
+    }
+
+    @Test
+    void execute_transactionWithOtherAmount_isNotTakenAsThisAttempt() {
+        when(inquiry.byMerchantOrderId("order-1")).thenReturn(transaction(3, 1000, paymobTimestamp(Instant.now())));
+
+        String result = reconciler.execute("order-1", 5000, lostOnce(), landed -> "adopted");
+
+        assertEquals("charged", result);
+    }
+
+    @Test
+    void execute_landedTransaction_isAdoptedFromPaymobTimestamp() {
+        // Written a few seconds after the send, in Cairo local time and without an offset
+        String createdAt = paymobTimestamp(Instant.now().plusSeconds(2));
+        when(inquiry.byMerchantOrderId("order-1")).thenReturn(transaction(9, 5000, createdAt));
+
+        String result = reconciler.execute("order-1", 5000, lostOnce(), landed -> "adopted " + landed.getId());
+
+        assertEquals("adopted 9", result);
+        assertEquals(1, sends.get());
+        verify(inquiry, times(1)).byMerchantOrderId("order-1");
+    }
+
+    @Test
+    void execute_fixturePaymobTimestamp_isReadInServerZone() {
+        // Baseline webhook fixture: long before this attempt, so it is someone else's transaction
+        when(inquiry.byMerchantOrderId("order-1"))
+                .thenReturn(transaction(3, 5000, "2024-06-13T11:33:44.592345"));
+
+        String result = reconciler.execute("order-1", 5000, lostOnce(), landed -> "adopted");
+
+        assertEquals("charged", result);
+        assertEquals(2, sends.get());
+    }
+
+    @Test
+    void execute_unreadableCreatedAt_rethrowsWithoutResending() {
+        when(inquiry.byMerchantOrderId("order-1")).thenReturn(transaction(3, 5000, "13/06/2024 11:33"));
+
+        AmbiguousOutcomeException thrown = assertThrows(AmbiguousOutcomeException.class,
+                () -> reconciler.execute("order-1", 5000, lostOnce(), landed -> "adopted"));
+
+        assertEquals(1, thrown.getSuppressed().length);
+        assertEquals(1, sends.get());
+    }
+
+    @Test
+    void execute_waitsSettleDelayBeforeEachLookup() {
+        reconciler = new OrderReconciler(inquiry, ONE_RETRY, CAIRO, Duration.ofMillis(100), 2);
+        when(inquiry.byMerchantOrderId("order-1")).thenThrow(new ResourceNotFoundException("none"));
+        long start = System.nanoTime();
+
+        reconciler.execute("order-1", 5000, lostOnce(), landed -> "adopted");
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+    }
+
+    @Test
+    void executeAsync_stillProcessing_adoptsTransactionFoundByLaterConfirmation() throws Exception {
+        when(inquiry.byMerchantOrderIdAsync("order-1"))
+                .thenReturn(CompletableFuture.failedFuture(new ResourceNotFoundException("none")))
+                .thenReturn(CompletableFuture.completedFuture(transaction(7, 5000, paymobTimestamp(Instant.now()))));
+        Function<String, String> call = lostOnce();
+
+        String result = reconciler.executeAsync("order-1", 5000,
+                key -> CompletableFuture.supplyAsync(() -> call.apply(key)), landed -> "adopted " + landed.getId())
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals("adopted 7", result);
+        assertEquals(1, sends.get());
+    }
+
+    @Test
+    void constructor_rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new OrderReconciler(inquiry, ONE_RETRY, CAIRO, Duration.ofSeconds(-1), 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> new OrderReconciler(inquiry, ONE_RETRY, CAIRO, Duration.ZERO, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> reconciler.execute("order-1", 0, key -> "charged", landed -> "adopted"));
+    }
+}
@@ -4,6 +4,7 @@ import com.paymob.sdk.core.PaymobConfig;
 import com.paymob.sdk.core.PaymobRegion;
 import com.paymob.sdk.core.auth.AuthStrategy;
 import com.paymob.sdk.http.HttpClient;
+import okhttp3.HttpUrl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -33,23 +34,27 @@ class TransactionInquiryServiceTest {
     void byOrderId_usesCorrectEndpointAndBearerAuth() {
         service.byOrderId(123);
 
-        verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-        verify(httpClient).post(eq("/api/ecommerce/orders/transaction_inquiry"), any(InquiryRequest.class), eq(InquiryResponse.class), same(authStrategy));
+        verify(httpClient, never()).setBaseUrl(anyString());
+        verify(httpClient).post(eq(url("/api/ecommerce/orders/transaction_inquiry")), any(InquiryRequest.class), eq(InquiryResponse.class), same(authStrategy), any());
     }
 
     @Test
     void byMerchantOrderId_usesCorrectEndpointAndBearerAuth() {
         service.byMerchantOrderId("my-ref");
 
-        verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-        verify(httpClient).post(eq("/api/ecommerce/orders/transaction_inquiry"), any(InquiryRequest.class), eq(InquiryResponse.class), same(authStrategy));
+        verify(httpClient, never()).setBaseUrl(anyString());
+        verify(httpClient).post(eq(url("/api/ecommerce/orders/transaction_inquiry")), any(InquiryRequest.class), eq(InquiryResponse.class), same(authStrategy), any());
     }
 
     @Test
     void byTransactionId_usesCorrectEndpointAndBearerAuth() {
         service.byTransactionId(456L);
 
-        verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-        verify(httpClient).get(eq("/api/acceptance/transactions/456"), eq(InquiryResponse.class), same(authStrategy));
+        verify(httpClient, never()).setBaseUrl(anyString());
+        verify(httpClient).get(eq(url("/api/acceptance/transactions/456")), eq(InquiryResponse.class), same(authStrategy), any());
+    }
+
+    private static HttpUrl url(String path) {
+        return PaymobRegion.EGYPT.getHttpUrl().resolve(path);
     }
 }
@@ -1,5 +1,6 @@
 package com.paymob.sdk.services.intention;
 
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,6 +11,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -17,6 +19,9 @@ import com.paymob.sdk.core.PaymobConfig;
 import com.paymob.sdk.core.PaymobRegion;
 import com.paymob.sdk.core.auth.AuthStrategy;
 import com.paymob.sdk.http.HttpClient;
+import okhttp3.HttpUrl;
+
+import java.util.concurrent.CompletableFuture;
 
 class IntentionServiceTest {
 
@@ -40,38 +45,53 @@ class IntentionServiceTest {
 
     @Test
     void createIntention_usesCorrectEndpointAndAuth() {
-        when(httpClient.post(anyString(), any(), eq(IntentionResponse.class), eq(authStrategy)))
+        when(httpClient.post(any(HttpUrl.class), any(), eq(IntentionResponse.class), eq(authStrategy), any()))
                 .thenReturn(new IntentionResponse());
 
         service.createIntention(IntentionRequest.builder().amount(1000).build());
 
-        verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-        verify(httpClient).post(eq("/v1/intention/"), any(IntentionRequest.class),
-                eq(IntentionResponse.class), same(authStrategy));
+        verify(httpClient, never()).setBaseUrl(anyString());
+        verify(httpClient).post(eq(url("/v1/intention/")), any(IntentionRequest.class),
+                eq(IntentionResponse.class), same(authStrategy), eq("IntentionService.createIntention"));
+    }
+
+    @Test
+    void createIntentionAsync_usesCorrectEndpointAndAuth() throws Exception {
+        IntentionResponse expected = new IntentionResponse();
+        when(httpClient.postAsync(any(HttpUrl.class), any(), eq(IntentionResponse.class), eq(authStrategy), any()))
+                .thenReturn(CompletableFuture.completedFuture(expected));
+
+        IntentionResponse actual = service.createIntentionAsync(IntentionRequest.builder().amount(1000).build())
+                .get();
+
+        assertSame(expected, actual);
+        verify(httpClient, never()).setBaseUrl(anyString());
+        verify(httpClient).postAsync(eq(url("/v1/intention/")), any(IntentionRequest.class),
+                eq(IntentionResponse.class), same(authStrategy), any());
     }
 
     @Test
     void updateIntention_usesCorrectEndpointWithClientSecret() {
-        when(httpClient.put(anyString(), any(), eq(IntentionResponse.class), eq(authStrategy)))
+        when(httpClient.put(any(HttpUrl.class), any(), eq(IntentionResponse.class), eq(authStrategy), any()))
                 .thenReturn(new IntentionResponse());
 
         service.updateIntention("cs_test_123", IntentionRequest.builder().amount(2000).build());
 
-        verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-        verify(httpClient).put(eq("/v1/intention/cs_test_123"), any(IntentionRequest.class),
-                eq(IntentionResponse.class), same(authStrategy));
+        verify(httpClient, never()).setBaseUrl(anyString());
+        verify(httpClient).put(eq(url("/v1/intention/cs_test_123")), any(IntentionRequest.class),
+                eq(IntentionResponse.class), same(authStrategy), any());
     }
 
     @Test
     void retrieveIntention_usesCorrectEndpointWithPublicKeyAndSecret() {
-        when(httpClient.get(anyString(), eq(IntentionResponse.class), isNull()))
+        when(httpClient.get(any(HttpUrl.class), eq(IntentionResponse.class), isNull(), any()))
                 .thenReturn(new IntentionResponse());
 
         service.retrieveIntention("cs_test_456");
 
-        verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-        verify(httpClient).get(eq("/v1/intention/element/pk_test/cs_test_456/"),
-            eq(IntentionResponse.class), isNull());
+        verify(httpClient, never()).setBaseUrl(anyString());
+        verify(httpClient).get(eq(url("/v1/intention/element/pk_test/cs_test_456/")),
+            eq(IntentionResponse.class), isNull(), any());
     }
 
     @Test
@@ -99,4 +119,8 @@ class IntentionServiceTest {
         assertThrows(IllegalArgumentException.class,
                 () -> service.getUnifiedCheckoutUrl((IntentionResponse) null));
     }
+
+    private static HttpUrl url(String path) {
+        return PaymobRegion.EGYPT.getHttpUrl().resolve(path);
+    }
 }
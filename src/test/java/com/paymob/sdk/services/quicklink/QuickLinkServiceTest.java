@@ -5,6 +5,7 @@ import com.paymob.sdk.core.PaymobConfig;
 import com.paymob.sdk.core.PaymobRegion;
 import com.paymob.sdk.core.auth.AuthStrategy;
 import com.paymob.sdk.http.HttpClient;
+import okhttp3.HttpUrl;
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +13,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -38,7 +41,7 @@ class QuickLinkServiceTest {
 
     @Test
     void createPaymentLink_usesMultipartFormAndCorrectEndpoint() {
-        when(httpClient.post(anyString(), any(), eq(QuickLinkResponse.class), eq(authStrategy)))
+        when(httpClient.post(any(HttpUrl.class), any(), eq(QuickLinkResponse.class), eq(authStrategy), any()))
                 .thenReturn(new QuickLinkResponse());
 
         QuickLinkRequest request = new QuickLinkRequest(10000, 12345, Currency.EGP, false);
@@ -52,11 +55,11 @@ class QuickLinkServiceTest {
 
         service.createPaymentLink(request);
 
-        verify(httpClient).setBaseUrl("https://accept.paymob.com");
+        verify(httpClient, never()).setBaseUrl(anyString());
 
         ArgumentCaptor<Object> bodyCaptor = ArgumentCaptor.forClass(Object.class);
-        verify(httpClient).post(eq("/api/ecommerce/payment-links"), bodyCaptor.capture(), eq(QuickLinkResponse.class),
-                eq(authStrategy));
+        verify(httpClient).post(eq(url("/api/ecommerce/payment-links")), bodyCaptor.capture(), eq(QuickLinkResponse.class),
+                eq(authStrategy), any());
 
         Object body = bodyCaptor.getValue();
         assertInstanceOf(RequestBody.class, body);
@@ -76,18 +79,27 @@ class QuickLinkServiceTest {
         assertTrue(parts.stream().anyMatch(p -> headerContainsName(p, "expires_at")));
     }
 
+    @Test
+    void cancelAsync_nullResponse_returnsFailedFuture() {
+        CompletableFuture<QuickLinkResponse> future = service.cancelAsync((QuickLinkResponse) null);
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(IllegalArgumentException.class, thrown.getCause());
+        verifyNoInteractions(httpClient);
+    }
+
     @Test
     void cancel_usesMultipartFormAndCorrectEndpoint() {
-        when(httpClient.post(anyString(), any(), eq(QuickLinkResponse.class), eq(authStrategy)))
+        when(httpClient.post(any(HttpUrl.class), any(), eq(QuickLinkResponse.class), eq(authStrategy), any()))
                 .thenReturn(new QuickLinkResponse());
 
         service.cancel(123);
 
-        verify(httpClient).setBaseUrl("https://accept.paymob.com");
+        verify(httpClient, never()).setBaseUrl(anyString());
 
         ArgumentCaptor<Object> bodyCaptor = ArgumentCaptor.forClass(Object.class);
-        verify(httpClient).post(eq("/api/ecommerce/payment-links/cancel"), bodyCaptor.capture(),
-                eq(QuickLinkResponse.class), eq(authStrategy));
+        verify(httpClient).post(eq(url("/api/ecommerce/payment-links/cancel")), bodyCaptor.capture(),
+                eq(QuickLinkResponse.class), eq(authStrategy), any());
 
         Object body = bodyCaptor.getValue();
         assertInstanceOf(MultipartBody.class, body);
@@ -103,4 +115,8 @@ class QuickLinkServiceTest {
         String cd = part.headers().get("Content-Disposition");
         return cd != null && cd.contains("name=\"" + name + "\"");
     }
+
+    private static HttpUrl url(String path) {
+        return PaymobRegion.EGYPT.getHttpUrl().resolve(path);
+    }
 }
@@ -8,14 +8,33 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.paymob.sdk.core.PaymobConfig;
 import com.paymob.sdk.core.PaymobRegion;
 import com.paymob.sdk.core.auth.AuthStrategy;
+import com.paymob.sdk.exceptions.AmbiguousOutcomeException;
+import com.paymob.sdk.exceptions.ResourceNotFoundException;
 import com.paymob.sdk.http.HttpClient;
+import com.paymob.sdk.http.RetryPolicy;
+import com.paymob.sdk.services.inquiry.InquiryResponse;
+import com.paymob.sdk.services.inquiry.OrderReconciler;
+import com.paymob.sdk.services.inquiry.TransactionInquiryService;
 import com.paymob.sdk.services.transaction.TransactionResponse;
+import okhttp3.HttpUrl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 class SavedCardServiceTest {
 
@@ -38,7 +57,7 @@ class SavedCardServiceTest {
 
     @Test
     void processCitPayment_usesIntentionEndpoint() {
-        when(httpClient.post(anyString(), any(), eq(TokenizedPaymentResponse.class), eq(authStrategy)))
+        when(httpClient.post(any(HttpUrl.class), any(), eq(TokenizedPaymentResponse.class), eq(authStrategy), any()))
                 .thenReturn(new TokenizedPaymentResponse());
 
         CitPaymentRequest request = CitPaymentRequest.builder()
@@ -50,14 +69,14 @@ class SavedCardServiceTest {
 
         service.processCitPayment(request);
 
-        verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-        verify(httpClient).post(eq("/v1/intention/"), any(CitPaymentRequest.class),
-                eq(TokenizedPaymentResponse.class), same(authStrategy));
+        verify(httpClient, never()).setBaseUrl(anyString());
+        verify(httpClient).post(eq(url("/v1/intention/")), any(CitPaymentRequest.class),
+                eq(TokenizedPaymentResponse.class), same(authStrategy), any());
     }
 
     @Test
     void processMitPayment_usesIntentionEndpoint() {
-        when(httpClient.post(anyString(), any(), eq(TokenizedPaymentResponse.class), eq(authStrategy)))
+        when(httpClient.post(any(HttpUrl.class), any(), eq(TokenizedPaymentResponse.class), eq(authStrategy), any()))
                 .thenReturn(new TokenizedPaymentResponse());
 
         MitPaymentRequest request = MitPaymentRequest.builder()
@@ -69,21 +88,114 @@ class SavedCardServiceTest {
 
         service.processMitPayment(request);
 
-        verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-        verify(httpClient).post(eq("/v1/intention/"), any(MitPaymentRequest.class),
-                eq(TokenizedPaymentResponse.class), same(authStrategy));
+        verify(httpClient, never()).setBaseUrl(anyString());
+        verify(httpClient).post(eq(url("/v1/intention/")), any(MitPaymentRequest.class),
+                eq(TokenizedPaymentResponse.class), same(authStrategy), any());
     }
 
         @Test
         void executeMotoPayment_usesPayEndpointWithoutAuthHeader() {
-                when(httpClient.post(anyString(), any(), eq(TransactionResponse.class), isNull()))
+                when(httpClient.post(any(HttpUrl.class), any(), eq(TransactionResponse.class), isNull(), any()))
                                 .thenReturn(new TransactionResponse());
 
                 MotoCardPayRequest request = new MotoCardPayRequest("tok_456", "payment_token_123");
                 service.executeMotoPayment(request);
 
-                verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-                verify(httpClient).post(eq("/api/acceptance/payments/pay"), any(MotoCardPayRequest.class),
-                                eq(TransactionResponse.class), isNull());
+                verify(httpClient, never()).setBaseUrl(anyString());
+                verify(httpClient).post(eq(url("/api/acceptance/payments/pay")), any(MotoCardPayRequest.class),
+                                eq(TransactionResponse.class), isNull(), any());
         }
+
+    @Test
+    void executeMotoPayment_ambiguousFailureThatLanded_returnsExistingTransaction() {
+        TransactionInquiryService inquiry = mock(TransactionInquiryService.class);
+        service = new SavedCardService(httpClient, authStrategy, reconcilingConfig(), reconciler(inquiry));
+        when(httpClient.post(any(HttpUrl.class), any(), eq(TransactionResponse.class), isNull(), any()))
+                .thenThrow(new AmbiguousOutcomeException("lost", 502, "", "key"));
+        InquiryResponse landed = new InquiryResponse();
+        landed.setId(42);
+        landed.setAmountCents(10000);
+        // As Paymob writes it: Cairo local time, no offset
+        landed.setCreatedAt(LocalDateTime.now(ZoneId.of("Africa/Cairo")).plusSeconds(1)
+                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS")));
+        when(inquiry.byMerchantOrderId("order-1")).thenReturn(landed);
+
+        TransactionResponse response = service.executeMotoPayment(
+                new MotoCardPayRequest("tok_456", "payment_token_123"), "order-1", 10000);
+
+        assertEquals(42, response.getId());
+        verify(httpClient, times(1)).post(any(HttpUrl.class), any(), eq(TransactionResponse.class), isNull(), any());
+    }
+
+    @Test
+    void executeMotoPayment_ambiguousFailureThatDidNotLand_resends() {
+        TransactionInquiryService inquiry = mock(TransactionInquiryService.class);
+        service = new SavedCardService(httpClient, authStrategy, reconcilingConfig(), reconciler(inquiry));
+        TransactionResponse charged = new TransactionResponse();
+        when(httpClient.post(any(HttpUrl.class), any(), eq(TransactionResponse.class), isNull(), any()))
+                .thenThrow(new AmbiguousOutcomeException("lost", 502, "", "key"))
+                .thenReturn(charged);
+        when(inquiry.byMerchantOrderId("order-1")).thenThrow(new ResourceNotFoundException("none"));
+
+        TransactionResponse response = service.executeMotoPayment(
+                new MotoCardPayRequest("tok_456", "payment_token_123"), "order-1", 10000);
+
+        assertSame(charged, response);
+        verify(httpClient, times(2)).post(any(HttpUrl.class), any(), eq(TransactionResponse.class), isNull(), any());
+    }
+
+    @Test
+    void executeMotoPayment_lookupFails_rethrowsWithoutResending() {
+        TransactionInquiryService inquiry = mock(TransactionInquiryService.class);
+        service = new SavedCardService(httpClient, authStrategy, reconcilingConfig(), reconciler(inquiry));
+        when(httpClient.post(any(HttpUrl.class), any(), eq(TransactionResponse.class), isNull(), any()))
+                .thenThrow(new AmbiguousOutcomeException("lost", 502, "", "key"));
+        when(inquiry.byMerchantOrderId("order-1")).thenThrow(new AmbiguousOutcomeException("down", 503, "", null));
+
+        AmbiguousOutcomeException thrown = assertThrows(AmbiguousOutcomeException.class,
+                () -> service.executeMotoPayment(new MotoCardPayRequest("tok_456", "payment_token_123"), "order-1", 10000));
+
+        assertEquals(1, thrown.getSuppressed().length);
+        verify(httpClient, times(1)).post(any(HttpUrl.class), any(), eq(TransactionResponse.class), isNull(), any());
+    }
+
+    @Test
+    void executeMotoPaymentAsync_ambiguousFailureThatDidNotLand_resends() throws Exception {
+        TransactionInquiryService inquiry = mock(TransactionInquiryService.class);
+        service = new SavedCardService(httpClient, authStrategy, reconcilingConfig(), reconciler(inquiry));
+        TransactionResponse charged = new TransactionResponse();
+        when(httpClient.postAsync(any(HttpUrl.class), any(), eq(TransactionResponse.class), isNull(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new AmbiguousOutcomeException("lost", 502, "", "key")))
+                .thenReturn(CompletableFuture.completedFuture(charged));
+        when(inquiry.byMerchantOrderIdAsync("order-1"))
+                .thenReturn(CompletableFuture.failedFuture(new ResourceNotFoundException("none")));
+
+        TransactionResponse response = service.executeMotoPaymentAsync(
+                new MotoCardPayRequest("tok_456", "payment_token_123"), "order-1", 10000).get(5, TimeUnit.SECONDS);
+
+        assertSame(charged, response);
+    }
+
+    @Test
+    void executeMotoPayment_withoutInquiryService_isUnavailable() {
+        assertThrows(IllegalStateException.class,
+                () -> service.executeMotoPayment(new MotoCardPayRequest("tok_456", "payment_token_123"), "order-1", 10000));
+    }
+
+    private static OrderReconciler reconciler(TransactionInquiryService inquiry) {
+        PaymobConfig config = reconcilingConfig();
+        return new OrderReconciler(inquiry, config.getRetryPolicy(), config.getServerTimeZone(), Duration.ZERO, 2);
+    }
+
+    private static PaymobConfig reconcilingConfig() {
+        return PaymobConfig.builder()
+                .secretKey("sk_test")
+                .apiKey("ak_test")
+                .retryPolicy(RetryPolicy.builder().maxRetries(1).initialBackoff(Duration.ZERO).build())
+                .build();
+    }
+
+    private static HttpUrl url(String path) {
+        return PaymobRegion.EGYPT.getHttpUrl().resolve(path);
+    }
 }
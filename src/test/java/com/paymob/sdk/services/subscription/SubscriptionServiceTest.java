@@ -2,11 +2,13 @@ package com.paymob.sdk.services.subscription;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -16,6 +18,12 @@ import com.paymob.sdk.core.auth.AuthStrategy;
 import com.paymob.sdk.http.HttpClient;
 import com.paymob.sdk.services.intention.IntentionRequest;
 import com.paymob.sdk.services.intention.IntentionResponse;
+import okhttp3.HttpUrl;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 class SubscriptionServiceTest {
 
@@ -40,96 +48,147 @@ class SubscriptionServiceTest {
 
         @Test
         void subscribe_usesIntentionEndpoint() {
-                when(httpClient.post(anyString(), any(), eq(IntentionResponse.class), eq(secretKeyAuth)))
+                when(httpClient.post(any(HttpUrl.class), any(), eq(IntentionResponse.class), eq(secretKeyAuth), any()))
                                 .thenReturn(new IntentionResponse());
 
                 IntentionRequest request = IntentionRequest.builder().amount(1000).build();
                 service.subscribe(request);
 
-                verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-                verify(httpClient).post(eq("/v1/intention/"), any(IntentionRequest.class),
-                                eq(IntentionResponse.class), same(secretKeyAuth));
+                verify(httpClient, never()).setBaseUrl(anyString());
+                verify(httpClient).post(eq(url("/v1/intention/")), any(IntentionRequest.class),
+                                eq(IntentionResponse.class), same(secretKeyAuth), any());
         }
 
         @Test
         void get_usesCorrectEndpoint() {
-                when(httpClient.get(anyString(), eq(SubscriptionResponse.class), eq(bearerTokenAuth)))
+                when(httpClient.get(any(HttpUrl.class), eq(SubscriptionResponse.class), eq(bearerTokenAuth), any()))
                                 .thenReturn(new SubscriptionResponse());
 
                 service.get(42L);
 
-                verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-                verify(httpClient).get(eq("/api/acceptance/subscriptions/42"),
-                                eq(SubscriptionResponse.class), same(bearerTokenAuth));
+                verify(httpClient, never()).setBaseUrl(anyString());
+                verify(httpClient).get(eq(url("/api/acceptance/subscriptions/42")),
+                                eq(SubscriptionResponse.class), same(bearerTokenAuth), any());
         }
 
         @Test
         void suspend_usesCorrectEndpoint() {
-                when(httpClient.post(anyString(), any(), eq(SubscriptionResponse.class), eq(bearerTokenAuth)))
+                when(httpClient.post(any(HttpUrl.class), any(), eq(SubscriptionResponse.class), eq(bearerTokenAuth),
+                                any()))
                                 .thenReturn(new SubscriptionResponse());
 
                 service.suspend(10L);
 
-                verify(httpClient).post(eq("/api/acceptance/subscriptions/10/suspend"),
-                                any(), eq(SubscriptionResponse.class), same(bearerTokenAuth));
+                verify(httpClient).post(eq(url("/api/acceptance/subscriptions/10/suspend")),
+                                any(), eq(SubscriptionResponse.class), same(bearerTokenAuth), any());
         }
 
         @Test
         void resume_usesCorrectEndpoint() {
-                when(httpClient.post(anyString(), any(), eq(SubscriptionResponse.class), eq(bearerTokenAuth)))
+                when(httpClient.post(any(HttpUrl.class), any(), eq(SubscriptionResponse.class), eq(bearerTokenAuth),
+                                any()))
                                 .thenReturn(new SubscriptionResponse());
 
                 service.resume(11L);
 
-                verify(httpClient).post(eq("/api/acceptance/subscriptions/11/resume"),
-                                any(), eq(SubscriptionResponse.class), same(bearerTokenAuth));
+                verify(httpClient).post(eq(url("/api/acceptance/subscriptions/11/resume")),
+                                any(), eq(SubscriptionResponse.class), same(bearerTokenAuth), any());
         }
 
         @Test
         void cancel_usesCorrectEndpoint() {
-                when(httpClient.post(anyString(), any(), eq(SubscriptionResponse.class), eq(bearerTokenAuth)))
+                when(httpClient.post(any(HttpUrl.class), any(), eq(SubscriptionResponse.class), eq(bearerTokenAuth),
+                                any()))
                                 .thenReturn(new SubscriptionResponse());
 
                 service.cancel(12L);
 
-                verify(httpClient).post(eq("/api/acceptance/subscriptions/12/cancel"),
-                                any(), eq(SubscriptionResponse.class), same(bearerTokenAuth));
+                verify(httpClient).post(eq(url("/api/acceptance/subscriptions/12/cancel")),
+                                any(), eq(SubscriptionResponse.class), same(bearerTokenAuth), any());
         }
 
         @Test
         void listTransactions_usesCorrectEndpoint() {
-                when(httpClient.get(anyString(), eq(SubscriptionTransactionsPage.class), eq(bearerTokenAuth)))
+                when(httpClient.get(any(HttpUrl.class), eq(SubscriptionTransactionsPage.class), eq(bearerTokenAuth),
+                                any()))
                                 .thenReturn(new SubscriptionTransactionsPage());
 
                 service.listTransactions(99L);
 
-                verify(httpClient).get(eq("/api/acceptance/subscriptions/99/transactions"),
-                                eq(SubscriptionTransactionsPage.class), same(bearerTokenAuth));
+                verify(httpClient).get(eq(url("/api/acceptance/subscriptions/99/transactions")),
+                                eq(SubscriptionTransactionsPage.class), same(bearerTokenAuth), any());
         }
 
         @Test
         void update_usesCorrectEndpoint() {
-                when(httpClient.put(anyString(), any(), eq(SubscriptionResponse.class), eq(bearerTokenAuth)))
+                when(httpClient.put(any(HttpUrl.class), any(), eq(SubscriptionResponse.class), eq(bearerTokenAuth),
+                                any()))
                                 .thenReturn(new SubscriptionResponse());
 
                 SubscriptionUpdateRequest request = SubscriptionUpdateRequest.builder().build();
                 service.update(50L, request);
 
-                verify(httpClient).put(eq("/api/acceptance/subscriptions/50"),
+                verify(httpClient).put(eq(url("/api/acceptance/subscriptions/50")),
                                 any(SubscriptionUpdateRequest.class), eq(SubscriptionResponse.class),
-                                same(bearerTokenAuth));
+                                same(bearerTokenAuth), any());
         }
 
         @Test
         void registerWebhook_usesCorrectEndpoint() {
-                when(httpClient.post(anyString(), any(), eq(SubscriptionResponse.class), eq(bearerTokenAuth)))
+                when(httpClient.post(any(HttpUrl.class), any(), eq(SubscriptionResponse.class), eq(bearerTokenAuth),
+                                any()))
                                 .thenReturn(new SubscriptionResponse());
 
                 service.registerWebhook(70L, "https://example.com/sub-webhook");
 
-                verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-                verify(httpClient).post(eq("/api/acceptance/subscriptions/70/register_webhook"),
+                verify(httpClient, never()).setBaseUrl(anyString());
+                verify(httpClient).post(eq(url("/api/acceptance/subscriptions/70/register_webhook")),
                                 any(SubscriptionWebhookRequest.class), eq(SubscriptionResponse.class),
-                                same(bearerTokenAuth));
+                                same(bearerTokenAuth), any());
+        }
+
+        @Test
+        void streamAll_followsNextLinks() {
+                SubscriptionsPage first = new SubscriptionsPage();
+                first.setResults(List.of(subscription(1L)));
+                first.setNext("https://accept.paymob.com/api/acceptance/subscriptions?state=active&page=2");
+                SubscriptionsPage second = new SubscriptionsPage();
+                second.setResults(List.of(subscription(2L)));
+                when(httpClient.getAsync(eq(url("/api/acceptance/subscriptions?state=active")),
+                                eq(SubscriptionsPage.class), same(bearerTokenAuth), any()))
+                                .thenReturn(CompletableFuture.completedFuture(first));
+                when(httpClient.getAsync(eq(url("/api/acceptance/subscriptions?state=active&page=2")),
+                                eq(SubscriptionsPage.class), same(bearerTokenAuth), any()))
+                                .thenReturn(CompletableFuture.completedFuture(second));
+
+                try (Stream<SubscriptionResponse> stream = service.streamAll(
+                                SubscriptionListRequest.builder().state("active").build())) {
+                        assertEquals(List.of(1L, 2L),
+                                        stream.map(SubscriptionResponse::getId)
+                                                        .collect(Collectors.toList()));
+                }
+        }
+
+        @Test
+        void streamTransactions_usesCorrectEndpoint() {
+                SubscriptionTransactionsPage page = new SubscriptionTransactionsPage();
+                SubscriptionTransactionResponse transaction = new SubscriptionTransactionResponse();
+                transaction.setId(5L);
+                page.setResults(List.of(transaction));
+                when(httpClient.getAsync(eq(url("/api/acceptance/subscriptions/99/transactions")),
+                                eq(SubscriptionTransactionsPage.class), same(bearerTokenAuth), any()))
+                                .thenReturn(CompletableFuture.completedFuture(page));
+
+                assertEquals(1L, service.streamTransactions(99L).count());
+        }
+
+        private static SubscriptionResponse subscription(long id) {
+                SubscriptionResponse subscription = new SubscriptionResponse();
+                subscription.setId(id);
+                return subscription;
+        }
+
+        private static HttpUrl url(String path) {
+                return PaymobRegion.EGYPT.getHttpUrl().resolve(path);
         }
 }
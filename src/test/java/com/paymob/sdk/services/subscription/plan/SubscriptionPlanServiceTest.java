@@ -4,9 +4,16 @@ import com.paymob.sdk.core.PaymobConfig;
 import com.paymob.sdk.core.PaymobRegion;
 import com.paymob.sdk.core.auth.AuthStrategy;
 import com.paymob.sdk.http.HttpClient;
+import okhttp3.HttpUrl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -31,7 +38,7 @@ class SubscriptionPlanServiceTest {
 
     @Test
     void create_usesCorrectEndpoint() {
-        when(httpClient.post(anyString(), any(), eq(SubscriptionPlanResponse.class), eq(authStrategy)))
+        when(httpClient.post(any(HttpUrl.class), any(), eq(SubscriptionPlanResponse.class), eq(authStrategy), any()))
                 .thenReturn(new SubscriptionPlanResponse());
 
         SubscriptionPlanRequest request = SubscriptionPlanRequest.builder()
@@ -42,26 +49,26 @@ class SubscriptionPlanServiceTest {
 
         service.create(request);
 
-        verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-        verify(httpClient).post(eq("/api/acceptance/subscription-plans"),
-                any(SubscriptionPlanRequest.class), eq(SubscriptionPlanResponse.class), same(authStrategy));
+        verify(httpClient, never()).setBaseUrl(anyString());
+        verify(httpClient).post(eq(url("/api/acceptance/subscription-plans")),
+                any(SubscriptionPlanRequest.class), eq(SubscriptionPlanResponse.class), same(authStrategy), any());
     }
 
     @Test
     void list_usesCorrectEndpoint() {
-        when(httpClient.get(anyString(), eq(SubscriptionPlansPage.class), eq(authStrategy)))
+        when(httpClient.get(any(HttpUrl.class), eq(SubscriptionPlansPage.class), eq(authStrategy), any()))
                 .thenReturn(new SubscriptionPlansPage());
 
         service.list();
 
-        verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-        verify(httpClient).get(eq("/api/acceptance/subscription-plans"),
-                eq(SubscriptionPlansPage.class), same(authStrategy));
+        verify(httpClient, never()).setBaseUrl(anyString());
+        verify(httpClient).get(eq(url("/api/acceptance/subscription-plans")),
+                eq(SubscriptionPlansPage.class), same(authStrategy), any());
     }
 
     @Test
     void update_usesCorrectEndpointWithId() {
-        when(httpClient.put(anyString(), any(), eq(SubscriptionPlanResponse.class), eq(authStrategy)))
+        when(httpClient.put(any(HttpUrl.class), any(), eq(SubscriptionPlanResponse.class), eq(authStrategy), any()))
                 .thenReturn(new SubscriptionPlanResponse());
 
         SubscriptionPlanUpdateRequest request = SubscriptionPlanUpdateRequest.builder()
@@ -70,29 +77,58 @@ class SubscriptionPlanServiceTest {
 
         service.update(5L, request);
 
-        verify(httpClient).put(eq("/api/acceptance/subscription-plans/5"),
-                any(SubscriptionPlanUpdateRequest.class), eq(SubscriptionPlanResponse.class), same(authStrategy));
+        verify(httpClient).put(eq(url("/api/acceptance/subscription-plans/5")),
+                any(SubscriptionPlanUpdateRequest.class), eq(SubscriptionPlanResponse.class), same(authStrategy), any());
     }
 
     @Test
     void suspend_usesCorrectEndpoint() {
-        when(httpClient.post(anyString(), any(), eq(SubscriptionPlanResponse.class), eq(authStrategy)))
+        when(httpClient.post(any(HttpUrl.class), any(), eq(SubscriptionPlanResponse.class), eq(authStrategy), any()))
                 .thenReturn(new SubscriptionPlanResponse());
 
         service.suspend(7L);
 
-        verify(httpClient).post(eq("/api/acceptance/subscription-plans/7/suspend"),
-                any(), eq(SubscriptionPlanResponse.class), same(authStrategy));
+        verify(httpClient).post(eq(url("/api/acceptance/subscription-plans/7/suspend")),
+                any(), eq(SubscriptionPlanResponse.class), same(authStrategy), any());
     }
 
     @Test
     void resume_usesCorrectEndpoint() {
-        when(httpClient.post(anyString(), any(), eq(SubscriptionPlanResponse.class), eq(authStrategy)))
+        when(httpClient.post(any(HttpUrl.class), any(), eq(SubscriptionPlanResponse.class), eq(authStrategy), any()))
                 .thenReturn(new SubscriptionPlanResponse());
 
         service.resume(7L);
 
-        verify(httpClient).post(eq("/api/acceptance/subscription-plans/7/resume"),
-                any(), eq(SubscriptionPlanResponse.class), same(authStrategy));
+        verify(httpClient).post(eq(url("/api/acceptance/subscription-plans/7/resume")),
+                any(), eq(SubscriptionPlanResponse.class), same(authStrategy), any());
+    }
+
+    @Test
+    void streamAll_followsNextLinks() {
+        SubscriptionPlansPage first = new SubscriptionPlansPage();
+        first.setResults(List.of(plan(1L), plan(2L)));
+        first.setNext("/api/acceptance/subscription-plans?page=2");
+        SubscriptionPlansPage second = new SubscriptionPlansPage();
+        second.setResults(List.of(plan(3L)));
+        when(httpClient.getAsync(eq(url("/api/acceptance/subscription-plans")), eq(SubscriptionPlansPage.class),
+                same(authStrategy), any())).thenReturn(CompletableFuture.completedFuture(first));
+        when(httpClient.getAsync(eq(url("/api/acceptance/subscription-plans?page=2")),
+                eq(SubscriptionPlansPage.class), same(authStrategy), any()))
+                .thenReturn(CompletableFuture.completedFuture(second));
+
+        try (Stream<SubscriptionPlanResponse> plans = service.streamAll()) {
+            assertEquals(List.of(1L, 2L, 3L),
+                    plans.map(SubscriptionPlanResponse::getId).collect(Collectors.toList()));
+        }
+    }
+
+    private static SubscriptionPlanResponse plan(long id) {
+        SubscriptionPlanResponse plan = new SubscriptionPlanResponse();
+        plan.setId(id);
+        return plan;
+    }
+
+    private static HttpUrl url(String path) {
+        return PaymobRegion.EGYPT.getHttpUrl().resolve(path);
     }
 }
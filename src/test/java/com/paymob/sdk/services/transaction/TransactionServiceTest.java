@@ -4,6 +4,7 @@ import com.paymob.sdk.core.PaymobConfig;
 import com.paymob.sdk.core.PaymobRegion;
 import com.paymob.sdk.core.auth.AuthStrategy;
 import com.paymob.sdk.http.HttpClient;
+import okhttp3.HttpUrl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -31,7 +32,7 @@ class TransactionServiceTest {
 
     @Test
     void refundTransaction_usesCorrectEndpoint() {
-        when(httpClient.post(anyString(), any(), eq(TransactionResponse.class), eq(authStrategy)))
+        when(httpClient.post(any(HttpUrl.class), any(), eq(TransactionResponse.class), eq(authStrategy), any()))
                 .thenReturn(new TransactionResponse());
 
         RefundRequest request = RefundRequest.builder()
@@ -41,14 +42,14 @@ class TransactionServiceTest {
 
         service.refundTransaction(request);
 
-        verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-        verify(httpClient).post(eq("/api/acceptance/void_refund/refund"),
-                any(RefundRequest.class), eq(TransactionResponse.class), same(authStrategy));
+        verify(httpClient, never()).setBaseUrl(anyString());
+        verify(httpClient).post(eq(url("/api/acceptance/void_refund/refund")),
+                any(RefundRequest.class), eq(TransactionResponse.class), same(authStrategy), any());
     }
 
     @Test
     void voidTransaction_usesCorrectEndpoint() {
-        when(httpClient.post(anyString(), any(), eq(TransactionResponse.class), eq(authStrategy)))
+        when(httpClient.post(any(HttpUrl.class), any(), eq(TransactionResponse.class), eq(authStrategy), any()))
                 .thenReturn(new TransactionResponse());
 
         VoidRequest request = VoidRequest.builder()
@@ -57,14 +58,14 @@ class TransactionServiceTest {
 
         service.voidTransaction(request);
 
-        verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-        verify(httpClient).post(eq("/api/acceptance/void_refund/void"),
-                any(VoidRequest.class), eq(TransactionResponse.class), same(authStrategy));
+        verify(httpClient, never()).setBaseUrl(anyString());
+        verify(httpClient).post(eq(url("/api/acceptance/void_refund/void")),
+                any(VoidRequest.class), eq(TransactionResponse.class), same(authStrategy), any());
     }
 
     @Test
     void captureTransaction_usesCorrectEndpoint() {
-        when(httpClient.post(anyString(), any(), eq(TransactionResponse.class), eq(authStrategy)))
+        when(httpClient.post(any(HttpUrl.class), any(), eq(TransactionResponse.class), eq(authStrategy), any()))
                 .thenReturn(new TransactionResponse());
 
         CaptureRequest request = CaptureRequest.builder()
@@ -74,8 +75,12 @@ class TransactionServiceTest {
 
         service.captureTransaction(request);
 
-        verify(httpClient).setBaseUrl(PaymobRegion.EGYPT.getBaseUrl());
-        verify(httpClient).post(eq("/api/acceptance/capture"),
-                any(CaptureRequest.class), eq(TransactionResponse.class), same(authStrategy));
+        verify(httpClient, never()).setBaseUrl(anyString());
+        verify(httpClient).post(eq(url("/api/acceptance/capture")),
+                any(CaptureRequest.class), eq(TransactionResponse.class), same(authStrategy), any());
+    }
+
+    private static HttpUrl url(String path) {
+        return PaymobRegion.EGYPT.getHttpUrl().resolve(path);
     }
 }
@@ -0,0 +1,167 @@
+package com.paymob.sdk.tracing;
+
+import com.paymob.sdk.core.auth.SecretKeyAuthStrategy;
+import com.paymob.sdk.exceptions.PaymobServerException;
+import com.paymob.sdk.http.OkHttpClientAdapter;
+import com.paymob.sdk.http.RetryPolicy;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaymobTracerTest {
+    private MockWebServer server;
+    private OkHttpClientAdapter httpClient;
+    private RecordingTracer tracer;
+    private final SecretKeyAuthStrategy auth = new SecretKeyAuthStrategy("sk_test_123");
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        tracer = new RecordingTracer();
+        httpClient = new OkHttpClientAdapter();
+        httpClient.setTracer(tracer);
+        httpClient.setRetryPolicy(RetryPolicy.builder().initialBackoff(Duration.ZERO).build());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void testOperationSpanWrapsAttemptsAndJsonBinding() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("{\"id\": 7}"));
+
+        httpClient.get(server.url("/api/acceptance/subscriptions/123"), Result.class, auth,
+                "SubscriptionService.get");
+
+        RecordingSpan operation = tracer.spans.get(0);
+        assertEquals("SubscriptionService.get", operation.name);
+        assertNull(operation.parent);
+        assertEquals("/api/acceptance/subscriptions/{id}", operation.attributes.get(PaymobTracer.ENDPOINT));
+        assertEquals(200L, operation.attributes.get(PaymobTracer.HTTP_STATUS));
+
+        List<RecordingSpan> attempts = tracer.named("HTTP GET");
+        assertEquals(2, attempts.size());
+        assertEquals(0L, attempts.get(0).attributes.get(PaymobTracer.RESEND_COUNT));
+        assertEquals(503L, attempts.get(0).attributes.get(PaymobTracer.HTTP_STATUS));
+        assertEquals(1L, attempts.get(1).attributes.get(PaymobTracer.RESEND_COUNT));
+        assertSame(operation, attempts.get(1).parent);
+        assertSame(operation, tracer.named("paymob.json.deserialize").get(0).parent);
+        assertTrue(tracer.spans.stream().allMatch(span -> span.ended));
+
+        RecordedRequest first = server.takeRequest(1, TimeUnit.SECONDS);
+        RecordedRequest second = server.takeRequest(1, TimeUnit.SECONDS);
+        assertEquals("span-" + tracer.spans.indexOf(attempts.get(0)), first.getHeader("traceparent"));
+        assertEquals("span-" + tracer.spans.indexOf(attempts.get(1)), second.getHeader("traceparent"));
+    }
+
+    @Test
+    void testAsyncOperationSpanEndsWithFutureAndRecordsFailure() throws Exception {
+        httpClient.setRetryPolicy(RetryPolicy.none());
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        var future = httpClient.postAsync(server.url("/api/ecommerce/orders/transaction_inquiry"),
+                Map.of("order_id", 1), Result.class, auth);
+
+        assertThrows(Exception.class, () -> future.get(5, TimeUnit.SECONDS));
+        RecordingSpan operation = tracer.spans.get(0);
+        // Unnamed calls are named after the method and endpoint template
+        assertEquals("POST /api/ecommerce/orders/transaction_inquiry", operation.name);
+        // The span ends in a completion stage that may run just after get() returns
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!operation.ended && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertTrue(operation.ended);
+        assertInstanceOf(PaymobServerException.class, operation.exception);
+        assertSame(operation, tracer.named("paymob.json.serialize").get(0).parent);
+    }
+
+    @Test
+    void testNoopTracerAddsNoHeaders() throws Exception {
+        httpClient.setTracer(PaymobTracer.NOOP);
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        httpClient.get(server.url("/anything"), String.class, auth);
+
+        assertNull(server.takeRequest(1, TimeUnit.SECONDS).getHeader("traceparent"));
+    }
+
+    static class Result {
+        public int id;
+    }
+
+    private static final class RecordingTracer implements PaymobTracer {
+        private final List<RecordingSpan> spans = new CopyOnWriteArrayList<>();
+
+        @Override
+        public PaymobSpan startSpan(String name, PaymobSpan parent) {
+            RecordingSpan span = new RecordingSpan(name, (RecordingSpan) parent, "span-" + spans.size());
+            spans.add(span);
+            return span;
+        }
+
+        private List<RecordingSpan> named(String name) {
+            return spans.stream().filter(span -> span.name.equals(name)).toList();
+        }
+    }
+
+    private static final class RecordingSpan implements PaymobSpan {
+        private final String name;
+        private final RecordingSpan parent;
+        private final String id;
+        private final Map<String, Object> attributes = new HashMap<>();
+        private volatile Throwable exception;
+        private volatile boolean ended;
+
+        private RecordingSpan(String name, RecordingSpan parent, String id) {
+            this.name = name;
+            this.parent = parent;
+            this.id = id;
+        }
+
+        @Override
+        public PaymobSpan setAttribute(String key, String value) {
+            attributes.put(key, value);
+            return this;
+        }
+
+        @Override
+        public PaymobSpan setAttribute(String key, long value) {
+            attributes.put(key, value);
+            return this;
+        }
+
+        @Override
+        public void recordException(Throwable exception) {
+            this.exception = exception;
+        }
+
+        @Override
+        public void inject(BiConsumer<String, String> headers) {
+            headers.accept("traceparent", id);
+        }
+
+        @Override
+        public void end() {
+            ended = true;
+        }
+    }
+}
@@ -93,11 +93,11 @@ class WebhookCallbackTest {
         params.put("order_id", "264064419");
         params.put("token", "e98aceb96f5a370ddf46460db9d555f88bf12448f80e1839b39f78ab");
 
-        // Verify logical flow by calculating expected and validating
-        java.lang.reflect.Method method = WebhookValidator.class.getDeclaredMethod("calculateCardTokenCallbackHmac",
-                Map.class);
-        method.setAccessible(true);
-        String expectedHmac = (String) method.invoke(validator, params);
+        // Fields in Paymob's order: card_subtype, created_at, email, id,
+        // masked_pan, merchant_id, order_id, token
+        String expectedHmac = new WebhookHmac(HMAC_SECRET).hex("MasterCard" + "2024-11-13T12:32:23.859982"
+                + "test@test.com" + "8555026" + "xxxx-xxxx-xxxx-2346" + "246628" + "264064419"
+                + "e98aceb96f5a370ddf46460db9d555f88bf12448f80e1839b39f78ab");
 
         assertTrue(validator.validateCallbackSignature(params, expectedHmac));
     }
@@ -109,11 +109,74 @@ class WebhookCallbackTest {
         params.put("trigger_type", "suspended");
         params.put("subscription_data.id", "1264");
 
-        java.lang.reflect.Method method = WebhookValidator.class.getDeclaredMethod("calculateSubscriptionCallbackHmac",
-                Map.class);
-        method.setAccessible(true);
-        String expectedHmac = (String) method.invoke(validator, params);
+        String expectedHmac = new WebhookHmac(HMAC_SECRET).hex("suspended" + "for" + "1264");
 
         assertTrue(validator.validateCallbackSignature(params, expectedHmac));
     }
+
+    private static final String TRANSACTION_QUERY = "amount_cents=100000&created_at=2024-06-13T11%3A33%3A44.592345"
+            + "&currency=EGP&error_occured=false&has_parent_transaction=false&id=192036465&integration_id=4097558"
+            + "&is_3d_secure=true&is_auth=false&is_capture=false&is_refunded=false&is_standalone_payment=true"
+            + "&is_voided=false&order=217503754&owner=302852&pending=false&source_data.pan=2346"
+            + "&source_data.sub_type=MasterCard&source_data.type=card&success=true&data.message=Approved"
+            + "&hmac=fa8ac0b7f3852e60c50e7fdd4ea5ef0bda96030c19dea1d55df8c76d6c08ab1877774662cbb04981dc84839ad4"
+            + "da560bcc8cb53b8973548657f7e8f8d2e79930";
+
+    @Test
+    @DisplayName("Should validate Transaction redirect from the raw query string")
+    void shouldValidateTransactionCallbackQuery() {
+        assertTrue(validator.validateCallbackSignature(TRANSACTION_QUERY));
+        assertFalse(validator.validateCallbackSignature(TRANSACTION_QUERY.replace("success=true", "success=false")));
+    }
+
+    @Test
+    @DisplayName("Raw query keeps the first occurrence of a parameter")
+    void callbackQueryUsesFirstOccurrence() {
+        assertTrue(validator.validateCallbackSignature(TRANSACTION_QUERY + "&success=false&hmac=00"));
+        assertFalse(validator.validateCallbackSignature("success=false&" + TRANSACTION_QUERY));
+    }
+
+    @Test
+    @DisplayName("Raw query without hmac or with a malformed escape is rejected")
+    void callbackQueryRejectsMalformed() {
+        assertFalse(validator.validateCallbackSignature(TRANSACTION_QUERY.substring(0,
+                TRANSACTION_QUERY.indexOf("&hmac="))));
+        assertFalse(validator.validateCallbackSignature(TRANSACTION_QUERY.replace("%3A33", "%3G33")));
+        assertFalse(validator.validateCallbackSignature((String) null));
+        assertFalse(validator.validateCallbackSignature(""));
+    }
+
+    @Test
+    @DisplayName("Raw query and parameter map sign the same decoded values")
+    void callbackQueryMatchesMap() throws Exception {
+        String hmac = new WebhookHmac(HMAC_SECRET).hex("MasterCard" + "2024-11-13 12:32" + "a+b@test.com" + "8555026"
+                + "xxxx-xxxx-xxxx-2346" + "246628" + "264064419" + "tok" + "én");
+        Map<String, String> params = new HashMap<>();
+        params.put("card_subtype", "MasterCard");
+        params.put("created_at", "2024-11-13 12:32");
+        params.put("email", "a+b@test.com");
+        params.put("id", "8555026");
+        params.put("masked_pan", "xxxx-xxxx-xxxx-2346");
+        params.put("merchant_id", "246628");
+        params.put("order_id", "264064419");
+        params.put("token", "tokén");
+
+        assertTrue(validator.validateCallbackSignature(params, hmac));
+        assertTrue(validator.validateCallbackSignature("token=tok%C3%A9n&masked_pan=xxxx-xxxx-xxxx-2346"
+                + "&created_at=2024-11-13+12%3A32&email=a%2Bb%40test.com&card%5Fsubtype=MasterCard&id=8555026"
+                + "&merchant_id=246628&order_id=264064419&hmac=" + hmac));
+        assertTrue(validator.validateCallbackSignature("token=tok\u00e9n&masked_pan=xxxx-xxxx-xxxx-2346"
+                + "&created_at=2024-11-13+12%3A32&email=a%2Bb%40test.com&card_subtype=MasterCard&id=8555026"
+                + "&merchant_id=246628&order_id=264064419&hmac=" + hmac.toUpperCase()));
+    }
+
+    @Test
+    @DisplayName("Should validate Subscription redirect from the raw query string")
+    void shouldValidateSubscriptionCallbackQuery() throws Exception {
+        String hmac = new WebhookHmac(HMAC_SECRET).hex("suspended" + "for" + "1264");
+
+        assertTrue(validator.validateCallbackSignature("subscription_id=1264&trigger_type=suspended&hmac=" + hmac));
+        assertTrue(validator.validateCallbackSignature("trigger_type=suspended&id=1264&hmac=" + hmac));
+        assertFalse(validator.validateCallbackSignature("trigger_type=suspended&id=1265&hmac=" + hmac));
+    }
 }
@@ -0,0 +1,90 @@
+package com.paymob.sdk.webhook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.paymob.sdk.http.JsonCodec;
+import com.paymob.sdk.webhook.signature.CardTokenSignatureCalculator;
+import com.paymob.sdk.webhook.signature.SubscriptionSignatureCalculator;
+import com.paymob.sdk.webhook.signature.TransactionSignatureCalculator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookClassifierTest {
+
+    private static final List<String> PAYLOADS = List.of(
+            "{\"type\":\"TRANSACTION\",\"obj\":{\"id\":1}}",
+            "{\"obj\":{\"id\":1}}",
+            "{\"obj\":null}",
+            "{\"type\":\"TOKEN\",\"obj\":{\"token\":\"t\"}}",
+            "{\"type\":\"TOKEN\"}",
+            "{\"trigger_type\":\"suspended\",\"subscription_data\":{\"id\":2}}",
+            "{\"subscription_data\":{\"id\":2},\"trigger_type\":\"x\",\"obj\":{},\"type\":\"TOKEN\"}",
+            "{\"subscription_data\":{\"id\":2},\"obj\":{}}",
+            "{\"subscription_data\":{\"id\":2},\"type\":\"TOKEN\"}",
+            "{\"type\":\"OTHER\",\"obj\":{}}",
+            "{\"type\":{\"nested\":\"TRANSACTION\"},\"obj\":{}}",
+            "{\"type\":null,\"obj\":{}}",
+            "{\"type\":\"TOKEN\",\"type\":\"TRANSACTION\",\"obj\":{}}",
+            "{\"unrelated\":true}",
+            "{}");
+
+    @Test
+    @DisplayName("Families match the first calculator whose tree check accepts the payload")
+    void classify_matchesCalculatorOrder() throws Exception {
+        List<WebhookSignatureCalculator> calculators = List.of(new TransactionSignatureCalculator(),
+                new SubscriptionSignatureCalculator(), new CardTokenSignatureCalculator());
+        List<WebhookFamily> families = List.of(WebhookFamily.TRANSACTION, WebhookFamily.SUBSCRIPTION,
+                WebhookFamily.CARD_TOKEN);
+
+        for (String payload : PAYLOADS) {
+            JsonNode root = JsonCodec.shared().readTree(payload);
+            WebhookFamily expected = null;
+            for (int i = 0; i < calculators.size(); i++) {
+                if (calculators.get(i).canHandleTree(root)) {
+                    expected = families.get(i);
+                    break;
+                }
+            }
+            assertEquals(expected, WebhookClassifier.classify(root), payload);
+            assertEquals(expected, WebhookClassifier.classify(payload), payload);
+        }
+    }
+
+    @Test
+    @DisplayName("Non-object payloads have no family")
+    void classify_nonObjects() throws Exception {
+        assertNull(WebhookClassifier.classify("[1,2]"));
+        assertNull(WebhookClassifier.classify("\"obj\""));
+        assertNull(WebhookClassifier.classify(JsonCodec.shared().readTree("[{\"obj\":{}}]")));
+        assertNull(WebhookClassifier.classify((JsonNode) null));
+    }
+
+    @Test
+    @DisplayName("A scan keeps the last type it is given")
+    void scan_lastTypeWins() {
+        WebhookClassifier.Scan scan = new WebhookClassifier.Scan();
+        scan.key("obj");
+        scan.type("TOKEN");
+        assertEquals(WebhookFamily.CARD_TOKEN, scan.family());
+
+        scan.type("TRANSACTION");
+        scan.key("ignored");
+        assertEquals(WebhookFamily.TRANSACTION, scan.family());
+    }
+
+    @Test
+    @DisplayName("Event types are found by value and by trigger type")
+    void eventType_lookups() {
+        for (WebhookEventType type : WebhookEventType.values()) {
+            assertSame(type, WebhookEventType.fromValue(type.getValue()));
+            assertSame(type, WebhookEventType.fromTriggerType(type.getValue()));
+        }
+        assertNull(WebhookEventType.fromTriggerType("unknown"));
+        assertNull(WebhookEventType.fromTriggerType(null));
+        assertThrows(IllegalArgumentException.class, () -> WebhookEventType.fromValue("unknown"));
+        assertThrows(IllegalArgumentException.class, () -> WebhookEventType.fromValue(null));
+    }
+}
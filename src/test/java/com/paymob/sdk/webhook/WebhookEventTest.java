@@ -0,0 +1,75 @@
+package com.paymob.sdk.webhook;
+
+import com.paymob.sdk.http.JsonCodec;
+import com.paymob.sdk.models.common.CardToken;
+import com.paymob.sdk.services.subscription.SubscriptionResponse;
+import com.paymob.sdk.services.transaction.TransactionResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookEventTest {
+
+    private static WebhookEvent event(WebhookEventType type, String obj) throws Exception {
+        WebhookEvent event = new WebhookEvent("{}");
+        event.setType(type);
+        event.setObj(JsonCodec.shared().readTree(obj));
+        return event;
+    }
+
+    @Test
+    @DisplayName("Typed data is bound once per class and then reused")
+    void getData_memoizedPerClass() throws Exception {
+        WebhookEvent event = event(WebhookEventType.TRANSACTION_SUCCESSFUL, "{\"id\":123,\"success\":true}");
+
+        TransactionResponse first = event.getData(TransactionResponse.class);
+
+        assertEquals(123, first.getId());
+        assertSame(first, event.getData(TransactionResponse.class));
+        assertSame(first, event.asTransaction());
+        assertNotSame(first, event.getData(SubscriptionResponse.class));
+        assertSame(event.getData(SubscriptionResponse.class), event.getData(SubscriptionResponse.class));
+    }
+
+    @Test
+    @DisplayName("Replacing obj discards earlier bindings")
+    void setObj_resetsBindings() throws Exception {
+        WebhookEvent event = event(WebhookEventType.TRANSACTION_SUCCESSFUL, "{\"id\":1}");
+        TransactionResponse before = event.getData(TransactionResponse.class);
+
+        event.setObj(JsonCodec.shared().readTree("{\"id\":2}"));
+
+        assertEquals(1, before.getId());
+        assertEquals(2, event.getData(TransactionResponse.class).getId());
+    }
+
+    @Test
+    @DisplayName("A failed binding returns null on every call")
+    void getData_failureIsNull() throws Exception {
+        WebhookEvent event = event(WebhookEventType.TRANSACTION_SUCCESSFUL, "{\"id\":\"not a number\"}");
+
+        assertNull(event.getData(TransactionResponse.class));
+        assertNull(event.getData(TransactionResponse.class));
+        assertNull(new WebhookEvent("{}").getData(TransactionResponse.class));
+    }
+
+    @Test
+    @DisplayName("Typed accessors bind only for their own event category")
+    void typedAccessors_matchCategory() throws Exception {
+        WebhookEvent subscription = event(WebhookEventType.SUBSCRIPTION_SUSPENDED, "{\"id\":456,\"state\":\"suspended\"}");
+        WebhookEvent token = event(WebhookEventType.CARD_TOKEN,
+                "{\"id\":789,\"token\":\"tok_1\",\"masked_pan\":\"xxxx-1234\",\"order_id\":42}");
+
+        assertEquals(456, subscription.asSubscription().getId());
+        assertNull(subscription.asTransaction());
+        assertNull(subscription.asCardToken());
+
+        CardToken card = token.asCardToken();
+        assertEquals("tok_1", card.getToken());
+        assertEquals("xxxx-1234", card.getMaskedPan());
+        assertEquals("42", card.getOrderId());
+        assertNull(token.asSubscription());
+        assertNull(new WebhookEvent("{}").asTransaction());
+    }
+}
@@ -0,0 +1,117 @@
+package com.paymob.sdk.webhook;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookHmacTest {
+
+    private static final String SECRET = "test_hmac_secret_123";
+    private final WebhookHmac hmac = new WebhookHmac(SECRET);
+
+    private static String reference(String data) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA512");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA512"));
+        return HexFormat.of().formatHex(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("hex matches a freshly initialized Mac")
+    void hex_matchesReference() throws Exception {
+        String data = "1000" + "2024-01-01" + "EGP" + "false" + "123";
+        assertEquals(reference(data), hmac.hex(data));
+        // Repeated calls on the same thread reuse the Mac without leaking state
+        assertEquals(reference(data), hmac.hex(data));
+        assertEquals(reference(""), hmac.hex(""));
+    }
+
+    @Test
+    @DisplayName("matches accepts the signature in either case")
+    void matches_eitherCase() throws Exception {
+        String data = "suspendedfor456";
+        String expected = reference(data);
+
+        assertTrue(hmac.matches(data, expected));
+        assertTrue(hmac.matches(data, expected.toUpperCase()));
+        assertFalse(hmac.matches(data + "x", expected));
+    }
+
+    @Test
+    @DisplayName("matches rejects malformed signatures")
+    void matches_malformed() throws Exception {
+        String expected = reference("data");
+
+        assertFalse(hmac.matches("data", null));
+        assertFalse(hmac.matches(null, expected));
+        assertFalse(hmac.matches("data", ""));
+        assertFalse(hmac.matches("data", expected.substring(2)));
+        assertFalse(hmac.matches("data", expected + "00"));
+        assertFalse(hmac.matches("data", "zz" + expected.substring(2)));
+        // Non-ASCII digits are not hex
+        assertFalse(hmac.matches("data", "١٢" + expected.substring(2)));
+    }
+
+    @Test
+    @DisplayName("Non-ASCII input is encoded like String.getBytes")
+    void nonAscii_encodedAsUtf8() throws Exception {
+        String data = "café مرحبا € 😀 lone\ud800 end\udc00";
+        assertEquals(reference(data), hmac.hex(data));
+        assertTrue(hmac.matches(data, reference(data)));
+    }
+
+    @Test
+    @DisplayName("Inputs beyond the reused buffer are signed correctly")
+    void largeInput() throws Exception {
+        String small = "a".repeat(10);
+        String medium = "é".repeat(5_000);
+        String large = "€".repeat(50_000);
+
+        assertEquals(reference(medium), hmac.hex(medium));
+        assertEquals(reference(large), hmac.hex(large));
+        assertEquals(reference(small), hmac.hex(small));
+    }
+
+    @Test
+    @DisplayName("Concurrent threads each get a consistent signature")
+    void concurrentUse() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                String data = "payload-" + t;
+                String expected = reference(data);
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        if (!hmac.matches(data, expected)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Secret is required")
+    void secretRequired() {
+        assertThrows(IllegalArgumentException.class, () -> new WebhookHmac(null));
+        assertThrows(IllegalArgumentException.class, () -> new WebhookHmac(""));
+    }
+}
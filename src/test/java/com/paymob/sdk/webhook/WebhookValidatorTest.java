@@ -1,5 +1,9 @@
 package com.paymob.sdk.webhook;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.paymob.sdk.http.JsonCodec;
+import com.paymob.sdk.webhook.dedup.CaffeineWebhookDeduplicator;
 import com.paymob.sdk.webhook.signature.CardTokenSignatureCalculator;
 import com.paymob.sdk.webhook.signature.SubscriptionSignatureCalculator;
 import com.paymob.sdk.webhook.signature.TransactionSignatureCalculator;
@@ -9,6 +13,18 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -84,4 +100,316 @@ class WebhookValidatorTest {
         String payload = "{\"type\":\"TRANSACTION\",\"obj\":{\"id\":123,\"success\":true}}";
         assertNull(validator.validateAndParse(payload, "wrong_hmac"));
     }
+
+    @Test
+    @DisplayName("Should reject payloads that are not a JSON object")
+    void shouldRejectNonObjectPayload() {
+        assertNull(validator.validateAndParse("not json", "any_hmac"));
+        assertNull(validator.validateAndParse("[1,2]", "any_hmac"));
+        assertFalse(validator.validateSignature("\"text\"", "any_hmac"));
+    }
+
+    @Test
+    @DisplayName("A custom calculator configuring its mapper leaves the shared codec alone")
+    void customCalculatorMapperIsPrivate() {
+        WebhookSignatureCalculator custom = new WebhookSignatureCalculator() {
+            {
+                objectMapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+            }
+
+            @Override
+            public boolean canHandle(String payload) {
+                return false;
+            }
+
+            @Override
+            protected String buildConcatenatedString(String payload) {
+                return payload;
+            }
+        };
+
+        assertNotSame(JsonCodec.shared().getObjectMapper(), custom.objectMapper);
+        assertFalse(JsonCodec.shared().getObjectMapper()
+                .isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS));
+    }
+
+    @Test
+    @DisplayName("String-only calculators and parsers still work through the tree variants")
+    void legacyStringOnlyExtensionsWorkOnTrees() throws Exception {
+        WebhookSignatureCalculator legacyCalculator = new WebhookSignatureCalculator() {
+            @Override
+            public boolean canHandle(String payload) {
+                return payload.contains("\"legacy\"");
+            }
+
+            @Override
+            protected String buildConcatenatedString(String payload) throws Exception {
+                return objectMapper.readTree(payload).get("legacy").asText();
+            }
+        };
+        WebhookEventParser legacyParser = new WebhookEventParser() {
+            @Override
+            public boolean canParse(String payload) {
+                return payload.contains("\"legacy\"");
+            }
+
+            @Override
+            public WebhookEvent parse(String payload) {
+                WebhookEvent event = new WebhookEvent(payload);
+                event.setData("parsed");
+                return event;
+            }
+        };
+        String payload = "{\"legacy\":\"value\"}";
+        JsonNode root = JsonCodec.shared().readTree(payload);
+        WebhookHmac hmac = new WebhookHmac(HMAC_SECRET);
+
+        assertTrue(legacyCalculator.canHandleTree(root));
+        assertTrue(legacyCalculator.verify(root, hmac, hmac.hex("value")));
+        assertTrue(legacyParser.canParseTree(root));
+        assertEquals("parsed", legacyParser.parse(payload, root).getData());
+    }
+
+    @Test
+    @DisplayName("Redelivered webhooks are flagged as duplicates without being parsed")
+    void deduplicatorFlagsRedeliveries() throws Exception {
+        WebhookValidator deduplicating = new WebhookValidator(HMAC_SECRET,
+                new CaffeineWebhookDeduplicator(Duration.ofMinutes(5), 100));
+        String payload = "{\"type\":\"TRANSACTION\",\"obj\":{\"id\":123,\"success\":true}}";
+        String hmac = new TransactionSignatureCalculator().calculateExpectedHmac(payload, HMAC_SECRET);
+
+        WebhookEvent first = deduplicating.validateAndParse(payload, hmac);
+        WebhookEvent again = deduplicating.validateAndParse(payload, hmac.toUpperCase());
+
+        assertFalse(first.isDuplicate());
+        assertEquals(WebhookEventType.TRANSACTION_SUCCESSFUL, first.getType());
+        assertEquals("TRANSACTION:123::" + hmac, first.getDeduplicationKey());
+        assertTrue(again.isDuplicate());
+        assertNull(again.getType());
+        assertNull(again.getRoot());
+        assertEquals(payload, again.getRawPayload());
+        assertTrue(deduplicating.validateSignature(payload, hmac));
+    }
+
+    @Test
+    @DisplayName("Forged webhooks are never recorded, and forgotten events are processed again")
+    void deduplicatorOnlyRecordsVerifiedEvents() throws Exception {
+        WebhookValidator deduplicating = new WebhookValidator(HMAC_SECRET,
+                new CaffeineWebhookDeduplicator(Duration.ofMinutes(5), 100));
+        String payload = "{\"trigger_type\":\"suspended\",\"subscription_data\":{\"id\":456}}";
+        String hmac = new SubscriptionSignatureCalculator().calculateExpectedHmac(payload, HMAC_SECRET);
+
+        assertNull(deduplicating.validateAndParse(payload, "ab".repeat(64)));
+        WebhookEvent first = deduplicating.validateAndParse(payload, hmac);
+        assertFalse(first.isDuplicate());
+        assertEquals("SUBSCRIPTION:456:suspended:" + hmac, first.getDeduplicationKey());
+
+        deduplicating.forget(first);
+        assertFalse(deduplicating.validateAndParse(payload, hmac).isDuplicate());
+        assertTrue(deduplicating.validateAndParse(payload, hmac).isDuplicate());
+    }
+
+    @Test
+    @DisplayName("A direct caller whose handler fails gets Paymob's retry only after forgetting the event")
+    void failedHandlingMustForgetTheEvent() throws Exception {
+        WebhookValidator deduplicating = new WebhookValidator(HMAC_SECRET,
+                new CaffeineWebhookDeduplicator(Duration.ofMinutes(5), 100));
+        String payload = "{\"type\":\"TRANSACTION\",\"obj\":{\"id\":789,\"success\":true}}";
+        String hmac = new TransactionSignatureCalculator().calculateExpectedHmac(payload, HMAC_SECRET);
+        List<Long> handled = new ArrayList<>();
+        boolean[] databaseDown = {true};
+        Function<WebhookEvent, Integer> receive = event -> {
+            if (event.isDuplicate()) {
+                return 200;
+            }
+            try {
+                if (databaseDown[0]) {
+                    throw new IllegalStateException("database unavailable");
+                }
+                handled.add(event.getRoot().path("obj").path("id").asLong());
+                return 200;
+            } catch (IllegalStateException e) {
+                deduplicating.forget(event);
+                return 500;
+            }
+        };
+
+        assertEquals(500, receive.apply(deduplicating.validateAndParse(payload, hmac)));
+        databaseDown[0] = false;
+        assertEquals(200, receive.apply(deduplicating.validateAndParse(payload, hmac)));
+        assertEquals(List.of(789L), handled);
+        assertTrue(deduplicating.validateAndParse(payload, hmac).isDuplicate());
+    }
+
+    @Test
+    @DisplayName("Recurring charges of one subscription are kept apart by transaction_id")
+    void deduplicatorSeparatesRecurringCharges() throws Exception {
+        WebhookValidator deduplicating = new WebhookValidator(HMAC_SECRET,
+                new CaffeineWebhookDeduplicator(Duration.ofMinutes(5), 100));
+        String january = "{\"trigger_type\":\"Successful Transaction\",\"transaction_id\":1,"
+                + "\"subscription_data\":{\"id\":456}}";
+        String february = january.replace("\"transaction_id\":1", "\"transaction_id\":2");
+        SubscriptionSignatureCalculator calculator = new SubscriptionSignatureCalculator();
+        String hmac = calculator.calculateExpectedHmac(january, HMAC_SECRET);
+        assertEquals(hmac, calculator.calculateExpectedHmac(february, HMAC_SECRET));
+
+        assertFalse(deduplicating.validateAndParse(january, hmac).isDuplicate());
+        assertFalse(deduplicating.validateAndParse(february, hmac).isDuplicate());
+        assertTrue(deduplicating.validateAndParse(february, hmac).isDuplicate());
+    }
+
+    @Test
+    @DisplayName("Without a deduplicator every delivery is parsed")
+    void noDeduplicationByDefault() throws Exception {
+        String payload = "{\"type\":\"TRANSACTION\",\"obj\":{\"id\":123,\"success\":true}}";
+        String hmac = new TransactionSignatureCalculator().calculateExpectedHmac(payload, HMAC_SECRET);
+
+        WebhookEvent first = validator.validateAndParse(payload, hmac);
+        WebhookEvent again = validator.validateAndParse(payload, hmac);
+
+        assertFalse(again.isDuplicate());
+        assertNull(first.getDeduplicationKey());
+        assertEquals(WebhookEventType.TRANSACTION_SUCCESSFUL, again.getType());
+    }
+
+    @Test
+    @DisplayName("Verified transaction data is bound straight from the body bytes")
+    void validateAndBindTransaction() throws Exception {
+        String payload = "{\"type\":\"TRANSACTION\",\"obj\":{\"id\":123,\"success\":true,\"amount_cents\":1000}}";
+        String hmac = new TransactionSignatureCalculator().calculateExpectedHmac(payload, HMAC_SECRET);
+        byte[] body = payload.getBytes(StandardCharsets.UTF_8);
+
+        TransactionResponse tx = validator.validateAndBind(body, hmac, TransactionResponse.class);
+
+        assertEquals(123, tx.getId());
+        assertEquals(1000, tx.getAmountCents());
+        assertNull(validator.validateAndBind(body, "ab".repeat(64), TransactionResponse.class));
+        assertNull(validator.validateAndBind(null, hmac, TransactionResponse.class));
+    }
+
+    @Test
+    @DisplayName("Binding reads the same obj the signature covers when the key is repeated")
+    void validateAndBindUsesLastObj() throws Exception {
+        String signed = "{\"type\":\"TRANSACTION\",\"obj\":{\"id\":1,\"success\":true}}";
+        String hmac = new TransactionSignatureCalculator().calculateExpectedHmac(signed, HMAC_SECRET);
+        String smuggled = "{\"obj\":{\"id\":666,\"success\":true}," + signed.substring(1);
+
+        TransactionResponse tx = validator.validateAndBind(smuggled.getBytes(StandardCharsets.UTF_8), hmac,
+                TransactionResponse.class);
+
+        assertEquals(1, tx.getId());
+    }
+
+    @Test
+    @DisplayName("Subscription data is bound after tree verification")
+    void validateAndBindSubscription() throws Exception {
+        String payload = "{\"trigger_type\":\"suspended\",\"subscription_data\":{\"id\":456,\"state\":\"suspended\"}}";
+        String hmac = new SubscriptionSignatureCalculator().calculateExpectedHmac(payload, HMAC_SECRET);
+
+        SubscriptionResponse sub = validator.validateAndBind(payload.getBytes(StandardCharsets.UTF_8), hmac,
+                SubscriptionResponse.class);
+
+        assertEquals(456, sub.getId());
+        assertEquals("suspended", sub.getState());
+    }
+
+    @Test
+    @DisplayName("Batch results keep input order and flag invalid webhooks")
+    void validateAndParseAllReturnsCompactResults() throws Exception {
+        String refunded = "{\"type\":\"TRANSACTION\",\"obj\":{\"id\":7,\"success\":true,\"is_refunded\":true}}";
+        String subscription = "{\"trigger_type\":\"suspended\",\"subscription_data\":{\"id\":456}}";
+        List<RawWebhook> webhooks = List.of(
+                new RawWebhook(refunded,
+                        new TransactionSignatureCalculator().calculateExpectedHmac(refunded, HMAC_SECRET)),
+                new RawWebhook(refunded, "deadbeef"),
+                new RawWebhook(subscription,
+                        new SubscriptionSignatureCalculator().calculateExpectedHmac(subscription, HMAC_SECRET)),
+                new RawWebhook("not json", "deadbeef"),
+                new RawWebhook(null, null));
+
+        List<WebhookVerification> results = validator.validateAndParseAll(webhooks);
+
+        assertEquals(5, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertNull(results.get(i).getEvent());
+        }
+        assertTrue(results.get(0).isValid());
+        assertEquals(WebhookEventType.TRANSACTION_REFUNDED, results.get(0).getType());
+        assertEquals("7", results.get(0).getId());
+        assertFalse(results.get(1).isValid());
+        assertNull(results.get(1).getType());
+        assertTrue(results.get(2).isValid());
+        assertEquals(WebhookEventType.SUBSCRIPTION_SUSPENDED, results.get(2).getType());
+        assertEquals("456", results.get(2).getId());
+        assertFalse(results.get(3).isValid());
+        assertFalse(results.get(4).isValid());
+    }
+
+    @Test
+    @DisplayName("Batch results carry parsed events only when requested")
+    void validateAndParseAllIncludesEventsOnRequest() throws Exception {
+        String payload = "{\"type\":\"TRANSACTION\",\"obj\":{\"id\":123,\"success\":true}}";
+        String hmac = new TransactionSignatureCalculator().calculateExpectedHmac(payload, HMAC_SECRET);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            List<WebhookVerification> results = validator.validateAndParseAll(
+                    List.of(new RawWebhook(payload, hmac), new RawWebhook(payload, "deadbeef")), true, pool);
+
+            WebhookEvent event = results.get(0).getEvent();
+            assertNotNull(event);
+            assertEquals(WebhookEventType.TRANSACTION_SUCCESSFUL, event.getType());
+            assertEquals(123, event.asTransaction().getId());
+            assertNull(results.get(1).getEvent());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Batch verification does not record deduplication keys")
+    void validateAndParseAllSkipsDeduplicator() throws Exception {
+        WebhookValidator deduplicating = new WebhookValidator(HMAC_SECRET,
+                new CaffeineWebhookDeduplicator(Duration.ofHours(1), 100));
+        String payload = "{\"type\":\"TRANSACTION\",\"obj\":{\"id\":123,\"success\":true}}";
+        String hmac = new TransactionSignatureCalculator().calculateExpectedHmac(payload, HMAC_SECRET);
+        RawWebhook webhook = new RawWebhook(payload, hmac);
+
+        assertTrue(deduplicating.validateAndParseAll(List.of(webhook, webhook)).stream()
+                .allMatch(WebhookVerification::isValid));
+        assertFalse(deduplicating.validateAndParse(payload, hmac).isDuplicate());
+    }
+
+    @Test
+    @DisplayName("Webhooks are numbered in order from sized and unsized sources")
+    void validateAndParseStreamIndexesUnsizedSource() throws Exception {
+        List<RawWebhook> webhooks = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            String payload = "{\"obj\":{\"id\":" + i + ",\"success\":" + (i % 2 == 0) + "}}";
+            String hmac = i % 3 == 0 ? "deadbeef"
+                    : new TransactionSignatureCalculator().calculateExpectedHmac(payload, HMAC_SECRET);
+            webhooks.add(new RawWebhook(payload, hmac));
+        }
+        Iterator<RawWebhook> iterator = webhooks.iterator();
+
+        List<WebhookVerification> results = validator.validateAndParseStream(
+                StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, 0), false), false)
+                .collect(Collectors.toList());
+        List<WebhookVerification> sized = validator.validateAndParseAll(webhooks);
+
+        assertEquals(3000, results.size());
+        assertEquals(3000, sized.size());
+        IntStream.range(0, 3000).forEach(i -> {
+            WebhookVerification result = results.get(i);
+            assertEquals(i, result.getIndex());
+            assertEquals(i, sized.get(i).getIndex());
+            assertEquals(i % 3 != 0, result.isValid());
+            assertEquals(result.isValid(), sized.get(i).isValid());
+            if (result.isValid()) {
+                assertEquals(String.valueOf(i), result.getId());
+                assertEquals(i % 2 == 0 ? WebhookEventType.TRANSACTION_SUCCESSFUL
+                        : WebhookEventType.TRANSACTION_FAILED, result.getType());
+            }
+        });
+    }
 }
@@ -0,0 +1,46 @@
+package com.paymob.sdk.webhook.dedup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CaffeineWebhookDeduplicatorTest {
+
+    @Test
+    @DisplayName("A key is accepted once, and again after it is forgotten")
+    void markSeen_andForget() {
+        CaffeineWebhookDeduplicator deduplicator = new CaffeineWebhookDeduplicator(Duration.ofMinutes(5), 100);
+
+        assertTrue(deduplicator.markSeen("TRANSACTION:1::aa"));
+        assertFalse(deduplicator.markSeen("TRANSACTION:1::aa"));
+        assertTrue(deduplicator.markSeen("TRANSACTION:2::bb"));
+        assertEquals(2, deduplicator.size());
+
+        deduplicator.forget("TRANSACTION:1::aa");
+        assertTrue(deduplicator.markSeen("TRANSACTION:1::aa"));
+    }
+
+    @Test
+    @DisplayName("Remembered keys stay within the configured bound")
+    void markSeen_bounded() {
+        CaffeineWebhookDeduplicator deduplicator = new CaffeineWebhookDeduplicator(Duration.ofMinutes(5), 50);
+
+        for (int i = 0; i < 1_000; i++) {
+            deduplicator.markSeen("TRANSACTION:" + i + "::x");
+        }
+
+        assertTrue(deduplicator.size() <= 50);
+    }
+
+    @Test
+    @DisplayName("Retention and bound are validated")
+    void constructor_validates() {
+        assertThrows(IllegalArgumentException.class, () -> new CaffeineWebhookDeduplicator(null, 10));
+        assertThrows(IllegalArgumentException.class, () -> new CaffeineWebhookDeduplicator(Duration.ZERO, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CaffeineWebhookDeduplicator(Duration.ofMinutes(1), 0));
+    }
+}
@@ -0,0 +1,101 @@
+package com.paymob.sdk.webhook.dedup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactWebhookDeduplicatorTest {
+
+    private final AtomicLong now = new AtomicLong(-5_000);
+
+    private CompactWebhookDeduplicator deduplicator(int capacity) {
+        return new CompactWebhookDeduplicator(Duration.ofNanos(1_000), capacity, now::get);
+    }
+
+    @Test
+    @DisplayName("A key is a duplicate until its retention runs out")
+    void markSeen_expiresAfterRetention() {
+        CompactWebhookDeduplicator deduplicator = deduplicator(1024);
+
+        assertTrue(deduplicator.markSeen("TRANSACTION:1::aa"));
+        assertFalse(deduplicator.markSeen("TRANSACTION:1::aa"));
+        assertTrue(deduplicator.markSeen("TRANSACTION:2::bb"));
+
+        now.addAndGet(999);
+        assertFalse(deduplicator.markSeen("TRANSACTION:1::aa"));
+        now.addAndGet(1);
+        assertTrue(deduplicator.markSeen("TRANSACTION:1::aa"));
+    }
+
+    @Test
+    @DisplayName("Forgotten keys are accepted again")
+    void forget_releasesKey() {
+        CompactWebhookDeduplicator deduplicator = deduplicator(1024);
+
+        deduplicator.markSeen("TOKEN:7::cc");
+        deduplicator.forget("TOKEN:7::cc");
+
+        assertTrue(deduplicator.markSeen("TOKEN:7::cc"));
+        deduplicator.forget("never seen");
+    }
+
+    @Test
+    @DisplayName("The table never grows; the oldest keys are overwritten first")
+    void markSeen_boundedByCapacity() {
+        CompactWebhookDeduplicator deduplicator = deduplicator(128);
+        assertEquals(128, deduplicator.capacity());
+
+        for (int i = 0; i < 10_000; i++) {
+            now.incrementAndGet();
+            assertTrue(deduplicator.markSeen("TRANSACTION:" + i + "::x"));
+        }
+        assertEquals(128, deduplicator.capacity());
+        assertFalse(deduplicator.markSeen("TRANSACTION:9999::x"));
+    }
+
+    @Test
+    @DisplayName("Capacity is rounded up to a power of two")
+    void capacity_roundedUp() {
+        assertEquals(2048, deduplicator(1500).capacity());
+        assertEquals(128, deduplicator(1).capacity());
+        assertThrows(IllegalArgumentException.class, () -> deduplicator(0));
+        assertThrows(IllegalArgumentException.class, () -> new CompactWebhookDeduplicator(Duration.ZERO, 16));
+    }
+
+    @Test
+    @DisplayName("Of concurrent deliveries of one key, exactly one is first")
+    void markSeen_atomicUnderContention() throws Exception {
+        CompactWebhookDeduplicator deduplicator = new CompactWebhookDeduplicator(Duration.ofMinutes(1), 4096);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> calls = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                calls.add(() -> deduplicator.markSeen("SUBSCRIPTION:456:Successful Transaction/9:dd"));
+            }
+            int first = 0;
+            for (Future<Boolean> result : pool.invokeAll(calls)) {
+                first += result.get() ? 1 : 0;
+            }
+            assertEquals(1, first);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("The hash is never zero, which marks an empty slot")
+    void hash_neverZero() {
+        assertNotEquals(0, CompactWebhookDeduplicator.hash(""));
+        assertNotEquals(CompactWebhookDeduplicator.hash("a"), CompactWebhookDeduplicator.hash("b"));
+    }
+}
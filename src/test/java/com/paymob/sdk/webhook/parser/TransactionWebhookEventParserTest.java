@@ -1,5 +1,7 @@
 package com.paymob.sdk.webhook.parser;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.paymob.sdk.http.JsonCodec;
 import com.paymob.sdk.webhook.WebhookEvent;
 import com.paymob.sdk.webhook.WebhookEventType;
 import org.junit.jupiter.api.Test;
@@ -84,4 +86,19 @@ class TransactionWebhookEventParserTest {
         assertNotNull(event);
         assertNull(event.getType());
     }
+
+    @Test
+    @DisplayName("parse with a pre-parsed tree shares it with the event")
+    void parse_tree_sharesRoot() throws Exception {
+        String payload = "{\"type\":\"TRANSACTION\",\"obj\":{\"id\":1,\"success\":false}}";
+        JsonNode root = JsonCodec.shared().readTree(payload);
+
+        assertTrue(parser.canParseTree(root));
+        WebhookEvent event = parser.parse(payload, root);
+
+        assertSame(root, event.getRoot());
+        assertSame(root.get("obj"), event.getObj());
+        assertEquals(payload, event.getRawPayload());
+        assertEquals(WebhookEventType.TRANSACTION_FAILED, event.getType());
+    }
 }
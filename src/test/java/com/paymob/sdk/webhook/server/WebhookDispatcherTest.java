@@ -0,0 +1,239 @@
+package com.paymob.sdk.webhook.server;
+
+import com.paymob.sdk.webhook.WebhookEvent;
+import com.paymob.sdk.webhook.WebhookEventType;
+import com.paymob.sdk.webhook.WebhookValidator;
+import com.paymob.sdk.webhook.dedup.CaffeineWebhookDeduplicator;
+import com.paymob.sdk.webhook.signature.CardTokenSignatureCalculator;
+import com.paymob.sdk.webhook.signature.TransactionSignatureCalculator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookDispatcherTest {
+
+    private static final String SECRET = "test_hmac_secret_123";
+    private static final String PAYLOAD = "{\"type\":\"TRANSACTION\",\"obj\":{\"id\":123,\"success\":true}}";
+
+    private final WebhookValidator validator = new WebhookValidator(SECRET);
+
+    private static String sign(String payload) throws Exception {
+        return new TransactionSignatureCalculator().calculateExpectedHmac(payload, SECRET);
+    }
+
+    @Test
+    @DisplayName("Verified events run on a worker with the handler for their type")
+    void dispatch_routesByType() throws Exception {
+        CountDownLatch handled = new CountDownLatch(1);
+        AtomicReference<WebhookEvent> received = new AtomicReference<>();
+        AtomicReference<String> thread = new AtomicReference<>();
+        try (WebhookDispatcher dispatcher = WebhookDispatcher.builder()
+                .validator(validator)
+                .on(WebhookEventType.TRANSACTION_FAILED, event -> fail("Wrong handler"))
+                .on(WebhookEventType.TRANSACTION_SUCCESSFUL, event -> {
+                    received.set(event);
+                    thread.set(Thread.currentThread().getName());
+                    handled.countDown();
+                })
+                .build()) {
+
+            WebhookDispatcher.Outcome outcome = dispatcher.dispatch(PAYLOAD.getBytes(StandardCharsets.UTF_8),
+                    sign(PAYLOAD));
+
+            assertEquals(WebhookDispatcher.Outcome.ACCEPTED, outcome);
+            assertEquals(200, outcome.getStatusCode());
+            assertTrue(handled.await(5, TimeUnit.SECONDS));
+            assertEquals(123, received.get().getObj().get("id").asInt());
+            assertTrue(thread.get().startsWith("paymob-webhook-worker-"));
+            assertEquals(1, dispatcher.getAccepted());
+        }
+    }
+
+    @Test
+    @DisplayName("Wrong or missing signatures are refused without running handlers")
+    void dispatch_invalidSignature() {
+        try (WebhookDispatcher dispatcher = WebhookDispatcher.builder()
+                .validator(validator)
+                .fallback(event -> fail("Handler must not run"))
+                .build()) {
+
+            assertEquals(WebhookDispatcher.Outcome.INVALID_SIGNATURE, dispatcher.dispatch(PAYLOAD, "ab".repeat(64)));
+            assertEquals(WebhookDispatcher.Outcome.INVALID_SIGNATURE, dispatcher.dispatch(PAYLOAD, null));
+            assertEquals(WebhookDispatcher.Outcome.INVALID_SIGNATURE, dispatcher.dispatch((byte[]) null, "x"));
+            assertEquals(401, WebhookDispatcher.Outcome.INVALID_SIGNATURE.getStatusCode());
+            assertEquals(3, dispatcher.getRejected());
+        }
+    }
+
+    @Test
+    @DisplayName("Redeliveries are acknowledged as duplicates without running the handler again")
+    void dispatch_duplicates() throws Exception {
+        CountDownLatch handled = new CountDownLatch(1);
+        WebhookValidator deduplicating = new WebhookValidator(SECRET,
+                new CaffeineWebhookDeduplicator(Duration.ofMinutes(5), 100));
+        try (WebhookDispatcher dispatcher = WebhookDispatcher.builder()
+                .validator(deduplicating)
+                .on(WebhookEventType.TRANSACTION_SUCCESSFUL, event -> handled.countDown())
+                .build()) {
+
+            assertEquals(WebhookDispatcher.Outcome.ACCEPTED, dispatcher.dispatch(PAYLOAD, sign(PAYLOAD)));
+            WebhookDispatcher.Outcome outcome = dispatcher.dispatch(PAYLOAD, sign(PAYLOAD));
+
+            assertEquals(WebhookDispatcher.Outcome.DUPLICATE, outcome);
+            assertEquals(200, outcome.getStatusCode());
+            assertTrue(handled.await(5, TimeUnit.SECONDS));
+            assertEquals(1, dispatcher.getAccepted());
+            assertEquals(1, dispatcher.getDuplicates());
+        }
+    }
+
+    @Test
+    @DisplayName("A webhook refused as overloaded is processed when Paymob retries it")
+    void dispatch_overloadedIsNotRemembered() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        WebhookValidator deduplicating = new WebhookValidator(SECRET,
+                new CaffeineWebhookDeduplicator(Duration.ofMinutes(5), 100));
+        String second = PAYLOAD.replace("123", "124");
+        String third = PAYLOAD.replace("123", "125");
+        try (WebhookDispatcher dispatcher = WebhookDispatcher.builder()
+                .validator(deduplicating)
+                .workers(1)
+                .queueCapacity(1)
+                .fallback(event -> {
+                    started.countDown();
+                    release.await();
+                })
+                .build()) {
+
+            assertEquals(WebhookDispatcher.Outcome.ACCEPTED, dispatcher.dispatch(PAYLOAD, sign(PAYLOAD)));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertEquals(WebhookDispatcher.Outcome.ACCEPTED, dispatcher.dispatch(second, sign(second)));
+            assertEquals(WebhookDispatcher.Outcome.OVERLOADED, dispatcher.dispatch(third, sign(third)));
+            assertEquals(WebhookDispatcher.Outcome.OVERLOADED, dispatcher.dispatch(third, sign(third)));
+            assertEquals(0, dispatcher.getDuplicates());
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Events without a handler go to the fallback, or are ignored")
+    void dispatch_unroutedEvents() throws Exception {
+        String token = "{\"type\":\"TOKEN\",\"obj\":{\"id\":789,\"token\":\"abc\"}}";
+        String tokenHmac = new CardTokenSignatureCalculator().calculateExpectedHmac(token, SECRET);
+
+        try (WebhookDispatcher dispatcher = WebhookDispatcher.builder().validator(validator).build()) {
+            assertEquals(WebhookDispatcher.Outcome.IGNORED, dispatcher.dispatch(token, tokenHmac));
+        }
+
+        CountDownLatch handled = new CountDownLatch(1);
+        try (WebhookDispatcher dispatcher = WebhookDispatcher.builder()
+                .validator(validator)
+                .fallback(event -> {
+                    assertEquals(WebhookEventType.CARD_TOKEN, event.getType());
+                    handled.countDown();
+                })
+                .build()) {
+            assertEquals(WebhookDispatcher.Outcome.ACCEPTED, dispatcher.dispatch(token, tokenHmac));
+            assertTrue(handled.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    @DisplayName("A full queue refuses webhooks with 503 instead of growing")
+    void dispatch_fullQueue_overloaded() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        String hmac = sign(PAYLOAD);
+        try (WebhookDispatcher dispatcher = WebhookDispatcher.builder()
+                .validator(validator)
+                .workers(1)
+                .queueCapacity(1)
+                .on(WebhookEventType.TRANSACTION_SUCCESSFUL, event -> {
+                    started.countDown();
+                    release.await();
+                })
+                .build()) {
+
+            assertEquals(WebhookDispatcher.Outcome.ACCEPTED, dispatcher.dispatch(PAYLOAD, hmac));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertEquals(WebhookDispatcher.Outcome.ACCEPTED, dispatcher.dispatch(PAYLOAD, hmac));
+            assertEquals(1, dispatcher.getQueueSize());
+
+            WebhookDispatcher.Outcome outcome = dispatcher.dispatch(PAYLOAD, hmac);
+            assertEquals(WebhookDispatcher.Outcome.OVERLOADED, outcome);
+            assertEquals(503, outcome.getStatusCode());
+            assertEquals(1, dispatcher.getOverloaded());
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Handler failures go to the error handler and are counted")
+    void dispatch_handlerFailure() throws Exception {
+        CountDownLatch reported = new CountDownLatch(1);
+        AtomicReference<Exception> error = new AtomicReference<>();
+        try (WebhookDispatcher dispatcher = WebhookDispatcher.builder()
+                .validator(validator)
+                .on(WebhookEventType.TRANSACTION_SUCCESSFUL, event -> {
+                    throw new IllegalStateException("boom");
+                })
+                .errorHandler((event, e) -> {
+                    error.set(e);
+                    reported.countDown();
+                })
+                .build()) {
+
+            assertEquals(WebhookDispatcher.Outcome.ACCEPTED, dispatcher.dispatch(PAYLOAD, sign(PAYLOAD)));
+            assertTrue(reported.await(5, TimeUnit.SECONDS));
+            assertEquals("boom", error.get().getMessage());
+            assertEquals(1, dispatcher.getFailed());
+            assertEquals(0, dispatcher.getProcessed());
+        }
+    }
+
+    @Test
+    @DisplayName("Close drains queued events and refuses new ones")
+    void close_drainsThenRefuses() throws Exception {
+        CountDownLatch handled = new CountDownLatch(3);
+        String hmac = sign(PAYLOAD);
+        WebhookDispatcher dispatcher = WebhookDispatcher.builder()
+                .validator(validator)
+                .workers(1)
+                .on(WebhookEventType.TRANSACTION_SUCCESSFUL, event -> {
+                    Thread.sleep(20);
+                    handled.countDown();
+                })
+                .build();
+        for (int i = 0; i < 3; i++) {
+            dispatcher.dispatch(PAYLOAD, hmac);
+        }
+
+        dispatcher.close();
+
+        assertEquals(0, handled.getCount());
+        assertEquals(3, dispatcher.getProcessed());
+        assertEquals(WebhookDispatcher.Outcome.OVERLOADED, dispatcher.dispatch(PAYLOAD, hmac));
+    }
+
+    @Test
+    @DisplayName("Builder validates its settings")
+    void builder_validation() {
+        assertThrows(IllegalArgumentException.class, () -> WebhookDispatcher.builder().build());
+        assertThrows(IllegalArgumentException.class,
+                () -> WebhookDispatcher.builder().validator(validator).workers(0).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> WebhookDispatcher.builder().validator(validator).queueCapacity(0).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> WebhookDispatcher.builder().on(null, event -> { }));
+        assertThrows(IllegalArgumentException.class,
+                () -> WebhookDispatcher.builder().on(WebhookEventType.CARD_TOKEN, null));
+    }
+}
@@ -0,0 +1,116 @@
+package com.paymob.sdk.webhook.server;
+
+import com.paymob.sdk.webhook.WebhookEventType;
+import com.paymob.sdk.webhook.WebhookValidator;
+import com.paymob.sdk.webhook.signature.TransactionSignatureCalculator;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookServerTest {
+
+    private static final String SECRET = "test_hmac_secret_123";
+    private static final String PAYLOAD = "{\"type\":\"TRANSACTION\",\"obj\":{\"id\":123,\"success\":true}}";
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private final OkHttpClient client = new OkHttpClient();
+    private final CountDownLatch handled = new CountDownLatch(1);
+    private WebhookServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        WebhookDispatcher dispatcher = WebhookDispatcher.builder()
+                .validator(new WebhookValidator(SECRET))
+                .on(WebhookEventType.TRANSACTION_SUCCESSFUL, event -> handled.countDown())
+                .build();
+        server = WebhookServer.builder()
+                .dispatcher(dispatcher)
+                .port(0)
+                .maxBodyBytes(1024)
+                .build()
+                .start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private int post(String query, String body) throws Exception {
+        Request request = new Request.Builder()
+                .url("http://localhost:" + server.getPort() + "/webhooks/paymob" + query)
+                .post(RequestBody.create(body, JSON))
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            return response.code();
+        }
+    }
+
+    @Test
+    @DisplayName("A signed webhook is acknowledged with 200 and handled")
+    void signedWebhook_acknowledged() throws Exception {
+        String hmac = new TransactionSignatureCalculator().calculateExpectedHmac(PAYLOAD, SECRET);
+
+        assertEquals(200, post("?hmac=" + hmac, PAYLOAD));
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Wrong or missing signatures get 401")
+    void badSignature_unauthorized() throws Exception {
+        assertEquals(401, post("?hmac=" + "ab".repeat(64), PAYLOAD));
+        assertEquals(401, post("", PAYLOAD));
+        assertEquals(2, server.getDispatcher().getRejected());
+    }
+
+    @Test
+    @DisplayName("Bodies over the limit get 413")
+    void largeBody_rejected() throws Exception {
+        assertEquals(413, post("?hmac=x", "{\"obj\":\"" + "a".repeat(2048) + "\"}"));
+    }
+
+    @Test
+    @DisplayName("Methods other than POST get 405")
+    void get_notAllowed() throws Exception {
+        Request request = new Request.Builder()
+                .url("http://localhost:" + server.getPort() + "/webhooks/paymob")
+                .build();
+        try (Response response = client.newCall(request).execute()) {
+            assertEquals(405, response.code());
+            assertEquals("POST", response.header("Allow"));
+        }
+    }
+
+    @Test
+    @DisplayName("queryParameter finds a parameter in a raw query")
+    void queryParameter_parsing() {
+        assertEquals("abc", WebhookServer.queryParameter("hmac=abc", "hmac"));
+        assertEquals("abc", WebhookServer.queryParameter("x=1&hmac=abc&y=2", "hmac"));
+        assertEquals("a b", WebhookServer.queryParameter("hmac=a%20b", "hmac"));
+        assertEquals("", WebhookServer.queryParameter("hmac=", "hmac"));
+        assertNull(WebhookServer.queryParameter("xhmac=abc&hmacx=1", "hmac"));
+        assertNull(WebhookServer.queryParameter("hmac&x=1", "hmac"));
+        assertNull(WebhookServer.queryParameter(null, "hmac"));
+    }
+
+    @Test
+    @DisplayName("Builder validates its settings")
+    void builder_validation() {
+        assertThrows(IllegalArgumentException.class, () -> WebhookServer.builder().build());
+        assertThrows(IllegalArgumentException.class,
+                () -> WebhookServer.builder().dispatcher(server.getDispatcher()).path("webhooks").build());
+        assertThrows(IllegalArgumentException.class,
+                () -> WebhookServer.builder().dispatcher(server.getDispatcher()).maxBodyBytes(0).build());
+    }
+}
@@ -1,5 +1,12 @@
 package com.paymob.sdk.webhook.signature;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.paymob.sdk.http.JsonCodec;
+import com.paymob.sdk.webhook.WebhookEvent;
+import com.paymob.sdk.webhook.WebhookHmac;
+import com.paymob.sdk.webhook.parser.TransactionWebhookEventParser;
+
+import java.io.IOException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
@@ -75,4 +82,126 @@ class TransactionSignatureCalculatorTest {
 
         assertNotEquals(hmac1, hmac2);
     }
+
+    @Test
+    @DisplayName("Tree variants agree with the String methods")
+    void treeVariants_matchStringMethods() throws Exception {
+        String payload = "{\"type\":\"TRANSACTION\",\"obj\":{\"id\":123,\"success\":true,\"amount_cents\":1000,"
+                + "\"order\":{\"id\":9},\"source_data\":{\"pan\":\"2346\",\"type\":\"card\"}}}";
+        JsonNode root = JsonCodec.shared().readTree(payload);
+        WebhookHmac hmac = new WebhookHmac("test_secret");
+
+        assertTrue(calculator.canHandleTree(root));
+        assertFalse(calculator.canHandleTree(null));
+        String expected = calculator.calculateExpectedHmac(payload, hmac);
+        assertTrue(calculator.verify(root, hmac, expected));
+        assertFalse(calculator.verify(root, hmac, calculator.calculateExpectedHmac(payload, "other_secret")));
+    }
+
+    // ── streamConcatenatedString ──────────────────────────────────────────
+    @Test
+    @DisplayName("Streaming extraction matches the tree for every value shape")
+    void streamConcatenatedString_matchesTree() throws Exception {
+        String[] payloads = {
+                "{\"type\":\"TRANSACTION\",\"obj\":{\"id\":192031,\"pending\":false,\"amount_cents\":100000,"
+                        + "\"success\":true,\"is_auth\":false,\"is_capture\":false,\"is_standalone_payment\":true,"
+                        + "\"is_voided\":false,\"is_refunded\":true,\"is_3d_secure\":true,\"integration_id\":4097558,"
+                        + "\"owner\":302852,\"has_parent_transaction\":true,\"created_at\":\"2025-01-20T10:15:30\","
+                        + "\"currency\":\"EGP\",\"error_occured\":false,"
+                        + "\"source_data\":{\"pan\":\"2346\",\"type\":\"card\",\"sub_type\":\"MasterCard\"},"
+                        + "\"order\":{\"id\":217503754,\"items\":[{\"id\":1}]},\"data\":{\"id\":\"nested\"}}}",
+                // Legacy payload without type, fields out of order, unsigned extras
+                "{\"obj\":{\"success\":false,\"extra\":[1,{\"id\":2}],\"id\":\"7\",\"amount_cents\":-0}}",
+                // Numbers as Jackson renders them
+                "{\"obj\":{\"amount_cents\":1.50,\"id\":1e3,\"owner\":12345678901234567890,\"pending\":-12}}",
+                // Nulls and containers in scalar positions
+                "{\"obj\":{\"currency\":null,\"id\":{\"x\":1},\"owner\":[1,2],\"order\":null,"
+                        + "\"source_data\":\"card\"}}",
+                // Repeated keys keep their last value
+                "{\"obj\":{\"id\":1},\"obj\":{\"id\":2,\"id\":3,\"order\":{\"id\":4},\"order\":{\"x\":5},"
+                        + "\"source_data\":{\"pan\":\"1\"},\"source_data\":{\"type\":\"wallet\"}}}",
+                // Escapes and non-ASCII text
+                "{\"obj\":{\"created_at\":\"line\\nbreak \\u00e9 \\\"q\\\"\",\"currency\":\"جنيه\"}}",
+                // obj that is not an object signs as all-empty fields
+                "{\"type\":\"TRANSACTION\",\"obj\":null}",
+                "{\"obj\":[1,2,3]}",
+        };
+
+        for (String payload : payloads) {
+            assertTrue(calculator.canHandle(payload), payload);
+            assertEquals(calculator.buildConcatenatedString(payload), calculator.streamConcatenatedString(payload),
+                    payload);
+        }
+    }
+
+    @Test
+    @DisplayName("Streamed id and event type match the tree parser")
+    void streamSignedFields_typeMatchesParser() throws Exception {
+        String[] payloads = {
+                "{\"type\":\"TRANSACTION\",\"obj\":{\"id\":1,\"success\":true}}",
+                "{\"obj\":{\"id\":1,\"success\":false}}",
+                "{\"obj\":{\"id\":1,\"success\":true,\"is_refunded\":true,\"is_voided\":true}}",
+                "{\"obj\":{\"id\":1,\"success\":true,\"is_voided\":true}}",
+                // Only real booleans mark refunds and voids
+                "{\"obj\":{\"id\":1,\"success\":true,\"is_refunded\":\"true\",\"is_voided\":1}}",
+                // success is read like JsonNode.asBoolean()
+                "{\"obj\":{\"id\":1,\"success\":\" true \"}}",
+                "{\"obj\":{\"id\":1,\"success\":\"TRUE\"}}",
+                "{\"obj\":{\"id\":1,\"success\":5}}",
+                "{\"obj\":{\"id\":1,\"success\":-0}}",
+                "{\"obj\":{\"id\":1,\"success\":12345678901234567890}}",
+                "{\"obj\":{\"id\":1,\"success\":1.0}}",
+                "{\"obj\":{\"id\":1,\"success\":null}}",
+                "{\"obj\":{\"id\":1,\"success\":[true]}}",
+                // Repeated keys keep their last value
+                "{\"obj\":{\"id\":1,\"success\":true,\"success\":false,\"is_voided\":true,\"is_voided\":false}}",
+                "{\"obj\":{\"id\":1,\"is_refunded\":true},\"obj\":{\"id\":2,\"success\":true}}",
+                // No id, no type
+                "{\"obj\":{\"success\":true}}",
+                "{\"obj\":{\"id\":1},\"obj\":{\"success\":true}}",
+                "{\"obj\":{\"id\":null,\"success\":true}}",
+                "{\"type\":\"TRANSACTION\",\"obj\":null}",
+                "{\"obj\":[{\"id\":1}]}",
+        };
+        TransactionWebhookEventParser parser = new TransactionWebhookEventParser();
+
+        for (String payload : payloads) {
+            TransactionFields fields = calculator.streamSignedFields(payload);
+            JsonNode root = JsonCodec.shared().readTree(payload);
+            WebhookEvent event = parser.parse(payload, root);
+            assertEquals(event.getType(), fields.eventType(), payload);
+            assertEquals(calculator.buildConcatenatedString(root), fields.concatenated(), payload);
+            JsonNode obj = root.get("obj");
+            assertEquals(obj != null && obj.has("id"), fields.id() != null, payload);
+        }
+        assertEquals("2", calculator.streamSignedFields(payloads[14]).id());
+    }
+
+    @Test
+    @DisplayName("Streaming extraction returns null for non-transaction payloads")
+    void streamConcatenatedString_otherTypes_returnsNull() throws Exception {
+        String[] payloads = {
+                "{\"type\":\"TOKEN\",\"obj\":{\"id\":1}}",
+                "{\"obj\":{\"id\":1},\"subscription_data\":{\"id\":1}}",
+                "{\"trigger_type\":\"suspended\",\"subscription_data\":{\"id\":1}}",
+                "{\"type\":{\"name\":\"TRANSACTION\"},\"obj\":{\"id\":1}}",
+                "{\"id\":1}",
+                "[{\"obj\":{}}]",
+                "\"text\"",
+        };
+
+        for (String payload : payloads) {
+            assertFalse(calculator.canHandle(payload), payload);
+            assertNull(calculator.streamConcatenatedString(payload), payload);
+        }
+    }
+
+    @Test
+    @DisplayName("Streaming extraction rejects malformed JSON")
+    void streamConcatenatedString_malformed_throws() {
+        assertThrows(IOException.class,
+                () -> calculator.streamConcatenatedString("{\"obj\":{\"id\":1,"));
+        assertThrows(IOException.class,
+                () -> calculator.streamConcatenatedString("{\"obj\":{\"id\":tru}}"));
+    }
 }